@@ -1,4 +1,150 @@
 package com.albaridbank.edition.config;
 
+import com.albaridbank.edition.dto.rapport.CompteMouvementVeilleDTO;
+import com.albaridbank.edition.model.ccp.ClotureMouvementsCCP;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Configuration du cache des rapports (Caffeine).
+ * Chaque cache est borné en taille et a sa propre durée de vie ; les statistiques
+ * (hits, miss, évictions) sont publiées par Micrometer sous {@code /actuator/metrics/cache.*}.
+ *
+ * @author Mohamed Amine Eddafir
+ */
+@Configuration
+@EnableCaching
 public class CachingApiConfig {
+
+    /** Rapports complets des mouvements de la journée en cours par bureau et montant minimum */
+    public static final String MOUVEMENTS_COMPLETS = "mouvementsComplets";
+
+    /** Clôtures des journées de mouvements (veille, avant-veille) par bureau */
+    public static final String CLOTURES_MOUVEMENTS = "cloturesMouvements";
+
+    /** Classement Top 100 des soldes d'un bureau */
+    public static final String TOP100_BUREAU = "top100Bureau";
+
+    /** Classement Top 100 des soldes d'une région ou de tout le réseau */
+    public static final String TOP100_RESEAU = "top100Reseau";
+
+    private static final long MOUVEMENTS_COMPLETS_MAX_SIZE = 200;
+
+    /** Les clôtures sont pesées en mouvements : la taille d'une clôture suit l'activité du bureau */
+    private static final long CLOTURES_MOUVEMENTS_MAX_WEIGHT = 2_000_000;
+
+    /** Les classements sont consultés plusieurs fois par jour ; un léger décalage sur les soldes est admis */
+    private static final Duration TTL_TOP100 = Duration.ofMinutes(15);
+
+    /** Les mouvements du jour sont encore en cours de saisie : durée de vie courte */
+    private static final Duration TTL_JOURNEE_EN_COURS = Duration.ofMinutes(10);
+
+    /** Les mouvements d'une journée close ne changent plus */
+    private static final Duration TTL_JOURNEE_CLOSE = Duration.ofHours(12);
+
+    /** Nombre de jours pendant lesquels une journée reste consultable (jour, veille, avant-veille) */
+    private static final int JOURS_CONSULTABLES = 3;
+
+    /** Cache par défaut pour les noms de cache non déclarés ci-dessus */
+    private static final long DEFAULT_MAX_SIZE = 500;
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    /**
+     * Crée le gestionnaire de cache Caffeine avec les caches des rapports.
+     *
+     * @return le gestionnaire de cache
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(DEFAULT_MAX_SIZE)
+                .expireAfterWrite(DEFAULT_TTL)
+                .recordStats());
+
+        cacheManager.registerCustomCache(MOUVEMENTS_COMPLETS, Caffeine.newBuilder()
+                .maximumSize(MOUVEMENTS_COMPLETS_MAX_SIZE)
+                .expireAfter(new JourneeRapportExpiry())
+                .recordStats()
+                .build());
+
+        cacheManager.registerCustomCache(CLOTURES_MOUVEMENTS, Caffeine.newBuilder()
+                .maximumWeight(CLOTURES_MOUVEMENTS_MAX_WEIGHT)
+                .weigher((Object key, Object value) -> value instanceof ClotureMouvementsCCP cloture
+                        ? 1 + cloture.getMouvements().size()
+                        : 1)
+                .expireAfterWrite(TTL_JOURNEE_CLOSE)
+                .recordStats()
+                .build());
+
+        cacheManager.registerCustomCache(TOP100_BUREAU, Caffeine.newBuilder()
+                .maximumSize(2_000)
+                .expireAfterWrite(TTL_TOP100)
+                .recordStats()
+                .build());
+
+        cacheManager.registerCustomCache(TOP100_RESEAU, Caffeine.newBuilder()
+                .maximumSize(100)
+                .expireAfterWrite(TTL_TOP100)
+                .recordStats()
+                .build());
+
+        return cacheManager;
+    }
+
+    /**
+     * Durée de vie d'un rapport de mouvements selon sa journée ({@code journeeDu}) :
+     * <ul>
+     *     <li>journée en cours : {@link #TTL_JOURNEE_EN_COURS}, et au plus tard à minuit,
+     *     quand la journée devient la veille et doit être relue complète ;</li>
+     *     <li>journée close : {@link #TTL_JOURNEE_CLOSE}, et au plus tard quand la journée
+     *     sort de la fenêtre consultable (jour, veille, avant-veille).</li>
+     * </ul>
+     */
+    static class JourneeRapportExpiry implements Expiry<Object, Object> {
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            LocalDateTime maintenant = LocalDateTime.now();
+            LocalDate aujourdhui = maintenant.toLocalDate();
+            LocalDate journee = value instanceof CompteMouvementVeilleDTO rapport && rapport.getJourneeDu() != null
+                    ? rapport.getJourneeDu()
+                    : aujourdhui;
+
+            Duration ttl;
+            LocalDateTime limite;
+            if (journee.isBefore(aujourdhui)) {
+                ttl = TTL_JOURNEE_CLOSE;
+                limite = journee.plusDays(JOURS_CONSULTABLES).atStartOfDay();
+            } else {
+                ttl = TTL_JOURNEE_EN_COURS;
+                limite = aujourdhui.plusDays(1).atStartOfDay();
+            }
+
+            Duration jusquALimite = Duration.between(maintenant, limite);
+            if (jusquALimite.isNegative()) {
+                return 0;
+            }
+            return (jusquALimite.compareTo(ttl) < 0 ? jusquALimite : ttl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,79 @@
+package com.albaridbank.edition.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Vérifie au démarrage que les index des requêtes de rapport existent et sont valides.
+ *
+ * <p>Sans ces index, chaque rapport redevient un parcours séquentiel filtré par bureau : un index
+ * absent (migration ignorée, base restaurée sans ses index) ou invalide (création
+ * {@code CONCURRENTLY} interrompue) est signalé, ou arrête le démarrage si
+ * {@code report.index-check.fail-on-missing} est activé. La vérification s'exécute après les
+ * migrations Flyway.</p>
+ *
+ * @author Mohamed Amine Eddafir
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportIndexCheck implements ApplicationRunner {
+
+    /**
+     * Index attendus, avec la migration qui les crée.
+     */
+    static final List<String> INDEX_RAPPORTS = List.of(
+            "idx_compte_ccp_inticomp_trgm",     // V6 : recherche dans le portefeuille CCP
+            "idx_compte_ccp_inticond_trgm",     // V6
+            "idx_compte_ccp_adrecomp_trgm",     // V6
+            "idx_compte_ccp_idencomp_prefixe",  // V6
+            "idx_client_ccp_numpieid_trgm",     // V6
+            "idx_client_ccp_numetele_trgm",     // V6
+            "idx_compte_ccp_idenclie",          // V6 : comptes des clients trouvés
+            "idx_compte_ccp_bureau_solde",      // V8 : Top 100 et classements par bureau
+            "idx_compte_cen_bureau_solde",      // V9 : portefeuille et encours CEN
+            "idx_mvt_ccp_date_bureau_montant",  // V10 : mouvements d'une journée et d'un bureau
+            "idx_compte_ccp_bureau_curseur",    // V10 : portefeuille CCP par curseur
+            "idx_compte_ccp_bureau_actifs",     // V10 : statistiques des comptes actifs
+            "idx_oper_cen_dateoper_brin",       // V12 : opérations CEN par plage de dates
+            "idx_mvt_ccp_date_bureau_curseur"   // V15 : mouvements CCP par curseur
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReportProperties reportProperties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ReportProperties.IndexCheck indexCheck = reportProperties.getIndexCheck();
+        if (!indexCheck.isEnabled()) {
+            return;
+        }
+
+        List<String> manquants = jdbcTemplate.queryForList("""
+                        SELECT n.nom
+                        FROM unnest(CAST(? AS TEXT[])) AS n(nom)
+                        LEFT JOIN pg_index i ON i.indexrelid = to_regclass(n.nom)
+                        WHERE i.indexrelid IS NULL OR NOT i.indisvalid
+                        """,
+                String.class, (Object) INDEX_RAPPORTS.toArray(String[]::new));
+
+        if (manquants.isEmpty()) {
+            log.info("Index des rapports présents: {}", INDEX_RAPPORTS.size());
+            return;
+        }
+
+        String message = String.format(
+                "Index des rapports absents ou invalides: %s. Les rapports concernés liront les tables en entier",
+                manquants);
+        if (indexCheck.isFailOnMissing()) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+}
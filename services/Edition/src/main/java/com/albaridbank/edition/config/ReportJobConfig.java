@@ -0,0 +1,17 @@
+package com.albaridbank.edition.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration des tâches de génération de rapports en arrière-plan :
+ * active les propriétés {@code report.*} et la planification du nettoyage des fichiers expirés.
+ *
+ * @author Mohamed Amine Eddafir
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ReportProperties.class)
+public class ReportJobConfig {
+}
@@ -0,0 +1,91 @@
+package com.albaridbank.edition.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Paramètres de génération et de stockage des rapports (préfixe {@code report}).
+ *
+ * @author Mohamed Amine Eddafir
+ */
+@Data
+@ConfigurationProperties(prefix = "report")
+public class ReportProperties {
+
+    private final Storage storage = new Storage();
+    private final Jobs jobs = new Jobs();
+    private final Lookup lookup = new Lookup();
+    private final IndexCheck indexCheck = new IndexCheck();
+    private final Partitions partitions = new Partitions();
+    private final Cloture cloture = new Cloture();
+    private final HttpCache httpCache = new HttpCache();
+
+    /**
+     * Stockage des fichiers générés par les tâches de fond.
+     */
+    @Data
+    public static class Storage {
+        private String location = "albaridbank-reports"; // Répertoire des rapports générés
+        private int maxAgeDays = 30;                      // Durée de conservation des rapports en jours
+    }
+
+    /**
+     * Dimensionnement du pool d'exécution des tâches de fond.
+     */
+    @Data
+    public static class Jobs {
+        private int corePoolSize = 2;
+        private int maxPoolSize = 4;
+        private int queueCapacity = 50;
+    }
+
+    /**
+     * Recherche par lots des opérations d'une sélection de comptes.
+     */
+    @Data
+    public static class Lookup {
+        private int chunkSize = 1000; // Nombre de comptes par requête
+        private int poolSize = 4;     // Requêtes exécutées en parallèle (à garder sous la taille du pool JDBC)
+    }
+
+    /**
+     * Vérification au démarrage des index utilisés par les requêtes de rapport.
+     */
+    @Data
+    public static class IndexCheck {
+        private boolean enabled = true;
+        private boolean failOnMissing = false; // Arrête le démarrage si un index manque (sinon avertissement)
+    }
+
+    /**
+     * Partitions mensuelles des mouvements CCP (mvtFinancierCCP) et des opérations CEN (operCompCEN).
+     */
+    @Data
+    public static class Partitions {
+        private int moisAvance = 3;        // Partitions créées à l'avance, en mois
+        private int moisConservation = 24; // Mois conservés avant archivage des mouvements CCP (0 : jamais archiver)
+    }
+
+    /**
+     * Clôture des journées de mouvements CCP (clotureMouvementsCCP).
+     */
+    @Data
+    public static class Cloture {
+        private boolean enabled = true;     // Rapports de la veille et de l'avant-veille servis depuis les clôtures
+        private int joursConservation = 7;  // Jours conservés avant suppression des clôtures
+        private Duration delai = Duration.ofHours(2); // Délai après minuit avant de clôturer la veille
+    }
+
+    /**
+     * Cache HTTP des rapports (ETag et Cache-Control) : un client qui renvoie l'ETag reçu obtient
+     * 304 tant que la version des données du rapport n'a pas changé.
+     */
+    @Data
+    public static class HttpCache {
+        private boolean enabled = true;
+        private Duration maxAge = Duration.ZERO;                      // Données encore modifiables : revalidation à chaque appel
+        private Duration maxAgeJourneeClose = Duration.ofMinutes(10); // Journées closes : réutilisées sans revalidation
+    }
+}
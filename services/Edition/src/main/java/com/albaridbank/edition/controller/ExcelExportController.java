@@ -6,6 +6,7 @@ import com.albaridbank.edition.dto.excelCCP.PortefeuilleClientCCPExcelDTO;
 import com.albaridbank.edition.dto.excelCCP.PortefeuilleClientCCPMExcelDTO;
 import com.albaridbank.edition.dto.rapport.CompteMouvementVeilleDTO;
 import com.albaridbank.edition.mappers.rapport.RapportCCPMapper;
+import com.albaridbank.edition.service.excelCCP.ExcelDocument;
 import com.albaridbank.edition.service.excelCCP.ExcelExportService;
 import com.albaridbank.edition.service.interfaces.RapportCCPService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -19,6 +20,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -27,6 +29,14 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+/**
+ * Exports Excel des rapports CCP.
+ *
+ * <p>Le classeur est entièrement généré (lignes lues en base et vidées sur disque par SXSSF) avant
+ * que la réponse ne soit renvoyée : une erreur de paramètre, de lecture ou de génération donne une
+ * réponse 400 ou 500, jamais un fichier tronqué. Seule l'écriture du fichier dans la réponse est
+ * différée ({@link StreamingResponseBody}).</p>
+ */
 @RestController
 @RequestMapping("/api/v1/export/excel")
 @Tag(name = "Excel Export", description = "API pour l'exportation des rapports au format Excel")
@@ -56,7 +66,7 @@ public class ExcelExportController {
             @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
     })
     @GetMapping("/portefeuille-client-ccp/{codeBureau}")
-    public ResponseEntity<byte[]> exportPortefeuilleClientCCPToExcel(
+    public ResponseEntity<StreamingResponseBody> exportPortefeuilleClientCCPToExcel(
             @PathVariable @Parameter(description = "Code du bureau de poste", required = true) Long codeBureau,
             @RequestParam(required = false) @Parameter(description = "État du compte (A: Actif, I: Inactif, etc.)") String etatCompte,
             @RequestHeader(value = "X-User-Agent", required = false, defaultValue = "system") String username) {
@@ -65,12 +75,14 @@ public class ExcelExportController {
                 codeBureau, etatCompte);
 
         try {
-            // Récupérer toutes les données sans pagination
+            // Récupérer l'en-tête et les totaux du rapport
             PortefeuilleClientCCPExcelDTO rapportData = rapportCCPService.genererRapportPortefeuilleClientPourExcel(
                     codeBureau, etatCompte, username);
 
-            // Génération du fichier Excel
-            byte[] excelBytes = excelExportService.exportPortefeuilleClientCCPToExcel(rapportData);
+            // Génération du fichier Excel, les comptes étant lus au fil de l'eau depuis la base
+            ExcelDocument document = excelExportService.buildPortefeuilleClientCCPExcel(rapportData,
+                    rowWriter -> rapportCCPService.parcourirComptesPortefeuilleClientPourExcel(
+                            codeBureau, etatCompte, rowWriter::accept));
 
             // Construction du nom de fichier
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
@@ -83,18 +95,14 @@ public class ExcelExportController {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
             headers.setContentDispositionFormData("attachment", encodedFileName);
-            headers.setContentLength(excelBytes.length);
 
             return ResponseEntity.ok()
                     .headers(headers)
-                    .body(excelBytes);
+                    .body(ecrireClasseur(document, fileName));
 
         } catch (IllegalArgumentException e) {
             log.error("Invalid parameters for Excel export: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
-        } catch (IOException e) {
-            log.error("Error generating Excel file: {}", e.getMessage());
-            return ResponseEntity.internalServerError().build();
         } catch (Exception e) {
             log.error("Unexpected error during Excel export: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
@@ -120,7 +128,7 @@ public class ExcelExportController {
             @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
     })
     @GetMapping("/compte-mouvement-veille/{codeAgence}")
-    public ResponseEntity<byte[]> exportCompteMouvementVeilleToExcel(
+    public ResponseEntity<StreamingResponseBody> exportCompteMouvementVeilleToExcel(
             @PathVariable @Parameter(description = "Code de l'agence", required = true) Long codeAgence,
             @RequestParam(required = false, defaultValue = "1") @Parameter(description = "Jours avant (0=aujourd'hui, 1=veille, 2=avant-veille)") Integer joursAvant,
             @RequestParam(required = false, defaultValue = "0") @Parameter(description = "Montant minimum des mouvements") BigDecimal montantMinimum,
@@ -138,7 +146,7 @@ public class ExcelExportController {
             CompteMouvementVeilleExcelDTO excelDTO = rapportCCPMapper.toExcelDTO(rapportData);
 
             // Génération du fichier Excel
-            byte[] excelBytes = excelExportService.exportCompteMouvementVeilleToExcel(excelDTO);
+            ExcelDocument document = excelExportService.buildCompteMouvementVeilleExcel(excelDTO);
 
             // Construction du nom de fichier
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
@@ -151,18 +159,14 @@ public class ExcelExportController {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
             headers.setContentDispositionFormData("attachment", encodedFileName);
-            headers.setContentLength(excelBytes.length);
 
             return ResponseEntity.ok()
                     .headers(headers)
-                    .body(excelBytes);
+                    .body(ecrireClasseur(document, fileName));
 
         } catch (IllegalArgumentException e) {
             log.error("Invalid parameters for Excel export: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
-        } catch (IOException e) {
-            log.error("Error generating Excel file: {}", e.getMessage());
-            return ResponseEntity.internalServerError().build();
         } catch (Exception e) {
             log.error("Unexpected error during Excel export: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
@@ -186,7 +190,7 @@ public class ExcelExportController {
             @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
     })
     @GetMapping("/encours-global-ccp/{codeBureau}")
-    public ResponseEntity<byte[]> exportEncoursGlobalCCPToExcel(
+    public ResponseEntity<StreamingResponseBody> exportEncoursGlobalCCPToExcel(
             @PathVariable @Parameter(description = "Code du bureau de poste", required = true) Long codeBureau,
             @RequestHeader(value = "eddafir_mohamed_amine", required = false, defaultValue = "system") String username) {
 
@@ -198,7 +202,7 @@ public class ExcelExportController {
                     codeBureau, username);
 
             // Génération du fichier Excel
-            byte[] excelBytes = excelExportService.exportEncoursGlobalCCPToExcel(rapportData);
+            ExcelDocument document = excelExportService.buildEncoursGlobalCCPExcel(rapportData);
 
             // Construction du nom de fichier
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
@@ -211,18 +215,14 @@ public class ExcelExportController {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
             headers.setContentDispositionFormData("attachment", encodedFileName);
-            headers.setContentLength(excelBytes.length);
 
             return ResponseEntity.ok()
                     .headers(headers)
-                    .body(excelBytes);
+                    .body(ecrireClasseur(document, fileName));
 
         } catch (IllegalArgumentException e) {
             log.error("Invalid parameters for Excel export: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
-        } catch (IOException e) {
-            log.error("Error generating Excel file: {}", e.getMessage());
-            return ResponseEntity.internalServerError().build();
         } catch (Exception e) {
             log.error("Unexpected error during Excel export: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
@@ -247,7 +247,7 @@ public class ExcelExportController {
             @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
     })
     @GetMapping("/portefeuille-client-m-ccp/{codeBureau}")
-    public ResponseEntity<byte[]> exportPortefeuilleClientMCCPToExcel(
+    public ResponseEntity<StreamingResponseBody> exportPortefeuilleClientMCCPToExcel(
             @PathVariable @Parameter(description = "Code du bureau de poste", required = true) Long codeBureau,
             @RequestParam(required = false) @Parameter(description = "État du compte (N: Normal, C: Cloturé, B: Bloqué)") String etatCompte,
             @RequestHeader(value = "X-User-Agent", required = false, defaultValue = "system") String username) {
@@ -256,12 +256,14 @@ public class ExcelExportController {
                 codeBureau, etatCompte);
 
         try {
-            // Récupérer toutes les données sans pagination
+            // Récupérer l'en-tête et les statistiques du rapport
             PortefeuilleClientCCPMExcelDTO rapportData = rapportCCPService.genererRapportPortefeuilleClientMPourExcel(
                     codeBureau, etatCompte, username);
 
-            // Génération du fichier Excel
-            byte[] excelBytes = excelExportService.exportPortefeuilleClientMCCPToExcel(rapportData);
+            // Génération du fichier Excel, les comptes étant lus au fil de l'eau depuis la base
+            ExcelDocument document = excelExportService.buildPortefeuilleClientMCCPExcel(rapportData,
+                    rowWriter -> rapportCCPService.parcourirComptesPortefeuilleClientMPourExcel(
+                            codeBureau, etatCompte, rowWriter::accept));
 
             // Construction du nom de fichier
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
@@ -274,21 +276,37 @@ public class ExcelExportController {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
             headers.setContentDispositionFormData("attachment", encodedFileName);
-            headers.setContentLength(excelBytes.length);
 
             return ResponseEntity.ok()
                     .headers(headers)
-                    .body(excelBytes);
+                    .body(ecrireClasseur(document, fileName));
 
         } catch (IllegalArgumentException e) {
             log.error("Invalid parameters for Excel export: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
-        } catch (IOException e) {
-            log.error("Error generating Excel file: {}", e.getMessage());
-            return ResponseEntity.internalServerError().build();
         } catch (Exception e) {
             log.error("Unexpected error during Excel export: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Écrit le classeur généré dans la réponse, puis le ferme. Une erreur d'écriture (client déconnecté...)
+     * est journalisée puis relancée : la réponse, déjà commencée, est interrompue au lieu d'être
+     * terminée comme un fichier complet.
+     *
+     * @param document Le classeur généré
+     * @param fileName Le nom du fichier, pour le journal
+     * @return Le corps de la réponse
+     */
+    private StreamingResponseBody ecrireClasseur(ExcelDocument document, String fileName) {
+        return outputStream -> {
+            try (document) {
+                document.writeTo(outputStream);
+            } catch (IOException | RuntimeException e) {
+                log.error("Error while writing Excel export {}: {}", fileName, e.getMessage());
+                throw e;
+            }
+        };
+    }
+}
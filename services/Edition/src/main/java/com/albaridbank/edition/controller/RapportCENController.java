@@ -0,0 +1,192 @@
+package com.albaridbank.edition.controller;
+
+import com.albaridbank.edition.dto.rapport.CompteCENMouvementVeilleDTO;
+import com.albaridbank.edition.dto.rapport.NbrTotalEncoursCENDTO;
+import com.albaridbank.edition.dto.rapport.PortefeuilleCENDTO;
+import com.albaridbank.edition.service.interfaces.RapportCENService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * <p>
+ * REST controller for generating CEN reports.
+ * Provides endpoints for generating global balance, client portfolio and daily movements reports
+ * of CEN (savings) accounts.
+ * </p>
+ *
+ * @author Mohamed Amine Eddafir
+ */
+@RestController
+@RequestMapping("/api/v1/rapportcen")
+@Tag(name = "Rapports CEN", description = "Endpoints for generating CEN reports")
+@SecurityRequirement(name = "bearer-key")
+@RequiredArgsConstructor
+@Slf4j
+public class RapportCENController {
+
+    private final RapportCENService rapportCENService;
+
+    /**
+     * Endpoint to retrieve the total number of accounts and the global outstanding balance for a CEN bureau.
+     *
+     * @param codeBureau The identifier of the postal bureau.
+     * @return A {@link ResponseEntity} containing a {@link NbrTotalEncoursCENDTO} object with the statistics.
+     * If the bureau is not found, a 404 status is returned.
+     */
+    @Operation(
+            summary = "Obtenir le nombre total de comptes et l'encours global CEN",
+            description = "Récupère les statistiques globales des comptes CEN (hors comptes clôturés) d'un bureau de poste"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Statistiques trouvées",
+                    content = @Content(
+                            schema = @Schema(implementation = NbrTotalEncoursCENDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "404", description = "Bureau non trouvé", content = @Content)
+    })
+    @GetMapping("/encours-global/{codeBureau}")
+    public ResponseEntity<NbrTotalEncoursCENDTO> getEncoursGlobal(
+            @Parameter(
+                    description = "Code du bureau de poste (Agence)",
+                    example = "12345",
+                    required = true
+            )
+            @PathVariable Long codeBureau) {
+        return ResponseEntity.ok(rapportCENService.genererRapportEncoursGlobalCEN(codeBureau));
+    }
+
+    /**
+     * Generates one page of the CEN client portfolio report for a bureau.
+     *
+     * @param codeBureau The identifier of the postal bureau.
+     * @param page       The page number (default is 0).
+     * @param size       The page size (default is 20).
+     * @return A {@link ResponseEntity} containing the {@link PortefeuilleCENDTO} page,
+     * with the {@code X-Total-Count} and {@code X-Total-Pages} headers.
+     */
+    @Operation(
+            summary = "Générer le rapport de portefeuille CEN",
+            description = """
+                    Liste les comptes CEN du bureau (hors comptes clôturés), par solde décroissant,
+                    avec le nombre total de comptes et l'encours total du bureau.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Rapport généré avec succès",
+                    content = @Content(
+                            schema = @Schema(implementation = PortefeuilleCENDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Paramètres invalides", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Bureau non trouvé", content = @Content)
+    })
+    @GetMapping("/portefeuille")
+    public ResponseEntity<PortefeuilleCENDTO> getRapportPortefeuille(
+            @Parameter(description = "Code du bureau de poste", example = "12345", required = true)
+            @RequestParam Long codeBureau,
+            @Parameter(description = "Numéro de page (commence à 0)", example = "0")
+            @RequestParam(defaultValue = "0")
+            @Min(value = 0, message = "Le numéro de page doit être positif ou nul") int page,
+            @Parameter(description = "Taille de page (1 à 500)", example = "20")
+            @RequestParam(defaultValue = "20")
+            @Min(value = 1, message = "La taille de page doit être supérieure à 0") int size) {
+
+        log.info("Generating CEN portfolio report for bureau: {}, page: {}, size: {}", codeBureau, page, size);
+
+        PortefeuilleCENDTO rapport = rapportCENService.genererRapportPortefeuilleCEN(
+                codeBureau, PageRequest.of(page, size));
+
+        return ResponseEntity.ok()
+                .headers(enTetesPagination(rapport.getNombreTotalComptes(), size))
+                .body(rapport);
+    }
+
+    /**
+     * Generates one page of the report of CEN accounts with operations on a given day.
+     *
+     * @param codeBureau    The identifier of the postal bureau.
+     * @param dateReference The day of the operations (default is the day before).
+     * @param page          The page number (default is 0).
+     * @param size          The page size (default is 20).
+     * @return A {@link ResponseEntity} containing the {@link CompteCENMouvementVeilleDTO} page,
+     * with the {@code X-Total-Count} and {@code X-Total-Pages} headers.
+     */
+    @Operation(
+            summary = "Générer le rapport des comptes CEN mouvementés",
+            description = """
+                    Liste les opérations CEN du bureau pour la journée demandée (la veille par défaut),
+                    dans l'ordre de saisie, avec le nombre d'opérations, de comptes et le montant total.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Rapport généré avec succès",
+                    content = @Content(
+                            schema = @Schema(implementation = CompteCENMouvementVeilleDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Paramètres invalides", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Bureau non trouvé", content = @Content)
+    })
+    @GetMapping("/compte-mouvement-veille")
+    public ResponseEntity<CompteCENMouvementVeilleDTO> getRapportMouvementVeille(
+            @Parameter(description = "Code du bureau de poste", example = "12345", required = true)
+            @RequestParam Long codeBureau,
+            @Parameter(description = "Journée des opérations (yyyy-MM-dd), la veille si absente", example = "2025-03-14")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateReference,
+            @Parameter(description = "Numéro de page (commence à 0)", example = "0")
+            @RequestParam(defaultValue = "0")
+            @Min(value = 0, message = "Le numéro de page doit être positif ou nul") int page,
+            @Parameter(description = "Taille de page (1 à 500)", example = "20")
+            @RequestParam(defaultValue = "20")
+            @Min(value = 1, message = "La taille de page doit être supérieure à 0") int size) {
+
+        log.info("Generating CEN movements report for bureau: {}, date: {}, page: {}, size: {}",
+                codeBureau, dateReference, page, size);
+
+        CompteCENMouvementVeilleDTO rapport = rapportCENService.genererRapportMouvementVeilleCEN(
+                codeBureau, dateReference, PageRequest.of(page, size));
+
+        return ResponseEntity.ok()
+                .headers(enTetesPagination(rapport.getNombreOperations(), size))
+                .body(rapport);
+    }
+
+    /**
+     * Builds the pagination headers from the report totals.
+     *
+     * @param total The total number of rows of the report
+     * @param size  The page size
+     * @return The {@code X-Total-Count} and {@code X-Total-Pages} headers
+     */
+    private HttpHeaders enTetesPagination(Long total, int size) {
+        long nombreLignes = total != null ? total : 0L;
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-Total-Count", String.valueOf(nombreLignes));
+        headers.add("X-Total-Pages", String.valueOf((nombreLignes + size - 1) / size));
+        return headers;
+    }
+}
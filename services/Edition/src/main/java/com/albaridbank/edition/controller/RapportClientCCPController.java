@@ -1,10 +1,13 @@
 package com.albaridbank.edition.controller;
 
+import com.albaridbank.edition.config.ReportProperties;
 import com.albaridbank.edition.dto.rapport.CompteMouvementVeilleDTO;
 import com.albaridbank.edition.dto.rapport.NbrTotalEncoursCCPDTO;
 import com.albaridbank.edition.dto.rapport.PortefeuilleClientCCPDTO;
 import com.albaridbank.edition.dto.rapport.PortefeuilleClientCCPRapportDTO;
+import com.albaridbank.edition.dto.rapport.PortefeuilleClientCCP_Top100_DTO;
 import com.albaridbank.edition.service.interfaces.RapportCCPService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -22,16 +25,26 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * <p>
@@ -40,6 +53,12 @@ import java.util.ArrayList;
  * Includes Swagger annotations for API documentation.
  * </p>
  *
+ * <p>The movement and global balance reports carry an {@code ETag} built from the version of their data
+ * ({@link RapportCCPService#versionRapportMouvements}, {@link RapportCCPService#versionRapportEncoursGlobal})
+ * and a {@code Cache-Control} header ({@code report.http-cache}): a
+ * request whose {@code If-None-Match} still matches is answered with {@code 304 Not Modified} before the
+ * report is computed.</p>
+ *
  * @author Mohamed Amine Eddafir
  */
 @RestController
@@ -51,6 +70,8 @@ import java.util.ArrayList;
 public class RapportClientCCPController {
 
     private final RapportCCPService rapportCCPService;
+    private final ReportProperties reportProperties;
+    private final ObjectMapper objectMapper;
 
     /**
      * Generates a report on the client portfolio status for a specific bureau.
@@ -150,7 +171,9 @@ public class RapportClientCCPController {
      * @param joursAvant     The number of days before today to filter movements (default is 1).
      * @param page           The page number for pagination (default is 0).
      * @param size           The number of items per page for pagination (default is 20).
-     * @return A {@link ResponseEntity} containing the financial movements report.
+     * @param request        The current request, for its {@code If-None-Match} header.
+     * @return A {@link ResponseEntity} containing the financial movements report, or
+     * {@code 304 Not Modified} if the movements of the day have not changed.
      */
     @Operation(
             summary = "Générer un rapport de mouvements financiers",
@@ -159,6 +182,7 @@ public class RapportClientCCPController {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Rapport généré avec succès"),
             @ApiResponse(responseCode = "204", description = "Aucun mouvement trouvé"),
+            @ApiResponse(responseCode = "304", description = "Mouvements inchangés depuis l'ETag envoyé (If-None-Match)"),
             @ApiResponse(responseCode = "400", description = "Paramètres invalides"),
             @ApiResponse(responseCode = "404", description = "Bureau non trouvé"),
             @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
@@ -169,7 +193,8 @@ public class RapportClientCCPController {
             @RequestParam(required = false, defaultValue = "0") BigDecimal montantMinimum,
             @RequestParam(required = false, defaultValue = "1") Integer joursAvant,
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false, defaultValue = "10") int size) {
+            @RequestParam(required = false, defaultValue = "10") int size,
+            WebRequest request) {
 
         log.info("Generating financial movements report for bureau: {}", codeAgence);
         log.info("Minimum amount: {}", montantMinimum);
@@ -183,15 +208,61 @@ public class RapportClientCCPController {
                 Sort.by(Sort.Direction.DESC, "montant")
         );
 
-        // Call the service to generate the report
-        CompteMouvementVeilleDTO rapport = rapportCCPService.rapportMouvementVeille(
-                codeAgence,
-                montantMinimum,
-                joursAvant,
-                pageable
-        );
+        // Call the service to generate the report, unless the client already has it
+        return avecEtag(request, () -> rapportCCPService.versionRapportMouvements(codeAgence, joursAvant),
+                () -> rapportCCPService.rapportMouvementVeille(
+                        codeAgence,
+                        montantMinimum,
+                        joursAvant,
+                        pageable
+                ));
+    }
 
-        return ResponseEntity.ok(rapport);
+    /**
+     * Generates one page of the financial movements report using cursor (keyset) pagination.
+     *
+     * <p>The first page is requested without cursor; each response carries the cursor of the next page
+     * ({@code curseurSuivant}, null on the last page). Statistics are only returned with the first page.</p>
+     *
+     * @param codeAgence     The identifier of the postal bureau.
+     * @param montantMinimum The minimum amount of movements to include (default is 0).
+     * @param joursAvant     The number of days before today to filter movements (default is 1).
+     * @param size           The number of items per page (default is 10, maximum 500).
+     * @param curseur        The cursor returned with the previous page (absent for the first page).
+     * @param request        The current request, for its {@code If-None-Match} header.
+     * @return A {@link ResponseEntity} containing the page of the financial movements report, or
+     * {@code 304 Not Modified} if the movements of the day have not changed.
+     */
+    @Operation(
+            summary = "Générer un rapport de mouvements financiers paginé par curseur",
+            description = "Récupère les mouvements financiers page par page ; le coût d'une page ne dépend pas de sa position"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Rapport généré avec succès"),
+            @ApiResponse(responseCode = "304", description = "Mouvements inchangés depuis l'ETag envoyé (If-None-Match)"),
+            @ApiResponse(responseCode = "400", description = "Paramètres ou curseur invalides"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
+    })
+    @GetMapping("/compte-mouvement-veille/curseur")
+    public ResponseEntity<CompteMouvementVeilleDTO> genererRapportCurseur(
+            @RequestParam Long codeAgence,
+            @RequestParam(required = false, defaultValue = "0") BigDecimal montantMinimum,
+            @RequestParam(required = false, defaultValue = "1") Integer joursAvant,
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String curseur,
+            WebRequest request) {
+
+        log.info("Generating financial movements report page for bureau: {}, size: {}, cursor: {}",
+                codeAgence, size, curseur);
+
+        return avecEtag(request, () -> rapportCCPService.versionRapportMouvements(codeAgence, joursAvant),
+                () -> rapportCCPService.rapportMouvementVeilleCurseur(
+                        codeAgence,
+                        montantMinimum,
+                        joursAvant,
+                        size,
+                        curseur
+                ));
     }
 
     /**
@@ -212,7 +283,9 @@ public class RapportClientCCPController {
      *                       Must not be null.
      * @param montantMinimum The minimum amount of movement to include in the report. Defaults to 0 if not provided.
      * @param joursAvant     The number of days before today to filter movements. Defaults to 0 if not provided.
-     * @return A {@link ResponseEntity} containing the complete financial movements report.
+     * @param request        The current request, for its {@code If-None-Match} header.
+     * @return A {@link ResponseEntity} containing the complete financial movements report, or
+     * {@code 304 Not Modified} if the movements of a closed day have not changed.
      */
     @Operation(
             summary = "Générer un rapport complet de mouvements financiers pour analyse",
@@ -222,20 +295,58 @@ public class RapportClientCCPController {
     public ResponseEntity<CompteMouvementVeilleDTO> genererRapportComplet(
             @RequestParam Long codeAgence,
             @RequestParam(required = false, defaultValue = "0") BigDecimal montantMinimum,
-            @RequestParam(required = false, defaultValue = "0") Integer joursAvant) {
+            @RequestParam(required = false, defaultValue = "0") Integer joursAvant,
+            WebRequest request) {
 
         log.info("Generating complete financial movements report for bureau: {}", codeAgence);
         log.info("Minimum Account amount: {}", montantMinimum);
         log.info("Days before movement: {}", joursAvant);
 
-        // Appel au service pour générer le rapport complet
-        CompteMouvementVeilleDTO rapport = rapportCCPService.rapportMouvementVeilleComplet(
+        // Le rapport complet du jour est gardé en cache côté serveur (mouvementsComplets) : il peut
+        // être plus ancien que la version des mouvements, il n'a donc pas d'ETag
+        return avecEtag(request, () -> {
+                    RapportCCPService.VersionRapport version = rapportCCPService.versionRapportMouvements(codeAgence, joursAvant);
+                    return version.journeeClose() ? version : null;
+                },
+                () -> rapportCCPService.rapportMouvementVeilleComplet(
+                        codeAgence,
+                        montantMinimum,
+                        joursAvant
+                ));
+    }
+
+    /**
+     * Streams the complete financial movements report as NDJSON ({@code Accept: application/x-ndjson}).
+     *
+     * <p>The first line holds the header and totals of the report ({@code mouvements} is null); each
+     * following line holds one movement, by descending amount, written as it is read from the database.
+     * A failure once the header is written ends the stream with an error line ({@link ProblemDetail}).</p>
+     *
+     * @param codeAgence     The unique identifier of the bureau. Must not be null.
+     * @param montantMinimum The minimum amount of movement to include in the report. Defaults to 0.
+     * @param joursAvant     The number of days before today. Defaults to 0.
+     * @return A {@link ResponseEntity} streaming the report, one JSON document per line.
+     */
+    @Operation(
+            summary = "Générer le rapport complet de mouvements financiers en flux NDJSON",
+            description = "En-tête et totaux sur la première ligne, puis un mouvement par ligne (Accept: application/x-ndjson)"
+    )
+    @GetMapping(value = "/compte-mouvement-veille/complet", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> genererRapportCompletFlux(
+            @RequestParam Long codeAgence,
+            @RequestParam(required = false, defaultValue = "0") BigDecimal montantMinimum,
+            @RequestParam(required = false, defaultValue = "0") Integer joursAvant) {
+
+        log.info("Streaming complete financial movements report for bureau: {}, montant minimum: {}, jours avant: {}",
+                codeAgence, montantMinimum, joursAvant);
+
+        return ndjson((Consumer<Object> ligne) -> rapportCCPService.fluxRapportMouvementVeilleComplet(
                 codeAgence,
                 montantMinimum,
-                joursAvant
-        );
-
-        return ResponseEntity.ok(rapport);
+                joursAvant,
+                ligne::accept,
+                ligne::accept
+        ));
     }
 
     /**
@@ -245,7 +356,9 @@ public class RapportClientCCPController {
      * It returns the total number of accounts and the total outstanding balance in a DTO format.
      *
      * @param codeBureau The identifier of the postal bureau for which the statistics are retrieved.
-     * @return A {@link ResponseEntity} containing a {@link NbrTotalEncoursCCPDTO} object with the statistics.
+     * @param request    The current request, for its {@code If-None-Match} header.
+     * @return A {@link ResponseEntity} containing a {@link NbrTotalEncoursCCPDTO} object with the statistics,
+     * or {@code 304 Not Modified} if the accounts of the bureau have not changed.
      * If the bureau is not found, a 404 status is returned.
      */
     @Operation(
@@ -260,6 +373,11 @@ public class RapportClientCCPController {
                             schema = @Schema(implementation = NbrTotalEncoursCCPDTO.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Comptes du bureau inchangés depuis l'ETag envoyé (If-None-Match)",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Bureau non trouvé",
@@ -268,13 +386,84 @@ public class RapportClientCCPController {
     })
     @GetMapping("/encours-global/{codeBureau}")
     public ResponseEntity<NbrTotalEncoursCCPDTO> getEncoursGlobal(
+            @Parameter(
+                    description = "Code du bureau de poste (Agence)",
+                    example = "12345",
+                    required = true
+            )
+            @PathVariable Long codeBureau,
+            WebRequest request) {
+        return avecEtag(request, () -> rapportCCPService.versionRapportEncoursGlobal(codeBureau),
+                () -> rapportCCPService.genererRapportEncoursGlobal(codeBureau));
+    }
+
+    /**
+     * Generates the ranking of the 100 largest CCP accounts by balance for a bureau.
+     *
+     * @param codeBureau The code of the postal bureau.
+     * @return A {@link ResponseEntity} containing the {@link PortefeuilleClientCCP_Top100_DTO} ranking.
+     */
+    @Operation(
+            summary = "Top 100 des comptes CCP par solde d'un bureau",
+            description = """
+                    Classe les 100 comptes CCP du bureau ayant le plus grand solde courant.
+                    Les comptes clôturés, bloqués et opposés ne sont pas classés.
+                    Le classement est mis en cache quelques minutes.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Classement généré",
+                    content = @Content(
+                            schema = @Schema(implementation = PortefeuilleClientCCP_Top100_DTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Code bureau invalide", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Bureau non trouvé", content = @Content)
+    })
+    @GetMapping("/top100/{codeBureau}")
+    public ResponseEntity<PortefeuilleClientCCP_Top100_DTO> getTop100(
             @Parameter(
                     description = "Code du bureau de poste (Agence)",
                     example = "12345",
                     required = true
             )
             @PathVariable Long codeBureau) {
-        return ResponseEntity.ok(rapportCCPService.genererRapportEncoursGlobal(codeBureau));
+        return ResponseEntity.ok(rapportCCPService.genererRapportTop100(codeBureau));
+    }
+
+    /**
+     * Generates the ranking of the 100 largest CCP accounts by balance across a region or the whole network.
+     *
+     * @param codeRegion The region code (optional, whole network when absent).
+     * @return A {@link ResponseEntity} containing the {@link PortefeuilleClientCCP_Top100_DTO} ranking.
+     */
+    @Operation(
+            summary = "Top 100 des comptes CCP par solde d'une région ou du réseau",
+            description = """
+                    Classe les 100 comptes CCP ayant le plus grand solde courant parmi les bureaux
+                    d'une région, ou de tout le réseau si aucune région n'est indiquée.
+                    Chaque compte indique son bureau. Le classement est mis en cache quelques minutes.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Classement généré",
+                    content = @Content(
+                            schema = @Schema(implementation = PortefeuilleClientCCP_Top100_DTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Code région invalide", content = @Content)
+    })
+    @GetMapping("/top100/reseau")
+    public ResponseEntity<PortefeuilleClientCCP_Top100_DTO> getTop100Reseau(
+            @Parameter(description = "Code de la région (tout le réseau si absent)", example = "3")
+            @RequestParam(required = false)
+            @Min(value = 1, message = "Le code région doit être supérieur à 0")
+            Integer codeRegion) {
+        return ResponseEntity.ok(rapportCCPService.genererRapportTop100Reseau(codeRegion));
     }
 
 
@@ -495,6 +684,200 @@ public class RapportClientCCPController {
         return ResponseEntity.ok(rapport);
     }
 
+    /**
+     * Streams the detailed client portfolio report as NDJSON ({@code Accept: application/x-ndjson}),
+     * without pagination: all the accounts found by the search (global search), or all the accounts of
+     * the filtered portfolio when no search term is given.
+     *
+     * <p>The first line holds the header and totals of the report ({@code comptes} is null); each
+     * following line holds one account, by descending balance, written as it is read from the database.
+     * A failure once the header is written ends the stream with an error line ({@link ProblemDetail}).</p>
+     *
+     * @param codeBureau Bureau postal code
+     * @param typeCompte Account type filter
+     * @param etatCompte Account state filter
+     * @param search     Search term (optional)
+     * @return A {@link ResponseEntity} streaming the report, one JSON document per line.
+     */
+    @Operation(
+            summary = "Générer le rapport détaillé du portefeuille client en flux NDJSON",
+            description = "Tous les comptes trouvés (recherche globale) ou filtrés, sans pagination : "
+                    + "en-tête et totaux sur la première ligne, puis un compte par ligne (Accept: application/x-ndjson)"
+    )
+    @GetMapping(value = "/portefeuille-general", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> genererRapportFlux(
+            @Parameter(description = "Code du bureau postal", required = true, example = "1000")
+            @RequestParam Long codeBureau,
+
+            @Parameter(description = "Type de compte (1 à 4, null pour tous les types)")
+            @RequestParam(required = false) Integer typeCompte,
+
+            @Parameter(description = "État du compte (N, O, C, B ou NORMAL, OPPOSE, CLOTURE, BLOCAGE)")
+            @RequestParam(required = false) String etatCompte,
+
+            @Parameter(description = "Terme de recherche (nom du client, numéro de compte, adresse, etc.)")
+            @RequestParam(required = false) String search
+    ) {
+        log.debug("Demande de rapport en flux NDJSON - Bureau: {}, Type: {}, État: {}, Recherche: {}",
+                codeBureau, typeCompte, etatCompte, search);
+
+        return ndjson((Consumer<Object> ligne) -> rapportCCPService.fluxRapportPortefeuilleClientGlobal(
+                codeBureau,
+                typeCompte,
+                etatCompte,
+                search,
+                ligne::accept,
+                ligne::accept
+        ));
+    }
+
+    /**
+     * Generates one page of the detailed client portfolio report using cursor (keyset) pagination.
+     *
+     * <p>Accounts are sorted by current balance then account number, both descending. The first page is
+     * requested without cursor; each response carries the cursor of the next page ({@code curseurSuivant},
+     * null on the last page). Totals are only returned with the first page.</p>
+     *
+     * @param codeBureau Bureau postal code
+     * @param typeCompte Account type filter
+     * @param etatCompte Account state filter
+     * @param size       Number of items per page (maximum 500)
+     * @param curseur    Cursor returned with the previous page (absent for the first page)
+     * @return Portfolio report page with the cursor of the next page
+     */
+    @Operation(
+            summary = "Générer le rapport détaillé du portefeuille client paginé par curseur",
+            description = "Parcourt le portefeuille client page par page ; le coût d'une page ne dépend pas de sa position"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Rapport généré avec succès"),
+            @ApiResponse(responseCode = "400", description = "Paramètres ou curseur invalides"),
+            @ApiResponse(responseCode = "404", description = "Bureau postal non trouvé")
+    })
+    @GetMapping(
+            value = "/portefeuille-general/curseur",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<PortefeuilleClientCCPRapportDTO> genererRapportCurseur(
+            @Parameter(description = "Code du bureau postal", required = true, example = "1000")
+            @RequestParam Long codeBureau,
+
+            @Parameter(description = "Type de compte (1 à 4, null pour tous les types)")
+            @RequestParam(required = false) Integer typeCompte,
+
+            @Parameter(description = "État du compte (N, O, C, B ou NORMAL, OPPOSE, CLOTURE, BLOCAGE)")
+            @RequestParam(required = false) String etatCompte,
+
+            @Parameter(
+                    description = "Nombre d'éléments par page",
+                    schema = @Schema(type = "integer", minimum = "1", maximum = "500", defaultValue = "10")
+            )
+            @RequestParam(defaultValue = "10") int size,
+
+            @Parameter(description = "Curseur renvoyé par la page précédente (absent pour la première page)")
+            @RequestParam(required = false) String curseur
+    ) {
+        log.debug("Demande de rapport par curseur - Bureau: {}, Type: {}, État: {}, Taille: {}, Curseur: {}",
+                codeBureau, typeCompte, etatCompte, size, curseur);
+
+        return ResponseEntity.ok(rapportCCPService.genererRapportPortefeuilleClientCurseur(
+                codeBureau,
+                size,
+                typeCompte,
+                etatCompte,
+                curseur
+        ));
+    }
+
+    /**
+     * Answers {@code 304 Not Modified} if the {@code If-None-Match} header of the request matches the ETag,
+     * without computing the report; otherwise computes it and returns it with its ETag. The version in the
+     * ETag is read before the report: a change committed in between gives a newer report under the older
+     * ETag, which the next request replaces, never the reverse.
+     *
+     * @param request The current request
+     * @param version Reads the version of the report; a null version sends the report without ETag
+     * @param rapport Computes the report
+     * @return The report or an empty {@code 304 Not Modified} response
+     */
+    private <T> ResponseEntity<T> avecEtag(
+            WebRequest request, Supplier<RapportCCPService.VersionRapport> version, Supplier<T> rapport) {
+        RapportCCPService.VersionRapport versionRapport = reportProperties.getHttpCache().isEnabled() ? version.get() : null;
+        if (versionRapport == null) {
+            return ResponseEntity.ok(rapport.get());
+        }
+        CacheControl cacheControl = cacheControl(versionRapport);
+        if (request.checkNotModified(versionRapport.etag())) {
+            // Le statut 304 et l'ETag sont déjà posés sur la réponse par checkNotModified
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        // Certaines URL ont aussi une variante NDJSON (Accept: application/x-ndjson), sans ETag
+        return ResponseEntity.ok()
+                .eTag(versionRapport.etag())
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(rapport.get());
+    }
+
+    /**
+     * Cache-Control of a report: a closed day can be reused without revalidation, the current data is
+     * revalidated according to {@code report.http-cache.max-age}. Reports of an authenticated user are
+     * never stored in a shared cache.
+     */
+    private CacheControl cacheControl(RapportCCPService.VersionRapport version) {
+        ReportProperties.HttpCache httpCache = reportProperties.getHttpCache();
+        Duration maxAge = version.journeeClose() ? httpCache.getMaxAgeJourneeClose() : httpCache.getMaxAge();
+        return maxAge.isZero() ? CacheControl.noCache().cachePrivate() : CacheControl.maxAge(maxAge).cachePrivate();
+    }
+
+    /**
+     * Builds an NDJSON response: each line handed over by the source (the header first), one JSON
+     * document per line. Lines are not flushed one by one; the servlet buffer sends them in chunks.
+     *
+     * <p>The source runs when the response body is written, in its own transaction. A failure before the
+     * first line is answered with its error status; after it, the status may already be sent, so the
+     * stream ends with an error line ({@link ProblemDetail}, status 500) that a client must check for,
+     * instead of a silently truncated report.</p>
+     *
+     * @param lignes Hands each line of the report over to the given consumer
+     * @return The streamed response
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<Object>> lignes) {
+        StreamingResponseBody body = outputStream -> {
+            boolean[] commence = {false};
+            try {
+                lignes.accept(ligne -> {
+                    try {
+                        ecrireLigne(outputStream, ligne);
+                        commence[0] = true;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // Client parti : plus rien ne peut lui être écrit
+                throw e.getCause();
+            } catch (RuntimeException e) {
+                if (!commence[0]) {
+                    throw e;
+                }
+                log.error("NDJSON report interrupted after its first line", e);
+                ecrireLigne(outputStream, ProblemDetail.forStatusAndDetail(
+                        HttpStatus.INTERNAL_SERVER_ERROR, "Rapport interrompu, lignes incomplètes"));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void ecrireLigne(OutputStream outputStream, Object valeur) throws IOException {
+        outputStream.write(objectMapper.writeValueAsBytes(valeur));
+        outputStream.write('\n');
+    }
+
     /**
      * Creates a Pageable object with default sorting by current balance in descending order.
      *
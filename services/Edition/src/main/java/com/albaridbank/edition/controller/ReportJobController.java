@@ -0,0 +1,121 @@
+package com.albaridbank.edition.controller;
+
+import com.albaridbank.edition.dto.job.ReportJobDTO;
+import com.albaridbank.edition.dto.request.ReportJobRequestDTO;
+import com.albaridbank.edition.service.interfaces.ReportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * REST controller for generating Excel reports in the background.
+ * A report is submitted, its status is polled, and the file is downloaded once the job is finished.
+ *
+ * @author Mohamed Amine Eddafir
+ */
+@RestController
+@RequestMapping("/api/v1/export/jobs")
+@Tag(name = "Excel Export Jobs", description = "API pour la génération des rapports Excel en arrière-plan")
+@RequiredArgsConstructor
+@Slf4j
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    /**
+     * Soumet la génération d'un rapport Excel en arrière-plan
+     *
+     * @param request  Le rapport demandé et ses paramètres
+     * @param username Nom d'utilisateur qui a demandé le rapport
+     * @return L'état de la tâche, avec son URL de suivi dans l'en-tête Location
+     */
+    @Operation(
+            summary = "Soumettre la génération d'un rapport Excel",
+            description = "Lance la génération en arrière-plan ; une demande identique à une tâche en cours renvoie cette tâche"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Tâche acceptée"),
+            @ApiResponse(responseCode = "400", description = "Paramètres invalides"),
+            @ApiResponse(responseCode = "503", description = "File d'attente des rapports pleine")
+    })
+    @PostMapping
+    public ResponseEntity<ReportJobDTO> soumettreJob(
+            @RequestBody ReportJobRequestDTO request,
+            @RequestHeader(value = "X-User-Agent", required = false, defaultValue = "system") String username) {
+
+        log.info("Submitting report job {} for bureau: {}", request.getTypeRapport(), request.getCodeBureau());
+
+        ReportJobDTO job = reportJobService.soumettreJob(request, username);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{jobId}")
+                .buildAndExpand(job.getJobId())
+                .toUri();
+
+        return ResponseEntity.accepted()
+                .location(location)
+                .body(job);
+    }
+
+    /**
+     * Retourne l'état d'une tâche de génération
+     *
+     * @param jobId Identifiant de la tâche
+     * @return L'état de la tâche
+     */
+    @Operation(summary = "Consulter l'état d'une tâche de génération")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "État de la tâche"),
+            @ApiResponse(responseCode = "404", description = "Tâche non trouvée")
+    })
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ReportJobDTO> getJob(
+            @PathVariable @Parameter(description = "Identifiant de la tâche", required = true) String jobId) {
+        return ResponseEntity.ok(reportJobService.getJob(jobId));
+    }
+
+    /**
+     * Télécharge le fichier Excel produit par une tâche terminée
+     *
+     * @param jobId Identifiant de la tâche
+     * @return Le fichier Excel
+     */
+    @Operation(summary = "Télécharger le rapport Excel d'une tâche terminée")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Fichier Excel"),
+            @ApiResponse(responseCode = "404", description = "Tâche ou fichier non trouvé"),
+            @ApiResponse(responseCode = "409", description = "Rapport pas encore disponible")
+    })
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<Resource> telechargerRapport(
+            @PathVariable @Parameter(description = "Identifiant de la tâche", required = true) String jobId) {
+
+        Path fichier = reportJobService.getFichierRapport(jobId);
+        String encodedFileName = URLEncoder.encode(fichier.getFileName().toString(), StandardCharsets.UTF_8)
+                .replace("+", "%20");
+
+        // Configuration des en-têtes HTTP
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        headers.setContentDispositionFormData("attachment", encodedFileName);
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(new FileSystemResource(fichier));
+    }
+}
@@ -22,4 +22,5 @@ public class CompteCCP_Top100_DTO implements Serializable {
     private String adrecomp;         // Adresse
     private String libsocpr;         // Cat. Soc. Prof
     private BigDecimal soldcour;     // Solde
+    private Long codburpo;           // Bureau (classement réseau)
 }
\ No newline at end of file
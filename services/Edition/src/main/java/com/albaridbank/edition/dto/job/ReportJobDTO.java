@@ -0,0 +1,36 @@
+package com.albaridbank.edition.dto.job;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * État d'une tâche de génération de rapport Excel, renvoyé lors de la soumission et du suivi.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJobDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String jobId;
+    private ReportJobType typeRapport;
+    private ReportJobStatus statut;
+
+    // Suivi de l'exécution
+    private LocalDateTime dateSoumission;
+    private LocalDateTime dateDebut;
+    private LocalDateTime dateFin;
+
+    // Résultat
+    private String nomFichier;     // Renseigné une fois le rapport terminé
+    private String messageErreur;  // Renseigné en cas d'échec
+}
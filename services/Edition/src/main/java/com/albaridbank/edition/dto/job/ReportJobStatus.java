@@ -0,0 +1,11 @@
+package com.albaridbank.edition.dto.job;
+
+/**
+ * États successifs d'une tâche de génération de rapport.
+ */
+public enum ReportJobStatus {
+    EN_ATTENTE,  // Soumise, en attente d'un thread libre
+    EN_COURS,    // En cours de génération
+    TERMINE,     // Fichier disponible au téléchargement
+    ECHEC        // Génération en erreur (voir le message)
+}
@@ -0,0 +1,22 @@
+package com.albaridbank.edition.dto.job;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Types de rapports Excel pouvant être générés en tâche de fond.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ReportJobType {
+
+    PORTEFEUILLE_CLIENT_CCP("Portefeuille_Client_CCP_Agence"),
+    COMPTE_MOUVEMENT_VEILLE("Comptes_Mouvementes_Agence"),
+    ENCOURS_GLOBAL_CCP("Encours_Global_CCP_Bureau"),
+    PORTEFEUILLE_CLIENT_M_CCP("Portefeuille_Client_M_CCP_Agence");
+
+    /**
+     * Préfixe du nom du fichier Excel généré
+     */
+    private final String prefixeFichier;
+}
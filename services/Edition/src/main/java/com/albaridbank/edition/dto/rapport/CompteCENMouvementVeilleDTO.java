@@ -35,5 +35,6 @@ public class CompteCENMouvementVeilleDTO implements Serializable {
     // Données du rapport
     private List<MouvementCENDTO> mouvements;
     private Integer nombreTotalComptes;
+    private Long nombreOperations;
     private BigDecimal montantTotal;
 }
\ No newline at end of file
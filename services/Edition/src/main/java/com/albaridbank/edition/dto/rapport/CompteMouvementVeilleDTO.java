@@ -43,6 +43,9 @@ public class CompteMouvementVeilleDTO implements Serializable {
     private Integer joursAvant; // 1 pour veille, 2 pour avant-veille
     private BigDecimal montantMinimum;
 
+    // Pagination par curseur : curseur de la page suivante (null sur la dernière page)
+    private String curseurSuivant;
+
     // Champs d'audit
     private String createdBy;
     private LocalDateTime creationDateTime;
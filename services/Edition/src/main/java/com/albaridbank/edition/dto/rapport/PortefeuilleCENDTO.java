@@ -30,5 +30,6 @@ public class PortefeuilleCENDTO implements Serializable {
 
     // Données du rapport
     private List<CompteCENDetailDTO> comptes;
+    private Long nombreTotalComptes;
     private BigDecimal encoursTotal;
 }
@@ -39,4 +39,7 @@ public class PortefeuilleClientCCPRapportDTO implements Serializable {
     private BigDecimal totalSoldeCreditOperations;
     private BigDecimal totalSoldeOperationsPeriode;
     private BigDecimal totalSoldeCertifie;
+
+    // Pagination par curseur : curseur de la page suivante (null sur la dernière page)
+    private String curseurSuivant;
 }
\ No newline at end of file
@@ -23,6 +23,9 @@ public class PortefeuilleClientCCP_Top100_DTO implements Serializable {
     private String titreRapport;
     private LocalDateTime dateEdition;
     private String numeroPage;
+    private Long codburpo;          // Bureau (null pour un classement régional ou réseau)
+    private String desburpo;
+    private Integer coderegi;       // Région du classement (null pour un bureau ou tout le réseau)
 
     // Données du rapport
     private List<CompteCCP_Top100_DTO> comptes;
@@ -0,0 +1,28 @@
+package com.albaridbank.edition.dto.request;
+
+import com.albaridbank.edition.dto.job.ReportJobType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * DTO de requête pour la soumission d'une génération de rapport Excel en tâche de fond
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobRequestDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private ReportJobType typeRapport;  // Rapport à générer
+    private Long codeBureau;            // Code du bureau / de l'agence
+    private String etatCompte;          // Portefeuilles uniquement (optionnel)
+    private Integer joursAvant;         // Mouvements uniquement (par défaut 1 : veille)
+    private BigDecimal montantMinimum;  // Mouvements uniquement (par défaut 0)
+}
@@ -4,6 +4,7 @@ import com.albaridbank.edition.dto.base.CompteCCPDetailDTO;
 import com.albaridbank.edition.dto.base.CompteCCP_Top100_DTO;
 import com.albaridbank.edition.mappers.util.MapperUtil;
 import com.albaridbank.edition.model.ccp.CompteCCP;
+import com.albaridbank.edition.repositorys.ccp.projectionCCPRepo.LigneTop100;
 import org.mapstruct.*;
 
 import java.time.LocalDate;
@@ -36,6 +37,16 @@ public interface CompteCCPMapper {
 
     List<CompteCCP_Top100_DTO> toCompteCCPTop100DTOList(List<CompteCCP> comptes);
 
+    @Mapping(source = "idCompte", target = "idencomp")
+    @Mapping(source = "intitule", target = "inticomp")
+    @Mapping(source = "adresse", target = "adrecomp")
+    @Mapping(source = "libelleCsp", target = "libsocpr")
+    @Mapping(source = "soldeCourant", target = "soldcour")
+    @Mapping(source = "codeBureau", target = "codburpo")
+    CompteCCP_Top100_DTO toCompteCCPTop100DTO(LigneTop100 ligne);
+
+    List<CompteCCP_Top100_DTO> toCompteCCPTop100DTOListFromLignes(List<LigneTop100> lignes);
+
     @Named("formatEtatCompte")
     default String formatEtatCompte(String codeEtatCompte) {
         return MapperUtil.mapEtatCompteCCP(codeEtatCompte);
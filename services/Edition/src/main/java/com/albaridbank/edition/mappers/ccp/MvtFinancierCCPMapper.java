@@ -1,6 +1,7 @@
 package com.albaridbank.edition.mappers.ccp;
 
 import com.albaridbank.edition.dto.base.MouvementFinancierDTO;
+import com.albaridbank.edition.model.ccp.ClotureMouvementsCCP;
 import com.albaridbank.edition.model.ccp.MvtFinancierCCP;
 import org.mapstruct.*;
 
@@ -19,4 +20,8 @@ public interface MvtFinancierCCPMapper {
     MouvementFinancierDTO toMouvementFinancierDTO(MvtFinancierCCP mvt);
 
     List<MouvementFinancierDTO> toMouvementFinancierDTOList(List<MvtFinancierCCP> mouvements);
+
+    @Mapping(source = "codeBureau", target = "codburpo")
+    @Mapping(source = "designation", target = "desburpo")
+    MouvementFinancierDTO toMouvementFinancierDTO(ClotureMouvementsCCP.Mouvement mouvement, Long codeBureau, String designation);
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.albaridbank.edition.mappers.cen;
 import com.albaridbank.edition.dto.base.CompteCENDetailDTO;
 import com.albaridbank.edition.mappers.util.MapperUtil;
 import com.albaridbank.edition.model.cen.CompteCEN;
+import com.albaridbank.edition.repositorys.cen.projectionCENRepo.LignePortefeuilleCEN;
 import org.mapstruct.*;
 
 import java.time.LocalDate;
@@ -26,6 +27,20 @@ public interface CompteCENMapper {
 
     List<CompteCENDetailDTO> toCompteCENDetailDTOList(List<CompteCEN> comptes);
 
+    @Mapping(source = "idCompte", target = "idencomp")
+    @Mapping(source = "intitule", target = "inticomp")
+    @Mapping(source = "adresse", target = "adrecomp")
+    @Mapping(source = "libelleCsp", target = "licasopr")
+    @Mapping(source = "dateNaissance", target = "datenais", qualifiedByName = "formatDate")
+    @Mapping(source = "numeroPieceIdentite", target = "numpieid")
+    @Mapping(source = "telephone", target = "numetele")
+    @Mapping(source = "codeTypeActivite", target = "etatCompte", qualifiedByName = "mapEtatCompte")
+    @Mapping(source = "soldeCourant", target = "soldminu")
+    @Mapping(source = "dureeCompte", target = "durecomp")
+    CompteCENDetailDTO toCompteCENDetailDTO(LignePortefeuilleCEN ligne);
+
+    List<CompteCENDetailDTO> toCompteCENDetailDTOListFromLignes(List<LignePortefeuilleCEN> lignes);
+
     @Named("mapEtatCompte")
     default String mapEtatCompte(Integer codeTypeActivite) {
         return MapperUtil.mapEtatCompteCEN(codeTypeActivite);
@@ -3,6 +3,7 @@ package com.albaridbank.edition.mappers.cen;
 import com.albaridbank.edition.dto.base.MouvementCENDTO;
 import com.albaridbank.edition.model.cen.OperCompCEN;
 import com.albaridbank.edition.model.cen.TypeOperCEN;
+import com.albaridbank.edition.repositorys.cen.projectionCENRepo.LigneMouvementCEN;
 import org.mapstruct.*;
 
 import java.util.List;
@@ -20,6 +21,14 @@ public interface OperCompCENMapper {
 
     List<MouvementCENDTO> toMouvementCENDTOList(List<OperCompCEN> operations);
 
+    @Mapping(source = "idCompte", target = "idencomp")
+    @Mapping(source = "libelleTypeOperation", target = "libtypop")
+    @Mapping(source = "sens", target = "sensMouvement")
+    @Mapping(source = "montant", target = "montoper")
+    MouvementCENDTO toMouvementCENDTO(LigneMouvementCEN ligne);
+
+    List<MouvementCENDTO> toMouvementCENDTOListFromLignes(List<LigneMouvementCEN> lignes);
+
     default String getSens(OperCompCEN operComp) {
         return operComp.getCompteDebit() != null ? "D" : "C";
     }
@@ -1,6 +1,7 @@
 package com.albaridbank.edition.mappers.rapport;
 
 import com.albaridbank.edition.dto.base.CompteCCPDetailDTO;
+import com.albaridbank.edition.dto.base.CompteCCP_Top100_DTO;
 import com.albaridbank.edition.dto.base.MouvementFinancierDTO;
 import com.albaridbank.edition.dto.base.PortefeuilleClientCCPDetailDTO;
 import com.albaridbank.edition.dto.excelCCP.CompteMouvementVeilleExcelDTO;
@@ -8,6 +9,7 @@ import com.albaridbank.edition.dto.rapport.CompteMouvementVeilleDTO;
 import com.albaridbank.edition.dto.rapport.NbrTotalEncoursCCPDTO;
 import com.albaridbank.edition.dto.rapport.PortefeuilleClientCCPDTO;
 import com.albaridbank.edition.dto.rapport.PortefeuilleClientCCPRapportDTO;
+import com.albaridbank.edition.dto.rapport.PortefeuilleClientCCP_Top100_DTO;
 import com.albaridbank.edition.mappers.ccp.CompteCCPMapper;
 import com.albaridbank.edition.mappers.util.MapperUtil;
 import com.albaridbank.edition.model.ccp.CompteCCP;
@@ -127,6 +129,27 @@ public interface RapportCCPMapper {
             PortefeuilleStats stats
     );
 
+    /**
+     * Crée le rapport Top 100 des comptes par solde (bureau, région ou réseau)
+     */
+    @Mapping(target = "titreRapport", constant = "ETAT TOP 100 COMPTES CCP")
+    @Mapping(target = "dateEdition", expression = "java(LocalDateTime.now())")
+    @Mapping(target = "numeroPage", constant = "1")
+    @Mapping(target = "codburpo", source = "codeBureau")
+    @Mapping(target = "desburpo", source = "designation")
+    @Mapping(target = "coderegi", source = "codeRegion")
+    @Mapping(target = "comptes", source = "comptes")
+    @Mapping(target = "nombreTotalComptes", source = "nombreTotalComptes")
+    @Mapping(target = "encoursTotalComptes", source = "encoursTotal")
+    PortefeuilleClientCCP_Top100_DTO creerRapportTop100(
+            Long codeBureau,
+            String designation,
+            Integer codeRegion,
+            List<CompteCCP_Top100_DTO> comptes,
+            Integer nombreTotalComptes,
+            BigDecimal encoursTotal
+    );
+
     /**
      * Convertit les statistiques de compte en DTO
      */
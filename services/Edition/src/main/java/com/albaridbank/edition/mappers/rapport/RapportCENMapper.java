@@ -25,6 +25,7 @@ public interface RapportCENMapper {
     @Mapping(target = "desburpo", source = "desBureau")
     @Mapping(target = "mouvements", source = "mouvementDTOs")
     @Mapping(target = "nombreTotalComptes", source = "nombreComptes")
+    @Mapping(target = "nombreOperations", source = "nombreOperations")
     @Mapping(target = "montantTotal", source = "montantTotal")
     CompteCENMouvementVeilleDTO creerRapportMouvementCENVeille(
             Long codeBureau,
@@ -32,6 +33,7 @@ public interface RapportCENMapper {
             LocalDate dateRapport,
             List<MouvementCENDTO> mouvementDTOs,
             Integer nombreComptes,
+            Long nombreOperations,
             BigDecimal montantTotal);
 
     @Mapping(target = "titreRapport", constant = "ETAT NOMBRE TOTAL & ENCOURS GLOBAL CEN")
@@ -52,10 +54,12 @@ public interface RapportCENMapper {
     @Mapping(target = "codburpo", source = "codeBureau")
     @Mapping(target = "desburpo", source = "desBureau")
     @Mapping(target = "comptes", source = "compteDTOs")
+    @Mapping(target = "nombreTotalComptes", source = "nombreTotalComptes")
     @Mapping(target = "encoursTotal", source = "encoursTotal")
     PortefeuilleCENDTO creerRapportPortefeuilleCEN(
             Long codeBureau,
             String desBureau,
             List<CompteCENDetailDTO> compteDTOs,
+            Long nombreTotalComptes,
             BigDecimal encoursTotal);
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.albaridbank.edition.model.ccp;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Clôture d'une journée de mouvements CCP pour un bureau.
+ * Les mouvements de la journée y sont figés, déjà joints et triés dans l'ordre du rapport
+ * (voir V13__Create_Cloture_Mouvements_CCP.sql) : lecture seule côté application, les lignes
+ * sont écrites par {@code ClotureMouvementsService}.
+ */
+@Entity
+@Immutable
+@Table(name = "cloturemouvementsccp")
+@IdClass(ClotureMouvementsCCPId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClotureMouvementsCCP {
+
+    @Id
+    @Column(name = "datemouv")
+    private LocalDate journee;
+
+    @Id
+    @Column(name = "codburpo")
+    private Long codeBureau;
+
+    @Column(name = "desburpo")
+    private String designation;
+
+    @Column(name = "nbremouv")
+    private Integer nombreMouvements;
+
+    /**
+     * Mouvements de la journée, par date de création, montant puis numéro décroissants
+     * (l'ordre de la pagination par curseur).
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "mouvements")
+    private List<Mouvement> mouvements;
+
+    /**
+     * Version des mouvements de la journée et du bureau figés par la clôture (versionMouvementsCCP,
+     * ou versionLibellesCCP si elle est plus récente) : la clôture n'est servie que tant que cette version est la version courante.
+     */
+    @Column(name = "version")
+    private Long version;
+
+    @Column(name = "datclotu")
+    private LocalDateTime dateCloture;
+
+    /**
+     * Un mouvement figé : les colonnes du rapport et les valeurs de tri du curseur.
+     */
+    public record Mouvement(
+            Long idencomp,               // N° Compte
+            String inticomp,             // Nom et prénom du titulaire
+            String libtypop,             // Type d'opération
+            String sensmouv,             // Sens du mouvement (D / C)
+            BigDecimal montmouv,         // Montant du mouvement
+            LocalDateTime datcreatemvt,  // Date de création (tri)
+            Integer numemouv             // Numéro du mouvement (tri)
+    ) {
+    }
+}
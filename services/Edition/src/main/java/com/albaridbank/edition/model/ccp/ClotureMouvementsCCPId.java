@@ -0,0 +1,37 @@
+package com.albaridbank.edition.model.ccp;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Represents the composite primary key for the ClotureMouvementsCCP entity:
+ * one closed day for one bureau.
+ *
+ * @author Mohamed Amine Eddafir
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClotureMouvementsCCPId implements Serializable {
+
+    /**
+     * Serial version UID for ensuring compatibility during serialization.
+     */
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The closed day of the movements.
+     */
+    private LocalDate journee;
+
+    /**
+     * The code of the bureau of the movements.
+     */
+    private Long codeBureau;
+}
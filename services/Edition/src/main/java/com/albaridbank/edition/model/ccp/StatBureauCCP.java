@@ -0,0 +1,59 @@
+package com.albaridbank.edition.model.ccp;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+
+/**
+ * Agrégats des comptes CCP par bureau, état et produit.
+ * Table alimentée par trigger sur compteCCP (voir V5__Create_Stat_Bureau_CCP.sql) : lecture seule côté application.
+ */
+@Entity
+@Immutable
+@Table(name = "statbureauccp")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatBureauCCP {
+
+    @Id
+    @Column(name = "idenstat")
+    private Long id;
+
+    @Column(name = "codburpo")
+    private Long codeBureau;
+
+    @Column(name = "codetacp")
+    private String codeEtatCompte;
+
+    @Column(name = "codeprod")
+    private Integer codeProduit;
+
+    @Column(name = "nbrecomp")
+    private Long nombreComptes;
+
+    @Column(name = "soldcour")
+    private BigDecimal soldeCourant;
+
+    @Column(name = "soldoppo")
+    private BigDecimal soldeOpposition;
+
+    @Column(name = "soldtaxe")
+    private BigDecimal soldeTaxe;
+
+    @Column(name = "solddebo")
+    private BigDecimal soldeDebitOperations;
+
+    @Column(name = "solddeco")
+    private BigDecimal soldeCreditOperations;
+
+    @Column(name = "solopede")
+    private BigDecimal soldeOperationsPeriode;
+
+    @Column(name = "soldcert")
+    private BigDecimal soldeCertifie;
+}
@@ -0,0 +1,16 @@
+package com.albaridbank.edition.repositorys.ccp;
+
+import com.albaridbank.edition.model.ccp.ClotureMouvementsCCP;
+import com.albaridbank.edition.model.ccp.ClotureMouvementsCCPId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for reading the closed days of CCP movements ({@link ClotureMouvementsCCP}).
+ * A closed-day report reads a single row by primary key instead of the day's movements.
+ *
+ * @author Mohamed Amine Eddafir
+ */
+@Repository
+public interface ClotureMouvementsCCPRepository extends JpaRepository<ClotureMouvementsCCP, ClotureMouvementsCCPId> {
+}
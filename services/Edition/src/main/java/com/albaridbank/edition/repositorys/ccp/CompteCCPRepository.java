@@ -1,18 +1,29 @@
 package com.albaridbank.edition.repositorys.ccp;
 
 import com.albaridbank.edition.model.ccp.CompteCCP;
+import com.albaridbank.edition.repositorys.ccp.projectionCCPRepo.ClassementSolde;
 import com.albaridbank.edition.repositorys.ccp.projectionCCPRepo.CompteStats;
+import com.albaridbank.edition.repositorys.ccp.projectionCCPRepo.LigneRechercheCompte;
+import com.albaridbank.edition.repositorys.ccp.projectionCCPRepo.LigneTop100;
 import com.albaridbank.edition.repositorys.ccp.projectionCCPRepo.PortefeuilleStats;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository interface for managing {@link CompteCCP} entities.
@@ -23,6 +34,13 @@ import java.util.Optional;
 @Repository
 public interface CompteCCPRepository extends JpaRepository<CompteCCP, Long>, JpaSpecificationExecutor<CompteCCP> {
 
+    /**
+     * Ordre du portefeuille d'un bureau, commun aux pages numérotées, aux pages par curseur et aux
+     * exports : solde décroissant (un solde absent compte pour 0) puis numéro de compte décroissant,
+     * ce qui rend l'ordre total. C'est l'ordre de l'index {@code idx_compte_ccp_bureau_curseur} (V10).
+     */
+    String TRI_PORTEFEUILLE = " ORDER BY COALESCE(c.soldeCourant, 0) DESC, c.idCompte DESC";
+
     /**
      * Calcule les statistiques globales pour les comptes actifs d'un bureau donné
      *
@@ -61,123 +79,128 @@ public interface CompteCCPRepository extends JpaRepository<CompteCCP, Long>, Jpa
             @Param("codeBureauPoste") Long codeBureauPoste,
             @Param("codeEtatCompte") List<String> codeEtatCompte);
 
+    /**
+     * Page du portefeuille d'un bureau, sans requête de comptage.
+     *
+     * <p>Même ordre que la pagination par curseur ({@link #TRI_PORTEFEUILLE}) : la page est lue
+     * dans l'index {@code idx_compte_ccp_bureau_curseur} (V10) et s'arrête à LIMIT au lieu de trier
+     * tout le bureau. Les totaux viennent de statBureauCCP. Le client et sa catégorie sont joints
+     * en externe pour que la page porte les mêmes comptes que ces totaux, y compris ceux sans client.</p>
+     *
+     * @param codeBureau Le code du bureau
+     * @param etatCompte Le filtre sur l'état du compte (peut être null)
+     * @param typeCompte Le filtre sur le type de compte (peut être null)
+     * @param pageable   La pagination (le tri est celui de la requête)
+     * @return Les comptes de la page, vide si la page est au-delà du dernier compte
+     */
     @Query("""
                 SELECT c FROM CompteCCP c
-                JOIN FETCH c.client cl
-                JOIN FETCH cl.categorieSocioProfessionnelle csp
+                LEFT JOIN FETCH c.client cl
+                LEFT JOIN FETCH cl.categorieSocioProfessionnelle csp
                 JOIN FETCH c.bureauPoste bp
                 WHERE c.bureauPoste.codeBureau = :codeBureau
                 AND (:etatCompte IS NULL OR c.codeEtatCompte = :etatCompte)
                 AND (:typeCompte IS NULL OR c.codeProduit = :typeCompte)
-                ORDER BY c.soldeCourant DESC
-            """)
-    Page<CompteCCP> findPortefeuilleClientsByBureauWithFilters(
+            """ + TRI_PORTEFEUILLE)
+    List<CompteCCP> findPagePortefeuilleClients(
             @Param("codeBureau") Long codeBureau,
             @Param("etatCompte") String etatCompte,
             @Param("typeCompte") Integer typeCompte,
             Pageable pageable
     );
 
+    /**
+     * Première page du portefeuille d'un bureau en pagination par clé (keyset).
+     *
+     * <p>Tri {@link #TRI_PORTEFEUILLE} ; aucune requête de comptage n'est exécutée. Comme pour
+     * la pagination par numéro de page, le client et sa catégorie sont joints en externe : les
+     * comptes sans client sont parcourus avec les autres.</p>
+     *
+     * @param codeBureau Le code du bureau
+     * @param etatCompte Le filtre sur l'état du compte (peut être null)
+     * @param typeCompte Le filtre sur le type de compte (peut être null)
+     * @param limit      Le nombre maximal de comptes
+     * @return Les premiers comptes du portefeuille
+     */
     @Query("""
-                SELECT
-                    COUNT(c) as nombreTotalComptes,
-                    SUM(c.soldeCourant) as encoursTotalComptes,
-                    SUM(c.soldeOpposition) as totalSoldeOpposition,
-                    SUM(c.soldeTaxe) as totalSoldeTaxe,
-                    SUM(c.soldeDebitOperations) as totalSoldeDebitOperations,
-                    SUM(c.soldeCreditOperations) as totalSoldeCreditOperations,
-                    SUM(c.soldeOperationsPeriode) as totalSoldeOperationsPeriode,
-                    SUM(c.soldeCertifie) as totalSoldeCertifie
-                FROM CompteCCP c
-                WHERE c.bureauPoste.codeBureau = :codeBureau
+                SELECT c FROM CompteCCP c
+                LEFT JOIN FETCH c.client cl
+                LEFT JOIN FETCH cl.categorieSocioProfessionnelle csp
+                JOIN FETCH c.bureauPoste bp
+                WHERE bp.codeBureau = :codeBureau
                 AND (:etatCompte IS NULL OR c.codeEtatCompte = :etatCompte)
                 AND (:typeCompte IS NULL OR c.codeProduit = :typeCompte)
-            """)
-    PortefeuilleStats calculerStatistiquesPortefeuilleDetail(
+            """ + TRI_PORTEFEUILLE)
+    List<CompteCCP> findPremiersPortefeuilleClientsByBureauWithFilters(
             @Param("codeBureau") Long codeBureau,
             @Param("etatCompte") String etatCompte,
-            @Param("typeCompte") Integer typeCompte
+            @Param("typeCompte") Integer typeCompte,
+            Limit limit
     );
 
     /**
-     * Finds accounts by bureau with filters and search term with pagination.
-     *
-     * @param codeBureau The bureau code
-     * @param etatCompte The account state filter (can be null)
-     * @param typeCompte The account type filter (can be null)
-     * @param searchTerm The search term to filter accounts
-     * @param pageable   The pagination information
-     * @return A page of matching accounts
+     * Page suivante du portefeuille d'un bureau en pagination par clé (keyset) : reprend
+     * strictement après le dernier compte de la page précédente, dans le même ordre que
+     * {@link #findPremiersPortefeuilleClientsByBureauWithFilters}.
+     *
+     * @param codeBureau    Le code du bureau
+     * @param etatCompte    Le filtre sur l'état du compte (peut être null)
+     * @param typeCompte    Le filtre sur le type de compte (peut être null)
+     * @param apresSolde    Le solde du dernier compte renvoyé
+     * @param apresIdCompte Le numéro du dernier compte renvoyé
+     * @param limit         Le nombre maximal de comptes
+     * @return Les comptes suivants du portefeuille
      */
     @Query("""
                 SELECT c FROM CompteCCP c
-                JOIN FETCH c.client cl
-                JOIN FETCH cl.categorieSocioProfessionnelle csp
+                LEFT JOIN FETCH c.client cl
+                LEFT JOIN FETCH cl.categorieSocioProfessionnelle csp
                 JOIN FETCH c.bureauPoste bp
-                WHERE c.bureauPoste.codeBureau = :codeBureau
+                WHERE bp.codeBureau = :codeBureau
                 AND (:etatCompte IS NULL OR c.codeEtatCompte = :etatCompte)
                 AND (:typeCompte IS NULL OR c.codeProduit = :typeCompte)
-                AND (
-                    LOWER(c.intitule) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                    OR CAST(c.idCompte AS string) LIKE CONCAT('%', :searchTerm, '%')
-                    OR LOWER(c.adresse) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                    OR LOWER(c.intituleCondense) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                    OR LOWER(cl.numeroPieceIdentite) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                    OR LOWER(cl.telephone) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                )
-                ORDER BY c.soldeCourant DESC
-            """)
-    Page<CompteCCP> findPortefeuilleClientsByBureauWithSearch(
+                AND (COALESCE(c.soldeCourant, 0), c.idCompte) < (:apresSolde, :apresIdCompte)
+            """ + TRI_PORTEFEUILLE)
+    List<CompteCCP> findPortefeuilleClientsByBureauWithFiltersApres(
             @Param("codeBureau") Long codeBureau,
             @Param("etatCompte") String etatCompte,
             @Param("typeCompte") Integer typeCompte,
-            @Param("searchTerm") String searchTerm,
-            Pageable pageable
+            @Param("apresSolde") BigDecimal apresSolde,
+            @Param("apresIdCompte") Long apresIdCompte,
+            Limit limit
     );
 
     /**
-     * Finds all accounts by bureau with filters and search term (no pagination).
+     * Parcourt au fil de l'eau les comptes d'un bureau pour les exports Excel.
      *
-     * @param codeBureau The bureau code
-     * @param etatCompte The account state filter (can be null)
-     * @param typeCompte The account type filter (can be null)
-     * @param searchTerm The search term to filter accounts
-     * @return List of all matching accounts
+     * <p>Les lignes sont lues par lots de {@code fetchSize} via un curseur JDBC et les
+     * entités sont chargées en lecture seule : l'appelant doit consommer (et fermer) le flux
+     * à l'intérieur d'une transaction, en détachant les entités déjà traitées.</p>
+     *
+     * @param codeBureau Le code du bureau
+     * @param etatCompte Le filtre sur l'état du compte (peut être null)
+     * @param typeCompte Le filtre sur le type de compte (peut être null)
+     * @return Un flux des comptes, dans l'ordre {@link #TRI_PORTEFEUILLE}
      */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
     @Query("""
                 SELECT c FROM CompteCCP c
-                JOIN FETCH c.client cl
-                JOIN FETCH cl.categorieSocioProfessionnelle csp
+                LEFT JOIN FETCH c.client cl
+                LEFT JOIN FETCH cl.categorieSocioProfessionnelle csp
                 JOIN FETCH c.bureauPoste bp
-                WHERE c.bureauPoste.codeBureau = :codeBureau
+                WHERE bp.codeBureau = :codeBureau
                 AND (:etatCompte IS NULL OR c.codeEtatCompte = :etatCompte)
                 AND (:typeCompte IS NULL OR c.codeProduit = :typeCompte)
-                AND (
-                    LOWER(c.intitule) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                    OR CAST(c.idCompte AS string) LIKE CONCAT('%', :searchTerm, '%')
-                    OR LOWER(c.adresse) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                    OR LOWER(c.intituleCondense) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                    OR LOWER(cl.numeroPieceIdentite) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                    OR LOWER(cl.telephone) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                )
-                ORDER BY c.soldeCourant DESC
-            """)
-    List<CompteCCP> findAllPortefeuilleClientsByBureauWithSearch(
+            """ + TRI_PORTEFEUILLE)
+    Stream<CompteCCP> streamPortefeuilleClientsByBureauWithFilters(
             @Param("codeBureau") Long codeBureau,
             @Param("etatCompte") String etatCompte,
-            @Param("typeCompte") Integer typeCompte,
-            @Param("searchTerm") String searchTerm
+            @Param("typeCompte") Integer typeCompte
     );
 
-    /**
-     * Calculates statistics for accounts that match the search criteria.
-     *
-     * @param codeBureau The bureau code
-     * @param etatCompte The account state filter (can be null)
-     * @param typeCompte The account type filter (can be null)
-     * @param searchTerm The search term to filter accounts
-     * @return Statistics for matching accounts
-     */
     @Query("""
                 SELECT
                     COUNT(c) as nombreTotalComptes,
@@ -189,23 +212,221 @@ public interface CompteCCPRepository extends JpaRepository<CompteCCP, Long>, Jpa
                     SUM(c.soldeOperationsPeriode) as totalSoldeOperationsPeriode,
                     SUM(c.soldeCertifie) as totalSoldeCertifie
                 FROM CompteCCP c
-                JOIN c.client cl
                 WHERE c.bureauPoste.codeBureau = :codeBureau
                 AND (:etatCompte IS NULL OR c.codeEtatCompte = :etatCompte)
                 AND (:typeCompte IS NULL OR c.codeProduit = :typeCompte)
-                AND (
-                    LOWER(c.intitule) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                    OR CAST(c.idCompte AS string) LIKE CONCAT('%', :searchTerm, '%')
-                    OR LOWER(c.adresse) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                    OR LOWER(c.intituleCondense) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                    OR LOWER(cl.numeroPieceIdentite) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                    OR LOWER(cl.telephone) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
+            """)
+    PortefeuilleStats calculerStatistiquesPortefeuilleDetail(
+            @Param("codeBureau") Long codeBureau,
+            @Param("etatCompte") String etatCompte,
+            @Param("typeCompte") Integer typeCompte
+    );
+
+    /**
+     * Recherche dans le portefeuille d'un bureau : libellés et adresse du compte, CIN et
+     * téléphone du client contenant le motif.
+     *
+     * <p>Les deux branches de l'union sont limitées aux comptes du bureau. À partir de 3 caractères,
+     * chaque branche est servie par un index trigramme (V6) et part des comptes trouvés ; un terme
+     * plus court n'a pas de trigramme complet et la recherche lit les comptes du bureau. Chaque
+     * ligne porte aussi les totaux de l'ensemble des comptes trouvés (fonctions de fenêtre).</p>
+     *
+     * @param codeBureau Le code du bureau
+     * @param etatCompte Le filtre sur l'état du compte (peut être null)
+     * @param typeCompte Le filtre sur le type de compte (peut être null)
+     * @param motif      Le motif LIKE, en minuscules et échappé (ex. {@code %dupont%})
+     * @param pageable   La pagination (non triée), ou {@link Pageable#unpaged()} pour tous les résultats
+     * @return Les comptes trouvés, triés par solde décroissant, avec les totaux
+     */
+    @Query(nativeQuery = true, value = """
+                SELECT c.idencomp AS "idCompte",
+                    COUNT(*) OVER () AS "nombreTotalComptes",
+                    SUM(c.soldcour) OVER () AS "encoursTotalComptes",
+                    SUM(c.soldoppo) OVER () AS "totalSoldeOpposition",
+                    SUM(c.soldtaxe) OVER () AS "totalSoldeTaxe",
+                    SUM(c.solddebo) OVER () AS "totalSoldeDebitOperations",
+                    SUM(c.solddeco) OVER () AS "totalSoldeCreditOperations",
+                    SUM(c.solopede) OVER () AS "totalSoldeOperationsPeriode",
+                    SUM(c.soldcert) OVER () AS "totalSoldeCertifie"
+                FROM compteCCP c
+                JOIN clientCCP cl ON cl.idenclie = c.idenclie
+                WHERE c.codbpcpt = :codeBureau
+                AND (CAST(:etatCompte AS VARCHAR) IS NULL OR c.codetacp = :etatCompte)
+                AND (CAST(:typeCompte AS INTEGER) IS NULL OR c.codeprod = :typeCompte)
+                AND c.idencomp IN (
+                    SELECT idencomp FROM compteCCP
+                    WHERE codbpcpt = :codeBureau
+                    AND (lower(inticomp) LIKE :motif
+                        OR lower(inticond) LIKE :motif
+                        OR lower(adrecomp) LIKE :motif)
+                    UNION
+                    SELECT cp.idencomp FROM compteCCP cp
+                    JOIN clientCCP cli ON cli.idenclie = cp.idenclie
+                    WHERE cp.codbpcpt = :codeBureau
+                    AND (lower(cli.numpieid) LIKE :motif
+                        OR cli.numetele LIKE :motif)
+                )
+                ORDER BY c.soldcour DESC, c.idencomp DESC
+            """)
+    List<LigneRechercheCompte> rechercherPortefeuilleClients(
+            @Param("codeBureau") Long codeBureau,
+            @Param("etatCompte") String etatCompte,
+            @Param("typeCompte") Integer typeCompte,
+            @Param("motif") String motif,
+            Pageable pageable
+    );
+
+    /**
+     * Recherche par préfixe d'identifiant dans le portefeuille d'un bureau : numéro de compte,
+     * CIN ou téléphone commençant par le motif (saisie d'un identifiant au fil de l'eau).
+     *
+     * <p>Même résultat que {@link #rechercherPortefeuilleClients}, mais limité aux colonnes
+     * d'identifiants et aux comptes du bureau ; le motif ancré est lu par plage sur l'index B-tree
+     * du numéro de compte et reste sélectif sur les index trigrammes du CIN et du téléphone,
+     * y compris pour 1 ou 2 caractères.</p>
+     *
+     * @param codeBureau Le code du bureau
+     * @param etatCompte Le filtre sur l'état du compte (peut être null)
+     * @param typeCompte Le filtre sur le type de compte (peut être null)
+     * @param motif      Le motif LIKE ancré, en minuscules et échappé (ex. {@code 1004%})
+     * @param pageable   La pagination (non triée), ou {@link Pageable#unpaged()} pour tous les résultats
+     * @return Les comptes trouvés, triés par solde décroissant, avec les totaux
+     */
+    @Query(nativeQuery = true, value = """
+                SELECT c.idencomp AS "idCompte",
+                    COUNT(*) OVER () AS "nombreTotalComptes",
+                    SUM(c.soldcour) OVER () AS "encoursTotalComptes",
+                    SUM(c.soldoppo) OVER () AS "totalSoldeOpposition",
+                    SUM(c.soldtaxe) OVER () AS "totalSoldeTaxe",
+                    SUM(c.solddebo) OVER () AS "totalSoldeDebitOperations",
+                    SUM(c.solddeco) OVER () AS "totalSoldeCreditOperations",
+                    SUM(c.solopede) OVER () AS "totalSoldeOperationsPeriode",
+                    SUM(c.soldcert) OVER () AS "totalSoldeCertifie"
+                FROM compteCCP c
+                JOIN clientCCP cl ON cl.idenclie = c.idenclie
+                WHERE c.codbpcpt = :codeBureau
+                AND (CAST(:etatCompte AS VARCHAR) IS NULL OR c.codetacp = :etatCompte)
+                AND (CAST(:typeCompte AS INTEGER) IS NULL OR c.codeprod = :typeCompte)
+                AND c.idencomp IN (
+                    SELECT idencomp FROM compteCCP
+                    WHERE codbpcpt = :codeBureau
+                    AND CAST(idencomp AS TEXT) LIKE :motif
+                    UNION
+                    SELECT cp.idencomp FROM compteCCP cp
+                    JOIN clientCCP cli ON cli.idenclie = cp.idenclie
+                    WHERE cp.codbpcpt = :codeBureau
+                    AND (lower(cli.numpieid) LIKE :motif
+                        OR cli.numetele LIKE :motif)
                 )
+                ORDER BY c.soldcour DESC, c.idencomp DESC
             """)
-    PortefeuilleStats calculerStatistiquesPortefeuilleDetailAvecRecherche(
+    List<LigneRechercheCompte> rechercherPortefeuilleClientsParIdentifiant(
             @Param("codeBureau") Long codeBureau,
             @Param("etatCompte") String etatCompte,
             @Param("typeCompte") Integer typeCompte,
-            @Param("searchTerm") String searchTerm
+            @Param("motif") String motif,
+            Pageable pageable
+    );
+
+    /**
+     * Charge les comptes trouvés par une recherche, avec leur client et leur bureau.
+     *
+     * @param idsComptes Les numéros des comptes
+     * @return Les comptes, sans ordre garanti
+     */
+    @Query("""
+                SELECT c FROM CompteCCP c
+                JOIN FETCH c.client cl
+                LEFT JOIN FETCH cl.categorieSocioProfessionnelle csp
+                JOIN FETCH c.bureauPoste bp
+                WHERE c.idCompte IN :idsComptes
+            """)
+    List<CompteCCP> findAllWithClientByIdCompteIn(@Param("idsComptes") Collection<Long> idsComptes);
+
+    /**
+     * Les plus gros soldes d'un bureau (Top 100), en projection sur les colonnes du rapport.
+     *
+     * <p>Le tri suit l'index (codbpcpt, soldcour DESC, idencomp DESC) : la lecture s'arrête
+     * après {@code limit} comptes.</p>
+     *
+     * @param codeBureau     Le code du bureau
+     * @param codeEtatCompte Les états de compte exclus du classement
+     * @param limit          Le nombre de comptes du classement
+     * @return Les comptes classés par solde décroissant
+     */
+    @Query("""
+                SELECT c.idCompte AS idCompte,
+                    c.intitule AS intitule,
+                    c.adresse AS adresse,
+                    csp.libelle AS libelleCsp,
+                    c.soldeCourant AS soldeCourant,
+                    c.bureauPoste.codeBureau AS codeBureau
+                FROM CompteCCP c
+                LEFT JOIN c.client cl
+                LEFT JOIN cl.categorieSocioProfessionnelle csp
+                WHERE c.bureauPoste.codeBureau = :codeBureau
+                AND c.soldeCourant IS NOT NULL
+                AND c.codeEtatCompte NOT IN :codeEtatCompte
+                ORDER BY c.soldeCourant DESC, c.idCompte DESC
+            """)
+    List<LigneTop100> findTopSoldesByBureau(
+            @Param("codeBureau") Long codeBureau,
+            @Param("codeEtatCompte") Collection<String> codeEtatCompte,
+            Limit limit
+    );
+
+    /**
+     * Parcourt les classements par solde de chaque bureau (d'une région ou de tout le réseau).
+     *
+     * <p>Pour chaque bureau, seules ses {@code taille} meilleures entrées sont lues, par un
+     * parcours d'index seul ; l'appelant fusionne les classements et doit fermer le flux
+     * à l'intérieur d'une transaction.</p>
+     *
+     * @param codeRegion     Le code de la région (null pour tout le réseau)
+     * @param codeEtatCompte Les états de compte exclus du classement
+     * @param taille         Le nombre d'entrées lues par bureau
+     * @return Un flux des entrées, par bureau, sans ordre global
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(nativeQuery = true, value = """
+                SELECT t.idencomp AS "idCompte",
+                    t.soldcour AS "soldeCourant",
+                    t.codbpcpt AS "codeBureau"
+                FROM bureauPosteCCP b
+                CROSS JOIN LATERAL (
+                    SELECT c.idencomp, c.soldcour, c.codbpcpt
+                    FROM compteCCP c
+                    WHERE c.codbpcpt = b.codburpo
+                    AND c.soldcour IS NOT NULL
+                    AND c.codetacp NOT IN (:codeEtatCompte)
+                    ORDER BY c.soldcour DESC, c.idencomp DESC
+                    LIMIT :taille
+                ) t
+                WHERE CAST(:codeRegion AS INTEGER) IS NULL OR b.coderegi = :codeRegion
+            """)
+    Stream<ClassementSolde> streamClassementsSoldesParBureau(
+            @Param("codeRegion") Integer codeRegion,
+            @Param("codeEtatCompte") Collection<String> codeEtatCompte,
+            @Param("taille") int taille
     );
-}
\ No newline at end of file
+
+    /**
+     * Charge les colonnes du rapport Top 100 pour les comptes retenus par un classement.
+     *
+     * @param idsComptes Les numéros des comptes
+     * @return Les lignes du rapport, sans ordre garanti
+     */
+    @Query("""
+                SELECT c.idCompte AS idCompte,
+                    c.intitule AS intitule,
+                    c.adresse AS adresse,
+                    csp.libelle AS libelleCsp,
+                    c.soldeCourant AS soldeCourant,
+                    c.bureauPoste.codeBureau AS codeBureau
+                FROM CompteCCP c
+                LEFT JOIN c.client cl
+                LEFT JOIN cl.categorieSocioProfessionnelle csp
+                WHERE c.idCompte IN :idsComptes
+            """)
+    List<LigneTop100> findTopSoldesByIdCompteIn(@Param("idsComptes") Collection<Long> idsComptes);
+}
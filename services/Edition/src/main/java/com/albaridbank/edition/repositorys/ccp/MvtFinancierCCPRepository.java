@@ -1,18 +1,25 @@
 package com.albaridbank.edition.repositorys.ccp;
 
+import com.albaridbank.edition.dto.base.MouvementFinancierDTO;
 import com.albaridbank.edition.model.ccp.MvtFinancierCCP;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository interface for managing {@link MvtFinancierCCP} entities.
@@ -28,24 +35,96 @@ import java.util.List;
 public interface MvtFinancierCCPRepository extends JpaRepository<MvtFinancierCCP, Integer>, JpaSpecificationExecutor<MvtFinancierCCP> {
 
     /**
-     * Finds all financial movements for a specific date and bureau code with a minimum amount.
+     * Finds a page of financial movements for a specific date and bureau code with a minimum amount,
+     * together with the statistics of all matching movements, in a single query.
+     *
+     * <p>The statistics are window functions evaluated before LIMIT/OFFSET, which avoids the count query
+     * and the second scan of {@link #getStatistiques}. Distinct accounts are counted as
+     * {@code dense_rank} ascending + descending - 1, since PostgreSQL has no {@code COUNT(DISTINCT) OVER}.</p>
      *
      * @param dateMouvement  The date of the movements.
      * @param codeBureau     The code of the post office.
      * @param montantMinimum The minimum amount of the movements
-     * @param pageable       Pagination information
-     * @return A page of financial movements meeting the criteria.
+     * @param pageable       Pagination information (sorting is the query's)
+     * @return The rows of the page, empty if the page is past the last matching movement.
      */
-    @EntityGraph(attributePaths = {"bureauPoste", "compte", "typeOperation"})
-    @Query("SELECT m FROM MvtFinancierCCP m " +
-            "WHERE m.dateMouvement = :dateMouvement AND m.codeBureau = :codeBureau AND ABS(m.montant) >= :montantMinimum " +
-            "ORDER BY m.dateCreation DESC, m.montant DESC")
-    Page<MvtFinancierCCP> findPageByDateMouvementAndCodeBureauAndMontantMin(
+    @Query("""
+            SELECT m AS mouvement,
+                COUNT(m) OVER () AS nombreMouvements,
+                SUM(m.montant) OVER () AS montantTotal,
+                DENSE_RANK() OVER (ORDER BY m.compte.idCompte)
+                    + DENSE_RANK() OVER (ORDER BY m.compte.idCompte DESC) - 1 AS nombreComptes
+            FROM MvtFinancierCCP m
+            LEFT JOIN FETCH m.bureauPoste
+            LEFT JOIN FETCH m.compte
+            LEFT JOIN FETCH m.typeOperation
+            WHERE m.dateMouvement = :dateMouvement AND m.codeBureau = :codeBureau AND ABS(m.montant) >= :montantMinimum
+            ORDER BY m.dateCreation DESC, m.montant DESC
+            """)
+    List<LigneMouvement> findPageAvecStatistiquesByDateMouvementAndCodeBureauAndMontantMin(
             @Param("dateMouvement") LocalDate dateMouvement,
             @Param("codeBureau") BigDecimal codeBureau,
             @Param("montantMinimum") BigDecimal montantMinimum,
             Pageable pageable);
 
+    /**
+     * Première page des mouvements d'une journée et d'un bureau en pagination par clé (keyset).
+     *
+     * <p>Tri par date de création décroissante (une date absente passe en dernier), montant
+     * décroissant puis numéro de mouvement décroissant ; aucune requête de comptage n'est exécutée.
+     * Ce tri est celui de l'index {@code idx_mvt_ccp_date_bureau_curseur} (V15) : la date absente est
+     * un littéral {@code datetime} (timestamp sans fuseau, comme la colonne et l'index), un littéral
+     * {@code {ts ...}} serait converti avec fuseau et écarterait l'index.</p>
+     *
+     * @param dateMouvement  The date of the movements.
+     * @param codeBureau     The code of the post office.
+     * @param montantMinimum The minimum amount of the movements
+     * @param limit          Le nombre maximal de mouvements
+     * @return Les premiers mouvements de la journée
+     */
+    @EntityGraph(attributePaths = {"bureauPoste", "compte", "typeOperation"})
+    @Query("""
+            SELECT m FROM MvtFinancierCCP m
+            WHERE m.dateMouvement = :dateMouvement AND m.codeBureau = :codeBureau AND ABS(m.montant) >= :montantMinimum
+            ORDER BY COALESCE(m.dateCreation, datetime 1970-01-01 00:00:00) DESC, m.montant DESC, m.numeroMouvement DESC
+            """)
+    List<MvtFinancierCCP> findPremiersByDateMouvementAndCodeBureauAndMontantMin(
+            @Param("dateMouvement") LocalDate dateMouvement,
+            @Param("codeBureau") BigDecimal codeBureau,
+            @Param("montantMinimum") BigDecimal montantMinimum,
+            Limit limit);
+
+    /**
+     * Page suivante des mouvements en pagination par clé (keyset) : reprend strictement après
+     * le dernier mouvement de la page précédente, dans le même ordre que
+     * {@link #findPremiersByDateMouvementAndCodeBureauAndMontantMin}.
+     *
+     * @param dateMouvement        The date of the movements.
+     * @param codeBureau           The code of the post office.
+     * @param montantMinimum       The minimum amount of the movements
+     * @param apresDateCreation    La date de création du dernier mouvement renvoyé
+     * @param apresMontant         Le montant du dernier mouvement renvoyé
+     * @param apresNumeroMouvement Le numéro du dernier mouvement renvoyé
+     * @param limit                Le nombre maximal de mouvements
+     * @return Les mouvements suivants de la journée
+     */
+    @EntityGraph(attributePaths = {"bureauPoste", "compte", "typeOperation"})
+    @Query("""
+            SELECT m FROM MvtFinancierCCP m
+            WHERE m.dateMouvement = :dateMouvement AND m.codeBureau = :codeBureau AND ABS(m.montant) >= :montantMinimum
+            AND (COALESCE(m.dateCreation, datetime 1970-01-01 00:00:00), m.montant, m.numeroMouvement)
+                < (:apresDateCreation, :apresMontant, :apresNumeroMouvement)
+            ORDER BY COALESCE(m.dateCreation, datetime 1970-01-01 00:00:00) DESC, m.montant DESC, m.numeroMouvement DESC
+            """)
+    List<MvtFinancierCCP> findByDateMouvementAndCodeBureauAndMontantMinApres(
+            @Param("dateMouvement") LocalDate dateMouvement,
+            @Param("codeBureau") BigDecimal codeBureau,
+            @Param("montantMinimum") BigDecimal montantMinimum,
+            @Param("apresDateCreation") LocalDateTime apresDateCreation,
+            @Param("apresMontant") BigDecimal apresMontant,
+            @Param("apresNumeroMouvement") Integer apresNumeroMouvement,
+            Limit limit);
+
     /**
      * Interface de projection pour les statistiques des mouvements
      */
@@ -53,6 +132,16 @@ public interface MvtFinancierCCPRepository extends JpaRepository<MvtFinancierCCP
         Integer getNombreComptes();
 
         BigDecimal getMontantTotal();
+
+        Long getNombreMouvements();
+    }
+
+    /**
+     * Interface de projection d'une ligne de page : le mouvement et, répétées sur chaque ligne,
+     * les statistiques de l'ensemble des mouvements filtrés
+     */
+    interface LigneMouvement extends MouvementStats {
+        MvtFinancierCCP getMouvement();
     }
 
     /**
@@ -60,9 +149,10 @@ public interface MvtFinancierCCPRepository extends JpaRepository<MvtFinancierCCP
      *
      * @param date       The date of the movements
      * @param codeBureau The bureau code
-     * @return MouvementStats containing count of distinct accounts and sum of movement amounts
+     * @return MouvementStats containing count of distinct accounts, sum and count of movements
      */
-    @Query("SELECT COUNT(DISTINCT m.compte.idCompte) as nombreComptes, SUM(m.montant) as montantTotal " +
+    @Query("SELECT COUNT(DISTINCT m.compte.idCompte) as nombreComptes, SUM(m.montant) as montantTotal, " +
+            "COUNT(m) as nombreMouvements " +
             "FROM MvtFinancierCCP m " +
             "WHERE m.dateMouvement = :date AND m.codeBureau = :codeBureau AND ABS(m.montant) >= :montantMinimum")
     MouvementStats getStatistiques(
@@ -72,23 +162,61 @@ public interface MvtFinancierCCPRepository extends JpaRepository<MvtFinancierCCP
 
     /**
      * Trouve tous les mouvements financiers pour une date, un bureau et un montant minimum spécifiques sans pagination.
-     * Cette méthode est optimisée pour l'analyse des données et les graphiques.
+     *
+     * <p>Les lignes du rapport sont construites dans la requête ({@link MouvementFinancierDTO}) : le compte,
+     * le bureau et le type d'opération sont joints, aucune entité n'est chargée et le nombre de requêtes
+     * ne dépend pas du nombre de mouvements (une seule requête).</p>
      *
      * @param dateMouvement  La date des mouvements.
      * @param codeBureau     Le code du bureau.
      * @param montantMinimum Le montant minimum des mouvements.
-     * @return Une liste de mouvements financiers.
+     * @return Les lignes du rapport, par montant décroissant.
      */
     @Query(value = """
-            SELECT m FROM MvtFinancierCCP m
+            SELECT new com.albaridbank.edition.dto.base.MouvementFinancierDTO(
+                c.idCompte, c.intitule, b.codeBureau, b.designation, t.libelle, m.sens, m.montant)
+            FROM MvtFinancierCCP m
+            LEFT JOIN m.compte c
+            LEFT JOIN m.bureauPoste b
+            LEFT JOIN m.typeOperation t
+            WHERE m.dateMouvement = :dateMouvement
+            AND m.codeBureau = :codeBureau
+            AND m.montant >= :montantMinimum
+            ORDER BY m.montant DESC
+            """)
+    List<MouvementFinancierDTO> findAllByDateMouvementAndCodeBureauAndMontantMin(
+            @Param("dateMouvement") LocalDate dateMouvement,
+            @Param("codeBureau") BigDecimal codeBureau,
+            @Param("montantMinimum") BigDecimal montantMinimum
+    );
+
+    /**
+     * Parcourt les mouvements financiers d'une date et d'un bureau, au-dessus d'un montant minimum,
+     * via un curseur JDBC : mêmes lignes et même ordre que
+     * {@link #findAllByDateMouvementAndCodeBureauAndMontantMin}, sans tout charger en mémoire.
+     * Le flux doit être fermé et consommé dans une transaction.
+     *
+     * @param dateMouvement  La date des mouvements.
+     * @param codeBureau     Le code du bureau.
+     * @param montantMinimum Le montant minimum des mouvements.
+     * @return Un flux des lignes du rapport, par montant décroissant.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = """
+            SELECT new com.albaridbank.edition.dto.base.MouvementFinancierDTO(
+                c.idCompte, c.intitule, b.codeBureau, b.designation, t.libelle, m.sens, m.montant)
+            FROM MvtFinancierCCP m
+            LEFT JOIN m.compte c
+            LEFT JOIN m.bureauPoste b
+            LEFT JOIN m.typeOperation t
             WHERE m.dateMouvement = :dateMouvement
             AND m.codeBureau = :codeBureau
             AND m.montant >= :montantMinimum
             ORDER BY m.montant DESC
             """)
-    List<MvtFinancierCCP> findAllByDateMouvementAndCodeBureauAndMontantMin(
+    Stream<MouvementFinancierDTO> streamAllByDateMouvementAndCodeBureauAndMontantMin(
             @Param("dateMouvement") LocalDate dateMouvement,
             @Param("codeBureau") BigDecimal codeBureau,
             @Param("montantMinimum") BigDecimal montantMinimum
     );
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package com.albaridbank.edition.repositorys.ccp;
+
+import com.albaridbank.edition.model.ccp.StatBureauCCP;
+import com.albaridbank.edition.repositorys.ccp.projectionCCPRepo.CompteStats;
+import com.albaridbank.edition.repositorys.ccp.projectionCCPRepo.PortefeuilleStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for reading the per-bureau CCP account aggregates ({@link StatBureauCCP}).
+ * Same results as the statistics queries of {@link CompteCCPRepository}, but read from a few
+ * pre-aggregated rows (one per state and product) instead of scanning the bureau's accounts.
+ *
+ * @author Mohamed Amine Eddafir
+ */
+@Repository
+public interface StatBureauCCPRepository extends JpaRepository<StatBureauCCP, Long> {
+
+    /**
+     * Calcule les statistiques globales pour les comptes actifs d'un bureau donné
+     *
+     * @param codeBureauPoste Le code du bureau
+     * @param codeEtatCompte  Liste des états de compte à exclure (inactifs)
+     * @return Les statistiques contenant le nombre total de comptes et la somme des soldes
+     */
+    @Query("""
+             SELECT
+                 COALESCE(SUM(s.nombreComptes), 0) as nombreTotalComptes,
+                 SUM(s.soldeCourant) as encoursTotalComptes
+             FROM StatBureauCCP s
+             WHERE s.codeBureau = :codeBureauPoste
+             AND s.codeEtatCompte NOT IN :codeEtatCompte
+            """)
+    PortefeuilleStats calculerStatistiquesPortefeuille(
+            @Param("codeBureauPoste") Long codeBureauPoste,
+            @Param("codeEtatCompte") List<String> codeEtatCompte);
+
+    /**
+     * Calcule les statistiques globales pour les comptes actifs d'un bureau donné
+     *
+     * @param codeBureauPoste Le code du bureau
+     * @param codeEtatCompte  Liste des états de compte à exclure (inactifs)
+     * @return Les statistiques des comptes, vide si le bureau n'a aucun compte actif
+     */
+    @Query("""
+             SELECT
+                 b.codeBureau as codburpo,
+                 b.designation as desburpo,
+                 SUM(s.nombreComptes) as nombreTotalComptes,
+                 SUM(s.soldeCourant) as totalEncours
+             FROM StatBureauCCP s
+             JOIN BureauPosteCCP b ON b.codeBureau = s.codeBureau
+             WHERE s.codeBureau = :codeBureauPoste
+             AND s.codeEtatCompte NOT IN :codeEtatCompte
+             GROUP BY b.codeBureau, b.designation
+            """)
+    Optional<CompteStats> calculerStatistiquesComptes(
+            @Param("codeBureauPoste") Long codeBureauPoste,
+            @Param("codeEtatCompte") List<String> codeEtatCompte);
+
+    /**
+     * Calcule les statistiques détaillées des comptes d'un bureau, avec filtres optionnels
+     *
+     * @param codeBureau Le code du bureau
+     * @param etatCompte Le filtre sur l'état du compte (peut être null)
+     * @param typeCompte Le filtre sur le type de compte (peut être null)
+     * @return Les statistiques des comptes correspondants
+     */
+    @Query("""
+                SELECT
+                    COALESCE(SUM(s.nombreComptes), 0) as nombreTotalComptes,
+                    SUM(s.soldeCourant) as encoursTotalComptes,
+                    SUM(s.soldeOpposition) as totalSoldeOpposition,
+                    SUM(s.soldeTaxe) as totalSoldeTaxe,
+                    SUM(s.soldeDebitOperations) as totalSoldeDebitOperations,
+                    SUM(s.soldeCreditOperations) as totalSoldeCreditOperations,
+                    SUM(s.soldeOperationsPeriode) as totalSoldeOperationsPeriode,
+                    SUM(s.soldeCertifie) as totalSoldeCertifie
+                FROM StatBureauCCP s
+                WHERE s.codeBureau = :codeBureau
+                AND (:etatCompte IS NULL OR s.codeEtatCompte = :etatCompte)
+                AND (:typeCompte IS NULL OR s.codeProduit = :typeCompte)
+            """)
+    PortefeuilleStats calculerStatistiquesPortefeuilleDetail(
+            @Param("codeBureau") Long codeBureau,
+            @Param("etatCompte") String etatCompte,
+            @Param("typeCompte") Integer typeCompte
+    );
+}
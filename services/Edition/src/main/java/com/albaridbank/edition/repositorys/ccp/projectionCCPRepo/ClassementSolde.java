@@ -0,0 +1,12 @@
+package com.albaridbank.edition.repositorys.ccp.projectionCCPRepo;
+
+import java.math.BigDecimal;
+
+/**
+ * Entrée d'un classement par solde, lue depuis l'index (bureau, solde, compte) seul.
+ */
+public interface ClassementSolde {
+    Long getIdCompte();            // Correspond à t.idencomp AS "idCompte"
+    BigDecimal getSoldeCourant();  // Correspond à t.soldcour AS "soldeCourant"
+    Long getCodeBureau();          // Correspond à t.codbpcpt AS "codeBureau"
+}
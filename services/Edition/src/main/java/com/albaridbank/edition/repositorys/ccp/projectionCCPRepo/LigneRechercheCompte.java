@@ -0,0 +1,9 @@
+package com.albaridbank.edition.repositorys.ccp.projectionCCPRepo;
+
+/**
+ * Ligne d'une page de recherche dans le portefeuille : le numéro du compte trouvé et, répétés
+ * sur chaque ligne, les totaux de l'ensemble des comptes trouvés (fonctions de fenêtre).
+ */
+public interface LigneRechercheCompte extends PortefeuilleStats {
+    Long getIdCompte();            // Correspond à c.idencomp as "idCompte"
+}
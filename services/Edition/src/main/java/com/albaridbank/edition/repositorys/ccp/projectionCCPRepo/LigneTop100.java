@@ -0,0 +1,16 @@
+package com.albaridbank.edition.repositorys.ccp.projectionCCPRepo;
+
+import java.math.BigDecimal;
+
+/**
+ * Ligne du classement Top 100 : uniquement les colonnes affichées par le rapport,
+ * sans charger les entités compte et client.
+ */
+public interface LigneTop100 {
+    Long getIdCompte();            // Correspond à c.idCompte as idCompte
+    String getIntitule();          // Correspond à c.intitule as intitule
+    String getAdresse();           // Correspond à c.adresse as adresse
+    String getLibelleCsp();        // Correspond à csp.libelle as libelleCsp
+    BigDecimal getSoldeCourant();  // Correspond à c.soldeCourant as soldeCourant
+    Long getCodeBureau();          // Correspond à c.bureauPoste.codeBureau as codeBureau
+}
@@ -2,6 +2,9 @@ package com.albaridbank.edition.repositorys.cen;
 
 import com.albaridbank.edition.model.cen.CompteCEN;
 import com.albaridbank.edition.model.cen.CompteCENId;
+import com.albaridbank.edition.repositorys.cen.projectionCENRepo.EncoursCENStats;
+import com.albaridbank.edition.repositorys.cen.projectionCENRepo.LignePortefeuilleCEN;
+import com.albaridbank.edition.repositorys.cen.projectionCENRepo.SoldeCENStats;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +13,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing {@link CompteCEN} entities.
@@ -44,8 +48,73 @@ public interface CompteCENRepository extends JpaRepository<CompteCEN, CompteCENI
      *
      * @param codeBureau       The code of the post office.
      * @param codeTypeActivite The activity type code to exclude.
-     * @return An Object array where [0] = number of accounts and [1] = sum of balances.
+     * @return The number of accounts and the sum of balances (0 when the post office has no account).
      */
-    @Query("SELECT COUNT(c), SUM(c.soldeCourant) FROM CompteCEN c WHERE c.bureauPoste.codeBureau = :codeBureau AND c.codeTypeActivite <> :codeTypeActivite")
-    Object[] countAndSumSoldeByBureauPosteAndActiveAccounts(@Param("codeBureau") Long codeBureau, @Param("codeTypeActivite") Integer codeTypeActivite);
-}
\ No newline at end of file
+    @Query("""
+                SELECT COUNT(c) AS nombreComptes,
+                    COALESCE(SUM(c.soldeCourant), 0) AS totalEncours
+                FROM CompteCEN c
+                WHERE c.bureauPoste.codeBureau = :codeBureau
+                AND c.codeTypeActivite <> :codeTypeActivite
+            """)
+    SoldeCENStats countAndSumSoldeByBureauPosteAndActiveAccounts(@Param("codeBureau") Long codeBureau, @Param("codeTypeActivite") Integer codeTypeActivite);
+
+    /**
+     * Page du portefeuille CEN d'un bureau, en projection sur les colonnes du rapport.
+     *
+     * <p>Le client et sa catégorie socio-professionnelle sont joints dans la requête : aucune
+     * entité n'est chargée et aucune requête n'est émise par compte. Le tri suit l'index
+     * {@code idx_compte_cen_bureau_solde} (V9) : la page est lue dans l'index et s'arrête à
+     * LIMIT. Les totaux du bureau sont lus à part ({@link #calculerEncoursBureau}).</p>
+     *
+     * @param codeBureau       Le code du bureau
+     * @param codeTypeActivite Le code d'activité exclu (comptes clôturés)
+     * @param pageable         La pagination (non triée, le tri est celui de la requête)
+     * @return Les lignes de la page, vide si la page est au-delà du dernier compte
+     */
+    @Query("""
+                SELECT c.idCompte AS idCompte,
+                    c.intitule AS intitule,
+                    c.adresse AS adresse,
+                    csp.libelle AS libelleCsp,
+                    cl.dateNaissance AS dateNaissance,
+                    cl.numeroPieceIdentite AS numeroPieceIdentite,
+                    cl.telephone AS telephone,
+                    c.codeTypeActivite AS codeTypeActivite,
+                    c.soldeCourant AS soldeCourant,
+                    c.dureeCompte AS dureeCompte
+                FROM CompteCEN c
+                LEFT JOIN c.client cl
+                LEFT JOIN cl.categorieSocioProfessionnelle csp
+                WHERE c.bureauPoste.codeBureau = :codeBureau
+                AND c.codeTypeActivite <> :codeTypeActivite
+                ORDER BY c.soldeCourant DESC, c.idCompte DESC, c.codeProduit DESC
+            """)
+    List<LignePortefeuilleCEN> findPagePortefeuilleCEN(
+            @Param("codeBureau") Long codeBureau,
+            @Param("codeTypeActivite") Integer codeTypeActivite,
+            Pageable pageable
+    );
+
+    /**
+     * Nombre de comptes et encours d'un bureau CEN, avec la désignation du bureau.
+     *
+     * @param codeBureau       Le code du bureau
+     * @param codeTypeActivite Le code d'activité exclu (comptes clôturés)
+     * @return Les statistiques du bureau, vide si le bureau n'existe pas
+     */
+    @Query("""
+                SELECT b.codeBureau AS codburpo,
+                    b.designation AS desburpo,
+                    COUNT(c) AS nombreComptes,
+                    COALESCE(SUM(c.soldeCourant), 0) AS totalEncours
+                FROM BurePostCEN b
+                LEFT JOIN CompteCEN c ON c.bureauPoste = b AND c.codeTypeActivite <> :codeTypeActivite
+                WHERE b.codeBureau = :codeBureau
+                GROUP BY b.codeBureau, b.designation
+            """)
+    Optional<EncoursCENStats> calculerEncoursBureau(
+            @Param("codeBureau") Long codeBureau,
+            @Param("codeTypeActivite") Integer codeTypeActivite
+    );
+}
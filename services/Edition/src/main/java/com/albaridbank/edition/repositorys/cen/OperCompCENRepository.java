@@ -2,13 +2,23 @@ package com.albaridbank.edition.repositorys.cen;
 
 import com.albaridbank.edition.model.cen.OperCompCEN;
 import com.albaridbank.edition.model.cen.OperCompCENId;
+import com.albaridbank.edition.repositorys.cen.projectionCENRepo.LigneMouvementCEN;
+import com.albaridbank.edition.repositorys.cen.projectionCENRepo.LigneOperationCEN;
+import com.albaridbank.edition.repositorys.cen.projectionCENRepo.MouvementCENStats;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository interface for managing {@link OperCompCEN} entities.
@@ -28,19 +38,6 @@ public interface OperCompCENRepository extends JpaRepository<OperCompCEN, OperCo
      */
     List<OperCompCEN> findByDateOperationAndCodeBureau(LocalDate dateOperation, Long codeBureau);
 
-    /**
-     * Counts the number of distinct accounts with operations and sums the amounts for a specific date and post office.
-     *
-     * @param dateOperation The date of the operations.
-     * @param codeBureau    The code of the post office.
-     * @return An Object array where [0] = number of distinct accounts and [1] = sum of operation amounts.
-     */
-    @Query("SELECT COUNT(DISTINCT " +
-            "(CASE WHEN o.compteDebit IS NOT NULL THEN o.compteDebit ELSE o.compteCredit END)), " +
-            "SUM(o.montantOperation) " +
-            "FROM OperCompCEN o WHERE o.dateOperation = :dateOperation AND o.codeBureau = :codeBureau")
-    Object[] countDistinctAccountsAndSumMontant(@Param("dateOperation") LocalDate dateOperation, @Param("codeBureau") Long codeBureau);
-
     /**
      * Finds operations for a specific date, post office, and list of accounts.
      *
@@ -56,21 +53,158 @@ public interface OperCompCENRepository extends JpaRepository<OperCompCEN, OperCo
             @Param("codeBureau") Long codeBureau,
             @Param("comptes") List<Long> comptes);
 
+    /**
+     * Opérations CEN d'une journée et d'un bureau touchant l'un des comptes donnés, avec les
+     * intitulés des comptes débité et crédité.
+     *
+     * <p>Les comptes sont liés comme un seul paramètre tableau : le texte de la requête ne dépend
+     * pas du nombre de comptes et PostgreSQL réutilise le même plan préparé, contrairement à une
+     * liste {@code IN} dont la forme change avec chaque taille. Le tableau est déplié en
+     * sous-requête ({@code IN (SELECT UNNEST(...))}) pour être haché : avec un plan générique,
+     * {@code = ANY(:comptes)} parcourt le tableau entier pour chaque opération. Pour de grandes
+     * sélections, passer par {@code OperCompCENLookupService} qui découpe en lots.</p>
+     *
+     * @param dateOperation La date des opérations
+     * @param codeBureau    Le code du bureau
+     * @param comptes       Les numéros de comptes (débit ou crédit)
+     * @return Les opérations trouvées, par numéro d'ordre
+     */
+    @Query(nativeQuery = true, value = """
+                SELECT o.numeordr AS "numeroOrdre",
+                    o.compdebi AS "compteDebit",
+                    d.inticomp AS "intituleCompteDebit",
+                    o.compcred AS "compteCredit",
+                    c.inticomp AS "intituleCompteCredit",
+                    o.codtypop AS "codeTypeOperation",
+                    t.libtypop AS "libelleTypeOperation",
+                    o.montoper AS "montant",
+                    o.datevale AS "dateValeur"
+                FROM opercompcen o
+                LEFT JOIN typeopercen t ON t.codtypop = o.codtypop
+                LEFT JOIN comptecen d ON d.idencomp = o.compdebi AND d.codeprod = o.codprode
+                LEFT JOIN comptecen c ON c.idencomp = o.compcred AND c.codeprod = o.codprocr
+                WHERE o.dateoper = :dateOperation
+                AND o.codburpo = :codeBureau
+                AND (o.compdebi IN (SELECT UNNEST(CAST(:comptes AS NUMERIC[])))
+                    OR o.compcred IN (SELECT UNNEST(CAST(:comptes AS NUMERIC[]))))
+                ORDER BY o.numeordr
+            """)
+    List<LigneOperationCEN> findByDateOperationAndCodeBureauAndCompteAny(
+            @Param("dateOperation") LocalDate dateOperation,
+            @Param("codeBureau") Long codeBureau,
+            @Param("comptes") Long[] comptes);
+
     /**
      * Finds operations with account titles for a specific date and post office.
      *
+     * <p>Only the rendered columns are selected: no {@link OperCompCEN} entity is hydrated.</p>
+     *
+     * @param dateOperation The date of the operations.
+     * @param codeBureau    The code of the post office.
+     * @return The operations of the day, by order number, with the debit and credit account titles.
+     */
+    @Query("""
+                SELECT o.numeroOrdre AS numeroOrdre,
+                    o.compteDebit AS compteDebit,
+                    d.intitule AS intituleCompteDebit,
+                    o.compteCredit AS compteCredit,
+                    c.intitule AS intituleCompteCredit,
+                    t.codeTypeOperation AS codeTypeOperation,
+                    t.libelle AS libelleTypeOperation,
+                    o.montantOperation AS montant,
+                    o.dateValeur AS dateValeur
+                FROM OperCompCEN o
+                LEFT JOIN o.typeOperation t
+                LEFT JOIN CompteCEN d ON d.idCompte = o.compteDebit AND d.codeProduit = o.codeProduitDebit
+                LEFT JOIN CompteCEN c ON c.idCompte = o.compteCredit AND c.codeProduit = o.codeProduitCredit
+                WHERE o.dateOperation = :dateOperation AND o.codeBureau = :codeBureau
+                ORDER BY o.numeroOrdre
+            """)
+    List<LigneOperationCEN> findWithIntitulesByDateOperationAndCodeBureau(
+            @Param("dateOperation") LocalDate dateOperation,
+            @Param("codeBureau") Long codeBureau);
+
+    /**
+     * Streams the operations with account titles for a specific date and post office.
+     *
+     * <p>Same rows as {@link #findWithIntitulesByDateOperationAndCodeBureau}, read by batches of
+     * 1000 from the database cursor instead of being collected in a list: the caller must
+     * consume and close the stream inside a transaction.</p>
+     *
      * @param dateOperation The date of the operations.
      * @param codeBureau    The code of the post office.
-     * @return A list of objects where [0] = OperCompCEN, [1] = debit account title, [2] = credit account title.
+     * @return A stream of the operations of the day, by order number.
      */
-    @Query("SELECT o, " +
-            "d.intitule as intituleCompteDebit, " +  // Utilisation de 'inticomp' au lieu de 'intituleCompte'
-            "c.intitule as intituleCompteCredit " +  // Utilisation de 'inticomp' au lieu de 'intituleCompte'
-            "FROM OperCompCEN o " +
-            "LEFT JOIN CompteCEN d ON d.idCompte = o.compteDebit AND d.codeProduit = o.codeProduitDebit " +
-            "LEFT JOIN CompteCEN c ON c.idCompte = o.compteCredit AND c.codeProduit = o.codeProduitCredit " +
-            "WHERE o.dateOperation = :dateOperation AND o.codeBureau = :codeBureau")
-    List<Object[]> findWithIntitulesByDateOperationAndCodeBureau(
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+                SELECT o.numeroOrdre AS numeroOrdre,
+                    o.compteDebit AS compteDebit,
+                    d.intitule AS intituleCompteDebit,
+                    o.compteCredit AS compteCredit,
+                    c.intitule AS intituleCompteCredit,
+                    t.codeTypeOperation AS codeTypeOperation,
+                    t.libelle AS libelleTypeOperation,
+                    o.montantOperation AS montant,
+                    o.dateValeur AS dateValeur
+                FROM OperCompCEN o
+                LEFT JOIN o.typeOperation t
+                LEFT JOIN CompteCEN d ON d.idCompte = o.compteDebit AND d.codeProduit = o.codeProduitDebit
+                LEFT JOIN CompteCEN c ON c.idCompte = o.compteCredit AND c.codeProduit = o.codeProduitCredit
+                WHERE o.dateOperation = :dateOperation AND o.codeBureau = :codeBureau
+                ORDER BY o.numeroOrdre
+            """)
+    Stream<LigneOperationCEN> streamWithIntitulesByDateOperationAndCodeBureau(
             @Param("dateOperation") LocalDate dateOperation,
             @Param("codeBureau") Long codeBureau);
-}
\ No newline at end of file
+
+    /**
+     * Page des opérations CEN d'une journée et d'un bureau, en projection sur les colonnes
+     * du rapport.
+     *
+     * <p>Le filtre porte sur le préfixe (dateoper, codburpo) de la clé primaire et le type
+     * d'opération est joint dans la requête. Les totaux de la journée sont lus à part
+     * ({@link #calculerStatistiquesMouvements}).</p>
+     *
+     * @param dateOperation La date des opérations
+     * @param codeBureau    Le code du bureau
+     * @param pageable      La pagination (non triée, les opérations suivent leur numéro d'ordre)
+     * @return Les lignes de la page, vide si la page est au-delà de la dernière opération
+     */
+    @Query("""
+                SELECT COALESCE(o.compteDebit, o.compteCredit) AS idCompte,
+                    t.libelle AS libelleTypeOperation,
+                    CASE WHEN o.compteDebit IS NOT NULL THEN 'D' ELSE 'C' END AS sens,
+                    o.montantOperation AS montant
+                FROM OperCompCEN o
+                LEFT JOIN o.typeOperation t
+                WHERE o.dateOperation = :dateOperation AND o.codeBureau = :codeBureau
+                ORDER BY o.numeroOrdre
+            """)
+    List<LigneMouvementCEN> findPageMouvementsByDateOperationAndCodeBureau(
+            @Param("dateOperation") LocalDate dateOperation,
+            @Param("codeBureau") Long codeBureau,
+            Pageable pageable
+    );
+
+    /**
+     * Totaux des opérations CEN d'une journée et d'un bureau (préfixe de la clé primaire).
+     *
+     * @param dateOperation La date des opérations
+     * @param codeBureau    Le code du bureau
+     * @return Le nombre d'opérations, de comptes distincts et le montant total
+     */
+    @Query("""
+                SELECT COUNT(o) AS nombreOperations,
+                    COUNT(DISTINCT COALESCE(o.compteDebit, o.compteCredit)) AS nombreComptes,
+                    COALESCE(SUM(o.montantOperation), 0) AS montantTotal
+                FROM OperCompCEN o
+                WHERE o.dateOperation = :dateOperation AND o.codeBureau = :codeBureau
+            """)
+    MouvementCENStats calculerStatistiquesMouvements(
+            @Param("dateOperation") LocalDate dateOperation,
+            @Param("codeBureau") Long codeBureau
+    );
+}
@@ -0,0 +1,6 @@
+package com.albaridbank.edition.repositorys.cen.projectionCENRepo;
+
+public interface EncoursCENStats extends SoldeCENStats {
+    Long getCodburpo();               // Correspond à b.codeBureau as codburpo
+    String getDesburpo();             // Correspond à b.designation as desburpo
+}
@@ -0,0 +1,13 @@
+package com.albaridbank.edition.repositorys.cen.projectionCENRepo;
+
+import java.math.BigDecimal;
+
+/**
+ * Ligne d'une page des opérations CEN d'une journée : les colonnes affichées par le rapport.
+ */
+public interface LigneMouvementCEN {
+    Long getIdCompte();               // Correspond à COALESCE(o.compteDebit, o.compteCredit) as idCompte
+    String getLibelleTypeOperation(); // Correspond à t.libelle as libelleTypeOperation
+    String getSens();                 // Correspond à 'D' (compte débité) ou 'C' as sens
+    BigDecimal getMontant();          // Correspond à o.montantOperation as montant
+}
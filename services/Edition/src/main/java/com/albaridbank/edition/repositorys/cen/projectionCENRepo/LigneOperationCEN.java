@@ -0,0 +1,20 @@
+package com.albaridbank.edition.repositorys.cen.projectionCENRepo;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Opération CEN d'une journée avec les intitulés des comptes débité et crédité,
+ * limitée aux colonnes affichées par les éditions.
+ */
+public interface LigneOperationCEN {
+    Long getNumeroOrdre();            // Correspond à o.numeroOrdre as numeroOrdre
+    Long getCompteDebit();            // Correspond à o.compteDebit as compteDebit
+    String getIntituleCompteDebit();  // Correspond à d.intitule as intituleCompteDebit
+    Long getCompteCredit();           // Correspond à o.compteCredit as compteCredit
+    String getIntituleCompteCredit(); // Correspond à c.intitule as intituleCompteCredit
+    Long getCodeTypeOperation();      // Correspond à t.codeTypeOperation as codeTypeOperation
+    String getLibelleTypeOperation(); // Correspond à t.libelle as libelleTypeOperation
+    BigDecimal getMontant();          // Correspond à o.montantOperation as montant
+    LocalDate getDateValeur();        // Correspond à o.dateValeur as dateValeur
+}
@@ -0,0 +1,20 @@
+package com.albaridbank.edition.repositorys.cen.projectionCENRepo;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Ligne d'une page du portefeuille CEN : les colonnes affichées par le rapport.
+ */
+public interface LignePortefeuilleCEN {
+    Long getIdCompte();               // Correspond à c.idCompte as idCompte
+    String getIntitule();             // Correspond à c.intitule as intitule
+    String getAdresse();              // Correspond à c.adresse as adresse
+    String getLibelleCsp();           // Correspond à csp.libelle as libelleCsp
+    LocalDate getDateNaissance();     // Correspond à cl.dateNaissance as dateNaissance
+    String getNumeroPieceIdentite();  // Correspond à cl.numeroPieceIdentite as numeroPieceIdentite
+    String getTelephone();            // Correspond à cl.telephone as telephone
+    Integer getCodeTypeActivite();    // Correspond à c.codeTypeActivite as codeTypeActivite
+    BigDecimal getSoldeCourant();     // Correspond à c.soldeCourant as soldeCourant
+    Integer getDureeCompte();         // Correspond à c.dureeCompte as dureeCompte
+}
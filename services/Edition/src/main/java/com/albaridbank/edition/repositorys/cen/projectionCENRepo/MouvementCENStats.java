@@ -0,0 +1,9 @@
+package com.albaridbank.edition.repositorys.cen.projectionCENRepo;
+
+import java.math.BigDecimal;
+
+public interface MouvementCENStats {
+    Long getNombreOperations();       // Correspond à COUNT(o) as nombreOperations
+    Long getNombreComptes();          // Correspond au nombre de comptes distincts as nombreComptes
+    BigDecimal getMontantTotal();     // Correspond à SUM(o.montantOperation) as montantTotal
+}
@@ -0,0 +1,11 @@
+package com.albaridbank.edition.repositorys.cen.projectionCENRepo;
+
+import java.math.BigDecimal;
+
+/**
+ * Nombre de comptes et encours d'un ensemble de comptes CEN.
+ */
+public interface SoldeCENStats {
+    Long getNombreComptes();          // Correspond à COUNT(c) as nombreComptes
+    BigDecimal getTotalEncours();     // Correspond à SUM(c.soldeCourant) as totalEncours
+}
@@ -0,0 +1,174 @@
+package com.albaridbank.edition.service.excelCCP;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estime la largeur des colonnes d'une feuille Excel au fil de l'écriture des lignes.
+ *
+ * <p>Remplace {@link Sheet#autoSizeColumn(int)}, qui mesure chaque glyphe de chaque cellule
+ * avec les métriques de police AWT. Ici, seule la longueur du texte affiché est retenue,
+ * pondérée par la taille et la graisse de la police de la cellule : le coût est linéaire,
+ * ne dépend pas d'AWT (mode headless) et fonctionne avec les feuilles SXSSF dont les lignes
+ * sont déjà vidées sur disque.</p>
+ *
+ * <p>Utilisation : appeler {@link #track(Row)} pour chaque ligne tant qu'elle est en mémoire,
+ * puis {@link #applyTo(Sheet)} une seule fois à la fin.</p>
+ */
+public class ColumnWidthEstimator {
+
+    /**
+     * Largeur maximale autorisée par Excel (255 caractères, en 1/256e de caractère).
+     */
+    private static final int MAX_COLUMN_WIDTH = 255 * 256;
+
+    /**
+     * Taille de la police par défaut du classeur, qui sert d'unité de largeur.
+     */
+    private static final double DEFAULT_FONT_HEIGHT_IN_POINTS = 11.0;
+
+    /**
+     * Surcoût approximatif d'une police grasse par rapport à une police normale.
+     */
+    private static final double BOLD_FACTOR = 1.1;
+
+    /**
+     * Marge ajoutée à chaque colonne, en caractères.
+     */
+    private static final double PADDING_CHARACTERS = 1.0;
+
+    private final Workbook workbook;
+    private final double[] maxWidths;
+    private final DataFormatter dataFormatter = new DataFormatter();
+    private final Map<Short, Double> fontFactors = new HashMap<>();
+
+    /**
+     * @param workbook    Le classeur auquel appartiennent les cellules mesurées
+     * @param columnCount Le nombre de colonnes à dimensionner (les suivantes sont ignorées)
+     */
+    public ColumnWidthEstimator(Workbook workbook, int columnCount) {
+        this.workbook = workbook;
+        this.maxWidths = new double[columnCount];
+    }
+
+    /**
+     * Prend en compte toutes les cellules d'une ligne.
+     *
+     * @param row La ligne à mesurer
+     */
+    public void track(Row row) {
+        for (Cell cell : row) {
+            track(cell);
+        }
+    }
+
+    /**
+     * Prend en compte les lignes {@code firstRow} à {@code lastRow} (incluses) encore en mémoire,
+     * en ignorant, comme {@link Sheet#autoSizeColumn(int)}, les cellules fusionnées.
+     *
+     * @param sheet    La feuille contenant les lignes
+     * @param firstRow Index de la première ligne
+     * @param lastRow  Index de la dernière ligne
+     */
+    public void trackRows(Sheet sheet, int firstRow, int lastRow) {
+        List<CellRangeAddress> mergedRegions = sheet.getMergedRegions();
+        for (int rowIndex = firstRow; rowIndex <= lastRow; rowIndex++) {
+            Row row = sheet.getRow(rowIndex);
+            if (row == null) {
+                continue;
+            }
+            for (Cell cell : row) {
+                if (mergedRegions.stream().noneMatch(region -> region.isInRange(cell))) {
+                    track(cell);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applique les largeurs estimées aux colonnes de la feuille.
+     *
+     * @param sheet La feuille à dimensionner
+     */
+    public void applyTo(Sheet sheet) {
+        applyTo(sheet, 0);
+    }
+
+    /**
+     * Applique les largeurs estimées aux colonnes de la feuille, augmentées d'un espace fixe.
+     *
+     * @param sheet      La feuille à dimensionner
+     * @param extraWidth Espace supplémentaire par colonne, en 1/256e de caractère
+     */
+    public void applyTo(Sheet sheet, int extraWidth) {
+        for (int column = 0; column < maxWidths.length; column++) {
+            if (maxWidths[column] > 0) {
+                int width = (int) Math.round((maxWidths[column] + PADDING_CHARACTERS) * 256) + extraWidth;
+                sheet.setColumnWidth(column, Math.min(width, MAX_COLUMN_WIDTH));
+            }
+        }
+    }
+
+    /**
+     * Retourne la largeur estimée d'une colonne, en caractères (0 si aucune cellule mesurée).
+     *
+     * @param column Index de la colonne
+     * @return La largeur estimée
+     */
+    public double getEstimatedWidth(int column) {
+        return maxWidths[column];
+    }
+
+    private void track(Cell cell) {
+        int column = cell.getColumnIndex();
+        if (column >= maxWidths.length) {
+            return;
+        }
+
+        String text = switch (cell.getCellType()) {
+            case STRING -> cell.getStringCellValue();
+            case NUMERIC, BOOLEAN, FORMULA -> dataFormatter.formatCellValue(cell);
+            default -> null;
+        };
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+
+        double width = longestLineLength(text) * fontFactor(cell.getCellStyle());
+        if (width > maxWidths[column]) {
+            maxWidths[column] = width;
+        }
+    }
+
+    private double fontFactor(CellStyle style) {
+        return fontFactors.computeIfAbsent(style.getIndex(), index -> {
+            Font font = workbook.getFontAt(style.getFontIndex());
+            double factor = font.getFontHeightInPoints() / DEFAULT_FONT_HEIGHT_IN_POINTS;
+            return font.getBold() ? factor * BOLD_FACTOR : factor;
+        });
+    }
+
+    private static int longestLineLength(String text) {
+        int longest = 0;
+        int current = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                longest = Math.max(longest, current);
+                current = 0;
+            } else {
+                current++;
+            }
+        }
+        return Math.max(longest, current);
+    }
+}
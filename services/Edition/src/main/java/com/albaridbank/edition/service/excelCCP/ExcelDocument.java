@@ -0,0 +1,53 @@
+package com.albaridbank.edition.service.excelCCP;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Classeur Excel entièrement généré par {@link ExcelExportService}, pas encore écrit.
+ *
+ * <p>Les lignes sont déjà vidées dans les fichiers temporaires de SXSSF : seule l'écriture du
+ * fichier (assemblage du zip) reste à faire. Les erreurs de génération, dont celles de lecture
+ * en base, surviennent donc avant que le premier octet ne soit envoyé. Le classeur doit être
+ * fermé pour supprimer ses fichiers temporaires.</p>
+ */
+@Slf4j
+public final class ExcelDocument implements AutoCloseable {
+
+    @Getter(AccessLevel.PACKAGE)
+    private final SXSSFWorkbook workbook;
+
+    ExcelDocument(SXSSFWorkbook workbook) {
+        this.workbook = workbook;
+    }
+
+    /**
+     * Écrit le fichier Excel dans le flux fourni.
+     *
+     * @param outputStream Le flux de destination (réponse HTTP, fichier, ...), non fermé par cette méthode
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        workbook.write(outputStream);
+    }
+
+    /**
+     * Ferme le classeur et supprime les fichiers temporaires utilisés par SXSSF.
+     */
+    @Override
+    public void close() {
+        try {
+            workbook.close();
+        } catch (IOException e) {
+            log.warn("Erreur lors de la fermeture du classeur Excel: {}", e.getMessage());
+        }
+        if (!workbook.dispose()) {
+            log.warn("Impossible de supprimer les fichiers temporaires du classeur Excel");
+        }
+    }
+}
@@ -11,31 +11,78 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFFont;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ExcelExportService {
 
+    /**
+     * Nombre de lignes conservées en mémoire par feuille ; les lignes plus anciennes
+     * sont vidées dans un fichier temporaire au fur et à mesure de l'écriture.
+     */
+    private static final int ROW_ACCESS_WINDOW_SIZE = 100;
+
+    /**
+     * Première ligne de données du rapport "ETAT PORTEFEUILLE CLIENT M CCP".
+     */
+    private static final int PORTEFEUILLE_M_FIRST_DATA_ROW = 6;
+
     /**
      * Exporte les données du rapport "ETAT PORTEFEUILLE CLIENT CCP" au format Excel
      *
-     * @param rapportData Les données du rapport à exporter
-     * @return Un tableau d'octets contenant le fichier Excel
+     * <p>Le classeur est produit en mode streaming (SXSSF) et écrit directement dans
+     * le flux fourni : la mémoire utilisée ne dépend pas du nombre de comptes.</p>
+     *
+     * @param rapportData  Les données du rapport à exporter
+     * @param outputStream Le flux de destination (réponse HTTP, fichier, ...), non fermé par cette méthode
      * @throws IOException En cas d'erreur lors de la création du fichier Excel
      */
-    public byte[] exportPortefeuilleClientCCPToExcel(PortefeuilleClientCCPExcelDTO rapportData) throws IOException {
-        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
-            XSSFSheet sheet = workbook.createSheet("Portefeuille Client CCP");
+    public void exportPortefeuilleClientCCPToExcel(PortefeuilleClientCCPExcelDTO rapportData,
+                                                   OutputStream outputStream) throws IOException {
+        exportPortefeuilleClientCCPToExcel(rapportData, rapportData.getComptes()::forEach, outputStream);
+    }
+
+    /**
+     * Exporte le rapport "ETAT PORTEFEUILLE CLIENT CCP" au format Excel en lisant les comptes
+     * au fil de l'eau depuis la source fournie (les comptes de {@code rapportData} sont ignorés).
+     *
+     * @param rapportData  L'en-tête et les totaux du rapport
+     * @param comptes      La source des comptes à écrire
+     * @param outputStream Le flux de destination (réponse HTTP, fichier, ...), non fermé par cette méthode
+     * @throws IOException En cas d'erreur lors de la création du fichier Excel
+     */
+    public void exportPortefeuilleClientCCPToExcel(PortefeuilleClientCCPExcelDTO rapportData,
+                                                   ExcelRowSource<CompteCCPDetailDTO> comptes,
+                                                   OutputStream outputStream) throws IOException {
+        try (ExcelDocument document = buildPortefeuilleClientCCPExcel(rapportData, comptes)) {
+            document.writeTo(outputStream);
+        }
+    }
+
+    /**
+     * Génère le classeur du rapport "ETAT PORTEFEUILLE CLIENT CCP" sans l'écrire :
+     * les erreurs de génération surviennent avant l'envoi du premier octet (voir {@link ExcelDocument}).
+     *
+     * @param rapportData Les données du rapport à exporter
+     * @param comptes     La source des comptes à écrire
+     * @return Le classeur généré, à fermer après écriture
+     */
+    public ExcelDocument buildPortefeuilleClientCCPExcel(PortefeuilleClientCCPExcelDTO rapportData,
+                                                         ExcelRowSource<CompteCCPDetailDTO> comptes) {
+        ExcelDocument document = new ExcelDocument(createStreamingWorkbook());
+        try {
+            SXSSFWorkbook workbook = document.getWorkbook();
+            SXSSFSheet sheet = workbook.createSheet("Portefeuille Client CCP");
 
             // Styles pour l'en-tête
             CellStyle headerStyle = createHeaderStyle(workbook);
@@ -51,34 +98,54 @@ public class ExcelExportService {
             // Création de l'en-tête du tableau
             createTableHeader(sheet, headerStyle);
 
+            // Largeur des colonnes estimée au fil de l'écriture des lignes
+            ColumnWidthEstimator columnWidths = new ColumnWidthEstimator(workbook, 10);
+            columnWidths.trackRows(sheet, 0, sheet.getLastRowNum());
+
             // Remplissage des données
-            fillTableData(sheet, rapportData.getComptes(), normalStyle, numericStyle, dateStyle, currencyStyle);
+            fillTableData(sheet, comptes, columnWidths, normalStyle, numericStyle, dateStyle, currencyStyle);
 
             // Création du pied de page (totaux)
+            int footerFirstRow = sheet.getLastRowNum() + 1;
             createFooter(sheet, rapportData, headerStyle, currencyStyle);
+            columnWidths.trackRows(sheet, footerFirstRow, sheet.getLastRowNum());
 
             // Ajuster la largeur des colonnes
-            for (int i = 0; i < 10; i++) {
-                sheet.autoSizeColumn(i);
-            }
+            columnWidths.applyTo(sheet);
 
-            // Écriture du workbook dans un ByteArrayOutputStream
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
+            return document;
+        } catch (RuntimeException e) {
+            document.close();
+            throw e;
         }
     }
 
     /**
      * Exporte les données du rapport "ETAT DES COMPTES MOUVEMENTES LA VEILLE" au format Excel
      *
-     * @param rapportData Les données du rapport à exporter
-     * @return Un tableau d'octets contenant le fichier Excel
+     * @param rapportData  Les données du rapport à exporter
+     * @param outputStream Le flux de destination (réponse HTTP, fichier, ...), non fermé par cette méthode
      * @throws IOException En cas d'erreur lors de la création du fichier Excel
      */
-    public byte[] exportCompteMouvementVeilleToExcel(CompteMouvementVeilleExcelDTO rapportData) throws IOException {
-        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
-            XSSFSheet sheet = workbook.createSheet("Comptes Mouvementés");
+    public void exportCompteMouvementVeilleToExcel(CompteMouvementVeilleExcelDTO rapportData,
+                                                   OutputStream outputStream) throws IOException {
+        try (ExcelDocument document = buildCompteMouvementVeilleExcel(rapportData)) {
+            document.writeTo(outputStream);
+        }
+    }
+
+    /**
+     * Génère le classeur du rapport "ETAT DES COMPTES MOUVEMENTES LA VEILLE" sans l'écrire :
+     * les erreurs de génération surviennent avant l'envoi du premier octet (voir {@link ExcelDocument}).
+     *
+     * @param rapportData Les données du rapport à exporter
+     * @return Le classeur généré, à fermer après écriture
+     */
+    public ExcelDocument buildCompteMouvementVeilleExcel(CompteMouvementVeilleExcelDTO rapportData) {
+        ExcelDocument document = new ExcelDocument(createStreamingWorkbook());
+        try {
+            SXSSFWorkbook workbook = document.getWorkbook();
+            SXSSFSheet sheet = workbook.createSheet("Comptes Mouvementés");
 
             // Styles pour l'en-tête
             CellStyle headerStyle = createHeaderStyle(workbook);
@@ -93,34 +160,54 @@ public class ExcelExportService {
             // Création de l'en-tête du tableau
             createMouvementTableHeader(sheet, headerStyle);
 
+            // Largeur des colonnes estimée au fil de l'écriture des lignes
+            ColumnWidthEstimator columnWidths = new ColumnWidthEstimator(workbook, 7);
+            columnWidths.trackRows(sheet, 0, sheet.getLastRowNum());
+
             // Remplissage des données
-            fillMouvementTableData(sheet, rapportData.getMouvements(), normalStyle, numericStyle, currencyStyle);
+            fillMouvementTableData(sheet, rapportData.getMouvements(), columnWidths, normalStyle, numericStyle, currencyStyle);
 
             // Création du pied de page (totaux)
+            int footerFirstRow = sheet.getLastRowNum() + 1;
             createMouvementFooter(sheet, rapportData, headerStyle, currencyStyle);
+            columnWidths.trackRows(sheet, footerFirstRow, sheet.getLastRowNum());
 
             // Ajuster la largeur des colonnes
-            for (int i = 0; i < 7; i++) {
-                sheet.autoSizeColumn(i);
-            }
+            columnWidths.applyTo(sheet);
 
-            // Écriture du workbook dans un ByteArrayOutputStream
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
+            return document;
+        } catch (RuntimeException e) {
+            document.close();
+            throw e;
         }
     }
 
     /**
      * Exporte les données du rapport "ETAT NOMBRE TOTAL & ENCOURS GLOBAL CCP" au format Excel
      *
-     * @param rapportData Les données du rapport à exporter
-     * @return Un tableau d'octets contenant le fichier Excel
+     * @param rapportData  Les données du rapport à exporter
+     * @param outputStream Le flux de destination (réponse HTTP, fichier, ...), non fermé par cette méthode
      * @throws IOException En cas d'erreur lors de la création du fichier Excel
      */
-    public byte[] exportEncoursGlobalCCPToExcel(NbrTotalEncoursCCPExcelDTO rapportData) throws IOException {
-        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
-            XSSFSheet sheet = workbook.createSheet("Encours Global CCP");
+    public void exportEncoursGlobalCCPToExcel(NbrTotalEncoursCCPExcelDTO rapportData,
+                                              OutputStream outputStream) throws IOException {
+        try (ExcelDocument document = buildEncoursGlobalCCPExcel(rapportData)) {
+            document.writeTo(outputStream);
+        }
+    }
+
+    /**
+     * Génère le classeur du rapport "ETAT NOMBRE TOTAL & ENCOURS GLOBAL CCP" sans l'écrire :
+     * les erreurs de génération surviennent avant l'envoi du premier octet (voir {@link ExcelDocument}).
+     *
+     * @param rapportData Les données du rapport à exporter
+     * @return Le classeur généré, à fermer après écriture
+     */
+    public ExcelDocument buildEncoursGlobalCCPExcel(NbrTotalEncoursCCPExcelDTO rapportData) {
+        ExcelDocument document = new ExcelDocument(createStreamingWorkbook());
+        try {
+            SXSSFWorkbook workbook = document.getWorkbook();
+            SXSSFSheet sheet = workbook.createSheet("Encours Global CCP");
 
             // Styles pour le document
             CellStyle headerStyle = createHeaderStyle(workbook);
@@ -212,14 +299,14 @@ public class ExcelExportService {
             encoursValue.setCellValue(rapportData.getTotalEncours().doubleValue());
             encoursValue.setCellStyle(currencyStyle);
 
-            // Écriture du workbook dans un ByteArrayOutputStream
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
+            return document;
+        } catch (RuntimeException e) {
+            document.close();
+            throw e;
         }
     }
 
-    private void createMouvementReportHeader(XSSFSheet sheet, CompteMouvementVeilleExcelDTO data,
+    private void createMouvementReportHeader(Sheet sheet, CompteMouvementVeilleExcelDTO data,
                                              CellStyle titleStyle, CellStyle normalStyle) {
         //  Titre du rapport
         Row titleRow = sheet.createRow(0);
@@ -263,7 +350,7 @@ public class ExcelExportService {
         sheet.createRow(5);
     }
 
-    private void createMouvementTableHeader(XSSFSheet sheet, CellStyle headerStyle) {
+    private void createMouvementTableHeader(Sheet sheet, CellStyle headerStyle) {
         Row headerRow = sheet.createRow(6);
 
         Cell numCompteCell = headerRow.createCell(0);
@@ -295,7 +382,7 @@ public class ExcelExportService {
         affichageSensCell.setCellStyle(headerStyle);
     }
 
-    private void fillMouvementTableData(XSSFSheet sheet, List<MouvementFinancierDTO> mouvements,
+    private void fillMouvementTableData(Sheet sheet, List<MouvementFinancierDTO> mouvements, ColumnWidthEstimator columnWidths,
                                         CellStyle normalStyle, CellStyle numericStyle, CellStyle currencyStyle) {
         int rowNum = 7; // Commencer après l'en-tête
 
@@ -351,10 +438,12 @@ public class ExcelExportService {
                 affichageSensCell.setCellValue(sens);
             }
             affichageSensCell.setCellStyle(normalStyle);
+
+            columnWidths.track(row);
         }
     }
 
-    private void createMouvementFooter(XSSFSheet sheet, CompteMouvementVeilleExcelDTO data,
+    private void createMouvementFooter(Sheet sheet, CompteMouvementVeilleExcelDTO data,
                                        CellStyle headerStyle, CellStyle currencyStyle) {
         int lastRowNum = sheet.getLastRowNum() + 2; // Laisser une ligne vide
 
@@ -382,13 +471,46 @@ public class ExcelExportService {
      * Exporte les données du rapport "ETAT PORTEFEUILLE CLIENT M CCP" au format Excel
      * avec un design amélioré et une meilleure organisation des données
      *
-     * @param rapportData Les données du rapport à exporter
-     * @return Un tableau d'octets contenant le fichier Excel
+     * @param rapportData  Les données du rapport à exporter
+     * @param outputStream Le flux de destination (réponse HTTP, fichier, ...), non fermé par cette méthode
+     * @throws IOException En cas d'erreur lors de la création du fichier Excel
+     */
+    public void exportPortefeuilleClientMCCPToExcel(PortefeuilleClientCCPMExcelDTO rapportData,
+                                                    OutputStream outputStream) throws IOException {
+        exportPortefeuilleClientMCCPToExcel(rapportData, rapportData.getComptes()::forEach, outputStream);
+    }
+
+    /**
+     * Exporte le rapport "ETAT PORTEFEUILLE CLIENT M CCP" au format Excel en lisant les comptes
+     * au fil de l'eau depuis la source fournie (les comptes de {@code rapportData} sont ignorés).
+     *
+     * @param rapportData  L'en-tête et les statistiques du rapport
+     * @param comptes      La source des comptes à écrire
+     * @param outputStream Le flux de destination (réponse HTTP, fichier, ...), non fermé par cette méthode
      * @throws IOException En cas d'erreur lors de la création du fichier Excel
      */
-    public byte[] exportPortefeuilleClientMCCPToExcel(PortefeuilleClientCCPMExcelDTO rapportData) throws IOException {
-        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
-            XSSFSheet sheet = workbook.createSheet("Portefeuille Client M CCP");
+    public void exportPortefeuilleClientMCCPToExcel(PortefeuilleClientCCPMExcelDTO rapportData,
+                                                    ExcelRowSource<PortefeuilleClientCCPDetailDTO> comptes,
+                                                    OutputStream outputStream) throws IOException {
+        try (ExcelDocument document = buildPortefeuilleClientMCCPExcel(rapportData, comptes)) {
+            document.writeTo(outputStream);
+        }
+    }
+
+    /**
+     * Génère le classeur du rapport "ETAT PORTEFEUILLE CLIENT M CCP" sans l'écrire :
+     * les erreurs de génération surviennent avant l'envoi du premier octet (voir {@link ExcelDocument}).
+     *
+     * @param rapportData Les données du rapport à exporter
+     * @param comptes     La source des comptes à écrire
+     * @return Le classeur généré, à fermer après écriture
+     */
+    public ExcelDocument buildPortefeuilleClientMCCPExcel(PortefeuilleClientCCPMExcelDTO rapportData,
+                                                          ExcelRowSource<PortefeuilleClientCCPDetailDTO> comptes) {
+        ExcelDocument document = new ExcelDocument(createStreamingWorkbook());
+        try {
+            SXSSFWorkbook workbook = document.getWorkbook();
+            SXSSFSheet sheet = workbook.createSheet("Portefeuille Client M CCP");
 
             // Styles pour le document
             CellStyle headerStyle = createHeaderStyle(workbook);
@@ -406,34 +528,46 @@ public class ExcelExportService {
             // Création de l'en-tête du tableau
             createPortefeuilleMCCPTableHeader(sheet, headerStyle);
 
+            // Largeur des colonnes estimée au fil de l'écriture des lignes
+            ColumnWidthEstimator columnWidths = new ColumnWidthEstimator(workbook, 14);
+            columnWidths.trackRows(sheet, 0, sheet.getLastRowNum());
+
             // Remplissage des données
-            fillPortefeuilleMCCPTableData(sheet, rapportData.getComptes(), normalStyle, numericStyle, dateStyle, currencyStyle, highlightStyle);
+            fillPortefeuilleMCCPTableData(sheet, comptes, columnWidths, normalStyle, numericStyle, dateStyle, currencyStyle, highlightStyle);
 
             // Création du pied de page (totaux)
+            int footerFirstRow = sheet.getLastRowNum() + 1;
             createPortefeuilleMCCPFooter(sheet, rapportData, headerStyle, currencyStyle, footerLabelStyle);
+            columnWidths.trackRows(sheet, footerFirstRow, sheet.getLastRowNum());
 
             // Configurer les paramètres de page
             setupSheetProperties(sheet);
 
-            // Ajuster la largeur des colonnes
-            for (int i = 0; i < 14; i++) {
-                sheet.autoSizeColumn(i);
-                // Ajouter un peu d'espace supplémentaire pour une meilleure lisibilité
-                int width = sheet.getColumnWidth(i);
-                sheet.setColumnWidth(i, width + 500);
-            }
+            // Ajuster la largeur des colonnes, avec un peu d'espace supplémentaire pour une meilleure lisibilité
+            columnWidths.applyTo(sheet, 500);
 
-            // Écriture du workbook dans un ByteArrayOutputStream
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
+            return document;
+        } catch (RuntimeException e) {
+            document.close();
+            throw e;
         }
     }
 
+    /**
+     * Crée un classeur SXSSF à fenêtre glissante : seules les {@link #ROW_ACCESS_WINDOW_SIZE}
+     * dernières lignes de chaque feuille restent en mémoire.
+     */
+    private SXSSFWorkbook createStreamingWorkbook() {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW_SIZE);
+        workbook.setCompressTempFiles(true);
+        return workbook;
+    }
+
+
     /**
      * Configure les propriétés de la feuille Excel
      */
-    private void setupSheetProperties(XSSFSheet sheet) {
+    private void setupSheetProperties(Sheet sheet) {
         // Configuration de l'impression
         sheet.setFitToPage(true);
         PrintSetup printSetup = sheet.getPrintSetup();
@@ -448,7 +582,7 @@ public class ExcelExportService {
     /**
      * Crée un style pour mettre en évidence certaines cellules
      */
-    private CellStyle createHighlightStyle(XSSFWorkbook workbook) {
+    private CellStyle createHighlightStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         style.setBorderBottom(BorderStyle.THIN);
         style.setBorderTop(BorderStyle.THIN);
@@ -457,7 +591,7 @@ public class ExcelExportService {
         style.setFillForegroundColor(IndexedColors.PALE_BLUE.getIndex());
         style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
 
-        XSSFFont font = workbook.createFont();
+        Font font = workbook.createFont();
         font.setBold(true);
         style.setFont(font);
 
@@ -467,7 +601,7 @@ public class ExcelExportService {
     /**
      * Crée un style pour les étiquettes de pied de page
      */
-    private CellStyle createFooterLabelStyle(XSSFWorkbook workbook) {
+    private CellStyle createFooterLabelStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         style.setBorderBottom(BorderStyle.THIN);
         style.setBorderTop(BorderStyle.THIN);
@@ -478,7 +612,7 @@ public class ExcelExportService {
         style.setFillForegroundColor(IndexedColors.LIGHT_YELLOW.getIndex());
         style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
 
-        XSSFFont font = workbook.createFont();
+        Font font = workbook.createFont();
         font.setBold(true);
         style.setFont(font);
 
@@ -486,7 +620,7 @@ public class ExcelExportService {
     }
 
 
-    private void createPortefeuilleMCCPReportHeader(XSSFSheet sheet, PortefeuilleClientCCPMExcelDTO data,
+    private void createPortefeuilleMCCPReportHeader(Sheet sheet, PortefeuilleClientCCPMExcelDTO data,
                                                     CellStyle titleStyle, CellStyle normalStyle) {
         // Logo et titre du rapport (ligne 0)
         Row titleRow = sheet.createRow(0);
@@ -557,9 +691,8 @@ public class ExcelExportService {
         filterLabel.setCellStyle(normalStyle);
 
         Cell filterValue = filterRow.createCell(1);
-        // Détermine l'état des comptes en examinant le premier compte
-        String etatCompte = !data.getComptes().isEmpty() ? data.getComptes().getFirst().getTypeCompteLibelle() : "Tous";
-        filterValue.setCellValue(etatCompte);
+        // Remplacé par l'état du premier compte lors du remplissage du tableau
+        filterValue.setCellValue("Tous");
         filterValue.setCellStyle(normalStyle);
         sheet.addMergedRegion(new CellRangeAddress(3, 3, 1, 3));
 
@@ -567,7 +700,7 @@ public class ExcelExportService {
         sheet.createRow(4);
     }
 
-    private void createPortefeuilleMCCPTableHeader(XSSFSheet sheet, CellStyle headerStyle) {
+    private void createPortefeuilleMCCPTableHeader(Sheet sheet, CellStyle headerStyle) {
         Row headerRow = sheet.createRow(5);
         headerRow.setHeightInPoints(20); // Hauteur augmentée pour l'en-tête
 
@@ -642,14 +775,20 @@ public class ExcelExportService {
         dateSoldeCell.setCellStyle(headerStyle);
     }
 
-    private void fillPortefeuilleMCCPTableData(XSSFSheet sheet, List<PortefeuilleClientCCPDetailDTO> comptes,
+    private void fillPortefeuilleMCCPTableData(Sheet sheet, ExcelRowSource<PortefeuilleClientCCPDetailDTO> comptes,
+                                               ColumnWidthEstimator columnWidths,
                                                CellStyle normalStyle, CellStyle numericStyle,
                                                CellStyle dateStyle, CellStyle currencyStyle, CellStyle highlightStyle) {
-        int rowNum = 6; // Commencer après l'en-tête
-        boolean alternateBg = false; // Pour créer des lignes alternées
+        AtomicInteger rowNum = new AtomicInteger(PORTEFEUILLE_M_FIRST_DATA_ROW); // Commencer après l'en-tête
 
-        for (PortefeuilleClientCCPDetailDTO compte : comptes) {
-            Row row = sheet.createRow(rowNum++);
+        comptes.forEachRow(compte -> {
+            Row row = sheet.createRow(rowNum.getAndIncrement());
+            boolean alternateBg = (row.getRowNum() - PORTEFEUILLE_M_FIRST_DATA_ROW) % 2 == 1; // Pour créer des lignes alternées
+
+            // L'état affiché dans l'en-tête est déterminé par le premier compte
+            if (row.getRowNum() == PORTEFEUILLE_M_FIRST_DATA_ROW) {
+                sheet.getRow(3).getCell(1).setCellValue(compte.getTypeCompteLibelle());
+            }
 
             // Appliquer le style alterné pour une meilleure lisibilité
             CellStyle rowStyle = alternateBg ? highlightStyle : normalStyle;
@@ -657,8 +796,6 @@ public class ExcelExportService {
             CellStyle rowDateStyle = alternateBg ? highlightStyle : dateStyle;
             CellStyle rowCurrencyStyle = alternateBg ? highlightStyle : currencyStyle;
 
-            alternateBg = !alternateBg; // Inverser pour la prochaine ligne
-
             // N° Compte
             Cell numCompteCell = row.createCell(0);
             if (compte.getIdencomp() != null) {
@@ -763,10 +900,12 @@ public class ExcelExportService {
             } else {
                 dateSoldeCell.setCellStyle(rowStyle);
             }
-        }
+
+            columnWidths.track(row);
+        });
     }
 
-    private void createPortefeuilleMCCPFooter(XSSFSheet sheet, PortefeuilleClientCCPMExcelDTO data,
+    private void createPortefeuilleMCCPFooter(Sheet sheet, PortefeuilleClientCCPMExcelDTO data,
                                               CellStyle headerStyle, CellStyle currencyStyle, CellStyle footerLabelStyle) {
         int lastRowNum = sheet.getLastRowNum() + 2; // Laisser une ligne vide
 
@@ -882,7 +1021,7 @@ public class ExcelExportService {
         sheet.addMergedRegion(new CellRangeAddress(lastRowNum + 1, lastRowNum + 1, 0, 13));
     }
 
-    private CellStyle createHeaderStyle(XSSFWorkbook workbook) {
+    private CellStyle createHeaderStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
         style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
@@ -893,28 +1032,28 @@ public class ExcelExportService {
         style.setAlignment(HorizontalAlignment.CENTER);
         style.setVerticalAlignment(VerticalAlignment.CENTER);
 
-        XSSFFont font = workbook.createFont();
+        Font font = workbook.createFont();
         font.setBold(true);
-        font.setFontHeight(12);
+        font.setFontHeightInPoints((short) 12);
         style.setFont(font);
 
         return style;
     }
 
-    private CellStyle createTitleStyle(XSSFWorkbook workbook) {
+    private CellStyle createTitleStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         style.setAlignment(HorizontalAlignment.CENTER);
         style.setVerticalAlignment(VerticalAlignment.CENTER);
 
-        XSSFFont font = workbook.createFont();
+        Font font = workbook.createFont();
         font.setBold(true);
-        font.setFontHeight(14);
+        font.setFontHeightInPoints((short) 14);
         style.setFont(font);
 
         return style;
     }
 
-    private CellStyle createNormalStyle(XSSFWorkbook workbook) {
+    private CellStyle createNormalStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         style.setBorderBottom(BorderStyle.THIN);
         style.setBorderTop(BorderStyle.THIN);
@@ -924,7 +1063,7 @@ public class ExcelExportService {
         return style;
     }
 
-    private CellStyle createNumericStyle(XSSFWorkbook workbook) {
+    private CellStyle createNumericStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         style.setBorderBottom(BorderStyle.THIN);
         style.setBorderTop(BorderStyle.THIN);
@@ -935,7 +1074,7 @@ public class ExcelExportService {
         return style;
     }
 
-    private CellStyle createDateStyle(XSSFWorkbook workbook) {
+    private CellStyle createDateStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         style.setBorderBottom(BorderStyle.THIN);
         style.setBorderTop(BorderStyle.THIN);
@@ -946,7 +1085,7 @@ public class ExcelExportService {
         return style;
     }
 
-    private CellStyle createCurrencyStyle(XSSFWorkbook workbook) {
+    private CellStyle createCurrencyStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         style.setBorderBottom(BorderStyle.THIN);
         style.setBorderTop(BorderStyle.THIN);
@@ -957,7 +1096,7 @@ public class ExcelExportService {
         return style;
     }
 
-    private void createReportHeader(XSSFSheet sheet, PortefeuilleClientCCPExcelDTO data,
+    private void createReportHeader(Sheet sheet, PortefeuilleClientCCPExcelDTO data,
                                     CellStyle titleStyle, CellStyle normalStyle) {
         //  Titre du rapport
         Row titleRow = sheet.createRow(0);
@@ -986,7 +1125,7 @@ public class ExcelExportService {
         sheet.createRow(3);
     }
 
-    private void createTableHeader(XSSFSheet sheet, CellStyle headerStyle) {
+    private void createTableHeader(Sheet sheet, CellStyle headerStyle) {
         Row headerRow = sheet.createRow(4);
 
         Cell numCompteCell = headerRow.createCell(0);
@@ -1030,13 +1169,13 @@ public class ExcelExportService {
         typeCompteCell.setCellStyle(headerStyle);
     }
 
-    private void fillTableData(XSSFSheet sheet, List<CompteCCPDetailDTO> comptes,
+    private void fillTableData(Sheet sheet, ExcelRowSource<CompteCCPDetailDTO> comptes, ColumnWidthEstimator columnWidths,
                                CellStyle normalStyle, CellStyle numericStyle,
                                CellStyle dateStyle, CellStyle currencyStyle) {
-        int rowNum = 5; // Commencer après l'en-tête
+        AtomicInteger rowNum = new AtomicInteger(5); // Commencer après l'en-tête
 
-        for (CompteCCPDetailDTO compte : comptes) {
-            Row row = sheet.createRow(rowNum++);
+        comptes.forEachRow(compte -> {
+            Row row = sheet.createRow(rowNum.getAndIncrement());
 
             // N° Compte
             Cell numCompteCell = row.createCell(0);
@@ -1103,10 +1242,12 @@ public class ExcelExportService {
             }
             typeCompteCell.setCellValue(typeCompte);
             typeCompteCell.setCellStyle(normalStyle);
-        }
+
+            columnWidths.track(row);
+        });
     }
 
-    private void createFooter(XSSFSheet sheet, PortefeuilleClientCCPExcelDTO data,
+    private void createFooter(Sheet sheet, PortefeuilleClientCCPExcelDTO data,
                               CellStyle headerStyle, CellStyle currencyStyle) {
         int lastRowNum = sheet.getLastRowNum() + 2; // Laisser une ligne vide
 
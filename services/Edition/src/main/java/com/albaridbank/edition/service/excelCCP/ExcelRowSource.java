@@ -0,0 +1,24 @@
+package com.albaridbank.edition.service.excelCCP;
+
+import java.util.function.Consumer;
+
+/**
+ * Source des lignes d'un rapport Excel.
+ *
+ * <p>Permet à {@link ExcelExportService} d'écrire les lignes au fur et à mesure qu'elles sont
+ * produites (par exemple depuis un curseur de base de données) plutôt qu'à partir d'une liste
+ * entièrement chargée en mémoire. Une {@link java.util.List} peut être utilisée directement
+ * via {@code liste::forEach}.</p>
+ *
+ * @param <T> Type des lignes du rapport
+ */
+@FunctionalInterface
+public interface ExcelRowSource<T> {
+
+    /**
+     * Transmet chaque ligne, dans l'ordre du rapport, à l'écrivain fourni.
+     *
+     * @param rowWriter Écrit une ligne dans la feuille Excel
+     */
+    void forEachRow(Consumer<? super T> rowWriter);
+}
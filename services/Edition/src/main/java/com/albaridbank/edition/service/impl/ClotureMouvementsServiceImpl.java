@@ -0,0 +1,153 @@
+package com.albaridbank.edition.service.impl;
+
+import com.albaridbank.edition.config.CachingApiConfig;
+import com.albaridbank.edition.config.ReportProperties;
+import com.albaridbank.edition.model.ccp.ClotureMouvementsCCP;
+import com.albaridbank.edition.model.ccp.ClotureMouvementsCCPId;
+import com.albaridbank.edition.repositorys.ccp.ClotureMouvementsCCPRepository;
+import com.albaridbank.edition.service.interfaces.ClotureMouvementsService;
+import com.albaridbank.edition.service.interfaces.VersionDonneesService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Service implementation for the day-close snapshots of CCP financial movements.
+ *
+ * <p>A day is closed by a single {@code INSERT ... SELECT} that aggregates the day's movements per
+ * bureau into a JSON array, already joined with the account and operation type and sorted like the
+ * report; every bureau gets a row, even without movements. A day is first closed
+ * {@code report.cloture.delai} after midnight, to leave room for the last movements of the day.
+ * Each snapshot records the version of the movements it froze ({@link VersionDonneesService#versionMouvements}):
+ * every pass rewrites the snapshots whose bureau received a late movement, or whose labels changed,
+ * since, and a snapshot is only served while its version is the current one, so a late movement or a
+ * renamed account is never hidden by a snapshot.
+ * The upsert only replaces an older version, so several instances of the service can close the
+ * same day at the same time. Snapshots read back are kept in the
+ * {@link CachingApiConfig#CLOTURES_MOUVEMENTS} cache, keyed by their version.</p>
+ *
+ * @author Mohamed Amine Eddafir
+ * @see ClotureMouvementsService
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClotureMouvementsServiceImpl implements ClotureMouvementsService {
+
+    /**
+     * Closed days served by the reports: the previous day and the day before.
+     */
+    private static final int JOURS_CLOTURES = 2;
+
+    private final ClotureMouvementsCCPRepository clotureRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReportProperties reportProperties;
+
+    /**
+     * Clôture les journées closes depuis plus de {@code report.cloture.delai}, reclôture les bureaux
+     * dont les mouvements ont changé depuis leur clôture, puis supprime les clôtures au-delà de la
+     * période de conservation. Exécuté au démarrage puis tous les quarts d'heure.
+     */
+    @Scheduled(initialDelayString = "PT1M", fixedDelayString = "PT15M")
+    public void cloturerJourneesManquantes() {
+        ReportProperties.Cloture cloture = reportProperties.getCloture();
+        if (!cloture.isEnabled()) {
+            return;
+        }
+
+        try {
+            LocalDateTime maintenant = LocalDateTime.now();
+            LocalDate aujourdhui = maintenant.toLocalDate();
+            for (int joursAvant = JOURS_CLOTURES; joursAvant >= 1; joursAvant--) {
+                LocalDate journee = aujourdhui.minusDays(joursAvant);
+                if (!journee.plusDays(1).atStartOfDay().plus(cloture.getDelai()).isAfter(maintenant)) {
+                    cloturerJournee(journee);
+                }
+            }
+
+            int supprimees = jdbcTemplate.update("DELETE FROM clotureMouvementsCCP WHERE datemouv < ?",
+                    aujourdhui.minusDays(cloture.getJoursConservation()));
+            if (supprimees > 0) {
+                log.info("{} day-close snapshot(s) older than {} days deleted", supprimees, cloture.getJoursConservation());
+            }
+        } catch (DataAccessException e) {
+            log.error("Error while closing the CCP movement days", e);
+        }
+    }
+
+    @Override
+    public int cloturerJournee(LocalDate journee) {
+        if (!journee.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("La journée n'est pas close: " + journee);
+        }
+
+        long debut = System.currentTimeMillis();
+        // Bureaux à (re)clôturer : sans clôture, ou dont la version des mouvements (ou des libellés,
+        // comme VersionDonneesService.versionMouvements) a changé depuis. La version et les
+        // mouvements sont lus dans le même instantané de l'instruction.
+        int bureaux = jdbcTemplate.update("""
+                WITH versions AS (
+                    SELECT b.codburpo, b.desburpo, GREATEST(l.version, COALESCE(v.version, 0)) AS version
+                    FROM bureauPosteCCP b
+                    CROSS JOIN versionLibellesCCP l
+                    LEFT JOIN versionMouvementsCCP v ON v.datemouv = ? AND v.codburpo = b.codburpo),
+                aCloturer AS (
+                    SELECT b.*
+                    FROM versions b
+                    LEFT JOIN clotureMouvementsCCP k ON k.datemouv = ? AND k.codburpo = b.codburpo
+                    WHERE k.codburpo IS NULL OR k.version < b.version)
+                INSERT INTO clotureMouvementsCCP AS cl (datemouv, codburpo, desburpo, nbremouv, mouvements, version)
+                SELECT ?, b.codburpo, b.desburpo, COUNT(m.numemouv),
+                    COALESCE(jsonb_agg(jsonb_build_object(
+                            'idencomp', m.cptemouv,
+                            'inticomp', c.inticomp,
+                            'libtypop', t.libtypop,
+                            'sensmouv', m.sensmouv,
+                            'montmouv', m.montmouv,
+                            'datcreatemvt', m.datcreatemvt,
+                            'numemouv', m.numemouv)
+                        ORDER BY COALESCE(m.datcreatemvt, TIMESTAMP '1970-01-01 00:00:00') DESC,
+                            m.montmouv DESC, m.numemouv DESC)
+                        FILTER (WHERE m.numemouv IS NOT NULL), '[]'::jsonb),
+                    b.version
+                FROM aCloturer b
+                LEFT JOIN mvtFinancierCCP m ON m.codburpo = b.codburpo AND m.datemouv = ?
+                LEFT JOIN compteCCP c ON c.idencomp = m.cptemouv
+                LEFT JOIN typeOperationCCP t ON t.codtypop = m.codtypop
+                GROUP BY b.codburpo, b.desburpo, b.version
+                ON CONFLICT (datemouv, codburpo) DO UPDATE
+                    SET desburpo = EXCLUDED.desburpo,
+                        nbremouv = EXCLUDED.nbremouv,
+                        mouvements = EXCLUDED.mouvements,
+                        version = EXCLUDED.version,
+                        datclotu = CURRENT_TIMESTAMP
+                    WHERE cl.version < EXCLUDED.version
+                """, journee, journee, journee, journee);
+
+        if (bureaux > 0) {
+            log.info("Day {} closed for {} bureau(x) in {} ms", journee, bureaux, System.currentTimeMillis() - debut);
+        }
+        return bureaux;
+    }
+
+    @Override
+    @Cacheable(value = CachingApiConfig.CLOTURES_MOUVEMENTS, key = "#journee + '_' + #codeBureau + '_' + #version",
+            unless = "#result == null")
+    public Optional<ClotureMouvementsCCP> trouverCloture(LocalDate journee, Long codeBureau, long version) {
+        if (!reportProperties.getCloture().isEnabled() || !journee.isBefore(LocalDate.now())) {
+            return Optional.empty();
+        }
+        // Une clôture plus ancienne que les mouvements n'est plus servie : le rapport relit
+        // mvtFinancierCCP jusqu'à la reclôture du bureau
+        return clotureRepository.findById(new ClotureMouvementsCCPId(journee, codeBureau))
+                .filter(cloture -> cloture.getVersion() == version);
+    }
+}
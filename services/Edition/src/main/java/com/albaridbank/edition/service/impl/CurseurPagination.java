@@ -0,0 +1,91 @@
+package com.albaridbank.edition.service.impl;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Encodage des curseurs opaques de la pagination par clé (keyset).
+ * Un curseur contient les valeurs de tri de la dernière ligne renvoyée ; la page suivante
+ * reprend strictement après ces valeurs au lieu de sauter les lignes précédentes (OFFSET).
+ *
+ * <p>Le curseur porte aussi le contexte de la requête qui l'a émis (bureau, filtres, journée) :
+ * présenté avec d'autres paramètres, il est refusé au lieu de reprendre un parcours différent
+ * à une position qui n'en fait pas partie.</p>
+ *
+ * @author Mohamed Amine Eddafir
+ */
+public final class CurseurPagination {
+
+    private static final String SEPARATEUR = "|";
+
+    private CurseurPagination() {
+    }
+
+    /**
+     * Construit le contexte d'un curseur à partir des paramètres de la requête.
+     *
+     * @param parametres Les paramètres qui déterminent les lignes parcourues (null accepté)
+     * @return Le contexte, à passer à {@link #encoder} et {@link #decoder}
+     */
+    public static String contexte(Object... parametres) {
+        return Arrays.stream(parametres)
+                .map(String::valueOf)
+                .collect(Collectors.joining(":"));
+    }
+
+    /**
+     * Encode les valeurs de tri de la dernière ligne d'une page.
+     *
+     * @param contexte Le contexte de la requête (voir {@link #contexte})
+     * @param valeurs  Les valeurs de tri, dans l'ordre du tri (non nulles)
+     * @return Le curseur opaque (Base64 URL, sans remplissage)
+     */
+    public static String encoder(String contexte, Object... valeurs) {
+        String brut = Stream.concat(Stream.of(contexte), Arrays.stream(valeurs))
+                .map(String::valueOf)
+                .collect(Collectors.joining(SEPARATEUR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un curseur reçu d'un client.
+     *
+     * @param curseur       Le curseur opaque
+     * @param contexte      Le contexte de la requête courante, qui doit être celui du curseur
+     * @param nombreValeurs Le nombre de valeurs de tri attendues
+     * @param lecteur       Conversion des valeurs textuelles vers leurs types
+     * @param <T>           Le type des valeurs de tri décodées
+     * @return Les valeurs de tri décodées
+     * @throws ResponseStatusException (400) si le curseur est illisible ou émis pour d'autres paramètres
+     */
+    public static <T> T decoder(String curseur, String contexte, int nombreValeurs, Function<String[], T> lecteur) {
+        String[] valeurs;
+        try {
+            String brut = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+            valeurs = brut.split(Pattern.quote(SEPARATEUR), -1);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur de pagination invalide", e);
+        }
+        if (valeurs.length != nombreValeurs + 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur de pagination invalide");
+        }
+        if (!valeurs[0].equals(contexte)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Curseur de pagination émis pour d'autres paramètres: reprendre à la première page");
+        }
+        try {
+            return lecteur.apply(Arrays.copyOfRange(valeurs, 1, valeurs.length));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur de pagination invalide", e);
+        }
+    }
+}
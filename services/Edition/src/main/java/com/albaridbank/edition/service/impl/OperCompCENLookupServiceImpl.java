@@ -0,0 +1,130 @@
+package com.albaridbank.edition.service.impl;
+
+import com.albaridbank.edition.config.ReportProperties;
+import com.albaridbank.edition.repositorys.cen.OperCompCENRepository;
+import com.albaridbank.edition.repositorys.cen.projectionCENRepo.LigneOperationCEN;
+import com.albaridbank.edition.service.interfaces.OperCompCENLookupService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Service implementation for looking up the CEN operations of a selection of accounts.
+ *
+ * <p>The accounts are bound as a single array parameter
+ * ({@link OperCompCENRepository#findByDateOperationAndCodeBureauAndCompteAny}), so every query has
+ * the same text whatever the number of accounts and PostgreSQL keeps reusing its prepared plan.
+ * Selections larger than {@code report.lookup.chunk-size} are split into batches of that size,
+ * run in parallel on a dedicated pool of {@code report.lookup.pool-size} threads, and merged.</p>
+ *
+ * <p>Each batch runs in its own read-only transaction: the results do not take part in a
+ * transaction opened by the caller.</p>
+ *
+ * @author Mohamed Amine Eddafir
+ * @see OperCompCENLookupService
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OperCompCENLookupServiceImpl implements OperCompCENLookupService {
+
+    private final OperCompCENRepository operCompCENRepository;
+    private final ReportProperties reportProperties;
+
+    /**
+     * Pool dédié aux lots. Volontairement non exposé comme bean, comme celui des tâches de rapports.
+     */
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    @PostConstruct
+    void init() {
+        int poolSize = reportProperties.getLookup().getPoolSize();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 16);
+        // File pleine : le thread appelant exécute lui-même le lot plutôt que d'échouer
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("cen-lookup-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Looks up the operations of a selection of accounts, by batches.
+     *
+     * @param dateOperation The date of the operations. Must not be null.
+     * @param codeBureau    The code of the bureau. Must not be null.
+     * @param comptes       The account numbers; duplicates and null values are ignored.
+     * @return The operations found, each once (an operation between two selected accounts may be
+     * returned by two batches), sorted by order number.
+     * @throws IllegalArgumentException If the date or the bureau code is null.
+     */
+    @Override
+    public List<LigneOperationCEN> rechercherOperationsParComptes(
+            LocalDate dateOperation,
+            Long codeBureau,
+            Collection<Long> comptes
+    ) {
+        if (dateOperation == null || codeBureau == null) {
+            throw new IllegalArgumentException("La date des opérations et le code du bureau sont obligatoires");
+        }
+
+        Long[] ids = comptes == null ? new Long[0] : comptes.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toArray(Long[]::new);
+        if (ids.length == 0) {
+            return List.of();
+        }
+
+        int tailleLot = reportProperties.getLookup().getChunkSize();
+        if (ids.length <= tailleLot) {
+            return operCompCENRepository.findByDateOperationAndCodeBureauAndCompteAny(dateOperation, codeBureau, ids);
+        }
+
+        log.debug("Recherche des opérations CEN de {} comptes par lots de {} - Bureau: {}, Journée: {}",
+                ids.length, tailleLot, codeBureau, dateOperation);
+
+        List<CompletableFuture<List<LigneOperationCEN>>> lots = new ArrayList<>();
+        for (int debut = 0; debut < ids.length; debut += tailleLot) {
+            Long[] lot = Arrays.copyOfRange(ids, debut, Math.min(debut + tailleLot, ids.length));
+            lots.add(CompletableFuture.supplyAsync(
+                    () -> operCompCENRepository.findByDateOperationAndCodeBureauAndCompteAny(dateOperation, codeBureau, lot),
+                    executor));
+        }
+
+        Map<Long, LigneOperationCEN> operationsParNumero = new TreeMap<>();
+        try {
+            for (CompletableFuture<List<LigneOperationCEN>> lot : lots) {
+                lot.join().forEach(operation -> operationsParNumero.putIfAbsent(operation.getNumeroOrdre(), operation));
+            }
+        } catch (CompletionException e) {
+            lots.forEach(lot -> lot.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return new ArrayList<>(operationsParNumero.values());
+    }
+}
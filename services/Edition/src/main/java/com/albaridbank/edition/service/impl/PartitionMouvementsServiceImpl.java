@@ -0,0 +1,127 @@
+package com.albaridbank.edition.service.impl;
+
+import com.albaridbank.edition.config.ReportProperties;
+import com.albaridbank.edition.service.interfaces.PartitionMouvementsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service implementation for maintaining the monthly partitions of {@code mvtFinancierCCP} and
+ * {@code operCompCEN}.
+ *
+ * <p>The work is done by the SQL functions of migrations V11 and V12 ({@code creer_partitions_mvt_ccp},
+ * {@code archiver_partition_mvt_ccp}, {@code creer_partitions_oper_cen}), which take an advisory
+ * lock: several instances of the service can run the maintenance at the same time. Partitions are
+ * created ahead of time; a movement or operation of a month without a partition lands in the
+ * table's default partition, which is reported and emptied into the month's partition by the next
+ * run. Old CCP partitions are detached one per transaction with a bounded lock wait, so that a
+ * detach never queues the reports behind it; the movement versions of the archived period
+ * ({@code versionMouvementsCCP}) are deleted with them. CEN operations are never archived.</p>
+ *
+ * @author Mohamed Amine Eddafir
+ * @see PartitionMouvementsService
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PartitionMouvementsServiceImpl implements PartitionMouvementsService {
+
+    /**
+     * Longest wait for the lock of a partition detach before it is retried by the next run.
+     */
+    private static final String ATTENTE_DETACHEMENT = "5 seconds";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReportProperties reportProperties;
+
+    /**
+     * Crée les partitions à venir puis archive les anciennes, au démarrage puis deux fois par jour.
+     */
+    @Scheduled(initialDelayString = "PT2M", fixedDelayString = "PT12H")
+    public void maintenirPartitions() {
+        try {
+            creerPartitionsFutures();
+            archiverPartitionsAnciennes();
+        } catch (DataAccessException e) {
+            log.error("Error while maintaining the movement partitions", e);
+        }
+    }
+
+    @Override
+    public int creerPartitionsFutures() {
+        LocalDate debut = LocalDate.now().minusMonths(1);
+        LocalDate fin = LocalDate.now().plusMonths(reportProperties.getPartitions().getMoisAvance());
+
+        signalerPartitionParDefaut("mvtfinancierccp_defaut");
+        signalerPartitionParDefaut("opercompcen_defaut");
+
+        int crees = creerPartitions("creer_partitions_mvt_ccp", debut, fin)
+                + creerPartitions("creer_partitions_oper_cen", debut, fin);
+        if (crees > 0) {
+            log.info("{} movement partition(s) created up to {}", crees, fin);
+        }
+        return crees;
+    }
+
+    @Override
+    public List<String> archiverPartitionsAnciennes() {
+        int moisConservation = reportProperties.getPartitions().getMoisConservation();
+        if (moisConservation <= 0) {
+            return List.of();
+        }
+
+        LocalDate limite = LocalDate.now().withDayOfMonth(1).minusMonths(moisConservation);
+        List<String> archivees = new ArrayList<>();
+        // Une transaction (appel autocommit) par partition : le verrou exclusif est rendu aussitôt
+        for (String partition : jdbcTemplate.queryForList(
+                "SELECT partitions_a_archiver_mvt_ccp(?)", String.class, limite)) {
+            try {
+                archivees.add(jdbcTemplate.queryForObject("SELECT archiver_partition_mvt_ccp(?, CAST(? AS INTERVAL))",
+                        String.class, partition, ATTENTE_DETACHEMENT));
+            } catch (PessimisticLockingFailureException e) {
+                log.warn("Partition {} not detached, mvtFinancierCCP busy for more than {}: retried on the next run",
+                        partition, ATTENTE_DETACHEMENT);
+            }
+        }
+
+        if (!archivees.isEmpty()) {
+            log.info("mvtFinancierCCP partitions before {} moved to schema archive: {}", limite, archivees);
+        }
+
+        // Les versions (ETag, clôtures) des journées hors conservation ne sont plus lues par aucun rapport ;
+        // une journée modifiée plus tard reprend une nouvelle version de la séquence
+        int versions = jdbcTemplate.update("DELETE FROM versionMouvementsCCP WHERE datemouv < ?", limite);
+        if (versions > 0) {
+            log.info("{} movement version(s) before {} deleted", versions, limite);
+        }
+        return archivees;
+    }
+
+    /**
+     * Logs the rows that fell into a default partition: the partitions were not created far enough
+     * ahead ({@code report.partitions.mois-avance}) or the rows carry an unexpected date. They are
+     * moved to their month's partition by the partition creation that follows.
+     */
+    private void signalerPartitionParDefaut(String partitionDefaut) {
+        Long lignes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + partitionDefaut, Long.class);
+        if (lignes != null && lignes > 0) {
+            log.warn("{} row(s) found in the default partition {}: moving them to monthly partitions "
+                    + "(check report.partitions.mois-avance)", lignes, partitionDefaut);
+        }
+    }
+
+    private int creerPartitions(String fonction, LocalDate debut, LocalDate fin) {
+        Integer crees = jdbcTemplate.queryForObject(
+                "SELECT " + fonction + "(?, ?)", Integer.class, debut, fin);
+        return crees != null ? crees : 0;
+    }
+}
@@ -1,5 +1,6 @@
 package com.albaridbank.edition.service.impl;
 
+import com.albaridbank.edition.config.CachingApiConfig;
 import com.albaridbank.edition.dto.base.CompteCCPDetailDTO;
 import com.albaridbank.edition.dto.base.MouvementFinancierDTO;
 import com.albaridbank.edition.dto.base.PortefeuilleClientCCPDetailDTO;
@@ -9,15 +10,23 @@ import com.albaridbank.edition.dto.excelCCP.PortefeuilleClientCCPMExcelDTO;
 import com.albaridbank.edition.dto.rapport.*;
 import com.albaridbank.edition.mappers.ccp.MvtFinancierCCPMapper;
 import com.albaridbank.edition.model.ccp.BureauPosteCCP;
+import com.albaridbank.edition.model.ccp.ClotureMouvementsCCP;
 import com.albaridbank.edition.model.ccp.CompteCCP;
 import com.albaridbank.edition.model.ccp.MvtFinancierCCP;
 import com.albaridbank.edition.repositorys.ccp.CompteCCPRepository;
 import com.albaridbank.edition.repositorys.ccp.BureauPosteCCPRepository;
 import com.albaridbank.edition.repositorys.ccp.MvtFinancierCCPRepository;
+import com.albaridbank.edition.repositorys.ccp.StatBureauCCPRepository;
+import com.albaridbank.edition.repositorys.ccp.projectionCCPRepo.ClassementSolde;
+import com.albaridbank.edition.repositorys.ccp.projectionCCPRepo.LigneRechercheCompte;
+import com.albaridbank.edition.repositorys.ccp.projectionCCPRepo.LigneTop100;
 import com.albaridbank.edition.repositorys.ccp.projectionCCPRepo.PortefeuilleStats;
+import com.albaridbank.edition.service.interfaces.ClotureMouvementsService;
 import com.albaridbank.edition.service.interfaces.RapportCCPService;
+import com.albaridbank.edition.service.interfaces.VersionDonneesService;
 import com.albaridbank.edition.mappers.rapport.RapportCCPMapper;
 import com.albaridbank.edition.mappers.ccp.CompteCCPMapper;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +35,7 @@ import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -33,7 +43,11 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Service implementation for generating CCP reports.
@@ -88,6 +102,77 @@ public class RapportCCPServiceImpl implements RapportCCPService {
      */
     private static final List<Integer> TYPES_PRODUITS = List.of(1, 2, 3, 4);
 
+    /**
+     * Maximum page size for cursor (keyset) pagination.
+     */
+    private static final int TAILLE_PAGE_MAX = 500;
+
+    /**
+     * Search terms matched as an identifier prefix: account number or phone (digits), CIN (letters then digits).
+     */
+    private static final Pattern RECHERCHE_IDENTIFIANT = Pattern.compile("\\d+|[a-z]{1,2}\\d+");
+
+    /**
+     * LIKE wildcards and escape character, escaped in search terms.
+     */
+    private static final Pattern LIKE_CARACTERES_SPECIAUX = Pattern.compile("[\\\\%_]");
+
+    /**
+     * Number of account numbers per IN list when loading search results.
+     */
+    private static final int TAILLE_LOT_IDS = 1000;
+
+    /**
+     * Sort value of a movement without creation date (must match the keyset queries).
+     */
+    private static final LocalDateTime DATE_CREATION_ABSENTE = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * Number of accounts in a top-by-balance ranking.
+     */
+    private static final int TOP_COMPTES = 100;
+
+    /**
+     * Ranking order, ascending (balance, then account number): must match the top-balance queries.
+     */
+    private static final Comparator<ClassementSolde> ORDRE_CLASSEMENT = Comparator
+            .comparing(ClassementSolde::getSoldeCourant)
+            .thenComparing(ClassementSolde::getIdCompte);
+
+    /**
+     * Sort values of the last account of a portfolio page.
+     */
+    private record CurseurCompte(BigDecimal solde, Long idCompte) {
+    }
+
+    /**
+     * Sort values of the last movement of a movements page.
+     */
+    private record CurseurMouvement(LocalDateTime dateCreation, BigDecimal montant, Integer numeroMouvement) {
+    }
+
+    /**
+     * Movement order of the keyset queries and of the day-close snapshots, ascending.
+     */
+    private static final Comparator<CurseurMouvement> ORDRE_MOUVEMENT = Comparator
+            .comparing(CurseurMouvement::dateCreation)
+            .thenComparing(CurseurMouvement::montant)
+            .thenComparing(CurseurMouvement::numeroMouvement);
+
+    /**
+     * Movement order of the paginated (offset) query: creation date descending, a missing date first
+     * as in PostgreSQL, then amount descending.
+     */
+    private static final Comparator<ClotureMouvementsCCP.Mouvement> ORDRE_PAGE_MOUVEMENTS = Comparator
+            .comparing(ClotureMouvementsCCP.Mouvement::datcreatemvt, Comparator.nullsFirst(Comparator.reverseOrder()))
+            .thenComparing(ClotureMouvementsCCP.Mouvement::montmouv, Comparator.reverseOrder());
+
+    /**
+     * Statistics of the movements of a day-close snapshot, as computed by the statistics queries.
+     */
+    private record StatistiquesCloture(Integer nombreComptes, BigDecimal montantTotal) {
+    }
+
     /**
      * Dependencies injected via constructor.
      */
@@ -97,6 +182,10 @@ public class RapportCCPServiceImpl implements RapportCCPService {
     private final CompteCCPMapper compteCCPMapper;
     private final BureauPosteCCPRepository bureauPosteRepository;
     private final MvtFinancierCCPRepository mvtFinancierRepository;
+    private final StatBureauCCPRepository statBureauRepository;
+    private final ClotureMouvementsService clotureMouvementsService;
+    private final VersionDonneesService versionDonneesService;
+    private final EntityManager entityManager;
 
     /**
      * Generates a paginated report of financial movements for a specific past date.
@@ -112,9 +201,7 @@ public class RapportCCPServiceImpl implements RapportCCPService {
     @Override
     public CompteMouvementVeilleDTO rapportMouvementVeille(Long codeBureau, BigDecimal montantMinimum, Integer joursAvant, Pageable pageable) {
         // Validation des paramètres
-        if (joursAvant == null || joursAvant < 1 || joursAvant > 2) {
-            joursAvant = 0;
-        }
+        joursAvant = normaliserJoursAvant(joursAvant);
 
         if (montantMinimum == null || montantMinimum.compareTo(BigDecimal.ZERO) < 0) {
             montantMinimum = BigDecimal.ZERO; // Par défaut tous les mouvements
@@ -123,6 +210,28 @@ public class RapportCCPServiceImpl implements RapportCCPService {
         // Calcul de la date du rapport
         LocalDate dateRapport = LocalDate.now().minusDays(joursAvant);
 
+        // Journée close : servie depuis sa clôture, sans relire les mouvements
+        Optional<ClotureMouvementsCCP> cloture = trouverCloture(dateRapport, codeBureau);
+        if (cloture.isPresent()) {
+            List<ClotureMouvementsCCP.Mouvement> filtres = filtrerCloture(cloture.get(), montantMinimum).stream()
+                    .sorted(ORDRE_PAGE_MOUVEMENTS)
+                    .toList();
+            int debut = (int) Math.min(pageable.getOffset(), filtres.size());
+            int fin = Math.min(debut + pageable.getPageSize(), filtres.size());
+            StatistiquesCloture stats = statistiquesCloture(filtres);
+
+            return rapportCCPMapper.creerRapportMouvementVeille(
+                    codeBureau,
+                    cloture.get().getDesignation(),
+                    dateRapport,
+                    new PageImpl<>(versMouvementDTOs(cloture.get(), filtres.subList(debut, fin)), pageable, filtres.size()),
+                    stats.nombreComptes(),
+                    stats.montantTotal(),
+                    joursAvant,
+                    montantMinimum
+            );
+        }
+
         // Récupération des informations de l'agence
         Optional<BureauPosteCCP> bureauOpt = bureauPosteRepository.findById(codeBureau);
         if (bureauOpt.isEmpty()) {
@@ -133,21 +242,25 @@ public class RapportCCPServiceImpl implements RapportCCPService {
         // Conversion du codeBureau en BigDecimal pour la requête
         BigDecimal codeBureauBD = new BigDecimal(codeBureau);
 
-        // Récupération des mouvements paginés
-        Page<MvtFinancierCCP> mouvementsPage = mvtFinancierRepository
-                .findPageByDateMouvementAndCodeBureauAndMontantMin(
+        // Récupération des mouvements paginés et des statistiques en une seule requête
+        List<MvtFinancierCCPRepository.LigneMouvement> lignes = mvtFinancierRepository
+                .findPageAvecStatistiquesByDateMouvementAndCodeBureauAndMontantMin(
                         dateRapport,
                         codeBureauBD,
                         montantMinimum,
-                        pageable
+                        sansTri(pageable)
                 );
 
-        // Conversion des entités en DTOs
-        Page<MouvementFinancierDTO> mouvementDTOs = mouvementsPage.map(mvtFinancierMapper::toMouvementFinancierDTO);
+        // Page vide (au-delà du dernier mouvement) : les statistiques ne sont portées par aucune ligne
+        MvtFinancierCCPRepository.MouvementStats stats = lignes.isEmpty()
+                ? mvtFinancierRepository.getStatistiques(dateRapport, codeBureauBD, montantMinimum)
+                : lignes.getFirst();
 
-        // Récupération des statistiques
-        MvtFinancierCCPRepository.MouvementStats stats = mvtFinancierRepository
-                .getStatistiques(dateRapport, codeBureauBD, montantMinimum);
+        // Conversion des entités en DTOs
+        List<MouvementFinancierDTO> contenu = lignes.stream()
+                .map(ligne -> mvtFinancierMapper.toMouvementFinancierDTO(ligne.getMouvement()))
+                .collect(Collectors.toList());
+        Page<MouvementFinancierDTO> mouvementDTOs = new PageImpl<>(contenu, pageable, stats.getNombreMouvements());
 
         // Création du rapport
         return rapportCCPMapper.creerRapportMouvementVeille(
@@ -162,6 +275,225 @@ public class RapportCCPServiceImpl implements RapportCCPService {
         );
     }
 
+    /**
+     * Generates one page of the financial movement report using cursor (keyset) pagination.
+     *
+     * <p>Each page resumes right after the last movement of the previous one, so page 500 costs
+     * the same as page 1 and no count query is run. Statistics are only computed for the first
+     * page (without cursor).</p>
+     *
+     * @param codeBureau     The code of the bureau for which the report is generated.
+     * @param montantMinimum The minimum amount of movement to consider.
+     * @param joursAvant     The number of days before today (0 for to day, 1 for yesterday, 2 for the day before).
+     * @param taille         The number of movements per page.
+     * @param curseur        The cursor returned with the previous page, or null for the first page.
+     * @return A {@link CompteMouvementVeilleDTO} with the page of movements and the cursor of the next page.
+     * @throws IllegalArgumentException If the specified bureau does not exist.
+     * @throws ResponseStatusException  If the page size or the cursor is invalid.
+     */
+    @Override
+    public CompteMouvementVeilleDTO rapportMouvementVeilleCurseur(
+            Long codeBureau, BigDecimal montantMinimum, Integer joursAvant, int taille, String curseur) {
+        validateTaillePage(taille);
+
+        // Validation des paramètres
+        joursAvant = normaliserJoursAvant(joursAvant);
+
+        if (montantMinimum == null || montantMinimum.compareTo(BigDecimal.ZERO) < 0) {
+            montantMinimum = BigDecimal.ZERO; // Par défaut tous les mouvements
+        }
+
+        LocalDate dateRapport = LocalDate.now().minusDays(joursAvant);
+
+        // Journée close : servie depuis sa clôture, déjà triée dans l'ordre du curseur
+        Optional<ClotureMouvementsCCP> cloture = trouverCloture(dateRapport, codeBureau);
+        if (cloture.isPresent()) {
+            return rapportMouvementVeilleCurseurCloture(cloture.get(), montantMinimum, joursAvant, taille, curseur);
+        }
+
+        BureauPosteCCP bureau = bureauPosteRepository.findById(codeBureau)
+                .orElseThrow(() -> new IllegalArgumentException("Bureau de poste non trouvé avec code: " + codeBureau));
+
+        BigDecimal codeBureauBD = new BigDecimal(codeBureau);
+
+        // Une ligne de plus que la page pour savoir s'il existe une page suivante
+        Limit limit = Limit.of(taille + 1);
+        List<MvtFinancierCCP> mouvements;
+        if (curseur == null) {
+            mouvements = mvtFinancierRepository.findPremiersByDateMouvementAndCodeBureauAndMontantMin(
+                    dateRapport, codeBureauBD, montantMinimum, limit);
+        } else {
+            CurseurMouvement apres = decoderCurseurMouvement(curseur, codeBureau, dateRapport, montantMinimum);
+            mouvements = mvtFinancierRepository.findByDateMouvementAndCodeBureauAndMontantMinApres(
+                    dateRapport, codeBureauBD, montantMinimum,
+                    apres.dateCreation(), apres.montant(), apres.numeroMouvement(), limit);
+        }
+
+        boolean pageSuivante = mouvements.size() > taille;
+        if (pageSuivante) {
+            mouvements = mouvements.subList(0, taille);
+        }
+
+        List<MouvementFinancierDTO> mouvementDTOs = mouvements.stream()
+                .map(mvtFinancierMapper::toMouvementFinancierDTO)
+                .collect(Collectors.toList());
+
+        // Statistiques de la journée, une seule fois pour l'ensemble des pages
+        MvtFinancierCCPRepository.MouvementStats stats = curseur == null
+                ? mvtFinancierRepository.getStatistiques(dateRapport, codeBureauBD, montantMinimum)
+                : null;
+
+        CompteMouvementVeilleDTO rapport = rapportCCPMapper.creerRapportMouvementVeille(
+                codeBureau,
+                bureau.getDesignation(),
+                dateRapport,
+                new PageImpl<>(mouvementDTOs),
+                stats != null ? stats.getNombreComptes() : null,
+                stats != null ? stats.getMontantTotal() : null,
+                joursAvant,
+                montantMinimum
+        );
+
+        if (pageSuivante) {
+            MvtFinancierCCP dernier = mouvements.getLast();
+            rapport.setCurseurSuivant(CurseurPagination.encoder(
+                    contexteMouvements(codeBureau, dateRapport, montantMinimum),
+                    Objects.requireNonNullElse(dernier.getDateCreation(), DATE_CREATION_ABSENTE),
+                    dernier.getMontant().toPlainString(),
+                    dernier.getNumeroMouvement()));
+        }
+
+        return rapport;
+    }
+
+    /**
+     * Generates one page of the cursor-paginated movement report from a day-close snapshot.
+     *
+     * <p>The snapshot is already sorted in the order of the keyset queries: the page starts at the
+     * first movement after the cursor and the cursors are the same as those of the live report.</p>
+     *
+     * @param cloture        The snapshot of the day and bureau.
+     * @param montantMinimum The minimum amount of movement to consider.
+     * @param joursAvant     The number of days before today.
+     * @param taille         The number of movements per page.
+     * @param curseur        The cursor returned with the previous page, or null for the first page.
+     * @return A {@link CompteMouvementVeilleDTO} with the page of movements and the cursor of the next page.
+     */
+    private CompteMouvementVeilleDTO rapportMouvementVeilleCurseurCloture(
+            ClotureMouvementsCCP cloture, BigDecimal montantMinimum, Integer joursAvant, int taille, String curseur) {
+        List<ClotureMouvementsCCP.Mouvement> filtres = filtrerCloture(cloture, montantMinimum);
+
+        int debut = 0;
+        if (curseur != null) {
+            CurseurMouvement apres = decoderCurseurMouvement(
+                    curseur, cloture.getCodeBureau(), cloture.getJournee(), montantMinimum);
+            while (debut < filtres.size() && ORDRE_MOUVEMENT.compare(curseurMouvement(filtres.get(debut)), apres) >= 0) {
+                debut++;
+            }
+        }
+
+        int fin = Math.min(debut + taille, filtres.size());
+        List<ClotureMouvementsCCP.Mouvement> mouvements = filtres.subList(debut, fin);
+
+        // Statistiques de la journée, une seule fois pour l'ensemble des pages
+        StatistiquesCloture stats = curseur == null ? statistiquesCloture(filtres) : null;
+
+        CompteMouvementVeilleDTO rapport = rapportCCPMapper.creerRapportMouvementVeille(
+                cloture.getCodeBureau(),
+                cloture.getDesignation(),
+                cloture.getJournee(),
+                new PageImpl<>(versMouvementDTOs(cloture, mouvements)),
+                stats != null ? stats.nombreComptes() : null,
+                stats != null ? stats.montantTotal() : null,
+                joursAvant,
+                montantMinimum
+        );
+
+        if (fin < filtres.size()) {
+            CurseurMouvement dernier = curseurMouvement(mouvements.getLast());
+            rapport.setCurseurSuivant(CurseurPagination.encoder(
+                    contexteMouvements(cloture.getCodeBureau(), cloture.getJournee(), montantMinimum),
+                    dernier.dateCreation(), dernier.montant().toPlainString(), dernier.numeroMouvement()));
+        }
+
+        return rapport;
+    }
+
+    /**
+     * Snapshot of a closed day for a bureau, only if it froze the current version of its movements
+     * (a late movement sends the report back to {@code mvtFinancierCCP} until the bureau is closed again).
+     */
+    private Optional<ClotureMouvementsCCP> trouverCloture(LocalDate dateRapport, Long codeBureau) {
+        if (!dateRapport.isBefore(LocalDate.now())) {
+            return Optional.empty();
+        }
+        return clotureMouvementsService.trouverCloture(dateRapport, codeBureau,
+                versionDonneesService.versionMouvements(dateRapport, codeBureau));
+    }
+
+    /**
+     * Movements of a day-close snapshot with an absolute amount of at least the minimum, in snapshot order
+     * (same filter as the paginated and statistics queries).
+     */
+    private List<ClotureMouvementsCCP.Mouvement> filtrerCloture(ClotureMouvementsCCP cloture, BigDecimal montantMinimum) {
+        return cloture.getMouvements().stream()
+                .filter(mouvement -> mouvement.montmouv() != null
+                        && mouvement.montmouv().abs().compareTo(montantMinimum) >= 0)
+                .toList();
+    }
+
+    /**
+     * Distinct accounts and total amount of snapshot movements ({@code null} total without movements, like SUM).
+     */
+    private StatistiquesCloture statistiquesCloture(List<ClotureMouvementsCCP.Mouvement> mouvements) {
+        int nombreComptes = (int) mouvements.stream()
+                .map(ClotureMouvementsCCP.Mouvement::idencomp)
+                .filter(Objects::nonNull)
+                .distinct()
+                .count();
+        BigDecimal montantTotal = mouvements.stream()
+                .map(ClotureMouvementsCCP.Mouvement::montmouv)
+                .reduce(BigDecimal::add)
+                .orElse(null);
+        return new StatistiquesCloture(nombreComptes, montantTotal);
+    }
+
+    /**
+     * Context of a movements cursor: the bureau, the day (not the relative {@code joursAvant}, which
+     * moves at midnight) and the minimum amount, the same for the live report and the day-close snapshot.
+     */
+    private static String contexteMouvements(Long codeBureau, LocalDate journee, BigDecimal montantMinimum) {
+        return CurseurPagination.contexte(
+                "mouvements", codeBureau, journee, montantMinimum.stripTrailingZeros().toPlainString());
+    }
+
+    /**
+     * Decodes a movements cursor issued for the same bureau, day and minimum amount.
+     *
+     * @throws ResponseStatusException (400) If the cursor is unreadable or was issued for other parameters
+     */
+    private static CurseurMouvement decoderCurseurMouvement(
+            String curseur, Long codeBureau, LocalDate journee, BigDecimal montantMinimum) {
+        return CurseurPagination.decoder(curseur, contexteMouvements(codeBureau, journee, montantMinimum), 3,
+                valeurs -> new CurseurMouvement(
+                        LocalDateTime.parse(valeurs[0]), new BigDecimal(valeurs[1]), Integer.valueOf(valeurs[2])));
+    }
+
+    private CurseurMouvement curseurMouvement(ClotureMouvementsCCP.Mouvement mouvement) {
+        return new CurseurMouvement(
+                Objects.requireNonNullElse(mouvement.datcreatemvt(), DATE_CREATION_ABSENTE),
+                mouvement.montmouv(),
+                mouvement.numemouv());
+    }
+
+    private List<MouvementFinancierDTO> versMouvementDTOs(
+            ClotureMouvementsCCP cloture, List<ClotureMouvementsCCP.Mouvement> mouvements) {
+        return mouvements.stream()
+                .map(mouvement -> mvtFinancierMapper.toMouvementFinancierDTO(
+                        mouvement, cloture.getCodeBureau(), cloture.getDesignation()))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Generates a complete financial movement report for a specific bureau.
      *
@@ -189,42 +521,58 @@ public class RapportCCPServiceImpl implements RapportCCPService {
      * @throws RuntimeException         If an error occurs during the report generation process.
      */
     @Override
-    @Cacheable(value = "mouvementsComplets", key = "#codeBureau + '_' + #montantMinimum + '_' + #joursAvant")
+    // Seule la journée en cours est gardée en cache : une journée close est servie depuis la clôture de
+    // sa version courante (cloturesMouvements), jamais plus ancienne que son ETag
+    @Cacheable(value = CachingApiConfig.MOUVEMENTS_COMPLETS,
+            key = "T(com.albaridbank.edition.service.impl.RapportCCPServiceImpl).cleMouvementsComplets(#codeBureau, #montantMinimum, #joursAvant)",
+            unless = "#result.journeeDu.isBefore(T(java.time.LocalDate).now())")
     public CompteMouvementVeilleDTO rapportMouvementVeilleComplet(Long codeBureau, BigDecimal montantMinimum, Integer joursAvant) {
         log.info("Génération du rapport complet pour le bureau: {}, montant minimum: {}, jours avant: {}",
                 codeBureau, montantMinimum, joursAvant);
 
         // Validation des paramètres
-        if (joursAvant == null || joursAvant < 0 || joursAvant > 2) {
-            joursAvant = 0;
-        }
-
-        if (montantMinimum == null || montantMinimum.compareTo(BigDecimal.ZERO) < 0) {
-            montantMinimum = BigDecimal.ZERO; // Par défaut tous les mouvements
-        }
+        joursAvant = normaliserJoursAvant(joursAvant);
+        montantMinimum = normaliserMontantMinimumComplet(montantMinimum);
 
         // Calcul de la date du rapport
         LocalDate dateRapport = LocalDate.now().minusDays(joursAvant);
 
+        // Journée close : servie depuis sa clôture, sans relire les mouvements
+        Optional<ClotureMouvementsCCP> cloture = trouverCloture(dateRapport, codeBureau);
+        if (cloture.isPresent()) {
+            List<MouvementFinancierDTO> mouvementDTOs = versMouvementDTOs(cloture.get(),
+                    mouvementsCompletsCloture(cloture.get(), montantMinimum));
+            StatistiquesCloture stats = statistiquesCloture(filtrerCloture(cloture.get(), montantMinimum));
+
+            log.info("Rapport complet servi depuis la clôture du {}. Nombre de mouvements: {}",
+                    dateRapport, mouvementDTOs.size());
+
+            return rapportCCPMapper.creerRapportMouvementVeille(
+                    codeBureau,
+                    cloture.get().getDesignation(),
+                    dateRapport,
+                    new PageImpl<>(mouvementDTOs, Pageable.unpaged(), mouvementDTOs.size()),
+                    stats.nombreComptes(),
+                    stats.montantTotal(),
+                    joursAvant,
+                    montantMinimum
+            );
+        }
+
         // Récupération des informations de l'agence
         BureauPosteCCP bureau = getBureauPoste(codeBureau);
 
         // Conversion du codeBureau en BigDecimal pour la requête
         BigDecimal codeBureauBD = new BigDecimal(codeBureau);
 
-        // Récupération de tous les mouvements sans pagination
-        List<MvtFinancierCCP> mouvements = mvtFinancierRepository
+        // Récupération de tous les mouvements sans pagination, construits en DTOs par la requête
+        List<MouvementFinancierDTO> mouvementDTOs = mvtFinancierRepository
                 .findAllByDateMouvementAndCodeBureauAndMontantMin(
                         dateRapport,
                         codeBureauBD,
                         montantMinimum
                 );
 
-        // Conversion des entités en DTOs
-        List<MouvementFinancierDTO> mouvementDTOs = mouvements.stream()
-                .map(mvtFinancierMapper::toMouvementFinancierDTO)
-                .collect(Collectors.toList());
-
         // Création d'un PageImpl pour maintenir la compatibilité avec l'interface existante
         Page<MouvementFinancierDTO> mouvementsPage = new PageImpl<>(
                 mouvementDTOs,
@@ -251,6 +599,139 @@ public class RapportCCPServiceImpl implements RapportCCPService {
         );
     }
 
+    /**
+     * Streams the complete financial movements report: its header and totals first, then its movements
+     * one by one, by descending amount.
+     *
+     * <p>Same header and totals as {@link #rapportMouvementVeilleComplet(Long, BigDecimal, Integer)}
+     * ({@code mouvements} is null). A closed day is read from its snapshot; otherwise the totals are
+     * computed and the report rows are built by the query and read through a JDBC cursor, so only the
+     * current fetch batch is held in memory. Header and movements are read in a single read-only
+     * {@code REPEATABLE READ} transaction: the totals always match the movements that follow, even
+     * when movements are saved during the streaming.</p>
+     *
+     * @param codeBureau     The unique identifier of the bureau. Must not be null.
+     * @param montantMinimum The minimum amount of movement to include. Defaults to 0.
+     * @param joursAvant     The number of days before today (0 to 2). Defaults to 0.
+     * @param entete         Receives the header and totals of the report, before any movement.
+     * @param consumer       Receives each movement, by descending amount.
+     * @throws ResponseStatusException If the bureau is not found.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void fluxRapportMouvementVeilleComplet(
+            Long codeBureau,
+            BigDecimal montantMinimum,
+            Integer joursAvant,
+            Consumer<CompteMouvementVeilleDTO> entete,
+            Consumer<MouvementFinancierDTO> consumer
+    ) {
+        Objects.requireNonNull(codeBureau, "Code bureau cannot be null");
+        int jours = normaliserJoursAvant(joursAvant);
+        BigDecimal minimum = normaliserMontantMinimumComplet(montantMinimum);
+        LocalDate dateRapport = LocalDate.now().minusDays(jours);
+
+        Optional<ClotureMouvementsCCP> cloture = trouverCloture(dateRapport, codeBureau);
+        if (cloture.isPresent()) {
+            StatistiquesCloture stats = statistiquesCloture(filtrerCloture(cloture.get(), minimum));
+            entete.accept(rapportCCPMapper.creerRapportMouvementVeille(codeBureau, cloture.get().getDesignation(),
+                    dateRapport, null, stats.nombreComptes(), stats.montantTotal(), jours, minimum));
+            versMouvementDTOs(cloture.get(), mouvementsCompletsCloture(cloture.get(), minimum)).forEach(consumer);
+            return;
+        }
+
+        BureauPosteCCP bureau = getBureauPoste(codeBureau);
+        BigDecimal codeBureauBD = new BigDecimal(codeBureau);
+        MvtFinancierCCPRepository.MouvementStats stats = mvtFinancierRepository
+                .getStatistiques(dateRapport, codeBureauBD, minimum);
+        entete.accept(rapportCCPMapper.creerRapportMouvementVeille(codeBureau, bureau.getDesignation(),
+                dateRapport, null, stats.getNombreComptes(), stats.getMontantTotal(), jours, minimum));
+
+        try (Stream<MouvementFinancierDTO> mouvements = mvtFinancierRepository
+                .streamAllByDateMouvementAndCodeBureauAndMontantMin(dateRapport, codeBureauBD, minimum)) {
+            mouvements.forEach(consumer);
+        }
+    }
+
+    /**
+     * Journée des rapports de mouvements : 0 (jour), 1 (veille) ou 2 (avant-veille), 0 par défaut.
+     */
+    private static int normaliserJoursAvant(Integer joursAvant) {
+        return joursAvant == null || joursAvant < 0 || joursAvant > 2 ? 0 : joursAvant;
+    }
+
+    /**
+     * Montant minimum du rapport complet, 0 (tous les mouvements) par défaut.
+     */
+    private static BigDecimal normaliserMontantMinimumComplet(BigDecimal montantMinimum) {
+        return montantMinimum == null || montantMinimum.compareTo(BigDecimal.ZERO) < 0 ? BigDecimal.ZERO : montantMinimum;
+    }
+
+    /**
+     * Clé du cache des rapports complets ({@link CachingApiConfig#MOUVEMENTS_COMPLETS}) : bureau, montant
+     * minimum et journée normalisés comme dans le rapport, pour que des paramètres qui produisent le même
+     * rapport (jours avant absent, négatif ou au-delà de 2 ; montant absent ou {@code 10} et {@code 10.00})
+     * partagent une seule entrée.
+     *
+     * @param codeBureau     Le code du bureau
+     * @param montantMinimum Le montant minimum demandé
+     * @param joursAvant     Le nombre de jours avant aujourd'hui demandé
+     * @return La clé du rapport dans le cache
+     */
+    public static String cleMouvementsComplets(Long codeBureau, BigDecimal montantMinimum, Integer joursAvant) {
+        return codeBureau + "_" + normaliserMontantMinimumComplet(montantMinimum).stripTrailingZeros().toPlainString()
+                + "_" + LocalDate.now().minusDays(normaliserJoursAvant(joursAvant));
+    }
+
+    /**
+     * Mouvements d'une clôture retenus par le rapport complet, par montant décroissant.
+     */
+    private static List<ClotureMouvementsCCP.Mouvement> mouvementsCompletsCloture(
+            ClotureMouvementsCCP cloture, BigDecimal montantMinimum) {
+        return cloture.getMouvements().stream()
+                .filter(mouvement -> mouvement.montmouv() != null && mouvement.montmouv().compareTo(montantMinimum) >= 0)
+                .sorted(Comparator.comparing(ClotureMouvementsCCP.Mouvement::montmouv).reversed())
+                .toList();
+    }
+
+    /**
+     * Returns the version of the financial movements reports of a day, without computing them: the day
+     * is normalized like in the reports, and the ETag changes with any movement of the day and bureau
+     * or label read with them ({@link VersionDonneesService#versionMouvements}), which is also the
+     * version a day-close snapshot must have to be served.
+     *
+     * @param codeBureau The code of the bureau. Must not be null.
+     * @param joursAvant The number of days before today (0 to 2). Defaults to 0.
+     * @return The ETag of the reports and whether their day is closed.
+     */
+    @Override
+    public VersionRapport versionRapportMouvements(Long codeBureau, Integer joursAvant) {
+        Objects.requireNonNull(codeBureau, "Code bureau cannot be null");
+        LocalDate aujourdhui = LocalDate.now();
+        LocalDate dateRapport = aujourdhui.minusDays(normaliserJoursAvant(joursAvant));
+        return new VersionRapport(
+                "\"mvt-" + dateRapport + "-" + codeBureau + "-"
+                        + versionDonneesService.versionMouvements(dateRapport, codeBureau) + "\"",
+                dateRapport.isBefore(aujourdhui));
+    }
+
+    /**
+     * Returns the version of the global outstanding balance report of a bureau, without computing it:
+     * the ETag holds the report day ({@code journeeDu} is today) and the version of the bureau
+     * aggregates, so an unchanged bureau still gets a new ETag after midnight.
+     *
+     * @param codeBureau The code of the bureau. Must not be null.
+     * @return The ETag of the report; the balances are never those of a closed day.
+     */
+    @Override
+    public VersionRapport versionRapportEncoursGlobal(Long codeBureau) {
+        Objects.requireNonNull(codeBureau, "Le code du bureau ne peut pas être null");
+        return new VersionRapport(
+                "\"encours-" + LocalDate.now() + "-" + codeBureau + "-"
+                        + versionDonneesService.versionComptes(codeBureau) + "\"",
+                false);
+    }
+
     /**
      * Generates a global outstanding balance report for a specific bureau.
      *
@@ -273,7 +754,7 @@ public class RapportCCPServiceImpl implements RapportCCPService {
         Objects.requireNonNull(codeBureau, "Le code du bureau ne peut pas être null");
 
         try {
-            return compteCCPRepository.calculerStatistiquesComptes(codeBureau, ETATS_COMPTES_EXCLUS)
+            return statBureauRepository.calculerStatistiquesComptes(codeBureau, ETATS_COMPTES_EXCLUS)
                     .map(rapportCCPMapper::toDto)
                     .orElseGet(() -> {
                         log.warn("Aucune donnée trouvée pour le bureau: {}", codeBureau);
@@ -326,7 +807,7 @@ public class RapportCCPServiceImpl implements RapportCCPService {
 
             // Récupération des statistiques globales (indépendamment de la pagination)
             PortefeuilleStats stats =
-                    compteCCPRepository.calculerStatistiquesPortefeuille(codeBureau, INACTIVE_STATES);
+                    statBureauRepository.calculerStatistiquesPortefeuille(codeBureau, INACTIVE_STATES);
 
             // Map the accounts to their DTO representations
             List<CompteCCPDetailDTO> comptesDTO = compteCCPMapper.toCompteCCPDetailDTOList(comptes);
@@ -358,17 +839,110 @@ public class RapportCCPServiceImpl implements RapportCCPService {
         }
     }
 
-    /*
+    /**
      * Generates a report of the top 100 CCP accounts by balance for a specific bureau.
      *
+     * <p>Closed, blocked and opposed accounts are not ranked. Only the displayed columns are read
+     * (projection, no entity is loaded), in the order of the (bureau, balance) index, so the query
+     * stops after 100 accounts. The ranking is cached for a few minutes.</p>
+     *
      * @param codeBureau The code of the bureau for which the report is generated.
      * @return A {@link PortefeuilleClientCCP_Top100_DTO} object containing the top 100 accounts report.
-
+     * @throws ResponseStatusException If the bureau code is invalid or the bureau is not found.
+     */
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = CachingApiConfig.TOP100_BUREAU, key = "#codeBureau")
     public PortefeuilleClientCCP_Top100_DTO genererRapportTop100(Long codeBureau) {
-        return null;
-    }**/
+        validateBureauCode(codeBureau);
+
+        log.debug("Génération du rapport Top 100 - Bureau: {}", codeBureau);
+
+        BureauPosteCCP bureauPoste = getBureauPoste(codeBureau);
+        List<LigneTop100> lignes = compteCCPRepository.findTopSoldesByBureau(
+                codeBureau, ETATS_COMPTES_EXCLUS, Limit.of(TOP_COMPTES));
+
+        return creerRapportTop100(bureauPoste.getCodeBureau(), bureauPoste.getDesignation(), null, lignes);
+    }
+
+    /**
+     * Generates the top 100 CCP accounts by balance across a region, or across the whole network.
+     *
+     * <p>Each bureau contributes its own 100 best balances, read from the (bureau, balance) index
+     * only. These per-bureau rankings are streamed into a bounded min-heap that keeps the 100 best
+     * entries seen so far, so memory stays constant whatever the number of bureaus. The displayed
+     * columns are then loaded for the 100 retained accounts only. The ranking is cached for a few
+     * minutes.</p>
+     *
+     * @param codeRegion The region code, or null for the whole network.
+     * @return A {@link PortefeuilleClientCCP_Top100_DTO} with the bureau of each account.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = CachingApiConfig.TOP100_RESEAU, key = "#codeRegion == null ? 'RESEAU' : #codeRegion")
+    public PortefeuilleClientCCP_Top100_DTO genererRapportTop100Reseau(Integer codeRegion) {
+        log.debug("Génération du rapport Top 100 réseau - Région: {}", codeRegion);
+
+        // The head of the heap is the smallest balance still retained
+        PriorityQueue<ClassementSolde> meilleurs = new PriorityQueue<>(TOP_COMPTES + 1, ORDRE_CLASSEMENT);
+        try (Stream<ClassementSolde> classements = compteCCPRepository.streamClassementsSoldesParBureau(
+                codeRegion, ETATS_COMPTES_EXCLUS, TOP_COMPTES)) {
+            classements.forEach(entree -> {
+                if (meilleurs.size() < TOP_COMPTES) {
+                    meilleurs.add(entree);
+                } else if (ORDRE_CLASSEMENT.compare(entree, meilleurs.peek()) > 0) {
+                    meilleurs.poll();
+                    meilleurs.add(entree);
+                }
+            });
+        }
+
+        List<Long> idsClasses = meilleurs.stream()
+                .sorted(ORDRE_CLASSEMENT.reversed())
+                .map(ClassementSolde::getIdCompte)
+                .toList();
+        if (idsClasses.isEmpty()) {
+            return creerRapportTop100(null, null, codeRegion, List.of());
+        }
+
+        Map<Long, LigneTop100> lignesParId = compteCCPRepository.findTopSoldesByIdCompteIn(idsClasses).stream()
+                .collect(Collectors.toMap(LigneTop100::getIdCompte, Function.identity()));
+        List<LigneTop100> lignes = idsClasses.stream()
+                .map(lignesParId::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return creerRapportTop100(null, null, codeRegion, lignes);
+    }
+
+    /**
+     * Builds a top 100 report from ranked rows, with the totals of the listed accounts.
+     *
+     * @param codeBureau  The bureau code, or null for a regional or network ranking
+     * @param designation The bureau name, or null
+     * @param codeRegion  The region code, or null
+     * @param lignes      The ranked rows
+     * @return The report DTO
+     */
+    private PortefeuilleClientCCP_Top100_DTO creerRapportTop100(
+            Long codeBureau,
+            String designation,
+            Integer codeRegion,
+            List<LigneTop100> lignes
+    ) {
+        BigDecimal encoursTotal = lignes.stream()
+                .map(LigneTop100::getSoldeCourant)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return rapportCCPMapper.creerRapportTop100(
+                codeBureau,
+                designation,
+                codeRegion,
+                compteCCPMapper.toCompteCCPTop100DTOListFromLignes(lignes),
+                lignes.size(),
+                encoursTotal
+        );
+    }
 
     /**
      * <h1>ETAT PORTEFEUILLE CLIENT CCP M</h1>
@@ -414,6 +988,117 @@ public class RapportCCPServiceImpl implements RapportCCPService {
         return generateReport(bureauPoste, pageable, typeCompte, etatCompteFiltre);
     }
 
+    /**
+     * <h1>ETAT PORTEFEUILLE CLIENT CCP M - PAGINATION PAR CURSEUR</h1>
+     * Generates one page of the detailed client portfolio report using cursor (keyset) pagination.
+     *
+     * <p>Accounts are sorted by current balance then account number, both descending. Each page
+     * resumes right after the last account of the previous one, so page 500 costs the same as
+     * page 1 and no count query is run. Totals are only computed for the first page (without cursor).</p>
+     *
+     * @param codeBureau The unique identifier of the postal bureau. Must not be null.
+     * @param taille     The number of accounts per page.
+     * @param typeCompte An optional filter for the type of account (1, 2, 3, or 4).
+     * @param etatCompte An optional filter for the account state (N, O, C, B or their full names).
+     * @param curseur    The cursor returned with the previous page, or null for the first page.
+     * @return A {@link PortefeuilleClientCCPRapportDTO} with the page of accounts and the cursor of the next page.
+     * @throws IllegalArgumentException If the bureau code is null.
+     * @throws ResponseStatusException  If the bureau is not found, or if a filter, the page size or the cursor is invalid.
+     */
+    @Override
+    public PortefeuilleClientCCPRapportDTO genererRapportPortefeuilleClientCurseur(
+            Long codeBureau,
+            int taille,
+            Integer typeCompte,
+            String etatCompte,
+            String curseur
+    ) {
+        validateBureauCode(codeBureau);
+        validateTypeCompte(typeCompte);
+        validateTaillePage(taille);
+
+        log.debug("Génération du rapport portefeuille client par curseur - Bureau: {}, Type: {}, État: {}, Taille: {}",
+                codeBureau, typeCompte, etatCompte, taille);
+
+        BureauPosteCCP bureauPoste = getBureauPoste(codeBureau);
+        String etatCompteFiltre = validateEtatCompte(etatCompte);
+
+        // Le curseur n'est valable que pour le bureau et les filtres qui l'ont émis
+        String contexte = CurseurPagination.contexte("portefeuille", codeBureau, etatCompteFiltre, typeCompte);
+
+        // Une ligne de plus que la page pour savoir s'il existe une page suivante
+        Limit limit = Limit.of(taille + 1);
+        List<CompteCCP> comptes;
+        if (curseur == null) {
+            comptes = compteCCPRepository.findPremiersPortefeuilleClientsByBureauWithFilters(
+                    codeBureau, etatCompteFiltre, typeCompte, limit);
+        } else {
+            CurseurCompte apres = CurseurPagination.decoder(curseur, contexte, 2, valeurs -> new CurseurCompte(
+                    new BigDecimal(valeurs[0]), Long.valueOf(valeurs[1])));
+            comptes = compteCCPRepository.findPortefeuilleClientsByBureauWithFiltersApres(
+                    codeBureau, etatCompteFiltre, typeCompte, apres.solde(), apres.idCompte(), limit);
+        }
+
+        boolean pageSuivante = comptes.size() > taille;
+        if (pageSuivante) {
+            comptes = comptes.subList(0, taille);
+        }
+
+        List<PortefeuilleClientCCPDetailDTO> comptesDTO = comptes.stream()
+                .map(rapportCCPMapper::toDetailDTO)
+                .collect(Collectors.toList());
+
+        // Totaux du portefeuille, une seule fois pour l'ensemble des pages
+        PortefeuilleStats stats = curseur == null
+                ? statBureauRepository.calculerStatistiquesPortefeuilleDetail(codeBureau, etatCompteFiltre, typeCompte)
+                : null;
+
+        PortefeuilleClientCCPRapportDTO rapport = rapportCCPMapper.creerRapportPortefeuilleDetaillee(
+                bureauPoste.getCodeBureau(),
+                bureauPoste.getDesignation(),
+                comptesDTO,
+                stats
+        );
+
+        if (pageSuivante) {
+            CompteCCP dernier = comptes.getLast();
+            rapport.setCurseurSuivant(CurseurPagination.encoder(
+                    contexte,
+                    Objects.requireNonNullElse(dernier.getSoldeCourant(), BigDecimal.ZERO).toPlainString(),
+                    dernier.getIdCompte()));
+        }
+
+        return rapport;
+    }
+
+    /**
+     * Drops the sort of a page request for queries that define their own ORDER BY
+     * (a requested sort would only be appended after the query's own sort keys).
+     *
+     * @param pageable The requested page
+     * @return The same page, unsorted
+     */
+    private Pageable sansTri(Pageable pageable) {
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+                : pageable;
+    }
+
+    /**
+     * Validates the page size of cursor (keyset) pagination.
+     *
+     * @param taille The requested page size
+     * @throws ResponseStatusException If the page size is not between 1 and {@link #TAILLE_PAGE_MAX}
+     */
+    private void validateTaillePage(int taille) {
+        if (taille < 1 || taille > TAILLE_PAGE_MAX) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    String.format("Taille de page invalide: %d. Valeurs acceptées: 1 à %d", taille, TAILLE_PAGE_MAX)
+            );
+        }
+    }
+
     /**
      * Validates that the bureau code is not null.
      *
@@ -501,23 +1186,22 @@ public class RapportCCPServiceImpl implements RapportCCPService {
             String etatCompteFiltre
     ) {
         try {
-            Page<CompteCCP> comptesPage = compteCCPRepository
-                    .findPortefeuilleClientsByBureauWithFilters(
+            List<CompteCCP> comptes = compteCCPRepository
+                    .findPagePortefeuilleClients(
                             bureauPoste.getCodeBureau(),
                             etatCompteFiltre,
                             typeCompte,
-                            pageable
+                            sansTri(pageable)
                     );
 
-            PortefeuilleStats stats = compteCCPRepository
-                    .calculerStatistiquesPortefeuilleDetail(
-                            bureauPoste.getCodeBureau(),
-                            etatCompteFiltre,
-                            typeCompte
-                    );
+            // Totaux tirés des agrégats par bureau : identiques quelle que soit la page
+            PortefeuilleStats stats = statBureauRepository.calculerStatistiquesPortefeuilleDetail(
+                    bureauPoste.getCodeBureau(),
+                    etatCompteFiltre,
+                    typeCompte
+            );
 
-            List<PortefeuilleClientCCPDetailDTO> comptesDTO = comptesPage.getContent()
-                    .stream()
+            List<PortefeuilleClientCCPDetailDTO> comptesDTO = comptes.stream()
                     .map(rapportCCPMapper::toDetailDTO)
                     .collect(Collectors.toList());
 
@@ -616,6 +1300,76 @@ public class RapportCCPServiceImpl implements RapportCCPService {
         return generateReportWithGlobalSearch(bureauPoste, typeCompte, etatCompteFiltre, searchTerm);
     }
 
+    /**
+     * Streams the unpaged client portfolio report: its header and totals first, then its accounts one by
+     * one, by descending balance.
+     *
+     * <p>With a search term, the totals are those of the global search
+     * ({@link #genererRapportPortefeuilleClientRechercheGlobale}); without, those of the whole filtered
+     * portfolio ({@code comptes} is null). Without a search term, the filtered portfolio is read through
+     * a JDBC cursor. With a search term, only the matching account numbers are read at once; the accounts
+     * are then loaded by batches of {@value #TAILLE_LOT_IDS}. Each account is detached once handed to the
+     * consumer. Header and accounts are read in a single read-only {@code REPEATABLE READ} transaction:
+     * the totals always match the accounts that follow.</p>
+     *
+     * @param codeBureau Bureau code
+     * @param typeCompte Optional account type filter
+     * @param etatCompte Optional account state filter
+     * @param searchTerm Optional search term
+     * @param entete     Receives the header and totals of the report, before any account
+     * @param consumer   Receives each account
+     * @throws ResponseStatusException If the bureau is not found or a filter is invalid
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void fluxRapportPortefeuilleClientGlobal(
+            Long codeBureau,
+            Integer typeCompte,
+            String etatCompte,
+            String searchTerm,
+            Consumer<PortefeuilleClientCCPRapportDTO> entete,
+            Consumer<PortefeuilleClientCCPDetailDTO> consumer
+    ) {
+        validateBureauCode(codeBureau);
+        validateTypeCompte(typeCompte);
+
+        BureauPosteCCP bureauPoste = getBureauPoste(codeBureau);
+        String etatCompteFiltre = validateEtatCompte(etatCompte);
+
+        Consumer<CompteCCP> exporter = compte -> {
+            consumer.accept(rapportCCPMapper.toDetailDTO(compte));
+            detacher(compte);
+        };
+
+        if (searchTerm == null || searchTerm.isBlank()) {
+            entete.accept(rapportCCPMapper.creerRapportPortefeuilleDetaillee(
+                    bureauPoste.getCodeBureau(),
+                    bureauPoste.getDesignation(),
+                    null,
+                    statBureauRepository.calculerStatistiquesPortefeuilleDetail(codeBureau, etatCompteFiltre, typeCompte)
+            ));
+            try (Stream<CompteCCP> comptes = compteCCPRepository.streamPortefeuilleClientsByBureauWithFilters(
+                    codeBureau, etatCompteFiltre, typeCompte)) {
+                comptes.forEach(exporter);
+            }
+            return;
+        }
+
+        // Chaque ligne de la recherche porte les totaux de tous les comptes trouvés : la première suffit
+        List<LigneRechercheCompte> lignes = rechercherComptes(
+                codeBureau, etatCompteFiltre, typeCompte, searchTerm, Pageable.unpaged());
+        PortefeuilleClientCCPRapportDTO rapport = rapportCCPMapper.creerRapportPortefeuilleDetaillee(
+                bureauPoste.getCodeBureau(),
+                bureauPoste.getDesignation(),
+                null,
+                lignes.isEmpty() ? null : lignes.getFirst()
+        );
+        rapport.setTitreRapport(rapport.getTitreRapport() + " - RECHERCHE GLOBALE");
+        entete.accept(rapport);
+
+        parcourirComptesTrouves(lignes, exporter);
+    }
+
     /**
      * Generates a report with search filtering and pagination.
      *
@@ -635,25 +1389,29 @@ public class RapportCCPServiceImpl implements RapportCCPService {
             String searchTerm
     ) {
         try {
-            Page<CompteCCP> comptesPage = compteCCPRepository
-                    .findPortefeuilleClientsByBureauWithSearch(
-                            bureauPoste.getCodeBureau(),
-                            etatCompteFiltre,
-                            typeCompte,
-                            searchTerm,
-                            pageable
-                    );
+            // Comptes trouvés et totaux de la recherche (index trigrammes)
+            List<LigneRechercheCompte> lignes = rechercherComptes(
+                    bureauPoste.getCodeBureau(),
+                    etatCompteFiltre,
+                    typeCompte,
+                    searchTerm,
+                    sansTri(pageable)
+            );
 
-            PortefeuilleStats stats = compteCCPRepository
-                    .calculerStatistiquesPortefeuilleDetailAvecRecherche(
-                            bureauPoste.getCodeBureau(),
-                            etatCompteFiltre,
-                            typeCompte,
-                            searchTerm
-                    );
+            // Page vide au-delà du dernier résultat : les totaux sont relus sur le premier résultat
+            List<LigneRechercheCompte> lignesTotaux = lignes;
+            if (lignes.isEmpty() && pageable.isPaged() && pageable.getPageNumber() > 0) {
+                lignesTotaux = rechercherComptes(
+                        bureauPoste.getCodeBureau(),
+                        etatCompteFiltre,
+                        typeCompte,
+                        searchTerm,
+                        PageRequest.of(0, 1)
+                );
+            }
+            PortefeuilleStats stats = lignesTotaux.isEmpty() ? null : lignesTotaux.getFirst();
 
-            List<PortefeuilleClientCCPDetailDTO> comptesDTO = comptesPage.getContent()
-                    .stream()
+            List<PortefeuilleClientCCPDetailDTO> comptesDTO = chargerComptesTrouves(lignes).stream()
                     .map(rapportCCPMapper::toDetailDTO)
                     .collect(Collectors.toList());
 
@@ -694,26 +1452,18 @@ public class RapportCCPServiceImpl implements RapportCCPService {
             String searchTerm
     ) {
         try {
-            // Récupérer tous les comptes correspondant à la recherche (sans pagination)
-            List<CompteCCP> comptes = compteCCPRepository
-                    .findAllPortefeuilleClientsByBureauWithSearch(
-                            bureauPoste.getCodeBureau(),
-                            etatCompteFiltre,
-                            typeCompte,
-                            searchTerm
-                    );
-
-            // Calculer les statistiques
-            PortefeuilleStats stats = compteCCPRepository
-                    .calculerStatistiquesPortefeuilleDetailAvecRecherche(
-                            bureauPoste.getCodeBureau(),
-                            etatCompteFiltre,
-                            typeCompte,
-                            searchTerm
-                    );
+            // Récupérer tous les comptes correspondant à la recherche (sans pagination), avec les statistiques
+            List<LigneRechercheCompte> lignes = rechercherComptes(
+                    bureauPoste.getCodeBureau(),
+                    etatCompteFiltre,
+                    typeCompte,
+                    searchTerm,
+                    Pageable.unpaged()
+            );
+            PortefeuilleStats stats = lignes.isEmpty() ? null : lignes.getFirst();
 
             // Convertir en DTOs
-            List<PortefeuilleClientCCPDetailDTO> comptesDTO = comptes.stream()
+            List<PortefeuilleClientCCPDetailDTO> comptesDTO = chargerComptesTrouves(lignes).stream()
                     .map(rapportCCPMapper::toDetailDTO)
                     .collect(Collectors.toList());
 
@@ -744,18 +1494,85 @@ public class RapportCCPServiceImpl implements RapportCCPService {
     }
 
     /**
-     * Generates an Excel report for CCP client portfolio for a specific bureau.
+     * Searches the accounts of a bureau through the trigram indexes (see V6 migration).
+     *
+     * <p>Identifier-like terms (digits, or one or two letters followed by digits as in a CIN) are
+     * matched as a prefix of the account number, CIN or phone; any other term is matched anywhere
+     * in the account titles and address, CIN or phone. Both searches are limited to the accounts of
+     * the bureau, which also bounds the terms too short for a trigram index.</p>
+     *
+     * @param codeBureau       The bureau code
+     * @param etatCompteFiltre The validated account state filter (can be null)
+     * @param typeCompte       The account type filter (can be null)
+     * @param searchTerm       The search term
+     * @param pageable         The unsorted page, or {@link Pageable#unpaged()} for all results
+     * @return The matching account numbers sorted by balance, each with the totals of the search
+     */
+    private List<LigneRechercheCompte> rechercherComptes(
+            Long codeBureau,
+            String etatCompteFiltre,
+            Integer typeCompte,
+            String searchTerm,
+            Pageable pageable
+    ) {
+        String terme = searchTerm.trim().toLowerCase(Locale.ROOT);
+        String termeEchappe = LIKE_CARACTERES_SPECIAUX.matcher(terme).replaceAll("\\\\$0");
+
+        if (RECHERCHE_IDENTIFIANT.matcher(terme).matches()) {
+            return compteCCPRepository.rechercherPortefeuilleClientsParIdentifiant(
+                    codeBureau, etatCompteFiltre, typeCompte, termeEchappe + "%", pageable);
+        }
+        return compteCCPRepository.rechercherPortefeuilleClients(
+                codeBureau, etatCompteFiltre, typeCompte, "%" + termeEchappe + "%", pageable);
+    }
+
+    /**
+     * Loads the accounts found by a search, keeping the order of the search.
      *
-     * <p>This method retrieves all CCP accounts for the specified bureau, applying an optional
-     * filter for account state. The accounts are returned without pagination to ensure the Excel
-     * report contains the complete dataset. The method calculates total balances, converts entities
-     * to DTOs, and packages the results into a specialized DTO for Excel export.</p>
+     * @param lignes The search rows
+     * @return The accounts with their client and bureau, in the same order
+     */
+    private List<CompteCCP> chargerComptesTrouves(List<LigneRechercheCompte> lignes) {
+        List<CompteCCP> comptes = new ArrayList<>(lignes.size());
+        parcourirComptesTrouves(lignes, comptes::add);
+        return comptes;
+    }
+
+    /**
+     * Loads the accounts found by a search by batches, and hands them over in the order of the search.
+     *
+     * @param lignes   The search rows
+     * @param consumer Receives each account with its client and bureau
+     */
+    private void parcourirComptesTrouves(List<LigneRechercheCompte> lignes, Consumer<CompteCCP> consumer) {
+        List<Long> ids = lignes.stream().map(LigneRechercheCompte::getIdCompte).toList();
+
+        // Par lots, pour rester sous la limite de paramètres d'une requête
+        for (int debut = 0; debut < ids.size(); debut += TAILLE_LOT_IDS) {
+            List<Long> lot = ids.subList(debut, Math.min(debut + TAILLE_LOT_IDS, ids.size()));
+            Map<Long, CompteCCP> comptesParId = new HashMap<>(lot.size() * 2);
+            compteCCPRepository.findAllWithClientByIdCompteIn(lot)
+                    .forEach(compte -> comptesParId.put(compte.getIdCompte(), compte));
+
+            lot.stream()
+                    .map(comptesParId::get)
+                    .filter(Objects::nonNull)
+                    .forEach(consumer);
+        }
+    }
+
+    /**
+     * Generates the header and totals of the Excel CCP client portfolio report for a specific bureau.
+     *
+     * <p>The accounts themselves are not loaded here: the totals are computed by the database and
+     * the rows are streamed afterwards through
+     * {@link #parcourirComptesPortefeuilleClientPourExcel(Long, String, Consumer)}, so the memory
+     * used by the export does not grow with the number of accounts.</p>
      *
      * <p>The generated report includes:
      * <ul>
      *   <li>Bureau information (code and name)</li>
      *   <li>Report metadata (title, generation date, user)</li>
-     *   <li>Complete list of accounts matching the criteria</li>
      *   <li>Summary statistics (total number of accounts and total balance)</li>
      * </ul>
      *
@@ -764,11 +1581,10 @@ public class RapportCCPServiceImpl implements RapportCCPService {
      * @param etatCompte An optional filter for the account state. Can be null or empty for no filtering.
      *                   When provided, only accounts with the matching state will be included.
      * @param username   The username of the user generating the report, included in the report metadata.
-     * @return A {@link PortefeuilleClientCCPExcelDTO} containing the complete dataset and metadata for Excel export.
+     * @return A {@link PortefeuilleClientCCPExcelDTO} containing the metadata and totals for Excel export.
      * @throws NullPointerException If the provided bureau code is null.
      * @throws RuntimeException     If an error occurs during the report generation process.
      */
-
     @Override
     @Transactional(readOnly = true)
     public PortefeuilleClientCCPExcelDTO genererRapportPortefeuilleClientPourExcel(
@@ -781,53 +1597,26 @@ public class RapportCCPServiceImpl implements RapportCCPService {
         Objects.requireNonNull(codeBureau, "Code bureau cannot be null");
 
         try {
-            // Construire la spécification en fonction des paramètres de filtrage
-            Specification<CompteCCP> specification = (root, query, criteriaBuilder) -> {
-                assert query != null;
-                query.distinct(true);
-
-                // Filtrer par bureau
-                Specification<CompteCCP> spec = Specification.where(
-                        (r, q, cb) -> cb.equal(r.get("bureauPoste").get("codeBureau"), codeBureau));
-
-                // Filtrer par état de compte si spécifié
-                if (etatCompte != null && !etatCompte.trim().isEmpty()) {
-                    spec = spec.and((r, q, cb) -> cb.equal(r.get("codeEtatCompte"), etatCompte));
-                }
-
-                return spec.toPredicate(root, query, criteriaBuilder);
-            };
-
-            // Récupérer tous les comptes correspondant aux critères sans pagination
-            List<CompteCCP> comptes = compteCCPRepository.findAll(specification);
-
             // Récupérer les informations du bureau
-            String designation = comptes.stream()
-                    .map(CompteCCP::getBureauPoste)
-                    .filter(Objects::nonNull)
+            String designation = bureauPosteRepository.findByCodeBureau(codeBureau)
                     .map(BureauPosteCCP::getDesignation)
-                    .findFirst()
                     .orElse("Bureau inconnu");
 
-            // Calculer les totaux
-            BigDecimal encoursTotal = comptes.stream()
-                    .map(CompteCCP::getSoldeCourant)  // Utilisez la méthode qui existe réellement dans CompteCCP
-                    .filter(Objects::nonNull)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            // Convertir les entités en DTOs
-            List<CompteCCPDetailDTO> comptesDTO = compteCCPMapper.toCompteCCPDetailDTOList(comptes);
+            // Calculer les totaux côté base de données
+            PortefeuilleStats stats = statBureauRepository.calculerStatistiquesPortefeuilleDetail(
+                    codeBureau, normaliserEtatCompte(etatCompte), null);
 
-            // Créer le DTO pour l'exportation Excel
+            // Créer le DTO pour l'exportation Excel (les comptes sont parcourus au fil de l'eau)
             PortefeuilleClientCCPExcelDTO excelDTO = new PortefeuilleClientCCPExcelDTO();
             excelDTO.setTitreRapport("ETAT PORTEFEUILLE CLIENT CCP");
             excelDTO.setDateEdition(LocalDateTime.now());
             excelDTO.setUtilisateur(username);
             excelDTO.setCodburpo(codeBureau);
             excelDTO.setDesburpo(designation);
-            excelDTO.setComptes(comptesDTO);
-            excelDTO.setNombreTotalComptes(comptes.size());
-            excelDTO.setEncoursTotalComptes(encoursTotal);
+            excelDTO.setNombreTotalComptes(stats.getNombreTotalComptes() != null
+                    ? stats.getNombreTotalComptes().intValue() : 0);
+            excelDTO.setEncoursTotalComptes(stats.getEncoursTotalComptes() != null
+                    ? stats.getEncoursTotalComptes() : BigDecimal.ZERO);
 
             return excelDTO;
         } catch (Exception e) {
@@ -836,6 +1625,35 @@ public class RapportCCPServiceImpl implements RapportCCPService {
         }
     }
 
+    /**
+     * Streams the accounts of the Excel CCP client portfolio report one by one.
+     *
+     * <p>Accounts are read through a JDBC cursor, mapped to {@link CompteCCPDetailDTO} and then
+     * detached from the persistence context, so only the current fetch batch is held in memory.</p>
+     *
+     * @param codeBureau The unique identifier of the postal bureau. Must not be null.
+     * @param etatCompte An optional filter for the account state. Can be null or empty for no filtering.
+     * @param consumer   Receives each account, ordered by descending balance.
+     * @throws NullPointerException If the provided bureau code is null.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void parcourirComptesPortefeuilleClientPourExcel(
+            Long codeBureau,
+            String etatCompte,
+            Consumer<CompteCCPDetailDTO> consumer
+    ) {
+        Objects.requireNonNull(codeBureau, "Code bureau cannot be null");
+
+        try (Stream<CompteCCP> comptes = compteCCPRepository.streamPortefeuilleClientsByBureauWithFilters(
+                codeBureau, normaliserEtatCompte(etatCompte), null)) {
+            comptes.forEach(compte -> {
+                consumer.accept(compteCCPMapper.toCompteCCPDetailDTO(compte));
+                detacher(compte);
+            });
+        }
+    }
+
     /**
      * Generates an Excel report of financial movements for a specific agency.
      *
@@ -914,9 +1732,9 @@ public class RapportCCPServiceImpl implements RapportCCPService {
     /**
      * Génère un rapport de portefeuille client M CCP pour l'export Excel
      *
-     * <p>Cette méthode récupère les données détaillées des comptes CCP pour un bureau spécifique,
-     * avec un filtrage optionnel par état de compte. Les données sont récupérées sans pagination
-     * pour assurer que le rapport Excel contient l'ensemble complet des données.</p>
+     * <p>Cette méthode prépare l'en-tête et les statistiques du rapport pour un bureau spécifique,
+     * avec un filtrage optionnel par état de compte. Les comptes ne sont pas chargés ici : ils sont
+     * parcourus au fil de l'eau par {@link #parcourirComptesPortefeuilleClientMPourExcel}.</p>
      *
      * @param codeBureau Le code du bureau
      * @param etatCompte L'état du compte (optionnel)
@@ -942,20 +1760,10 @@ public class RapportCCPServiceImpl implements RapportCCPService {
             // Récupérer les informations du bureau
             BureauPosteCCP bureauPoste = getBureauPoste(codeBureau);
 
-            // Récupérer toutes les données sans pagination
-            List<CompteCCP> comptes = compteCCPRepository.findPortefeuilleClientsByBureauWithFilters(
-                            codeBureau, etatCompteFiltre, null, Pageable.unpaged())
-                    .getContent();
-
-            // Récupérer les statistiques
-            PortefeuilleStats stats = compteCCPRepository.calculerStatistiquesPortefeuilleDetail(
+            // Récupérer les statistiques (les comptes sont parcourus au fil de l'eau)
+            PortefeuilleStats stats = statBureauRepository.calculerStatistiquesPortefeuilleDetail(
                     codeBureau, etatCompteFiltre, null);
 
-            // Mapper les données
-            List<PortefeuilleClientCCPDetailDTO> comptesDTO = comptes.stream()
-                    .map(rapportCCPMapper::toDetailDTO)
-                    .collect(Collectors.toList());
-
             // Créer le DTO pour l'export Excel
             PortefeuilleClientCCPMExcelDTO excelDTO = new PortefeuilleClientCCPMExcelDTO();
             excelDTO.setTitreRapport("ETAT PORTE FEUILLE CLIENT M CCP");
@@ -963,7 +1771,6 @@ public class RapportCCPServiceImpl implements RapportCCPService {
             excelDTO.setNumeroPage("1");
             excelDTO.setCodburpo(codeBureau);
             excelDTO.setDesburpo(bureauPoste.getDesignation());
-            excelDTO.setComptes(comptesDTO);
             excelDTO.setNombreTotalComptes(stats.getNombreTotalComptes());
             excelDTO.setEncoursTotalComptes(stats.getEncoursTotalComptes());
             excelDTO.setTotalSoldeOpposition(stats.getTotalSoldeOpposition());
@@ -981,4 +1788,53 @@ public class RapportCCPServiceImpl implements RapportCCPService {
             throw new RuntimeException("Failed to generate Excel report for Portfolio M CCP", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Parcourt un à un les comptes du rapport de portefeuille client M CCP pour l'export Excel
+     *
+     * <p>Les comptes sont lus via un curseur JDBC, convertis en {@link PortefeuilleClientCCPDetailDTO}
+     * puis détachés du contexte de persistance : seul le lot courant est conservé en mémoire.</p>
+     *
+     * @param codeBureau Le code du bureau
+     * @param etatCompte L'état du compte (optionnel)
+     * @param consumer   Reçoit chaque compte, par solde décroissant
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void parcourirComptesPortefeuilleClientMPourExcel(
+            Long codeBureau, String etatCompte, Consumer<PortefeuilleClientCCPDetailDTO> consumer) {
+
+        Objects.requireNonNull(codeBureau, "Code bureau cannot be null");
+
+        String etatCompteFiltre = null;
+        if (etatCompte != null && !etatCompte.trim().isEmpty()) {
+            etatCompteFiltre = validateEtatCompte(etatCompte);
+        }
+
+        try (Stream<CompteCCP> comptes = compteCCPRepository.streamPortefeuilleClientsByBureauWithFilters(
+                codeBureau, etatCompteFiltre, null)) {
+            comptes.forEach(compte -> {
+                consumer.accept(rapportCCPMapper.toDetailDTO(compte));
+                detacher(compte);
+            });
+        }
+    }
+
+    /**
+     * Retourne l'état de compte tel quel, ou null s'il est vide (aucun filtrage).
+     */
+    private String normaliserEtatCompte(String etatCompte) {
+        return etatCompte != null && !etatCompte.trim().isEmpty() ? etatCompte : null;
+    }
+
+    /**
+     * Détache un compte déjà exporté (ainsi que son client) du contexte de persistance,
+     * pour que la mémoire ne croisse pas avec le nombre de lignes parcourues.
+     */
+    private void detacher(CompteCCP compte) {
+        if (compte.getClient() != null) {
+            entityManager.detach(compte.getClient());
+        }
+        entityManager.detach(compte);
+    }
+}
@@ -0,0 +1,253 @@
+package com.albaridbank.edition.service.impl;
+
+import com.albaridbank.edition.dto.rapport.CompteCENMouvementVeilleDTO;
+import com.albaridbank.edition.dto.rapport.NbrTotalEncoursCENDTO;
+import com.albaridbank.edition.dto.rapport.PortefeuilleCENDTO;
+import com.albaridbank.edition.mappers.cen.CompteCENMapper;
+import com.albaridbank.edition.mappers.cen.OperCompCENMapper;
+import com.albaridbank.edition.mappers.rapport.RapportCENMapper;
+import com.albaridbank.edition.model.cen.BurePostCEN;
+import com.albaridbank.edition.repositorys.cen.BurePostCENRepository;
+import com.albaridbank.edition.repositorys.cen.CompteCENRepository;
+import com.albaridbank.edition.repositorys.cen.OperCompCENRepository;
+import com.albaridbank.edition.repositorys.cen.projectionCENRepo.EncoursCENStats;
+import com.albaridbank.edition.repositorys.cen.projectionCENRepo.LigneMouvementCEN;
+import com.albaridbank.edition.repositorys.cen.projectionCENRepo.LignePortefeuilleCEN;
+import com.albaridbank.edition.repositorys.cen.projectionCENRepo.MouvementCENStats;
+import com.albaridbank.edition.service.interfaces.RapportCENService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service implementation for generating CEN reports.
+ *
+ * <p>Every report is built from projection queries that select only the rendered columns,
+ * with the client, socio-professional category and operation type joined in the same query:
+ * no CEN entity is loaded and no query is issued per account or per operation. Report totals
+ * always come from a separate aggregate query, so they are the same on every page and the page
+ * query stops at its LIMIT.</p>
+ *
+ * <p>Movement queries filter on the {@code (dateoper, codburpo)} prefix of the
+ * {@code opercompcen} primary key.</p>
+ *
+ * @author Mohamed Amine Eddafir
+ * @see RapportCENService
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class RapportCENServiceImpl implements RapportCENService {
+
+    /**
+     * Activity code of closed accounts, excluded from the reports.
+     */
+    private static final Integer CODE_ACTIVITE_CLOTURE = 4;
+
+    /**
+     * Maximum page size.
+     */
+    private static final int TAILLE_PAGE_MAX = 500;
+
+    /**
+     * Dependencies injected via constructor.
+     */
+    private final CompteCENRepository compteCENRepository;
+    private final OperCompCENRepository operCompCENRepository;
+    private final BurePostCENRepository burePostCENRepository;
+    private final CompteCENMapper compteCENMapper;
+    private final OperCompCENMapper operCompCENMapper;
+    private final RapportCENMapper rapportCENMapper;
+
+    /**
+     * Generates the number of accounts and global outstanding balance report of a CEN bureau.
+     *
+     * <p>The bureau and its totals are read by a single aggregate query.</p>
+     *
+     * @param codeBureau The code of the bureau. Must not be null.
+     * @return A {@link NbrTotalEncoursCENDTO} with the totals of the non-closed accounts.
+     * @throws IllegalArgumentException If the bureau code is null.
+     * @throws ResponseStatusException  If the bureau is not found.
+     */
+    @Override
+    public NbrTotalEncoursCENDTO genererRapportEncoursGlobalCEN(Long codeBureau) {
+        validateBureauCode(codeBureau);
+
+        log.debug("Génération du rapport d'encours global CEN - Bureau: {}", codeBureau);
+
+        EncoursCENStats stats = getEncoursBureau(codeBureau);
+
+        return rapportCENMapper.creerRapportEncoursGlobalCEN(
+                stats.getCodburpo(),
+                stats.getDesburpo(),
+                stats.getNombreComptes(),
+                stats.getTotalEncours()
+        );
+    }
+
+    /**
+     * Generates one page of the CEN client portfolio report of a bureau.
+     *
+     * <p>Accounts are sorted by balance, descending. The bureau, with its totals, is read by the
+     * aggregate query of the global outstanding report.</p>
+     *
+     * @param codeBureau The code of the bureau. Must not be null.
+     * @param pageable   The page to generate (any requested sort is ignored).
+     * @return A {@link PortefeuilleCENDTO} with the accounts of the page and the bureau totals.
+     * @throws IllegalArgumentException If the bureau code is null.
+     * @throws ResponseStatusException  If the page size is invalid or the bureau is not found.
+     */
+    @Override
+    public PortefeuilleCENDTO genererRapportPortefeuilleCEN(Long codeBureau, Pageable pageable) {
+        validateBureauCode(codeBureau);
+        validateTaillePage(pageable.getPageSize());
+
+        log.debug("Génération du rapport portefeuille CEN - Bureau: {}, Page: {}", codeBureau, pageable.getPageNumber());
+
+        EncoursCENStats stats = getEncoursBureau(codeBureau);
+        List<LignePortefeuilleCEN> lignes = compteCENRepository.findPagePortefeuilleCEN(
+                codeBureau, CODE_ACTIVITE_CLOTURE, sansTri(pageable));
+
+        PortefeuilleCENDTO rapport = rapportCENMapper.creerRapportPortefeuilleCEN(
+                codeBureau,
+                stats.getDesburpo(),
+                compteCENMapper.toCompteCENDetailDTOListFromLignes(lignes),
+                stats.getNombreComptes(),
+                stats.getTotalEncours()
+        );
+        rapport.setNumeroPage(String.valueOf(pageable.getPageNumber() + 1));
+        return rapport;
+    }
+
+    /**
+     * Generates one page of the report of CEN accounts with operations on a given day.
+     *
+     * <p>Operations follow their order number. The day totals (operations, distinct accounts,
+     * amount) are read by a separate aggregate query on the same primary-key prefix.</p>
+     *
+     * @param codeBureau    The code of the bureau. Must not be null.
+     * @param dateReference The day of the operations, or null for the day before.
+     * @param pageable      The page to generate (any requested sort is ignored).
+     * @return A {@link CompteCENMouvementVeilleDTO} with the operations of the page and the day totals.
+     * @throws IllegalArgumentException If the bureau code is null.
+     * @throws ResponseStatusException  If the date is in the future, the page size is invalid
+     *                                  or the bureau is not found.
+     */
+    @Override
+    public CompteCENMouvementVeilleDTO genererRapportMouvementVeilleCEN(
+            Long codeBureau,
+            LocalDate dateReference,
+            Pageable pageable
+    ) {
+        validateBureauCode(codeBureau);
+        validateTaillePage(pageable.getPageSize());
+
+        LocalDate journee = dateReference != null ? dateReference : LocalDate.now().minusDays(1);
+        if (journee.isAfter(LocalDate.now())) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    String.format("La date de référence ne peut pas être dans le futur: %s", journee)
+            );
+        }
+
+        log.debug("Génération du rapport des comptes CEN mouvementés - Bureau: {}, Journée: {}, Page: {}",
+                codeBureau, journee, pageable.getPageNumber());
+
+        BurePostCEN bureau = getBureau(codeBureau);
+        List<LigneMouvementCEN> lignes = operCompCENRepository.findPageMouvementsByDateOperationAndCodeBureau(
+                journee, codeBureau, sansTri(pageable));
+
+        MouvementCENStats stats = operCompCENRepository.calculerStatistiquesMouvements(journee, codeBureau);
+
+        CompteCENMouvementVeilleDTO rapport = rapportCENMapper.creerRapportMouvementCENVeille(
+                codeBureau,
+                bureau.getDesignation(),
+                journee,
+                operCompCENMapper.toMouvementCENDTOListFromLignes(lignes),
+                Math.toIntExact(stats.getNombreComptes()),
+                stats.getNombreOperations(),
+                stats.getMontantTotal()
+        );
+        rapport.setNumeroPage(String.valueOf(pageable.getPageNumber() + 1));
+        return rapport;
+    }
+
+    /**
+     * Retrieves a CEN bureau by its code.
+     *
+     * @param codeBureau The code of the bureau
+     * @return The bureau
+     * @throws ResponseStatusException If the bureau is not found
+     */
+    private BurePostCEN getBureau(Long codeBureau) {
+        return burePostCENRepository.findByCodeBureau(codeBureau)
+                .orElseThrow(() -> bureauNonTrouve(codeBureau));
+    }
+
+    /**
+     * Retrieves the account totals of a CEN bureau.
+     *
+     * @param codeBureau The code of the bureau
+     * @return The totals of the non-closed accounts
+     * @throws ResponseStatusException If the bureau is not found
+     */
+    private EncoursCENStats getEncoursBureau(Long codeBureau) {
+        return compteCENRepository.calculerEncoursBureau(codeBureau, CODE_ACTIVITE_CLOTURE)
+                .orElseThrow(() -> bureauNonTrouve(codeBureau));
+    }
+
+    private ResponseStatusException bureauNonTrouve(Long codeBureau) {
+        return new ResponseStatusException(
+                HttpStatus.NOT_FOUND,
+                String.format("Bureau CEN non trouvé avec le code: %d", codeBureau)
+        );
+    }
+
+    /**
+     * Removes the sort of a page request: the report queries define their own order.
+     *
+     * @param pageable The requested page
+     * @return The same page without sort
+     */
+    private Pageable sansTri(Pageable pageable) {
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+                : pageable;
+    }
+
+    /**
+     * Validates the page size.
+     *
+     * @param taille The requested page size
+     * @throws ResponseStatusException If the page size is not between 1 and {@link #TAILLE_PAGE_MAX}
+     */
+    private void validateTaillePage(int taille) {
+        if (taille < 1 || taille > TAILLE_PAGE_MAX) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    String.format("Taille de page invalide: %d. Valeurs acceptées: 1 à %d", taille, TAILLE_PAGE_MAX)
+            );
+        }
+    }
+
+    /**
+     * Validates that the bureau code is not null.
+     *
+     * @param codeBureau The bureau code to validate
+     * @throws IllegalArgumentException If the bureau code is null
+     */
+    private void validateBureauCode(Long codeBureau) {
+        if (codeBureau == null) {
+            throw new IllegalArgumentException("Le code du bureau ne peut pas être null");
+        }
+    }
+}
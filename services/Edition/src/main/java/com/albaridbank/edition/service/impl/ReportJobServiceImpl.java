@@ -0,0 +1,394 @@
+package com.albaridbank.edition.service.impl;
+
+import com.albaridbank.edition.config.ReportProperties;
+import com.albaridbank.edition.dto.excelCCP.NbrTotalEncoursCCPExcelDTO;
+import com.albaridbank.edition.dto.excelCCP.PortefeuilleClientCCPExcelDTO;
+import com.albaridbank.edition.dto.excelCCP.PortefeuilleClientCCPMExcelDTO;
+import com.albaridbank.edition.dto.job.ReportJobDTO;
+import com.albaridbank.edition.dto.job.ReportJobStatus;
+import com.albaridbank.edition.dto.job.ReportJobType;
+import com.albaridbank.edition.dto.rapport.CompteMouvementVeilleDTO;
+import com.albaridbank.edition.dto.request.ReportJobRequestDTO;
+import com.albaridbank.edition.mappers.rapport.RapportCCPMapper;
+import com.albaridbank.edition.service.excelCCP.ExcelExportService;
+import com.albaridbank.edition.service.interfaces.RapportCCPService;
+import com.albaridbank.edition.service.interfaces.ReportJobService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Service implementation for generating Excel reports in the background.
+ *
+ * <p>Jobs are executed on a dedicated, bounded thread pool so that long exports no longer hold
+ * Tomcat worker threads. Each finished report is written to its own directory
+ * ({@code <report.storage.location>/<jobId>/}) so that it can still be downloaded after a restart,
+ * and directories older than {@code report.storage.max-age-days} are deleted periodically.</p>
+ *
+ * <p>Identical requests (same report, parameters and user) submitted while a job is still pending
+ * or running are attached to that job instead of generating the same file twice. The user is part
+ * of the key on purpose: the generated file carries the name of the user who asked for it.</p>
+ *
+ * @author Mohamed Amine Eddafir
+ * @see ReportJobService
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportJobServiceImpl implements ReportJobService {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    private final RapportCCPService rapportCCPService;
+    private final ExcelExportService excelExportService;
+    private final RapportCCPMapper rapportCCPMapper;
+    private final ReportProperties reportProperties;
+
+    /**
+     * Toutes les tâches connues depuis le démarrage, par identifiant.
+     */
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Tâches en attente ou en cours, par clé de déduplication.
+     */
+    private final Map<String, ReportJob> jobsActifs = new ConcurrentHashMap<>();
+
+    /**
+     * Pool dédié aux rapports. Volontairement non exposé comme bean : un bean {@code Executor}
+     * remplacerait l'exécuteur auto-configuré par Spring Boot (utilisé par Spring MVC).
+     */
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    private Path storageRoot;
+
+    @PostConstruct
+    void init() throws IOException {
+        storageRoot = Paths.get(reportProperties.getStorage().getLocation()).toAbsolutePath().normalize();
+        Files.createDirectories(storageRoot);
+
+        ReportProperties.Jobs config = reportProperties.getJobs();
+        executor.setCorePoolSize(config.getCorePoolSize());
+        executor.setMaxPoolSize(config.getMaxPoolSize());
+        executor.setQueueCapacity(config.getQueueCapacity());
+        executor.setThreadNamePrefix("report-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+
+        log.info("Report jobs storage: {}, pool: {}-{} threads, queue: {}",
+                storageRoot, config.getCorePoolSize(), config.getMaxPoolSize(), config.getQueueCapacity());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public ReportJobDTO soumettreJob(ReportJobRequestDTO request, String username) {
+        validateRequest(request);
+
+        String cle = cleDeduplication(request, username);
+        ReportJob nouveauJob = new ReportJob(UUID.randomUUID().toString(), cle, request, username);
+        ReportJob jobExistant = jobsActifs.putIfAbsent(cle, nouveauJob);
+        if (jobExistant != null) {
+            return jobExistant.toDto();
+        }
+
+        // Soumission hors de la map : seul l'appel qui a inséré la tâche la soumet
+        jobs.put(nouveauJob.id, nouveauJob);
+        try {
+            executor.execute(() -> executerJob(nouveauJob));
+        } catch (TaskRejectedException e) {
+            // Les demandes rattachées entre-temps voient l'échec de la tâche
+            nouveauJob.messageErreur = "File des rapports pleine";
+            nouveauJob.dateFin = LocalDateTime.now();
+            nouveauJob.statut = ReportJobStatus.ECHEC;
+            jobsActifs.remove(cle, nouveauJob);
+            log.warn("Report job queue is full, rejecting {} for bureau {}",
+                    request.getTypeRapport(), request.getCodeBureau());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Trop de rapports en cours de génération, veuillez réessayer plus tard", e);
+        }
+
+        log.info("Report job {} submitted: {} for bureau {} by {}",
+                nouveauJob.id, request.getTypeRapport(), request.getCodeBureau(), username);
+        return nouveauJob.toDto();
+    }
+
+    @Override
+    public ReportJobDTO getJob(String jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job != null) {
+            return job.toDto();
+        }
+
+        // Tâche d'une exécution précédente : seul le fichier a été conservé
+        Path fichier = trouverFichierPersiste(jobId).orElseThrow(() -> jobNonTrouve(jobId));
+        return ReportJobDTO.builder()
+                .jobId(jobId)
+                .statut(ReportJobStatus.TERMINE)
+                .nomFichier(fichier.getFileName().toString())
+                .dateFin(dateModification(fichier))
+                .build();
+    }
+
+    @Override
+    public Path getFichierRapport(String jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job != null && job.statut != ReportJobStatus.TERMINE) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    String.format("Le rapport %s n'est pas disponible (statut: %s)", jobId, job.statut));
+        }
+        return trouverFichierPersiste(jobId).orElseThrow(() -> jobNonTrouve(jobId));
+    }
+
+    /**
+     * Supprime les rapports plus anciens que {@code report.storage.max-age-days}.
+     */
+    @Scheduled(initialDelayString = "PT1M", fixedDelayString = "PT6H")
+    public void supprimerRapportsExpires() {
+        Instant limite = Instant.now().minus(reportProperties.getStorage().getMaxAgeDays(), ChronoUnit.DAYS);
+
+        try (Stream<Path> dossiers = Files.list(storageRoot)) {
+            dossiers.filter(Files::isDirectory)
+                    .filter(dossier -> !estActif(dossier.getFileName().toString()))
+                    .filter(dossier -> modifieAvant(dossier, limite))
+                    .forEach(this::supprimerDossier);
+        } catch (IOException e) {
+            log.error("Error while cleaning report storage {}", storageRoot, e);
+        }
+
+        jobs.values().removeIf(job -> job.dateFin != null
+                && job.dateFin.atZone(ZoneId.systemDefault()).toInstant().isBefore(limite));
+    }
+
+    private void executerJob(ReportJob job) {
+        job.statut = ReportJobStatus.EN_COURS;
+        job.dateDebut = LocalDateTime.now();
+
+        ReportJobRequestDTO request = job.request;
+        String nomFichier = String.format("%s_%s_%s.xlsx",
+                request.getTypeRapport().getPrefixeFichier(), request.getCodeBureau(),
+                job.dateDebut.format(TIMESTAMP_FORMAT));
+        Path dossier = storageRoot.resolve(job.id);
+
+        try {
+            Files.createDirectories(dossier);
+            Path fichierTemporaire = Files.createTempFile(dossier, "rapport-", ".tmp");
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(fichierTemporaire))) {
+                ecrireRapport(request, job.username, outputStream);
+            }
+            Files.move(fichierTemporaire, dossier.resolve(nomFichier), StandardCopyOption.ATOMIC_MOVE);
+
+            job.nomFichier = nomFichier;
+            job.statut = ReportJobStatus.TERMINE;
+            log.info("Report job {} completed: {}", job.id, nomFichier);
+        } catch (Exception e) {
+            log.error("Report job {} failed", job.id, e);
+            supprimerDossier(dossier);
+            job.messageErreur = e instanceof ResponseStatusException rse ? rse.getReason() : e.getMessage();
+            job.statut = ReportJobStatus.ECHEC;
+        } finally {
+            job.dateFin = LocalDateTime.now();
+            jobsActifs.remove(job.cle, job);
+        }
+    }
+
+    private void ecrireRapport(ReportJobRequestDTO request, String username, OutputStream outputStream)
+            throws IOException {
+        Long codeBureau = request.getCodeBureau();
+        String etatCompte = request.getEtatCompte();
+
+        switch (request.getTypeRapport()) {
+            case PORTEFEUILLE_CLIENT_CCP -> {
+                PortefeuilleClientCCPExcelDTO rapportData = rapportCCPService
+                        .genererRapportPortefeuilleClientPourExcel(codeBureau, etatCompte, username);
+                excelExportService.exportPortefeuilleClientCCPToExcel(rapportData,
+                        rowWriter -> rapportCCPService.parcourirComptesPortefeuilleClientPourExcel(
+                                codeBureau, etatCompte, rowWriter::accept),
+                        outputStream);
+            }
+            case COMPTE_MOUVEMENT_VEILLE -> {
+                CompteMouvementVeilleDTO rapportData = rapportCCPService.genererRapportMouvementVeillePourExcel(
+                        codeBureau, joursAvant(request), montantMinimum(request), username);
+                excelExportService.exportCompteMouvementVeilleToExcel(
+                        rapportCCPMapper.toExcelDTO(rapportData), outputStream);
+            }
+            case ENCOURS_GLOBAL_CCP -> {
+                NbrTotalEncoursCCPExcelDTO rapportData = rapportCCPService
+                        .genererRapportEncoursGlobalPourExcel(codeBureau, username);
+                excelExportService.exportEncoursGlobalCCPToExcel(rapportData, outputStream);
+            }
+            case PORTEFEUILLE_CLIENT_M_CCP -> {
+                PortefeuilleClientCCPMExcelDTO rapportData = rapportCCPService
+                        .genererRapportPortefeuilleClientMPourExcel(codeBureau, etatCompte, username);
+                excelExportService.exportPortefeuilleClientMCCPToExcel(rapportData,
+                        rowWriter -> rapportCCPService.parcourirComptesPortefeuilleClientMPourExcel(
+                                codeBureau, etatCompte, rowWriter::accept),
+                        outputStream);
+            }
+        }
+    }
+
+    private void validateRequest(ReportJobRequestDTO request) {
+        if (request == null || request.getTypeRapport() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Le type de rapport est obligatoire");
+        }
+        if (request.getCodeBureau() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Le code bureau est obligatoire");
+        }
+    }
+
+    /**
+     * Clé identifiant une demande : deux demandes de même clé produisent le même fichier.
+     */
+    private String cleDeduplication(ReportJobRequestDTO request, String username) {
+        String etatCompte = request.getEtatCompte() != null ? request.getEtatCompte().trim().toUpperCase() : "";
+        String parametresMouvement = request.getTypeRapport() == ReportJobType.COMPTE_MOUVEMENT_VEILLE
+                ? joursAvant(request) + "|" + montantMinimum(request).stripTrailingZeros().toPlainString()
+                : "";
+        return String.join("|", request.getTypeRapport().name(), String.valueOf(request.getCodeBureau()),
+                etatCompte, parametresMouvement, Objects.toString(username, ""));
+    }
+
+    private Integer joursAvant(ReportJobRequestDTO request) {
+        return request.getJoursAvant() != null ? request.getJoursAvant() : 1;
+    }
+
+    private BigDecimal montantMinimum(ReportJobRequestDTO request) {
+        return request.getMontantMinimum() != null ? request.getMontantMinimum() : BigDecimal.ZERO;
+    }
+
+    private boolean estActif(String jobId) {
+        ReportJob job = jobs.get(jobId);
+        return job != null && (job.statut == ReportJobStatus.EN_ATTENTE || job.statut == ReportJobStatus.EN_COURS);
+    }
+
+    private Optional<Path> trouverFichierPersiste(String jobId) {
+        Path dossier = dossierJob(jobId);
+        if (!Files.isDirectory(dossier)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> fichiers = Files.list(dossier)) {
+            return fichiers.filter(fichier -> fichier.getFileName().toString().endsWith(".xlsx")).findFirst();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Résout le dossier d'une tâche ; l'identifiant doit être un UUID (pas de parcours de répertoires).
+     */
+    private Path dossierJob(String jobId) {
+        try {
+            return storageRoot.resolve(UUID.fromString(jobId).toString());
+        } catch (IllegalArgumentException e) {
+            throw jobNonTrouve(jobId);
+        }
+    }
+
+    private boolean modifieAvant(Path chemin, Instant limite) {
+        try {
+            return Files.getLastModifiedTime(chemin).toInstant().isBefore(limite);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private LocalDateTime dateModification(Path chemin) {
+        try {
+            FileTime fileTime = Files.getLastModifiedTime(chemin);
+            return LocalDateTime.ofInstant(fileTime.toInstant(), ZoneId.systemDefault());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void supprimerDossier(Path dossier) {
+        if (!Files.exists(dossier)) {
+            return;
+        }
+        try (Stream<Path> chemins = Files.walk(dossier)) {
+            chemins.sorted(Comparator.reverseOrder()).forEach(chemin -> {
+                try {
+                    Files.deleteIfExists(chemin);
+                } catch (IOException e) {
+                    log.warn("Unable to delete {}: {}", chemin, e.getMessage());
+                }
+            });
+            log.debug("Deleted report directory {}", dossier);
+        } catch (IOException e) {
+            log.warn("Unable to delete report directory {}: {}", dossier, e.getMessage());
+        }
+    }
+
+    private ResponseStatusException jobNonTrouve(String jobId) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND,
+                String.format("Rapport non trouvé: %s", jobId));
+    }
+
+    /**
+     * État mutable d'une tâche, partagé entre le thread de génération et les requêtes de suivi.
+     */
+    private static final class ReportJob {
+        private final String id;
+        private final String cle;
+        private final ReportJobRequestDTO request;
+        private final String username;
+        private final LocalDateTime dateSoumission = LocalDateTime.now();
+
+        private volatile ReportJobStatus statut = ReportJobStatus.EN_ATTENTE;
+        private volatile LocalDateTime dateDebut;
+        private volatile LocalDateTime dateFin;
+        private volatile String nomFichier;
+        private volatile String messageErreur;
+
+        private ReportJob(String id, String cle, ReportJobRequestDTO request, String username) {
+            this.id = id;
+            this.cle = cle;
+            this.request = request;
+            this.username = username;
+        }
+
+        private ReportJobDTO toDto() {
+            return ReportJobDTO.builder()
+                    .jobId(id)
+                    .typeRapport(request.getTypeRapport())
+                    .statut(statut)
+                    .dateSoumission(dateSoumission)
+                    .dateDebut(dateDebut)
+                    .dateFin(dateFin)
+                    .nomFichier(nomFichier)
+                    .messageErreur(messageErreur)
+                    .build();
+        }
+    }
+}
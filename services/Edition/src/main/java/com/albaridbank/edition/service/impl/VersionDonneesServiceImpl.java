@@ -0,0 +1,50 @@
+package com.albaridbank.edition.service.impl;
+
+import com.albaridbank.edition.service.interfaces.VersionDonneesService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * Service implementation for the version numbers of the CCP report data.
+ *
+ * <p>The versions are written by the triggers of migration V14, in the transaction that changes the
+ * data, and are all drawn from a single sequence: a version is never issued twice, and the greatest
+ * of several versions changes as soon as one of them does. Each read is a few primary-key lookups
+ * and is never cached, so that a changed report is never answered with {@code 304 Not Modified}.</p>
+ *
+ * <p>The version of an encours also carries the number of aggregate rows of the bureau: an aggregate
+ * emptied by the last account leaving it is deleted and would otherwise leave the greatest version
+ * unchanged.</p>
+ *
+ * @author Mohamed Amine Eddafir
+ * @see VersionDonneesService
+ */
+@Service
+@RequiredArgsConstructor
+public class VersionDonneesServiceImpl implements VersionDonneesService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public long versionMouvements(LocalDate journee, Long codeBureau) {
+        Long version = jdbcTemplate.queryForObject("""
+                SELECT GREATEST(l.version, COALESCE(
+                    (SELECT v.version FROM versionMouvementsCCP v WHERE v.datemouv = ? AND v.codburpo = ?), 0))
+                FROM versionLibellesCCP l
+                """, Long.class, journee, codeBureau);
+        return version != null ? version : 0;
+    }
+
+    @Override
+    public String versionComptes(Long codeBureau) {
+        return jdbcTemplate.queryForObject("""
+                SELECT GREATEST(l.version, COALESCE(MAX(s.version), 0)) || '.' || COUNT(s.idenstat)
+                FROM versionLibellesCCP l
+                LEFT JOIN statBureauCCP s ON s.codburpo = ?
+                GROUP BY l.version
+                """, String.class, codeBureau);
+    }
+}
@@ -0,0 +1,41 @@
+package com.albaridbank.edition.service.interfaces;
+
+import com.albaridbank.edition.model.ccp.ClotureMouvementsCCP;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Interface for the day-close snapshots of CCP financial movements ({@code clotureMouvementsCCP}):
+ * the movements of a closed day are frozen per bureau, and the reports of the previous days
+ * are served from them instead of {@code mvtFinancierCCP}.
+ *
+ * @author Mohamed Amine Eddafir
+ */
+public interface ClotureMouvementsService {
+
+    /**
+     * Clôture une journée : fige les mouvements de chaque bureau, triés dans l'ordre du rapport.
+     * Seuls les bureaux sans clôture, ou dont les mouvements ont changé depuis leur clôture
+     * (mouvement tardif), sont écrits.
+     *
+     * @param journee La journée à clôturer (antérieure à aujourd'hui)
+     * @return Le nombre de bureaux clôturés ou reclôturés
+     * @throws IllegalArgumentException Si la journée n'est pas encore close
+     */
+    int cloturerJournee(LocalDate journee);
+
+    /**
+     * Retourne la clôture d'une journée pour un bureau, si elle fige la version courante de ses
+     * mouvements
+     *
+     * @param journee    La journée des mouvements
+     * @param codeBureau Le code du bureau
+     * @param version    La version courante des mouvements de la journée et du bureau
+     *                   ({@link VersionDonneesService#versionMouvements})
+     * @return La clôture, vide si la journée n'est pas close, pas encore clôturée, si ses
+     * mouvements ont changé depuis, si le bureau est inconnu ou si les clôtures sont désactivées
+     * ({@code report.cloture.enabled})
+     */
+    Optional<ClotureMouvementsCCP> trouverCloture(LocalDate journee, Long codeBureau, long version);
+}
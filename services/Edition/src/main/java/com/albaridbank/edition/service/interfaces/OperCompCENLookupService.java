@@ -0,0 +1,26 @@
+package com.albaridbank.edition.service.interfaces;
+
+import com.albaridbank.edition.repositorys.cen.projectionCENRepo.LigneOperationCEN;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Interface for looking up the CEN operations of a selection of accounts.
+ * Large selections (thousands of accounts) are split into fixed-size batches.
+ *
+ * @author Mohamed Amine Eddafir
+ */
+public interface OperCompCENLookupService {
+
+    /**
+     * Recherche les opérations CEN d'une journée et d'un bureau touchant l'un des comptes donnés
+     *
+     * @param dateOperation Date des opérations
+     * @param codeBureau    Code du bureau de poste
+     * @param comptes       Numéros des comptes (débit ou crédit), doublons et valeurs nulles ignorés
+     * @return Les opérations trouvées, une seule fois chacune, par numéro d'ordre
+     */
+    List<LigneOperationCEN> rechercherOperationsParComptes(LocalDate dateOperation, Long codeBureau, Collection<Long> comptes);
+}
@@ -0,0 +1,32 @@
+package com.albaridbank.edition.service.interfaces;
+
+import java.util.List;
+
+/**
+ * Interface for maintaining the monthly partitions of the CCP financial movements table
+ * ({@code mvtFinancierCCP}, partitioned by movement date) and of the CEN operations table
+ * ({@code operCompCEN}, partitioned by operation date).
+ *
+ * @author Mohamed Amine Eddafir
+ */
+public interface PartitionMouvementsService {
+
+    /**
+     * Crée les partitions manquantes des deux tables, du mois précédent à
+     * {@code report.partitions.mois-avance} mois, et celles des mois dont des lignes sont tombées dans la
+     * partition par défaut (déplacées dans leur partition)
+     *
+     * @return Le nombre de partitions créées
+     */
+    int creerPartitionsFutures();
+
+    /**
+     * Détache vers le schéma {@code archive} les partitions de mouvements CCP antérieures à la période de conservation
+     * ({@code report.partitions.mois-conservation} mois, 0 pour ne jamais archiver). Une partition dont le
+     * détachement attendrait les lectures en cours est reprise au passage suivant. Les versions des
+     * journées de la même période ({@code versionMouvementsCCP}) sont supprimées.
+     *
+     * @return Les noms des partitions archivées
+     */
+    List<String> archiverPartitionsAnciennes();
+}
@@ -1,5 +1,8 @@
 package com.albaridbank.edition.service.interfaces;
 
+import com.albaridbank.edition.dto.base.CompteCCPDetailDTO;
+import com.albaridbank.edition.dto.base.MouvementFinancierDTO;
+import com.albaridbank.edition.dto.base.PortefeuilleClientCCPDetailDTO;
 import com.albaridbank.edition.dto.excelCCP.NbrTotalEncoursCCPExcelDTO;
 import com.albaridbank.edition.dto.excelCCP.PortefeuilleClientCCPExcelDTO;
 import com.albaridbank.edition.dto.excelCCP.PortefeuilleClientCCPMExcelDTO;
@@ -8,6 +11,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.util.function.Consumer;
 
 /**
  * Interface for generating reports for CCP accounts.
@@ -19,6 +23,15 @@ import java.math.BigDecimal;
  */
 public interface RapportCCPService {
 
+    /**
+     * Version d'un rapport pour le cache HTTP, connue sans calculer le rapport
+     *
+     * @param etag         L'ETag du rapport (entre guillemets), construit depuis la version de ses données
+     * @param journeeClose Vrai si le rapport porte sur une journée close (veille, avant-veille)
+     */
+    record VersionRapport(String etag, boolean journeeClose) {
+    }
+
     /**
      * Génère un rapport des comptes mouvementés la veille ou l'avant-veille
      *
@@ -30,6 +43,21 @@ public interface RapportCCPService {
      */
     CompteMouvementVeilleDTO rapportMouvementVeille(Long codeBureau, BigDecimal montantMinimum, Integer joursAvant, Pageable pageable);
 
+    /**
+     * Génère une page du rapport des comptes mouvementés en pagination par curseur (keyset).
+     * Le coût d'une page ne dépend pas de sa position ; les statistiques ne sont calculées que
+     * pour la première page (sans curseur).
+     *
+     * @param codeBureau     Code de l'agence
+     * @param montantMinimum Montant minimum des mouvements à prendre en compte
+     * @param joursAvant     Nombre de jours avant la date actuelle (1 pour veille, 2 pour avant-veille)
+     * @param taille         Nombre de mouvements par page
+     * @param curseur        Le curseur renvoyé par la page précédente (null pour la première page), émis
+     *                       pour le même bureau, la même journée et le même montant minimum (sinon 400)
+     * @return DTO contenant la page du rapport, avec le curseur de la page suivante
+     */
+    CompteMouvementVeilleDTO rapportMouvementVeilleCurseur(Long codeBureau, BigDecimal montantMinimum, Integer joursAvant, int taille, String curseur);
+
     /**
      * <h3>Génère un rapport complet des mouvements financiers</h3>
      *
@@ -41,6 +69,30 @@ public interface RapportCCPService {
      */
     CompteMouvementVeilleDTO rapportMouvementVeilleComplet(Long codeBureau, BigDecimal montantMinimum, Integer joursAvant);
 
+    /**
+     * Parcourt le rapport complet des mouvements financiers sans charger les mouvements en mémoire :
+     * l'en-tête et les totaux d'abord ({@code mouvements} est null), puis les mouvements un à un, tous
+     * lus dans le même instantané de la base
+     *
+     * @param codeBureau     Code de l'agence
+     * @param montantMinimum Montant minimum des mouvements à prendre en compte
+     * @param joursAvant     Nombre de jours avant la date actuelle (0 à 2)
+     * @param entete         Reçoit l'en-tête et les totaux du rapport, avant les mouvements
+     * @param consumer       Reçoit chaque mouvement, par montant décroissant
+     */
+    void fluxRapportMouvementVeilleComplet(Long codeBureau, BigDecimal montantMinimum, Integer joursAvant,
+                                           Consumer<CompteMouvementVeilleDTO> entete, Consumer<MouvementFinancierDTO> consumer);
+
+    /**
+     * Retourne la version des rapports de mouvements d'une journée, sans les calculer : elle change
+     * avec les mouvements de la journée et du bureau et avec les libellés lus avec eux
+     *
+     * @param codeBureau Code de l'agence
+     * @param joursAvant Nombre de jours avant la date actuelle (0 à 2), normalisé comme dans les rapports
+     * @return La version des rapports
+     */
+    VersionRapport versionRapportMouvements(Long codeBureau, Integer joursAvant);
+
     /**
      * Génère un rapport du nombre total et de l'encours des comptes CCP
      *
@@ -49,6 +101,15 @@ public interface RapportCCPService {
      */
     NbrTotalEncoursCCPDTO genererRapportEncoursGlobal(Long codeBureau);
 
+    /**
+     * Retourne la version du rapport d'encours global d'un bureau, sans le calculer : elle change
+     * avec les agrégats du bureau et avec la journée du rapport
+     *
+     * @param codeBureau Code du bureau de poste
+     * @return La version du rapport
+     */
+    VersionRapport versionRapportEncoursGlobal(Long codeBureau);
+
     /**
      * Génère un rapport détaillé du portefeuille client CCP
      *
@@ -65,7 +126,9 @@ public interface RapportCCPService {
      * @param pageable   Information de pagination
      * @param typeCompte Le type de compte (1: Compte courant postal, 2: professional, etc., null: tous)
      * @param etatCompte L'état du compte (N : Normal, O : Oposé, etc., null : tous)
-     * @param searchTerm Le terme de recherche pour filtrer les résultats
+     * @param searchTerm Le terme de recherche, cherché dans les libellés et l'adresse du compte, la CIN et
+     *                   le téléphone ; un identifiant (chiffres, ou lettres de CIN puis chiffres) est cherché
+     *                   en début de numéro de compte, de CIN ou de téléphone
      * @return Le DTO contenant les données du rapport de portefeuille client CCP
      */
     PortefeuilleClientCCPRapportDTO genererRapportPortefeuilleClientRecherche(Long codeBureau, Pageable pageable, Integer typeCompte, String etatCompte, String searchTerm);
@@ -81,14 +144,38 @@ public interface RapportCCPService {
      */
     PortefeuilleClientCCPRapportDTO genererRapportPortefeuilleClientFiltre(Long codeBureau, Pageable pageable, Integer typeCompte, String etatCompte);
 
+    /**
+     * Génère une page du rapport de portefeuille client CCP en pagination par curseur (keyset).
+     * Le coût d'une page ne dépend pas de sa position ; les totaux ne sont calculés que pour la
+     * première page (sans curseur).
+     *
+     * @param codeBureau Code du bureau de poste
+     * @param taille     Nombre de comptes par page
+     * @param typeCompte Le type de compte (1: Compte courant postal, 2: professional, etc., null: tous)
+     * @param etatCompte L'état du compte (N : Normal, O : Oposé, etc., null : tous)
+     * @param curseur    Le curseur renvoyé par la page précédente (null pour la première page), émis
+     *                   pour le même bureau et les mêmes filtres (sinon 400)
+     * @return Le DTO de la page, avec le curseur de la page suivante
+     */
+    PortefeuilleClientCCPRapportDTO genererRapportPortefeuilleClientCurseur(Long codeBureau, int taille, Integer typeCompte, String etatCompte, String curseur);
+
 
-    /*
+    /**
      * Génère un rapport des 100 plus grands comptes CCP par solde
      *
      * @param codeBureau Code du bureau de poste
      * @return Rapport des Top 100 comptes
      **/
-    //PortefeuilleClientCCP_Top100_DTO genererRapportTop100(Long codeBureau);
+    PortefeuilleClientCCP_Top100_DTO genererRapportTop100(Long codeBureau);
+
+    /**
+     * Génère le classement des 100 plus grands comptes CCP par solde sur une région
+     * ou sur tout le réseau, en fusionnant les classements des bureaux
+     *
+     * @param codeRegion Code de la région (null pour tout le réseau)
+     * @return Rapport des Top 100 comptes, avec le bureau de chaque compte
+     **/
+    PortefeuilleClientCCP_Top100_DTO genererRapportTop100Reseau(Integer codeRegion);
 
     /**
      * Génère un rapport de portefeuille client CCP pour une recherche globale
@@ -96,11 +183,30 @@ public interface RapportCCPService {
      * @param codeBureau Le code du bureau
      * @param typeCompte Le type de compte (1: Compte courant postal, 2: professional, etc., null: tous)
      * @param etatCompte L'état du compte (N : Normal, O : Oposé, etc., null : tous)
-     * @param searchTerm Le terme de recherche pour filtrer les résultats
+     * @param searchTerm Le terme de recherche, cherché dans les libellés et l'adresse du compte, la CIN et
+     *                   le téléphone ; un identifiant (chiffres, ou lettres de CIN puis chiffres) est cherché
+     *                   en début de numéro de compte, de CIN ou de téléphone
      * @return Le DTO contenant les données du rapport de portefeuille client CCP
      */
     PortefeuilleClientCCPRapportDTO genererRapportPortefeuilleClientRechercheGlobale(Long codeBureau, Integer typeCompte, String etatCompte, String searchTerm);
 
+    /**
+     * Parcourt le rapport de portefeuille client CCP sans pagination (recherche globale, ou tout le
+     * portefeuille filtré sans terme de recherche) sans charger les comptes en mémoire : l'en-tête et
+     * les totaux d'abord ({@code comptes} est null), puis les comptes un à un, tous lus dans le même
+     * instantané de la base
+     *
+     * @param codeBureau Le code du bureau
+     * @param typeCompte Le type de compte (null : tous)
+     * @param etatCompte L'état du compte (null : tous)
+     * @param searchTerm Le terme de recherche (null ou vide : tous les comptes filtrés)
+     * @param entete     Reçoit l'en-tête et les totaux du rapport, avant les comptes
+     * @param consumer   Reçoit chaque compte, par solde décroissant
+     */
+    void fluxRapportPortefeuilleClientGlobal(Long codeBureau, Integer typeCompte, String etatCompte, String searchTerm,
+                                             Consumer<PortefeuilleClientCCPRapportDTO> entete,
+                                             Consumer<PortefeuilleClientCCPDetailDTO> consumer);
+
     /**
      * <h3>Export this Rapport as excel 'ETAT PORTEFEUILLE CLIENT CCP'</h3>
      * This method is intended to export the client portfolio report as an Excel file.
@@ -112,6 +218,16 @@ public interface RapportCCPService {
      */
     PortefeuilleClientCCPExcelDTO genererRapportPortefeuilleClientPourExcel(Long codeBureau, String etatCompte, String username);
 
+    /**
+     * Parcourt un à un les comptes du rapport 'ETAT PORTEFEUILLE CLIENT CCP' pour l'export Excel,
+     * sans les charger tous en mémoire.
+     *
+     * @param codeBureau Code du bureau de poste
+     * @param etatCompte état du compte (null : tous)
+     * @param consumer   Reçoit chaque compte, dans l'ordre du rapport
+     */
+    void parcourirComptesPortefeuilleClientPourExcel(Long codeBureau, String etatCompte, Consumer<CompteCCPDetailDTO> consumer);
+
     /**
      * <h3>Export this Rapport as excel 'ETAT DES COMPTES MOUVEMENTES LA VEILLE'</h3>
      * Génère un rapport des comptes mouvementés pour l'export Excel
@@ -133,4 +249,14 @@ public interface RapportCCPService {
      * @return Le DTO contenant les données pour l'export Excel
      */
     PortefeuilleClientCCPMExcelDTO genererRapportPortefeuilleClientMPourExcel(Long codeBureau, String etatCompte, String username);
+
+    /**
+     * Parcourt un à un les comptes du rapport 'ETAT PORTEFEUILLE CLIENT M CCP' pour l'export Excel,
+     * sans les charger tous en mémoire.
+     *
+     * @param codeBureau Le code du bureau
+     * @param etatCompte L'état du compte (optionnel)
+     * @param consumer   Reçoit chaque compte, dans l'ordre du rapport
+     */
+    void parcourirComptesPortefeuilleClientMPourExcel(Long codeBureau, String etatCompte, Consumer<PortefeuilleClientCCPDetailDTO> consumer);
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.albaridbank.edition.service.interfaces;
+
+import com.albaridbank.edition.dto.rapport.CompteCENMouvementVeilleDTO;
+import com.albaridbank.edition.dto.rapport.NbrTotalEncoursCENDTO;
+import com.albaridbank.edition.dto.rapport.PortefeuilleCENDTO;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+
+/**
+ * Interface for generating reports for CEN (savings) accounts.
+ * This interface defines the CEN counterparts of the CCP reports:
+ * global balance, client portfolio and accounts with movements on a given day.
+ *
+ * @author Mohamed Amine Eddafir
+ */
+public interface RapportCENService {
+
+    /**
+     * Génère le rapport du nombre total de comptes et de l'encours global CEN d'un bureau
+     *
+     * @param codeBureau Code du bureau de poste
+     * @return DTO contenant le nombre de comptes et l'encours global (comptes clôturés exclus)
+     */
+    NbrTotalEncoursCENDTO genererRapportEncoursGlobalCEN(Long codeBureau);
+
+    /**
+     * Génère une page du rapport de portefeuille CEN d'un bureau
+     *
+     * @param codeBureau Code du bureau de poste
+     * @param pageable   Information de pagination (le tri est celui du rapport : solde décroissant)
+     * @return DTO contenant les comptes de la page et les totaux du bureau
+     */
+    PortefeuilleCENDTO genererRapportPortefeuilleCEN(Long codeBureau, Pageable pageable);
+
+    /**
+     * Génère une page du rapport des comptes CEN mouvementés lors d'une journée
+     *
+     * @param codeBureau    Code du bureau de poste
+     * @param dateReference Journée des opérations (null pour la veille)
+     * @param pageable      Information de pagination (les opérations suivent leur numéro d'ordre)
+     * @return DTO contenant les opérations de la page et les totaux de la journée
+     */
+    CompteCENMouvementVeilleDTO genererRapportMouvementVeilleCEN(Long codeBureau, LocalDate dateReference, Pageable pageable);
+}
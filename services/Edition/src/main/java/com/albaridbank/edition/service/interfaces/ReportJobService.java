@@ -0,0 +1,42 @@
+package com.albaridbank.edition.service.interfaces;
+
+import com.albaridbank.edition.dto.job.ReportJobDTO;
+import com.albaridbank.edition.dto.request.ReportJobRequestDTO;
+
+import java.nio.file.Path;
+
+/**
+ * Interface for generating Excel reports in the background.
+ * Reports are generated on a bounded thread pool and stored under {@code report.storage.location}
+ * until they expire ({@code report.storage.max-age-days}).
+ *
+ * @author Mohamed Amine Eddafir
+ */
+public interface ReportJobService {
+
+    /**
+     * Soumet la génération d'un rapport Excel. Une demande identique à une tâche encore en attente
+     * ou en cours est rattachée à cette tâche au lieu d'en créer une nouvelle.
+     *
+     * @param request  Le rapport demandé et ses paramètres
+     * @param username Nom d'utilisateur qui a demandé le rapport
+     * @return L'état de la tâche (nouvelle ou existante)
+     */
+    ReportJobDTO soumettreJob(ReportJobRequestDTO request, String username);
+
+    /**
+     * Retourne l'état d'une tâche
+     *
+     * @param jobId Identifiant de la tâche
+     * @return L'état de la tâche
+     */
+    ReportJobDTO getJob(String jobId);
+
+    /**
+     * Retourne le fichier Excel produit par une tâche terminée
+     *
+     * @param jobId Identifiant de la tâche
+     * @return Le chemin du fichier généré
+     */
+    Path getFichierRapport(String jobId);
+}
@@ -0,0 +1,34 @@
+package com.albaridbank.edition.service.interfaces;
+
+import java.time.LocalDate;
+
+/**
+ * Interface for the version numbers of the CCP data read by the reports ({@code versionMouvementsCCP},
+ * the versions of the {@code statBureauCCP} aggregates and {@code versionLibellesCCP}, maintained by
+ * triggers): a report whose data version has not changed since the client's copy is answered with
+ * {@code 304 Not Modified}, without being computed again.
+ *
+ * @author Mohamed Amine Eddafir
+ */
+public interface VersionDonneesService {
+
+    /**
+     * Retourne la version des mouvements d'une journée d'un bureau, changée à chaque insertion,
+     * modification ou suppression d'un de ces mouvements et à chaque changement d'un libellé lu
+     * avec eux (intitulé du compte, type d'opération, désignation du bureau)
+     *
+     * @param journee    La journée des mouvements
+     * @param codeBureau Le code du bureau
+     * @return La version, qui ne reprend jamais une valeur déjà renvoyée pour d'autres données
+     */
+    long versionMouvements(LocalDate journee, Long codeBureau);
+
+    /**
+     * Retourne la version de l'encours d'un bureau (agrégats de {@code statBureauCCP} et désignation
+     * du bureau), changée seulement quand un agrégat ou un libellé change
+     *
+     * @param codeBureau Le code du bureau
+     * @return La version, à comparer telle quelle
+     */
+    String versionComptes(Long codeBureau);
+}
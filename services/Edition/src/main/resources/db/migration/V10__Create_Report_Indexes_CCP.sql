@@ -0,0 +1,23 @@
+-- V10__Create_Report_Indexes_CCP.sql
+
+-- Index des prédicats des rapports CCP, établis à partir des requêtes des repositories
+-- (CompteCCPRepository, MvtFinancierCCPRepository). La liste des index attendus au démarrage
+-- est tenue dans ReportIndexCheck.
+
+-- Mouvements d'une journée et d'un bureau : égalité sur (datemouv, codburpo), puis le montant
+-- pour le seuil de montant minimum et le tri par montant décroissant. Le compte est inclus :
+-- les statistiques de la journée (comptes distincts, montant total) se lisent dans l'index seul.
+CREATE INDEX IF NOT EXISTS idx_mvt_ccp_date_bureau_montant
+    ON mvtFinancierCCP (datemouv, codburpo, montmouv DESC) INCLUDE (cptemouv);
+
+-- Portefeuille d'un bureau par curseur : l'index porte l'expression du tri (solde NULL classé
+-- comme 0, puis numéro de compte), une page se lit sans trier les comptes du bureau. L'état et
+-- le produit sont des colonnes de clé : les filtres optionnels sont évalués dans l'index.
+CREATE INDEX IF NOT EXISTS idx_compte_ccp_bureau_curseur
+    ON compteCCP (codbpcpt, (COALESCE(soldcour, 0)) DESC, idencomp DESC, codetacp, codeprod);
+
+-- Nombre de comptes et encours des comptes actifs d'un bureau (hors clôturés, bloqués, opposés) :
+-- index partiel réduit aux comptes actifs, lu sans accès à la table.
+CREATE INDEX IF NOT EXISTS idx_compte_ccp_bureau_actifs
+    ON compteCCP (codbpcpt) INCLUDE (soldcour)
+    WHERE codetacp NOT IN ('C', 'B', 'O');
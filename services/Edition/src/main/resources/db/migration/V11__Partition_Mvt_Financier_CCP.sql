@@ -0,0 +1,163 @@
+-- V11__Partition_Mvt_Financier_CCP.sql
+
+-- Partitionnement de mvtFinancierCCP par mois de datemouv.
+-- Chaque requête de mouvements porte sur une seule journée (veille, avant-veille) : l'élagage
+-- des partitions limite la lecture à la partition du mois, au lieu de l'historique complet.
+-- Les partitions futures sont créées et les anciennes détachées vers le schéma archive par
+-- les fonctions ci-dessous, appelées au démarrage puis toutes les 12 heures par le service
+-- (PartitionMouvementsService). Une partition par défaut reçoit les mouvements d'un mois sans
+-- partition au lieu de faire échouer leur insertion ; la maintenance suivante les en sort.
+
+-- Fonctions de maintenance des partitions ----------------------------------------------------
+
+-- Crée les partitions mensuelles manquantes couvrant [p_debut, p_fin] et celles des mois dont
+-- des mouvements sont tombés dans la partition par défaut. Retourne le nombre de partitions
+-- créées. Le verrou consultatif sérialise les appels de plusieurs instances.
+CREATE OR REPLACE FUNCTION creer_partitions_mvt_ccp(p_debut DATE, p_fin DATE) RETURNS INTEGER AS
+$$
+DECLARE
+    v_mois     DATE;
+    v_suivant  DATE;
+    v_nom      TEXT;
+    v_colonnes TEXT;
+    v_crees    INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('mvtfinancierccp_partitions'));
+
+    SELECT string_agg(quote_ident(attname), ', ' ORDER BY attnum)
+    INTO v_colonnes
+    FROM pg_attribute
+    WHERE attrelid = 'mvtfinancierccp'::REGCLASS
+      AND attnum > 0
+      AND NOT attisdropped;
+
+    FOR v_mois IN
+        SELECT generate_series(date_trunc('month', p_debut), p_fin, INTERVAL '1 month')::DATE
+        UNION
+        SELECT DISTINCT date_trunc('month', datemouv)::DATE
+        FROM mvtfinancierccp_defaut
+        ORDER BY 1
+        LOOP
+            v_nom := 'mvtfinancierccp_' || to_char(v_mois, 'YYYY_MM');
+            v_suivant := (v_mois + INTERVAL '1 month')::DATE;
+            IF to_regclass(v_nom) IS NOT NULL THEN
+                CONTINUE;
+            END IF;
+
+            IF EXISTS (SELECT 1 FROM mvtfinancierccp_defaut WHERE datemouv >= v_mois AND datemouv < v_suivant) THEN
+                -- Une partition ne peut pas être créée tant que la partition par défaut contient des
+                -- lignes de son mois : elles sont déplacées dans la nouvelle table, attachée ensuite.
+                -- Le déplacement passe par les partitions : les déclencheurs de mvtFinancierCCP
+                -- (versions des rapports) ne le voient pas, les mouvements restent les mêmes.
+                EXECUTE format('CREATE TABLE %I (LIKE mvtFinancierCCP INCLUDING DEFAULTS)', v_nom);
+                EXECUTE format($sql$
+                    WITH deplaces AS (
+                        DELETE FROM mvtfinancierccp_defaut
+                        WHERE datemouv >= %L AND datemouv < %L
+                        RETURNING %s)
+                    INSERT INTO %I (%s)
+                    SELECT %s FROM deplaces
+                    $sql$, v_mois, v_suivant, v_colonnes, v_nom, v_colonnes, v_colonnes);
+                EXECUTE format('ALTER TABLE mvtFinancierCCP ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                               v_nom, v_mois, v_suivant);
+            ELSE
+                EXECUTE format('CREATE TABLE %I PARTITION OF mvtFinancierCCP FOR VALUES FROM (%L) TO (%L)',
+                               v_nom, v_mois, v_suivant);
+            END IF;
+            v_crees := v_crees + 1;
+        END LOOP;
+
+    RETURN v_crees;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions mensuelles entièrement antérieures à p_limite, à archiver.
+CREATE OR REPLACE FUNCTION partitions_a_archiver_mvt_ccp(p_limite DATE) RETURNS SETOF TEXT AS
+$$
+SELECT c.relname
+FROM pg_inherits i
+         JOIN pg_class c ON c.oid = i.inhrelid
+WHERE i.inhparent = 'mvtfinancierccp'::REGCLASS
+  AND c.relname ~ '^mvtfinancierccp_[0-9]{4}_[0-9]{2}$'
+  AND (to_date(right(c.relname, 7), 'YYYY_MM') + INTERVAL '1 month')::DATE <= p_limite
+ORDER BY c.relname;
+$$ LANGUAGE sql STABLE;
+
+-- Détache une partition et la déplace dans le schéma archive (données conservées, hors des
+-- requêtes des rapports). DETACH ... CONCURRENTLY est refusé tant que la table a une partition
+-- par défaut : le détachement prend un verrou exclusif sur mvtFinancierCCP, mais ne l'attend pas
+-- plus de p_attente derrière les lectures en cours. Passé ce délai, l'appel échoue
+-- (lock_not_available) sans bloquer les rapports, et la partition est reprise au passage
+-- suivant. À appeler dans sa propre transaction, une partition à la fois. Retourne p_nom.
+CREATE OR REPLACE FUNCTION archiver_partition_mvt_ccp(p_nom TEXT, p_attente INTERVAL) RETURNS TEXT AS
+$$
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('mvtfinancierccp_partitions'));
+    PERFORM set_config('lock_timeout', (extract(EPOCH FROM p_attente) * 1000)::BIGINT::TEXT, TRUE);
+
+    EXECUTE format('ALTER TABLE mvtFinancierCCP DETACH PARTITION %I', p_nom);
+    EXECUTE format('ALTER TABLE %I SET SCHEMA archive', p_nom);
+    RETURN p_nom;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE SCHEMA IF NOT EXISTS archive;
+
+-- Conversion de la table existante ------------------------------------------------------------
+
+ALTER TABLE mvtFinancierCCP
+    RENAME TO mvtFinancierCCP_avant_partition;
+
+CREATE TABLE mvtFinancierCCP
+(
+    cptemouv     NUMERIC(12, 0) NOT NULL,
+    datemouv     DATE           NOT NULL,
+    numemouv     INTEGER        NOT NULL,
+    sensmouv     VARCHAR(1)     NOT NULL,
+    montmouv     NUMERIC(20, 2),
+    datevale     DATE,
+    solddepa     NUMERIC(14, 2),
+    codburpo     NUMERIC(5, 0)  NOT NULL,
+    numeordr     NUMERIC(6, 0)  NOT NULL,
+    dateoper     DATE           NOT NULL,
+    codtypop     NUMERIC(4, 0),
+    refopeor     VARCHAR(30),
+    menmarmo     VARCHAR(120),
+    natumouv     VARCHAR(1),
+    nom_tire     VARCHAR(100),
+    datcreatemvt TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (datemouv);
+
+-- Partition par défaut, puis partitions de l'historique et du mois précédent aux trois mois à venir
+CREATE TABLE mvtfinancierccp_defaut PARTITION OF mvtFinancierCCP DEFAULT;
+
+SELECT creer_partitions_mvt_ccp(MIN(datemouv), MAX(datemouv))
+FROM mvtFinancierCCP_avant_partition;
+
+SELECT creer_partitions_mvt_ccp((CURRENT_DATE - INTERVAL '1 month')::DATE, (CURRENT_DATE + INTERVAL '3 months')::DATE);
+
+INSERT INTO mvtFinancierCCP (cptemouv, datemouv, numemouv, sensmouv, montmouv, datevale, solddepa, codburpo,
+                             numeordr, dateoper, codtypop, refopeor, menmarmo, natumouv, nom_tire, datcreatemvt)
+SELECT cptemouv, datemouv, numemouv, sensmouv, montmouv, datevale, solddepa, codburpo, numeordr, dateoper,
+       codtypop, refopeor, menmarmo, natumouv, nom_tire, datcreatemvt
+FROM mvtFinancierCCP_avant_partition;
+
+DROP TABLE mvtFinancierCCP_avant_partition;
+
+-- Contraintes et index, déclarés sur la table partitionnée et hérités par chaque partition
+-- (la clé d'unicité contient déjà la clé de partitionnement datemouv)
+ALTER TABLE mvtFinancierCCP
+    ADD UNIQUE (numemouv, cptemouv, datemouv, codtypop);
+
+ALTER TABLE mvtFinancierCCP
+    ADD CONSTRAINT fk_mvt_ccp_compte
+        FOREIGN KEY (cptemouv) REFERENCES compteCCP (idencomp);
+
+ALTER TABLE mvtFinancierCCP
+    ADD CONSTRAINT fk_mvt_ccp_type_op
+        FOREIGN KEY (codtypop) REFERENCES typeOperationCCP (codtypop);
+
+CREATE INDEX IF NOT EXISTS idx_mvt_ccp_date_bureau_montant
+    ON mvtFinancierCCP (datemouv, codburpo, montmouv DESC) INCLUDE (cptemouv);
+
+ANALYZE mvtFinancierCCP;
@@ -0,0 +1,161 @@
+-- V12__Partition_Oper_Comp_CEN.sql
+
+-- Partitionnement de operCompCEN par mois de dateoper.
+-- Les rapports CEN portent sur une journée d'un bureau : l'élagage limite la lecture à la
+-- partition du mois, dont la clé primaire (dateoper, codburpo, numeordr) sert la journée, et le
+-- coût de ces requêtes ne dépend plus de la profondeur de l'historique. Les partitions futures
+-- sont créées par PartitionMouvementsService (creer_partitions_oper_cen). Comme pour
+-- mvtFinancierCCP (V11), une partition par défaut reçoit les opérations d'un mois sans
+-- partition ; la maintenance suivante les en sort.
+
+-- Crée les partitions mensuelles manquantes couvrant [p_debut, p_fin] et celles des mois dont
+-- des opérations sont tombées dans la partition par défaut. Retourne le nombre de partitions
+-- créées. Le verrou consultatif sérialise les appels de plusieurs instances.
+CREATE OR REPLACE FUNCTION creer_partitions_oper_cen(p_debut DATE, p_fin DATE) RETURNS INTEGER AS
+$$
+DECLARE
+    v_mois     DATE;
+    v_suivant  DATE;
+    v_nom      TEXT;
+    v_colonnes TEXT;
+    v_crees    INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('opercompcen_partitions'));
+
+    SELECT string_agg(quote_ident(attname), ', ' ORDER BY attnum)
+    INTO v_colonnes
+    FROM pg_attribute
+    WHERE attrelid = 'opercompcen'::REGCLASS
+      AND attnum > 0
+      AND NOT attisdropped;
+
+    FOR v_mois IN
+        SELECT generate_series(date_trunc('month', p_debut), p_fin, INTERVAL '1 month')::DATE
+        UNION
+        SELECT DISTINCT date_trunc('month', dateoper)::DATE
+        FROM opercompcen_defaut
+        ORDER BY 1
+        LOOP
+            v_nom := 'opercompcen_' || to_char(v_mois, 'YYYY_MM');
+            v_suivant := (v_mois + INTERVAL '1 month')::DATE;
+            IF to_regclass(v_nom) IS NOT NULL THEN
+                CONTINUE;
+            END IF;
+
+            IF EXISTS (SELECT 1 FROM opercompcen_defaut WHERE dateoper >= v_mois AND dateoper < v_suivant) THEN
+                -- Lignes du mois déplacées de la partition par défaut dans la nouvelle table, attachée ensuite
+                EXECUTE format('CREATE TABLE %I (LIKE operCompCEN INCLUDING DEFAULTS)', v_nom);
+                EXECUTE format($sql$
+                    WITH deplaces AS (
+                        DELETE FROM opercompcen_defaut
+                        WHERE dateoper >= %L AND dateoper < %L
+                        RETURNING %s)
+                    INSERT INTO %I (%s)
+                    SELECT %s FROM deplaces
+                    $sql$, v_mois, v_suivant, v_colonnes, v_nom, v_colonnes, v_colonnes);
+                EXECUTE format('ALTER TABLE operCompCEN ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                               v_nom, v_mois, v_suivant);
+            ELSE
+                EXECUTE format('CREATE TABLE %I PARTITION OF operCompCEN FOR VALUES FROM (%L) TO (%L)',
+                               v_nom, v_mois, v_suivant);
+            END IF;
+            v_crees := v_crees + 1;
+        END LOOP;
+
+    RETURN v_crees;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Conversion de la table existante ------------------------------------------------------------
+
+ALTER TABLE operCompCEN
+    RENAME TO operCompCEN_avant_partition;
+
+CREATE TABLE operCompCEN
+(
+    dateoper    DATE       NOT NULL,
+    codburpo    NUMERIC(5) NOT NULL,
+    numeordr    NUMERIC(8) NOT NULL,
+    datebord    DATE,
+    cobupobo    NUMERIC(5),
+    numebord    NUMERIC(6),
+    codprode    NUMERIC(2),
+    compdebi    NUMERIC(8),
+    codprocr    NUMERIC(2),
+    compcred    NUMERIC(8),
+    codtypop    NUMERIC(4),
+    comoreop    NUMERIC(2),
+    datevale    DATE,
+    commenta    VARCHAR(120),
+    reftitju    VARCHAR(15),
+    typepiec    CHAR(1),
+    datvalcen   DATE,
+    numpieid    VARCHAR(15),
+    datpieid    DATE,
+    nom_tire    VARCHAR(60),
+    montoper    NUMERIC(14, 2),
+    codutisa    NUMERIC(6),
+    codpgmsa    VARCHAR(8),
+    datesais    TIMESTAMP,
+    codutiva    NUMERIC(6),
+    codpgmva    VARCHAR(8),
+    cobupova    NUMERIC(5),
+    numeauto    NUMERIC(5),
+    datevali    TIMESTAMP,
+    commreje    VARCHAR(60),
+    menmarde    VARCHAR(30),
+    menmarcr    VARCHAR(30),
+    codstaop    CHAR(1),
+    ancstaop    CHAR(1),
+    datogori    DATE,
+    bupoogor    NUMERIC(5),
+    ordogori    NUMERIC(6),
+    tracounter  INTEGER,
+    modepaie    VARCHAR(1),
+    refoper     VARCHAR(50),
+    numcomccp   NUMERIC(12),
+    datocori    DATE,
+    bupoocor    NUMERIC(5),
+    ordocori    NUMERIC(5),
+    imprim      INTEGER        DEFAULT -1,
+    soldepadebi NUMERIC(14, 2) DEFAULT 0.00,
+    soldepacred NUMERIC(14, 2)
+) PARTITION BY RANGE (dateoper);
+
+-- Partition par défaut, puis partitions de l'historique et du mois précédent aux trois mois à venir
+CREATE TABLE opercompcen_defaut PARTITION OF operCompCEN DEFAULT;
+
+SELECT creer_partitions_oper_cen(MIN(dateoper), MAX(dateoper))
+FROM operCompCEN_avant_partition;
+
+SELECT creer_partitions_oper_cen((CURRENT_DATE - INTERVAL '1 month')::DATE, (CURRENT_DATE + INTERVAL '3 months')::DATE);
+
+INSERT INTO operCompCEN (dateoper, codburpo, numeordr, datebord, cobupobo, numebord, codprode, compdebi, codprocr, compcred,
+                         codtypop, comoreop, datevale, commenta, reftitju, typepiec, datvalcen, numpieid, datpieid, nom_tire,
+                         montoper, codutisa, codpgmsa, datesais, codutiva, codpgmva, cobupova, numeauto, datevali, commreje,
+                         menmarde, menmarcr, codstaop, ancstaop, datogori, bupoogor, ordogori, tracounter, modepaie, refoper,
+                         numcomccp, datocori, bupoocor, ordocori, imprim, soldepadebi, soldepacred)
+SELECT dateoper, codburpo, numeordr, datebord, cobupobo, numebord, codprode, compdebi, codprocr, compcred,
+       codtypop, comoreop, datevale, commenta, reftitju, typepiec, datvalcen, numpieid, datpieid, nom_tire,
+       montoper, codutisa, codpgmsa, datesais, codutiva, codpgmva, cobupova, numeauto, datevali, commreje,
+       menmarde, menmarcr, codstaop, ancstaop, datogori, bupoogor, ordogori, tracounter, modepaie, refoper,
+       numcomccp, datocori, bupoocor, ordocori, imprim, soldepadebi, soldepacred
+FROM operCompCEN_avant_partition;
+
+DROP TABLE operCompCEN_avant_partition;
+
+-- Clé primaire (contient la clé de partitionnement), clé étrangère et index, déclarés sur la
+-- table partitionnée et hérités par chaque partition
+ALTER TABLE operCompCEN
+    ADD PRIMARY KEY (dateoper, codburpo, numeordr);
+
+ALTER TABLE operCompCEN
+    ADD CONSTRAINT fk_oper_cen_type_op
+        FOREIGN KEY (codtypop) REFERENCES typeOperCEN (codtypop);
+
+-- Parcours par plage de dates (plusieurs jours, mois entier) : les opérations sont insérées dans
+-- l'ordre des journées, un index BRIN de quelques pages résume chaque partition.
+CREATE INDEX IF NOT EXISTS idx_oper_cen_dateoper_brin
+    ON operCompCEN USING BRIN (dateoper);
+
+ANALYZE operCompCEN;
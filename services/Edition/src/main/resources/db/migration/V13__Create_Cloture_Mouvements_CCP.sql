@@ -0,0 +1,20 @@
+-- V13__Create_Cloture_Mouvements_CCP.sql
+
+-- Clôture des journées de mouvements CCP : une ligne par journée close et par bureau, avec les
+-- mouvements de la journée déjà joints (compte, type d'opération) et triés dans l'ordre du rapport.
+-- Les rapports de la veille et de l'avant-veille sont servis depuis cette table (une ligne lue par
+-- la clé primaire) au lieu de relire mvtFinancierCCP. Les lignes sont écrites par
+-- ClotureMouvementsService ; une clôture porte la version des mouvements qu'elle a figés
+-- (versionMouvementsCCP et versionLibellesCCP, V14) et elle est réécrite si un mouvement tardif
+-- ou un changement de libellé change cette version.
+CREATE TABLE IF NOT EXISTS clotureMouvementsCCP
+(
+    datemouv   DATE          NOT NULL,
+    codburpo   NUMERIC(5, 0) NOT NULL,
+    desburpo   VARCHAR(60),
+    nbremouv   INTEGER       NOT NULL,
+    mouvements JSONB         NOT NULL, -- Tableau trié : date de création, montant, numéro décroissants
+    version    BIGINT        NOT NULL DEFAULT 0, -- Version des mouvements figés (0 : aucune version)
+    datclotu   TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (datemouv, codburpo)
+);
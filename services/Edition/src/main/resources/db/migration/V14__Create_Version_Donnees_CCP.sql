@@ -0,0 +1,171 @@
+-- V14__Create_Version_Donnees_CCP.sql
+
+-- Numéros de version des données CCP lues par les rapports, pour les ETag HTTP : un client qui
+-- renvoie l'ETag d'un rapport (If-None-Match) reçoit 304 sans que le rapport soit recalculé,
+-- tant que les versions lues (quelques lignes par leur clé) n'ont pas changé.
+-- Les versions sont tirées d'une séquence commune : elles ne reviennent jamais à une valeur déjà
+-- émise, même après suppression et rechargement des données. Une ligne absente vaut la version 0.
+CREATE SEQUENCE IF NOT EXISTS seq_version_donnees_ccp;
+
+-- Version des mouvements d'une journée d'un bureau (rapports des mouvements de la journée)
+CREATE TABLE IF NOT EXISTS versionMouvementsCCP
+(
+    datemouv DATE          NOT NULL,
+    codburpo NUMERIC(5, 0) NOT NULL,
+    version  BIGINT        NOT NULL,
+    datemaj  TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (datemouv, codburpo)
+);
+
+-- Les tables de transition regroupent toutes les lignes de l'instruction : une seule écriture par
+-- journée et bureau touchés, comme pour statBureauCCP (V5).
+CREATE OR REPLACE FUNCTION maj_version_mouvements_ccp() RETURNS TRIGGER AS
+$$
+DECLARE
+    lignes TEXT;
+BEGIN
+    lignes := CASE TG_OP
+                  WHEN 'INSERT' THEN 'SELECT datemouv, codburpo FROM nouveaux'
+                  WHEN 'DELETE' THEN 'SELECT datemouv, codburpo FROM anciens'
+                  ELSE 'SELECT datemouv, codburpo FROM anciens UNION SELECT datemouv, codburpo FROM nouveaux'
+        END;
+
+    EXECUTE format($sql$
+        INSERT INTO versionMouvementsCCP AS v (datemouv, codburpo, version)
+        SELECT datemouv, codburpo, nextval('seq_version_donnees_ccp')
+        FROM (SELECT DISTINCT datemouv, codburpo FROM (%s) l
+              WHERE datemouv IS NOT NULL AND codburpo IS NOT NULL) touches
+        ON CONFLICT (datemouv, codburpo) DO UPDATE
+            SET version = EXCLUDED.version,
+                datemaj = CURRENT_TIMESTAMP
+        $sql$, lignes);
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Un TRUNCATE ne fournit pas de table de transition : toutes les versions changent
+CREATE OR REPLACE FUNCTION vider_version_mouvements_ccp() RETURNS TRIGGER AS
+$$
+BEGIN
+    UPDATE versionMouvementsCCP SET version = nextval('seq_version_donnees_ccp'), datemaj = CURRENT_TIMESTAMP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Déclencheurs sur la table partitionnée : ils couvrent toutes les partitions, y compris celles
+-- créées plus tard par creer_partitions_mvt_ccp (V11).
+CREATE TRIGGER trg_version_mouvements_ccp_insert
+    AFTER INSERT
+    ON mvtFinancierCCP
+    REFERENCING NEW TABLE AS nouveaux
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maj_version_mouvements_ccp();
+
+CREATE TRIGGER trg_version_mouvements_ccp_update
+    AFTER UPDATE
+    ON mvtFinancierCCP
+    REFERENCING OLD TABLE AS anciens NEW TABLE AS nouveaux
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maj_version_mouvements_ccp();
+
+CREATE TRIGGER trg_version_mouvements_ccp_delete
+    AFTER DELETE
+    ON mvtFinancierCCP
+    REFERENCING OLD TABLE AS anciens
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maj_version_mouvements_ccp();
+
+CREATE TRIGGER trg_version_mouvements_ccp_truncate
+    AFTER TRUNCATE
+    ON mvtFinancierCCP
+    FOR EACH STATEMENT
+EXECUTE FUNCTION vider_version_mouvements_ccp();
+
+-- Version des agrégats de statBureauCCP (encours global) : chaque ligne prend un nouveau numéro
+-- à chaque écriture. Les déclencheurs de V5 n'écrivent statBureauCCP que si un agrégat change :
+-- une modification d'un compte sans effet sur l'encours (intitulé, adresse...) n'écrit rien de plus.
+-- Un déclencheur de version sur compteCCP ne peut pas être restreint aux colonnes de l'encours
+-- (UPDATE OF) : PostgreSQL refuse les listes de colonnes avec les tables de transition.
+ALTER TABLE statBureauCCP
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT nextval('seq_version_donnees_ccp');
+
+CREATE OR REPLACE FUNCTION maj_version_stat_bureau_ccp() RETURNS TRIGGER AS
+$$
+BEGIN
+    NEW.version := nextval('seq_version_donnees_ccp');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_version_stat_bureau_ccp
+    BEFORE UPDATE
+    ON statBureauCCP
+    FOR EACH ROW
+EXECUTE FUNCTION maj_version_stat_bureau_ccp();
+
+-- Version des libellés lus par les rapports avec les données versionnées (intitulé du compte,
+-- libellé du type d'opération, désignation du bureau) : une seule ligne, changée seulement quand
+-- un de ces libellés change réellement, ce qui reste rare.
+CREATE TABLE IF NOT EXISTS versionLibellesCCP
+(
+    idenvers BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (idenvers),
+    version  BIGINT NOT NULL,
+    datemaj  TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO versionLibellesCCP (version)
+VALUES (nextval('seq_version_donnees_ccp'))
+ON CONFLICT DO NOTHING;
+
+-- Déclencheurs par instruction comme ceux de mvtFinancierCCP : une mise à jour de masse écrit la
+-- ligne de version au plus une fois. Les tables de transition excluent UPDATE OF : les anciennes et
+-- nouvelles lignes sont comparées par clé primaire (TG_ARGV[0]) sur le libellé (TG_ARGV[1]).
+CREATE OR REPLACE FUNCTION maj_version_libelles_ccp() RETURNS TRIGGER AS
+$$
+DECLARE
+    change BOOLEAN;
+BEGIN
+    EXECUTE format($sql$
+        SELECT EXISTS (SELECT 1
+                       FROM anciens a
+                                JOIN nouveaux n ON n.%1$I = a.%1$I
+                       WHERE n.%2$I IS DISTINCT FROM a.%2$I)
+        $sql$, TG_ARGV[0], TG_ARGV[1]) INTO change;
+
+    IF change THEN
+        UPDATE versionLibellesCCP SET version = nextval('seq_version_donnees_ccp'), datemaj = CURRENT_TIMESTAMP;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_version_libelles_compte_ccp
+    AFTER UPDATE
+    ON compteCCP
+    REFERENCING OLD TABLE AS anciens NEW TABLE AS nouveaux
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maj_version_libelles_ccp('idencomp', 'inticomp');
+
+CREATE TRIGGER trg_version_libelles_type_operation_ccp
+    AFTER UPDATE
+    ON typeOperationCCP
+    REFERENCING OLD TABLE AS anciens NEW TABLE AS nouveaux
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maj_version_libelles_ccp('codtypop', 'libtypop');
+
+CREATE TRIGGER trg_version_libelles_bureau_ccp
+    AFTER UPDATE
+    ON bureauPosteCCP
+    REFERENCING OLD TABLE AS anciens NEW TABLE AS nouveaux
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maj_version_libelles_ccp('codburpo', 'desburpo');
+
+-- Versions initiales des données existantes
+INSERT INTO versionMouvementsCCP (datemouv, codburpo, version)
+SELECT datemouv, codburpo, nextval('seq_version_donnees_ccp')
+FROM (SELECT DISTINCT datemouv, codburpo
+      FROM mvtFinancierCCP
+      WHERE datemouv IS NOT NULL AND codburpo IS NOT NULL) existants
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,12 @@
+-- V15__Create_Keyset_Index_Mvt_CCP.sql
+
+-- Mouvements d'une journée et d'un bureau par curseur : l'index porte exactement le tri des
+-- requêtes keyset de MvtFinancierCCPRepository (date de création absente classée au 1er janvier
+-- 1970, puis montant et numéro de mouvement, décroissants). Après l'égalité sur (datemouv,
+-- codburpo), la comparaison de ligne du curseur est une borne de l'index : une page se lit sans
+-- trier les mouvements de la journée. Le seuil de montant minimum est évalué dans l'index.
+-- idx_mvt_ccp_date_bureau_montant (V10) reste celui des statistiques et des tris par montant.
+CREATE INDEX IF NOT EXISTS idx_mvt_ccp_date_bureau_curseur
+    ON mvtFinancierCCP (datemouv, codburpo,
+                        (COALESCE(datcreatemvt, TIMESTAMP '1970-01-01 00:00:00')) DESC,
+                        montmouv DESC, numemouv DESC);
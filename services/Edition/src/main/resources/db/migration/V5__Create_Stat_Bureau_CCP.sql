@@ -0,0 +1,147 @@
+-- V5__Create_Stat_Bureau_CCP.sql
+
+-- Agrégats des comptes CCP par bureau, état et produit.
+-- Évite de recalculer COUNT/SUM sur compteCCP à chaque rapport (encours global, portefeuilles).
+-- Les lignes de compteCCP sans bureau ne sont pas agrégées (aucun rapport ne les lit).
+CREATE TABLE IF NOT EXISTS statBureauCCP
+(
+    idenstat BIGSERIAL      NOT NULL,
+    codburpo NUMERIC(5, 0)  NOT NULL,
+    codetacp VARCHAR(1),
+    codeprod NUMERIC(3, 0),
+    nbrecomp BIGINT         NOT NULL DEFAULT 0,
+    soldcour NUMERIC(20, 2) NOT NULL DEFAULT 0,
+    soldoppo NUMERIC(20, 2) NOT NULL DEFAULT 0,
+    soldtaxe NUMERIC(20, 2) NOT NULL DEFAULT 0,
+    solddebo NUMERIC(20, 2) NOT NULL DEFAULT 0,
+    solddeco NUMERIC(20, 2) NOT NULL DEFAULT 0,
+    solopede NUMERIC(20, 2) NOT NULL DEFAULT 0,
+    soldcert NUMERIC(20, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (idenstat),
+    -- Un état ou un produit NULL constitue un groupe à part entière (PostgreSQL 15+)
+    CONSTRAINT uk_stat_bureau_ccp UNIQUE NULLS NOT DISTINCT (codburpo, codetacp, codeprod)
+);
+
+-- Chargement initial
+INSERT INTO statBureauCCP (codburpo, codetacp, codeprod, nbrecomp,
+                           soldcour, soldoppo, soldtaxe, solddebo, solddeco, solopede, soldcert)
+SELECT codbpcpt,
+       codetacp,
+       codeprod,
+       COUNT(*),
+       COALESCE(SUM(soldcour), 0),
+       COALESCE(SUM(soldoppo), 0),
+       COALESCE(SUM(soldtaxe), 0),
+       COALESCE(SUM(solddebo), 0),
+       COALESCE(SUM(solddeco), 0),
+       COALESCE(SUM(solopede), 0),
+       COALESCE(SUM(soldcert), 0)
+FROM compteCCP
+WHERE codbpcpt IS NOT NULL
+GROUP BY codbpcpt, codetacp, codeprod;
+
+-- Mise à jour incrémentale par instruction : les tables de transition regroupent toutes les
+-- lignes modifiées, les variations sont agrégées par groupe et chaque ligne d'agrégat n'est
+-- écrite qu'une fois par instruction (un déclencheur par ligne réécrirait la même ligne
+-- d'agrégat pour chaque compte d'un chargement).
+CREATE OR REPLACE FUNCTION maj_stat_bureau_ccp() RETURNS TRIGGER AS
+$$
+DECLARE
+    lignes TEXT;
+    vides  BIGINT[];
+BEGIN
+    -- Anciennes lignes retirées (signe -1), nouvelles lignes ajoutées (signe +1)
+    lignes := CASE TG_OP
+                  WHEN 'INSERT' THEN 'SELECT 1 AS signe, * FROM nouveaux'
+                  WHEN 'DELETE' THEN 'SELECT -1 AS signe, * FROM anciens'
+                  ELSE 'SELECT -1 AS signe, * FROM anciens UNION ALL SELECT 1 AS signe, * FROM nouveaux'
+        END;
+
+    -- Les groupes sont écrits dans l'ordre de la clé : deux instructions concurrentes qui
+    -- touchent les mêmes groupes les verrouillent dans le même ordre (pas d'interblocage).
+    -- Les groupes ramenés à zéro compte sont renvoyés pour être supprimés ensuite.
+    EXECUTE format($sql$
+        WITH lignes AS (%s),
+             variations AS (SELECT codbpcpt,
+                                   codetacp,
+                                   codeprod,
+                                   SUM(signe)                         AS nbrecomp,
+                                   SUM(signe * COALESCE(soldcour, 0)) AS soldcour,
+                                   SUM(signe * COALESCE(soldoppo, 0)) AS soldoppo,
+                                   SUM(signe * COALESCE(soldtaxe, 0)) AS soldtaxe,
+                                   SUM(signe * COALESCE(solddebo, 0)) AS solddebo,
+                                   SUM(signe * COALESCE(solddeco, 0)) AS solddeco,
+                                   SUM(signe * COALESCE(solopede, 0)) AS solopede,
+                                   SUM(signe * COALESCE(soldcert, 0)) AS soldcert
+                            FROM lignes
+                            WHERE codbpcpt IS NOT NULL
+                            GROUP BY codbpcpt, codetacp, codeprod),
+             ecrits AS (
+                 INSERT INTO statBureauCCP AS s (codburpo, codetacp, codeprod, nbrecomp,
+                                                 soldcour, soldoppo, soldtaxe, solddebo, solddeco, solopede, soldcert)
+                 SELECT *
+                 FROM variations v
+                 -- Une mise à jour sans effet sur les agrégats (libellé, adresse...) n'écrit rien
+                 WHERE (v.nbrecomp, v.soldcour, v.soldoppo, v.soldtaxe, v.solddebo, v.solddeco, v.solopede, v.soldcert)
+                           <> (0, 0, 0, 0, 0, 0, 0, 0)
+                 ORDER BY v.codbpcpt, v.codetacp, v.codeprod
+                 ON CONFLICT (codburpo, codetacp, codeprod) DO UPDATE
+                     SET nbrecomp = s.nbrecomp + EXCLUDED.nbrecomp,
+                         soldcour = s.soldcour + EXCLUDED.soldcour,
+                         soldoppo = s.soldoppo + EXCLUDED.soldoppo,
+                         soldtaxe = s.soldtaxe + EXCLUDED.soldtaxe,
+                         solddebo = s.solddebo + EXCLUDED.solddebo,
+                         solddeco = s.solddeco + EXCLUDED.solddeco,
+                         solopede = s.solopede + EXCLUDED.solopede,
+                         soldcert = s.soldcert + EXCLUDED.soldcert
+                 RETURNING s.idenstat, s.nbrecomp)
+        SELECT array_agg(idenstat ORDER BY idenstat) FROM ecrits WHERE nbrecomp <= 0
+        $sql$, lignes) INTO vides;
+
+    -- Seuls les groupes vidés par cette instruction sont supprimés (par clé primaire)
+    IF vides IS NOT NULL THEN
+        DELETE
+        FROM statBureauCCP
+        WHERE idenstat = ANY (vides);
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Les tables de transition excluent les listes de colonnes (UPDATE OF ...) et n'acceptent
+-- qu'un seul événement par déclencheur : un déclencheur par opération.
+CREATE TRIGGER trg_stat_bureau_ccp_insert
+    AFTER INSERT
+    ON compteCCP
+    REFERENCING NEW TABLE AS nouveaux
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maj_stat_bureau_ccp();
+
+CREATE TRIGGER trg_stat_bureau_ccp_update
+    AFTER UPDATE
+    ON compteCCP
+    REFERENCING OLD TABLE AS anciens NEW TABLE AS nouveaux
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maj_stat_bureau_ccp();
+
+CREATE TRIGGER trg_stat_bureau_ccp_delete
+    AFTER DELETE
+    ON compteCCP
+    REFERENCING OLD TABLE AS anciens
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maj_stat_bureau_ccp();
+
+CREATE OR REPLACE FUNCTION vider_stat_bureau_ccp() RETURNS TRIGGER AS
+$$
+BEGIN
+    TRUNCATE statBureauCCP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_stat_bureau_ccp_truncate
+    AFTER TRUNCATE
+    ON compteCCP
+    FOR EACH STATEMENT
+EXECUTE FUNCTION vider_stat_bureau_ccp();
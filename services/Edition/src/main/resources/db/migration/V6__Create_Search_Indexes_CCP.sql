@@ -0,0 +1,32 @@
+-- V6__Create_Search_Indexes_CCP.sql
+
+-- Recherche dans le portefeuille client CCP (saisie au fil de l'eau), limitée aux comptes du bureau.
+-- Les index trigrammes servent les motifs LIKE '%terme%' (libellés, adresse, CIN, téléphone) à partir
+-- de 3 caractères ; un terme plus court n'a pas de trigramme complet et la recherche lit les comptes
+-- du bureau. Un identifiant est cherché par préfixe (LIKE 'terme%') : le motif ancré garde ses
+-- trigrammes de début, CIN et téléphone restent servis pour 1 ou 2 caractères.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_compte_ccp_inticomp_trgm
+    ON compteCCP USING GIN (lower(inticomp) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_compte_ccp_inticond_trgm
+    ON compteCCP USING GIN (lower(inticond) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_compte_ccp_adrecomp_trgm
+    ON compteCCP USING GIN (lower(adrecomp) gin_trgm_ops);
+
+-- Préfixe du numéro de compte : les trigrammes de chiffres sont peu sélectifs,
+-- un B-tree sur le texte (text_pattern_ops) sert LIKE '1004%' par plage.
+CREATE INDEX IF NOT EXISTS idx_compte_ccp_idencomp_prefixe
+    ON compteCCP ((CAST(idencomp AS TEXT)) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_client_ccp_numpieid_trgm
+    ON clientCCP USING GIN (lower(numpieid) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_client_ccp_numetele_trgm
+    ON clientCCP USING GIN (numetele gin_trgm_ops);
+
+-- Remontée des clients trouvés (CIN, téléphone) vers leurs comptes
+CREATE INDEX IF NOT EXISTS idx_compte_ccp_idenclie
+    ON compteCCP (idenclie);
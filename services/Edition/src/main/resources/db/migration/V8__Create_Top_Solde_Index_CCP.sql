@@ -0,0 +1,8 @@
+-- V8__Create_Top_Solde_Index_CCP.sql
+
+-- Classement des plus gros soldes (Top 100) par bureau.
+-- L'index fournit directement l'ordre du classement : la requête s'arrête après N entrées
+-- au lieu de trier tous les comptes du bureau. L'état du compte est inclus pour écarter
+-- les comptes exclus (clôturés, bloqués, opposés) sans lire la table (parcours d'index seul).
+CREATE INDEX IF NOT EXISTS idx_compte_ccp_bureau_solde
+    ON compteCCP (codbpcpt, soldcour DESC, idencomp DESC) INCLUDE (codetacp);
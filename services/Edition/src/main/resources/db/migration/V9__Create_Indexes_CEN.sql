@@ -0,0 +1,10 @@
+-- V9__Create_Indexes_CEN.sql
+
+-- Portefeuille et encours CEN d'un bureau : le filtre sur codburpo ne disposait d'aucun index.
+-- L'ordre du rapport (solde décroissant) est porté par l'index : une page est lue dans l'ordre de
+-- l'index et s'arrête à OFFSET + LIMIT, sans tri des comptes du bureau. Les totaux du bureau sont
+-- une agrégation à part, servie par le même index (solde et état inclus). Les opérations CEN
+-- d'une journée sont déjà servies par la clé primaire de opercompcen (dateoper, codburpo, numeordr).
+CREATE INDEX IF NOT EXISTS idx_compte_cen_bureau_solde
+    ON comptecen (codburpo, soldcour DESC, idencomp DESC, codeprod DESC)
+    INCLUDE (codetaco);
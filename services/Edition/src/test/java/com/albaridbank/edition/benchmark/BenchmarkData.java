@@ -0,0 +1,158 @@
+package com.albaridbank.edition.benchmark;
+
+import com.albaridbank.edition.dto.base.CompteCCPDetailDTO;
+import com.albaridbank.edition.dto.base.MouvementFinancierDTO;
+import com.albaridbank.edition.dto.base.PortefeuilleClientCCPDetailDTO;
+import com.albaridbank.edition.model.ccp.BureauPosteCCP;
+import com.albaridbank.edition.model.ccp.CatSocioProfCCP;
+import com.albaridbank.edition.model.ccp.ClientCCP;
+import com.albaridbank.edition.model.ccp.CompteCCP;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Données synthétiques des benchmarks : comptes, clients et mouvements d'un bureau fictif.
+ *
+ * <p>Les valeurs sont déterministes (dérivées de l'indice de la ligne) pour que deux mesures
+ * successives portent sur exactement les mêmes données.</p>
+ */
+final class BenchmarkData {
+
+    static final Long CODE_BUREAU = 12345L;
+    static final String DESIGNATION_BUREAU = "AGENCE BENCHMARK";
+
+    private static final String[] ETATS_COMPTE = {"A", "A", "A", "I", "B", "O"};
+    private static final String[] CATEGORIES = {"FONCTIONNAIRE", "COMMERCANT", "RETRAITE", "ETUDIANT", "PROFESSION LIBERALE"};
+    private static final LocalDate DATE_REFERENCE = LocalDate.of(2025, 1, 1);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Comptes CCP avec client, catégorie socio-professionnelle et bureau, comme chargés par
+     * les requêtes {@code JOIN FETCH} des rapports.
+     */
+    static List<CompteCCP> comptesCCP(int nombre) {
+        BureauPosteCCP bureau = new BureauPosteCCP();
+        bureau.setCodeBureau(CODE_BUREAU);
+        bureau.setDesignation(DESIGNATION_BUREAU);
+
+        List<CatSocioProfCCP> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            CatSocioProfCCP categorie = new CatSocioProfCCP();
+            categorie.setCodeSocioProf((long) i + 1);
+            categorie.setLibelle(CATEGORIES[i]);
+            categories.add(categorie);
+        }
+
+        List<CompteCCP> comptes = new ArrayList<>(nombre);
+        for (int i = 0; i < nombre; i++) {
+            ClientCCP client = new ClientCCP();
+            client.setIdClient(2_000_000L + i);
+            client.setCategorieSocioProfessionnelle(categories.get(i % categories.size()));
+            client.setDesignation(intitule(i));
+            client.setNumeroPieceIdentite(cin(i));
+            client.setTelephone(telephone(i));
+            client.setDateNaissance(dateNaissance(i));
+
+            CompteCCP compte = new CompteCCP();
+            compte.setIdCompte(idCompte(i));
+            compte.setClient(client);
+            compte.setBureauPoste(bureau);
+            compte.setIntitule(intitule(i));
+            compte.setIntituleCondense("CL " + i);
+            compte.setAdresse(adresse(i));
+            compte.setCodePostal(String.valueOf(10_000 + i % 90_000));
+            compte.setCodeEtatCompte(ETATS_COMPTE[i % ETATS_COMPTE.length]);
+            compte.setCodeProduit(1 + i % 3);
+            compte.setSoldeCourant(montant(i));
+            compte.setSoldeOpposition(BigDecimal.valueOf(i % 7 * 100L));
+            compte.setSoldeTaxe(BigDecimal.valueOf(i % 5 * 10L));
+            compte.setSoldeDebitOperations(BigDecimal.valueOf(i % 11 * 250L));
+            compte.setSoldeCreditOperations(BigDecimal.valueOf(i % 13 * 300L));
+            compte.setSoldeOperationsPeriode(BigDecimal.valueOf(i % 17 * 50L));
+            compte.setSoldeCertifie(montant(i));
+            compte.setDateSolde(DATE_REFERENCE.minusDays(i % 30));
+            comptes.add(compte);
+        }
+        return comptes;
+    }
+
+    /**
+     * Lignes du rapport "ETAT PORTEFEUILLE CLIENT CCP".
+     */
+    static List<CompteCCPDetailDTO> comptesDetail(int nombre) {
+        List<CompteCCPDetailDTO> comptes = new ArrayList<>(nombre);
+        for (int i = 0; i < nombre; i++) {
+            comptes.add(new CompteCCPDetailDTO(
+                    idCompte(i), intitule(i), adresse(i), CATEGORIES[i % CATEGORIES.length],
+                    cin(i), telephone(i), "ACTIF", dateNaissance(i), montant(i),
+                    1 + i % 3, "Compte courant"));
+        }
+        return comptes;
+    }
+
+    /**
+     * Lignes du rapport "ETAT PORTEFEUILLE CLIENT M CCP".
+     */
+    static List<PortefeuilleClientCCPDetailDTO> comptesDetailM(int nombre) {
+        List<PortefeuilleClientCCPDetailDTO> comptes = new ArrayList<>(nombre);
+        for (int i = 0; i < nombre; i++) {
+            comptes.add(new PortefeuilleClientCCPDetailDTO(
+                    idCompte(i), intitule(i), adresse(i), String.valueOf(10_000 + i % 90_000), "CL " + i,
+                    CATEGORIES[i % CATEGORIES.length], cin(i), telephone(i), "A", dateNaissance(i),
+                    montant(i), BigDecimal.valueOf(i % 7 * 100L), BigDecimal.valueOf(i % 5 * 10L),
+                    BigDecimal.valueOf(i % 11 * 250L), BigDecimal.valueOf(i % 13 * 300L),
+                    BigDecimal.valueOf(i % 17 * 50L), montant(i), DATE_REFERENCE.minusDays(i % 30),
+                    1 + i % 3, "Actif"));
+        }
+        return comptes;
+    }
+
+    /**
+     * Lignes du rapport "ETAT DES COMPTES MOUVEMENTES LA VEILLE".
+     */
+    static List<MouvementFinancierDTO> mouvements(int nombre) {
+        List<MouvementFinancierDTO> mouvements = new ArrayList<>(nombre);
+        for (int i = 0; i < nombre; i++) {
+            mouvements.add(new MouvementFinancierDTO(
+                    idCompte(i % 5_000), intitule(i % 5_000), CODE_BUREAU, DESIGNATION_BUREAU,
+                    i % 3 == 0 ? "VIREMENT" : "VERSEMENT", i % 2 == 0 ? "D" : "C", montant(i)));
+        }
+        return mouvements;
+    }
+
+    /**
+     * Montants variés (centimes, milliers, millions) pour les benchmarks de formatage.
+     */
+    static BigDecimal montant(int i) {
+        return BigDecimal.valueOf((long) i * 7_919 % 100_000_000L, 2);
+    }
+
+    static LocalDate dateNaissance(int i) {
+        return LocalDate.of(1950, 1, 1).plusDays(i % 20_000);
+    }
+
+    private static Long idCompte(int i) {
+        return 1_000_000_000L + i;
+    }
+
+    private static String intitule(int i) {
+        return "CLIENT NUMERO " + i + " NOM PRENOM";
+    }
+
+    private static String adresse(int i) {
+        return "RUE " + (i % 500) + " QUARTIER ADMINISTRATIF";
+    }
+
+    private static String cin(int i) {
+        return "AB" + (100_000 + i % 900_000);
+    }
+
+    private static String telephone(int i) {
+        return "06" + (10_000_000 + i);
+    }
+}
@@ -0,0 +1,148 @@
+package com.albaridbank.edition.benchmark;
+
+import com.albaridbank.edition.dto.excelCCP.CompteMouvementVeilleExcelDTO;
+import com.albaridbank.edition.dto.excelCCP.NbrTotalEncoursCCPExcelDTO;
+import com.albaridbank.edition.dto.excelCCP.PortefeuilleClientCCPExcelDTO;
+import com.albaridbank.edition.dto.excelCCP.PortefeuilleClientCCPMExcelDTO;
+import com.albaridbank.edition.service.excelCCP.ExcelExportService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Génération des exports Excel ({@link ExcelExportService}) pour 1 000, 10 000 et 100 000 lignes.
+ *
+ * <p>Le classeur est écrit dans un flux qui ignore les octets : la mesure comprend la construction
+ * des feuilles, le fichier temporaire SXSSF et la compression, pas les entrées-sorties réseau.
+ * L'export "encours global" n'a pas de lignes de détail et n'est mesuré qu'une fois.</p>
+ *
+ * <p>Lancement avec le profileur GC : {@link #main(String[])}, ou
+ * {@code org.openjdk.jmh.Main ExcelExportBenchmark -prof gc}.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ExcelExportBenchmark {
+
+    private final ExcelExportService excelExportService = new ExcelExportService();
+
+    /**
+     * Rapports avec lignes de détail.
+     */
+    @State(Scope.Benchmark)
+    public static class Rapports {
+
+        @Param({"1000", "10000", "100000"})
+        private int rows;
+
+        private PortefeuilleClientCCPExcelDTO portefeuille;
+        private PortefeuilleClientCCPMExcelDTO portefeuilleM;
+        private CompteMouvementVeilleExcelDTO mouvements;
+
+        @Setup
+        public void setup() {
+            portefeuille = new PortefeuilleClientCCPExcelDTO();
+            portefeuille.setTitreRapport("ETAT PORTEFEUILLE CLIENT CCP");
+            portefeuille.setDateEdition(LocalDateTime.now());
+            portefeuille.setUtilisateur("benchmark");
+            portefeuille.setCodburpo(BenchmarkData.CODE_BUREAU);
+            portefeuille.setDesburpo(BenchmarkData.DESIGNATION_BUREAU);
+            portefeuille.setComptes(BenchmarkData.comptesDetail(rows));
+            portefeuille.setNombreTotalComptes(rows);
+            portefeuille.setEncoursTotalComptes(BigDecimal.valueOf(rows * 1_000L));
+
+            portefeuilleM = PortefeuilleClientCCPMExcelDTO.builder()
+                    .titreRapport("ETAT PORTEFEUILLE CLIENT M CCP")
+                    .dateEdition(LocalDateTime.now())
+                    .numeroPage("1")
+                    .codburpo(BenchmarkData.CODE_BUREAU)
+                    .desburpo(BenchmarkData.DESIGNATION_BUREAU)
+                    .comptes(BenchmarkData.comptesDetailM(rows))
+                    .nombreTotalComptes((long) rows)
+                    .encoursTotalComptes(BigDecimal.valueOf(rows * 1_000L))
+                    .totalSoldeOpposition(BigDecimal.ZERO)
+                    .totalSoldeTaxe(BigDecimal.ZERO)
+                    .totalSoldeDebitOperations(BigDecimal.ZERO)
+                    .totalSoldeCreditOperations(BigDecimal.ZERO)
+                    .totalSoldeOperationsPeriode(BigDecimal.ZERO)
+                    .totalSoldeCertifie(BigDecimal.ZERO)
+                    .utilisateur("benchmark")
+                    .build();
+
+            mouvements = CompteMouvementVeilleExcelDTO.builder()
+                    .titreRapport("ETAT DES COMPTES MOUVEMENTES LA VEILLE")
+                    .dateEdition(LocalDateTime.now())
+                    .journeeDu(LocalDate.of(2025, 1, 1))
+                    .codeAgence(BenchmarkData.CODE_BUREAU)
+                    .nomAgence(BenchmarkData.DESIGNATION_BUREAU)
+                    .mouvements(BenchmarkData.mouvements(rows))
+                    .nombreTotalComptes(Math.min(rows, 5_000))
+                    .montantTotal(BigDecimal.valueOf(rows * 1_000L))
+                    .joursAvant(1)
+                    .montantMinimum(BigDecimal.ZERO)
+                    .build();
+        }
+    }
+
+    /**
+     * Rapport sans lignes de détail.
+     */
+    @State(Scope.Benchmark)
+    public static class Encours {
+
+        private NbrTotalEncoursCCPExcelDTO encours;
+
+        @Setup
+        public void setup() {
+            encours = NbrTotalEncoursCCPExcelDTO.builder()
+                    .titreRapport("ETAT NOMBRE TOTAL & ENCOURS GLOBAL CCP")
+                    .dateEdition(LocalDateTime.now())
+                    .journeeDu(LocalDate.of(2025, 1, 1))
+                    .codeBureau(BenchmarkData.CODE_BUREAU)
+                    .designationBureau(BenchmarkData.DESIGNATION_BUREAU)
+                    .nombreComptes(100_000L)
+                    .totalEncours(BigDecimal.valueOf(123_456_789_00L, 2))
+                    .utilisateur("benchmark")
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public void exportPortefeuilleClientCCPToExcel(Rapports rapports) throws IOException {
+        excelExportService.exportPortefeuilleClientCCPToExcel(rapports.portefeuille, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void exportPortefeuilleClientMCCPToExcel(Rapports rapports) throws IOException {
+        excelExportService.exportPortefeuilleClientMCCPToExcel(rapports.portefeuilleM, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void exportCompteMouvementVeilleToExcel(Rapports rapports) throws IOException {
+        excelExportService.exportCompteMouvementVeilleToExcel(rapports.mouvements, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void exportEncoursGlobalCCPToExcel(Encours encours) throws IOException {
+        excelExportService.exportEncoursGlobalCCPToExcel(encours.encours, OutputStream.nullOutputStream());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ExcelExportBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.albaridbank.edition.benchmark;
+
+import com.albaridbank.edition.dto.base.CompteCCPDetailDTO;
+import com.albaridbank.edition.mappers.ccp.CompteCCPMapper;
+import com.albaridbank.edition.mappers.rapport.RapportCCPMapper;
+import com.albaridbank.edition.model.ccp.CompteCCP;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion des comptes CCP chargés par les rapports en lignes de rapport (MapStruct),
+ * pour 1 000, 10 000 et 100 000 comptes.
+ *
+ * <p>Lancement avec le profileur GC (débit et octets alloués par opération,
+ * {@code gc.alloc.rate.norm}) : exécuter {@link #main(String[])} depuis l'IDE, ou après
+ * {@code mvn test-compile} :
+ * {@code java -cp target/test-classes:target/classes:<classpath de test> org.openjdk.jmh.Main MapperBenchmark -prof gc}</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private final RapportCCPMapper rapportCCPMapper = Mappers.getMapper(RapportCCPMapper.class);
+    private final CompteCCPMapper compteCCPMapper = Mappers.getMapper(CompteCCPMapper.class);
+
+    private List<CompteCCP> comptes;
+
+    @Setup
+    public void setup() {
+        comptes = BenchmarkData.comptesCCP(rows);
+    }
+
+    /**
+     * Ligne par ligne, comme le parcours en flux du rapport "ETAT PORTEFEUILLE CLIENT M CCP".
+     */
+    @Benchmark
+    public void rapportCCPMapperToDetailDTO(Blackhole blackhole) {
+        for (CompteCCP compte : comptes) {
+            blackhole.consume(rapportCCPMapper.toDetailDTO(compte));
+        }
+    }
+
+    @Benchmark
+    public List<CompteCCPDetailDTO> compteCCPMapperToCompteCCPDetailDTOList() {
+        return compteCCPMapper.toCompteCCPDetailDTOList(comptes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MapperBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
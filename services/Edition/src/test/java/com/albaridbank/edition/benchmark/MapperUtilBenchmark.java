@@ -0,0 +1,62 @@
+package com.albaridbank.edition.benchmark;
+
+import com.albaridbank.edition.mappers.util.MapperUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatage des montants et des dates des rapports ({@link MapperUtil}), appelé pour chaque
+ * ligne et chaque colonne concernée.
+ *
+ * <p>Chaque appel porte sur la valeur suivante d'un jeu de 1 024 valeurs, pour ne pas mesurer
+ * le formatage d'une constante. Lancement avec le profileur GC : {@link #main(String[])}, ou
+ * {@code org.openjdk.jmh.Main MapperUtilBenchmark -prof gc}.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperUtilBenchmark {
+
+    private static final int VALEURS = 1024;
+
+    private final BigDecimal[] montants = new BigDecimal[VALEURS];
+    private final LocalDate[] dates = new LocalDate[VALEURS];
+    private int indice;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < VALEURS; i++) {
+            montants[i] = BenchmarkData.montant(i * 104_729);
+            dates[i] = BenchmarkData.dateNaissance(i * 37);
+        }
+    }
+
+    @Benchmark
+    public String formatMontant() {
+        indice = (indice + 1) & (VALEURS - 1);
+        return MapperUtil.formatMontant(montants[indice]);
+    }
+
+    @Benchmark
+    public String formatDate() {
+        indice = (indice + 1) & (VALEURS - 1);
+        return MapperUtil.formatDate(dates[indice]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MapperUtilBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
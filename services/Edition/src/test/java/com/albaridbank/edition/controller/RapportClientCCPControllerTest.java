@@ -0,0 +1,202 @@
+package com.albaridbank.edition.controller;
+
+import com.albaridbank.edition.config.ReportProperties;
+import com.albaridbank.edition.dto.rapport.CompteMouvementVeilleDTO;
+import com.albaridbank.edition.dto.rapport.NbrTotalEncoursCCPDTO;
+import com.albaridbank.edition.dto.rapport.PortefeuilleClientCCPRapportDTO;
+import com.albaridbank.edition.service.interfaces.RapportCCPService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETag et Cache-Control des rapports CCP : une requête dont l'en-tête If-None-Match porte encore la
+ * version courante reçoit 304 sans que le rapport soit calculé ; une version changée renvoie le rapport.
+ * Variantes NDJSON : choisies sur l'en-tête Accept, terminées par une ligne d'erreur si le flux échoue
+ * après son en-tête.
+ */
+class RapportClientCCPControllerTest {
+
+    private static final String ETAG_ENCOURS = "\"encours-2026-10-18-1000-42.3\"";
+    private static final String ETAG_VEILLE = "\"mvt-veille-1000-57\"";
+
+    private final RapportCCPService rapportCCPService = mock(RapportCCPService.class);
+    private final ReportProperties reportProperties = new ReportProperties();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void demarrer() {
+        when(rapportCCPService.versionRapportEncoursGlobal(1000L))
+                .thenReturn(new RapportCCPService.VersionRapport(ETAG_ENCOURS, false));
+        when(rapportCCPService.genererRapportEncoursGlobal(1000L)).thenReturn(NbrTotalEncoursCCPDTO.builder()
+                .codeBureau(1000L)
+                .designationBureau("RABAT RP")
+                .journeeDu(LocalDate.now())
+                .nombreComptes(150L)
+                .totalEncours(BigDecimal.TEN)
+                .build());
+        when(rapportCCPService.versionRapportMouvements(1000L, 1))
+                .thenReturn(new RapportCCPService.VersionRapport(ETAG_VEILLE, true));
+        when(rapportCCPService.versionRapportMouvements(1000L, 0))
+                .thenReturn(new RapportCCPService.VersionRapport("\"mvt-jour-1000-60\"", false));
+        when(rapportCCPService.rapportMouvementVeille(anyLong(), any(), anyInt(), any()))
+                .thenReturn(new CompteMouvementVeilleDTO());
+        when(rapportCCPService.rapportMouvementVeilleComplet(anyLong(), any(), anyInt()))
+                .thenReturn(new CompteMouvementVeilleDTO());
+
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new RapportClientCCPController(rapportCCPService, reportProperties, new ObjectMapper())).build();
+    }
+
+    @Test
+    void encoursInchangeRepondNotModifiedSansCalculerLeRapport() throws Exception {
+        mockMvc.perform(get("/api/v1/rapportccp/encours-global/1000"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG_ENCOURS))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(content().json("{\"nombreComptes\":150}"));
+
+        mockMvc.perform(get("/api/v1/rapportccp/encours-global/1000").header(HttpHeaders.IF_NONE_MATCH, ETAG_ENCOURS))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG_ENCOURS))
+                .andExpect(content().string(""));
+
+        verify(rapportCCPService, times(1)).genererRapportEncoursGlobal(1000L);
+    }
+
+    @Test
+    void versionChangeeRenvoieLeRapport() throws Exception {
+        mockMvc.perform(get("/api/v1/rapportccp/encours-global/1000").header(HttpHeaders.IF_NONE_MATCH, "\"encours-2026-10-18-1000-41.3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG_ENCOURS));
+
+        verify(rapportCCPService, times(1)).genererRapportEncoursGlobal(1000L);
+    }
+
+    @Test
+    void journeeCloseReutiliseeSansRevalidation() throws Exception {
+        mockMvc.perform(get("/api/v1/rapportccp/compte-mouvement-veille")
+                        .param("codeAgence", "1000")
+                        .param("joursAvant", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG_VEILLE))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=600, private"));
+
+        mockMvc.perform(get("/api/v1/rapportccp/compte-mouvement-veille/complet")
+                        .param("codeAgence", "1000")
+                        .param("joursAvant", "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, ETAG_VEILLE))
+                .andExpect(status().isNotModified());
+
+        verify(rapportCCPService, never()).rapportMouvementVeilleComplet(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void rapportCompletDuJourSansEtag() throws Exception {
+        mockMvc.perform(get("/api/v1/rapportccp/compte-mouvement-veille/complet")
+                        .param("codeAgence", "1000")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"mvt-jour-1000-60\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void cacheHttpDesactiveNeLitPasLaVersion() throws Exception {
+        reportProperties.getHttpCache().setEnabled(false);
+
+        mockMvc.perform(get("/api/v1/rapportccp/encours-global/1000").header(HttpHeaders.IF_NONE_MATCH, ETAG_ENCOURS))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        verify(rapportCCPService, never()).versionRapportEncoursGlobal(anyLong());
+    }
+
+    @Test
+    void portefeuilleEnJsonSaufAcceptNdjson() throws Exception {
+        when(rapportCCPService.genererRapportPortefeuilleClientFiltre(eq(1000L), any(), any(), any()))
+                .thenReturn(portefeuille());
+
+        mockMvc.perform(get("/api/v1/rapportccp/portefeuille-general").param("codeBureau", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/api/v1/rapportccp/portefeuille-general").param("codeBureau", "1000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void fluxInterrompuApresEnTeteTermineParUneLigneErreur() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<PortefeuilleClientCCPRapportDTO> entete = invocation.getArgument(4);
+            entete.accept(portefeuille());
+            throw new IllegalStateException("connexion perdue");
+        }).when(rapportCCPService).fluxRapportPortefeuilleClientGlobal(eq(1000L), any(), any(), any(), any(), any());
+
+        MvcResult resultat = mockMvc.perform(get("/api/v1/rapportccp/portefeuille-general")
+                        .param("codeBureau", "1000")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lignes = mockMvc.perform(asyncDispatch(resultat))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(2, lignes.length);
+        assertTrue(lignes[0].contains("\"codburpo\":1000"));
+        assertTrue(lignes[1].contains("\"status\":500"), lignes[1]);
+    }
+
+    @Test
+    void fluxEnErreurAvantEnTeteGardeSonStatut() throws Exception {
+        doAnswer(invocation -> {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Bureau non trouvé");
+        }).when(rapportCCPService).fluxRapportMouvementVeilleComplet(eq(1000L), any(), any(), any(), any());
+
+        MvcResult resultat = mockMvc.perform(get("/api/v1/rapportccp/compte-mouvement-veille/complet")
+                        .param("codeAgence", "1000")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultat))
+                .andExpect(status().isNotFound());
+    }
+
+    private static PortefeuilleClientCCPRapportDTO portefeuille() {
+        PortefeuilleClientCCPRapportDTO rapport = new PortefeuilleClientCCPRapportDTO();
+        rapport.setCodburpo(1000L);
+        return rapport;
+    }
+}
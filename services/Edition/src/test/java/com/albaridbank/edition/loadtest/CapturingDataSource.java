@@ -0,0 +1,132 @@
+package com.albaridbank.edition.loadtest;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link DataSource} qui enregistre le SQL et les paramètres liés des requêtes exécutées pendant
+ * une {@link #capturer(Runnable) capture}, pour les rejouer ensuite en {@code EXPLAIN}.
+ *
+ * <p>Seuls les {@link PreparedStatement} sont interceptés (c'est ce qu'émet Hibernate) : chaque
+ * appel {@code setXxx(index, ...)} est mémorisé puis réappliqué tel quel sur la requête
+ * {@code EXPLAIN}. Hors capture, la connexion se comporte exactement comme celle du pool.</p>
+ */
+final class CapturingDataSource extends DelegatingDataSource {
+
+    private final ThreadLocal<List<RequeteCapturee>> capture = new ThreadLocal<>();
+
+    CapturingDataSource(DataSource cible) {
+        super(cible);
+    }
+
+    /**
+     * Requête SQL exécutée et appels de liaison de ses paramètres, dans l'ordre.
+     *
+     * @param sql      Le texte SQL envoyé au pilote
+     * @param liaisons Les appels {@code setXxx} à rejouer
+     */
+    record RequeteCapturee(String sql, List<Liaison> liaisons) {
+
+        /**
+         * Lie les paramètres enregistrés sur une requête préparée à partir du même SQL (préfixé).
+         *
+         * @param statement La requête cible
+         * @throws SQLException Si le pilote refuse une valeur
+         */
+        void lier(PreparedStatement statement) throws SQLException {
+            for (Liaison liaison : liaisons) {
+                try {
+                    liaison.methode().invoke(statement, liaison.arguments());
+                } catch (InvocationTargetException e) {
+                    throw e.getCause() instanceof SQLException sqlException
+                            ? sqlException
+                            : new SQLException(e.getCause());
+                } catch (IllegalAccessException e) {
+                    throw new SQLException(e);
+                }
+            }
+        }
+    }
+
+    record Liaison(Method methode, Object[] arguments) {
+    }
+
+    /**
+     * Exécute une action en enregistrant les requêtes qu'elle émet sur le thread courant.
+     *
+     * @param action L'action à observer
+     * @return Les requêtes exécutées, dans l'ordre
+     */
+    List<RequeteCapturee> capturer(Runnable action) {
+        List<RequeteCapturee> requetes = new ArrayList<>();
+        capture.set(requetes);
+        try {
+            action.run();
+        } finally {
+            capture.remove();
+        }
+        return requetes;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connexion(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connexion(super.getConnection(username, password));
+    }
+
+    private Connection connexion(Connection cible) {
+        InvocationHandler handler = (proxy, methode, arguments) -> {
+            Object resultat = invoquer(cible, methode, arguments);
+            if (resultat instanceof PreparedStatement statement
+                    && methode.getName().equals("prepareStatement")) {
+                return requete(statement, (String) arguments[0]);
+            }
+            return resultat;
+        };
+        return (Connection) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private PreparedStatement requete(PreparedStatement cible, String sql) {
+        List<Liaison> liaisons = new ArrayList<>();
+        InvocationHandler handler = (proxy, methode, arguments) -> {
+            String nom = methode.getName();
+            if (nom.startsWith("set") && arguments != null && arguments.length > 1
+                    && arguments[0] instanceof Integer) {
+                liaisons.add(new Liaison(methode, arguments.clone()));
+            } else if (nom.equals("clearParameters")) {
+                liaisons.clear();
+            } else if (nom.startsWith("execute") && (arguments == null || arguments.length == 0)) {
+                List<RequeteCapturee> requetes = capture.get();
+                if (requetes != null) {
+                    requetes.add(new RequeteCapturee(sql, List.copyOf(liaisons)));
+                }
+            }
+            return invoquer(cible, methode, arguments);
+        };
+        return (PreparedStatement) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class}, handler);
+    }
+
+    private static Object invoquer(Object cible, Method methode, Object[] arguments) throws Throwable {
+        try {
+            return methode.invoke(cible, arguments);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
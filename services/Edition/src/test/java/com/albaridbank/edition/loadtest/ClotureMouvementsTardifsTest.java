@@ -0,0 +1,158 @@
+package com.albaridbank.edition.loadtest;
+
+import com.albaridbank.edition.config.ReportProperties;
+import com.albaridbank.edition.model.ccp.ClotureMouvementsCCP;
+import com.albaridbank.edition.repositorys.ccp.ClotureMouvementsCCPRepository;
+import com.albaridbank.edition.service.impl.ClotureMouvementsServiceImpl;
+import com.albaridbank.edition.service.impl.VersionDonneesServiceImpl;
+import com.albaridbank.edition.service.interfaces.VersionDonneesService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clôtures des journées de mouvements CCP sur une base PostgreSQL embarquée : un mouvement arrivé
+ * après la clôture de sa journée n'est jamais masqué par la clôture, qui est réécrite au passage
+ * suivant pour le seul bureau concerné ; un intitulé de compte changé n'est pas masqué non plus.
+ */
+class ClotureMouvementsTardifsTest {
+
+    private static final LoadTestDataset DATASET = new LoadTestDataset(2, 200, 400, 2);
+
+    private static EmbeddedPostgres postgres;
+    private static ConfigurableApplicationContext context;
+
+    private JdbcTemplate jdbc;
+    private ReportProperties proprietes;
+    private VersionDonneesService versions;
+    private ClotureMouvementsServiceImpl service;
+
+    @BeforeAll
+    static void demarrer() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(LoadTestConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.config.import=",
+                        "--spring.cloud.config.enabled=false",
+                        "--spring.cloud.discovery.enabled=false",
+                        "--eureka.client.enabled=false",
+                        "--spring.flyway.baseline-on-migrate=true",
+                        "--spring.jpa.open-in-view=false",
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+                        "--logging.level.root=WARN");
+    }
+
+    @AfterAll
+    static void arreter() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void charger() {
+        jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        jdbc.execute("TRUNCATE clotureMouvementsCCP");
+        DATASET.charger(jdbc);
+
+        proprietes = new ReportProperties();
+        versions = new VersionDonneesServiceImpl(jdbc);
+        service = new ClotureMouvementsServiceImpl(
+                context.getBean(ClotureMouvementsCCPRepository.class), jdbc, proprietes);
+    }
+
+    @Test
+    void mouvementTardifRelitLesMouvementsPuisReclotureLeSeulBureauConcerne() {
+        LocalDate veille = DATASET.derniereJournee();
+        long bureau = DATASET.codeBureau(0);
+
+        assertEquals(DATASET.bureaux(), service.cloturerJournee(veille));
+        ClotureMouvementsCCP cloture = cloture(veille, bureau).orElseThrow();
+        int mouvements = cloture.getNombreMouvements();
+
+        // Mouvement de la veille saisi après la clôture
+        jdbc.update("""
+                INSERT INTO mvtFinancierCCP (cptemouv, datemouv, numemouv, sensmouv, montmouv, datevale, solddepa,
+                    codburpo, numeordr, dateoper, codtypop, datcreatemvt)
+                VALUES (?, ?, 999999999, 'C', 1234.56, ?, 0, ?, 1, ?, 1, ?)
+                """, LoadTestDataset.PREMIER_COMPTE_CCP + DATASET.comptesBureau(0, 1).getFirst(),
+                veille, veille, bureau, veille, veille.atTime(23, 59));
+
+        assertTrue(cloture(veille, bureau).isEmpty(), "Clôture périmée servie malgré le mouvement tardif");
+        assertTrue(cloture(veille, DATASET.codeBureau(1)).isPresent(), "Clôture d'un bureau inchangé");
+
+        assertEquals(1, service.cloturerJournee(veille), "Seul le bureau du mouvement tardif est reclôturé");
+        ClotureMouvementsCCP reclotures = cloture(veille, bureau).orElseThrow();
+        assertEquals(mouvements + 1, reclotures.getNombreMouvements());
+        assertTrue(reclotures.getMouvements().stream().anyMatch(mouvement -> mouvement.numemouv() == 999_999_999));
+
+        assertEquals(0, service.cloturerJournee(veille), "Aucune écriture sans changement");
+    }
+
+    @Test
+    void intituleChangeRelitLesMouvementsPuisReclotureAvecLeNouveauLibelle() {
+        LocalDate veille = DATASET.derniereJournee();
+        long bureau = DATASET.codeBureau(0);
+        assertEquals(DATASET.bureaux(), service.cloturerJournee(veille));
+        long compte = cloture(veille, bureau).orElseThrow().getMouvements().getFirst().idencomp();
+
+        // Une modification sans effet sur les libellés ne change pas la version
+        jdbc.update("UPDATE compteCCP SET adrecomp = 'NOUVELLE ADRESSE', inticomp = inticomp WHERE idencomp = ?", compte);
+        assertTrue(cloture(veille, bureau).isPresent(), "Clôture écartée sans changement de libellé");
+
+        jdbc.update("UPDATE compteCCP SET inticomp = 'COMPTE RENOMME' WHERE idencomp = ?", compte);
+        assertTrue(cloture(veille, bureau).isEmpty(), "Clôture servie avec l'ancien intitulé");
+
+        assertEquals(DATASET.bureaux(), service.cloturerJournee(veille), "Les libellés sont lus par tous les bureaux");
+        assertTrue(cloture(veille, bureau).orElseThrow().getMouvements().stream()
+                .filter(mouvement -> mouvement.idencomp() == compte)
+                .allMatch(mouvement -> "COMPTE RENOMME".equals(mouvement.inticomp())));
+    }
+
+    @Test
+    void journeeClotureeApresLeDelai() {
+        LocalDate veille = DATASET.derniereJournee();
+        LocalDate avantVeille = veille.minusDays(1);
+
+        // Aucune journée n'est close depuis plus de 48 heures
+        proprietes.getCloture().setDelai(Duration.ofHours(48));
+        service.cloturerJourneesManquantes();
+        assertTrue(cloture(veille, DATASET.codeBureau(0)).isEmpty());
+        assertTrue(cloture(avantVeille, DATASET.codeBureau(0)).isEmpty());
+
+        // L'avant-veille est close depuis plus de 24 heures, la veille pas forcément
+        proprietes.getCloture().setDelai(Duration.ofHours(24));
+        service.cloturerJourneesManquantes();
+        assertTrue(cloture(avantVeille, DATASET.codeBureau(0)).isPresent());
+
+        proprietes.getCloture().setDelai(Duration.ZERO);
+        service.cloturerJourneesManquantes();
+        assertTrue(cloture(veille, DATASET.codeBureau(0)).isPresent());
+    }
+
+    private Optional<ClotureMouvementsCCP> cloture(LocalDate journee, long codeBureau) {
+        return service.trouverCloture(journee, codeBureau, versions.versionMouvements(journee, codeBureau));
+    }
+}
@@ -0,0 +1,111 @@
+package com.albaridbank.edition.loadtest;
+
+import com.albaridbank.edition.config.ReportProperties;
+import com.albaridbank.edition.dto.base.MouvementFinancierDTO;
+import com.albaridbank.edition.dto.base.PortefeuilleClientCCPDetailDTO;
+import com.albaridbank.edition.dto.rapport.CompteMouvementVeilleDTO;
+import com.albaridbank.edition.dto.rapport.PortefeuilleClientCCPRapportDTO;
+import com.albaridbank.edition.repositorys.ccp.ClotureMouvementsCCPRepository;
+import com.albaridbank.edition.service.impl.ClotureMouvementsServiceImpl;
+import com.albaridbank.edition.service.interfaces.RapportCCPService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rapports CCP en flux sur une base PostgreSQL embarquée : l'en-tête et les lignes sont lus dans le
+ * même instantané, une écriture validée entre les deux n'apparaît pas dans les lignes qui suivent.
+ */
+class FluxRapportsInstantaneTest {
+
+    private static final LoadTestDataset DATASET = new LoadTestDataset(2, 400, 300, 1);
+
+    private static final BigDecimal MONTANT_TARDIF = new BigDecimal("987654.32");
+
+    private static LoadTestDatabase base;
+    private static JdbcTemplate jdbc;
+    private static RapportCCPService service;
+
+    @BeforeAll
+    static void demarrer() throws IOException {
+        base = LoadTestDatabase.demarrer();
+        jdbc = base.jdbc();
+        DATASET.charger(jdbc);
+
+        // Sans clôture : la veille est relue dans mvtFinancierCCP
+        ReportProperties proprietes = new ReportProperties();
+        proprietes.getCloture().setEnabled(false);
+        service = base.rapportCCPService(
+                new ClotureMouvementsServiceImpl(base.bean(ClotureMouvementsCCPRepository.class), jdbc, proprietes));
+    }
+
+    @AfterAll
+    static void arreter() throws IOException {
+        if (base != null) {
+            base.close();
+        }
+    }
+
+    @Test
+    void mouvementValideApresEnTeteAbsentDesLignes() {
+        long bureau = DATASET.codeBureau(0);
+        LocalDate veille = DATASET.derniereJournee();
+        List<CompteMouvementVeilleDTO> entetes = new ArrayList<>();
+        List<MouvementFinancierDTO> lignes = new ArrayList<>();
+
+        service.fluxRapportMouvementVeilleComplet(bureau, BigDecimal.ZERO, 1,
+                entete -> {
+                    entetes.add(entete);
+                    // Validé par une autre connexion pendant le flux
+                    CompletableFuture.runAsync(() -> jdbc.update("""
+                            INSERT INTO mvtFinancierCCP (cptemouv, datemouv, numemouv, sensmouv, montmouv, datevale,
+                                solddepa, codburpo, numeordr, dateoper, codtypop, datcreatemvt)
+                            VALUES (?, ?, 999999999, 'C', ?, ?, 0, ?, 1, ?, 1, ?)
+                            """, LoadTestDataset.PREMIER_COMPTE_CCP + DATASET.comptesBureau(0, 1).getFirst(),
+                            veille, MONTANT_TARDIF, veille, bureau, veille, veille.atTime(23, 59))).join();
+                },
+                lignes::add);
+
+        assertEquals(1, entetes.size());
+        assertTrue(lignes.size() > 1, "Mouvements du bureau: " + lignes.size());
+        assertTrue(lignes.stream().noneMatch(ligne -> MONTANT_TARDIF.compareTo(ligne.getMontmouv()) == 0),
+                "Mouvement validé après l'en-tête lu avec les lignes");
+
+        List<MouvementFinancierDTO> relues = new ArrayList<>();
+        service.fluxRapportMouvementVeilleComplet(bureau, BigDecimal.ZERO, 1, entete -> {
+        }, relues::add);
+        assertEquals(lignes.size() + 1, relues.size());
+    }
+
+    @Test
+    void compteAjouteApresEnTeteAbsentDesLignes() {
+        long bureau = DATASET.codeBureau(1);
+        List<PortefeuilleClientCCPRapportDTO> entetes = new ArrayList<>();
+        List<PortefeuilleClientCCPDetailDTO> lignes = new ArrayList<>();
+
+        service.fluxRapportPortefeuilleClientGlobal(bureau, null, "N", null,
+                entete -> {
+                    entetes.add(entete);
+                    CompletableFuture.runAsync(() -> jdbc.update("""
+                            INSERT INTO compteCCP (idencomp, idenclie, inticomp, soldcour, codbpcpt, codetacp, codeprod)
+                            VALUES (?, 1, 'COMPTE TARDIF', 1, ?, 'N', 1)
+                            """, LoadTestDataset.PREMIER_COMPTE_CCP + 99_999_999L, bureau)).join();
+                },
+                lignes::add);
+
+        assertEquals(1, entetes.size());
+        assertEquals(entetes.getFirst().getNombreTotalComptes(), lignes.size(),
+                "Les totaux de l'en-tête comptent les lignes qui suivent");
+    }
+}
@@ -0,0 +1,36 @@
+package com.albaridbank.edition.loadtest;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import javax.sql.DataSource;
+
+/**
+ * Contexte Spring minimal du banc de charge : la couche JPA de l'application (entités,
+ * repositories, Flyway) sans les services, le web ni la configuration distante.
+ *
+ * <p>La {@link DataSource} du pool est enveloppée dans une {@link CapturingDataSource} pour
+ * retrouver le SQL et les paramètres réellement émis par chaque repository.</p>
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan("com.albaridbank.edition.model")
+@EnableJpaRepositories("com.albaridbank.edition.repositorys")
+class LoadTestConfiguration {
+
+    @Bean
+    static BeanPostProcessor capturingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof CapturingDataSource)
+                        ? new CapturingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+}
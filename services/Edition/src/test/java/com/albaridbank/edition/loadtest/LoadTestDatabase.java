@@ -0,0 +1,134 @@
+package com.albaridbank.edition.loadtest;
+
+import com.albaridbank.edition.mappers.ccp.CompteCCPMapper;
+import com.albaridbank.edition.mappers.ccp.MvtFinancierCCPMapper;
+import com.albaridbank.edition.mappers.rapport.RapportCCPMapper;
+import com.albaridbank.edition.repositorys.ccp.BureauPosteCCPRepository;
+import com.albaridbank.edition.repositorys.ccp.CompteCCPRepository;
+import com.albaridbank.edition.repositorys.ccp.MvtFinancierCCPRepository;
+import com.albaridbank.edition.repositorys.ccp.StatBureauCCPRepository;
+import com.albaridbank.edition.service.impl.RapportCCPServiceImpl;
+import com.albaridbank.edition.service.impl.VersionDonneesServiceImpl;
+import com.albaridbank.edition.service.interfaces.ClotureMouvementsService;
+import com.albaridbank.edition.service.interfaces.RapportCCPService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.mapstruct.factory.Mappers;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+/**
+ * Base PostgreSQL embarquée des tests de rapports : démarre PostgreSQL, applique les migrations Flyway
+ * dans le contexte {@link LoadTestConfiguration} et construit les services à tester sur ses repositories.
+ *
+ * <p>Les services sont enveloppés dans l'intercepteur transactionnel de Spring, qui applique leurs
+ * annotations {@code @Transactional} comme le ferait le contexte de l'application.</p>
+ */
+final class LoadTestDatabase implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+    private final JdbcTemplate jdbc;
+
+    private LoadTestDatabase(EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+        this.jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+    }
+
+    /**
+     * Démarre une base embarquée vide, migrée jusqu'à la dernière version.
+     *
+     * @return La base démarrée, à fermer après les tests
+     * @throws IOException Si PostgreSQL ne démarre pas
+     */
+    static LoadTestDatabase demarrer() throws IOException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        try {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(LoadTestConfiguration.class)
+                    .web(WebApplicationType.NONE)
+                    .run(
+                            "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                            "--spring.datasource.username=postgres",
+                            "--spring.config.import=",
+                            "--spring.cloud.config.enabled=false",
+                            "--spring.cloud.discovery.enabled=false",
+                            "--eureka.client.enabled=false",
+                            "--spring.flyway.baseline-on-migrate=true",
+                            "--spring.jpa.open-in-view=false",
+                            "--spring.jpa.hibernate.ddl-auto=none",
+                            "--spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+                            "--logging.level.root=WARN");
+            return new LoadTestDatabase(postgres, context);
+        } catch (RuntimeException e) {
+            postgres.close();
+            throw e;
+        }
+    }
+
+    JdbcTemplate jdbc() {
+        return jdbc;
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Service des rapports CCP sur les repositories de la base, avec ses transactions.
+     *
+     * @param clotures Les clôtures de journées lues par les rapports de mouvements
+     * @return Le service transactionnel
+     */
+    RapportCCPService rapportCCPService(ClotureMouvementsService clotures) {
+        return transactionnel(new RapportCCPServiceImpl(
+                Mappers.getMapper(MvtFinancierCCPMapper.class),
+                bean(CompteCCPRepository.class),
+                Mappers.getMapper(RapportCCPMapper.class),
+                Mappers.getMapper(CompteCCPMapper.class),
+                bean(BureauPosteCCPRepository.class),
+                bean(MvtFinancierCCPRepository.class),
+                bean(StatBureauCCPRepository.class),
+                clotures,
+                new VersionDonneesServiceImpl(jdbc),
+                SharedEntityManagerCreator.createSharedEntityManager(bean(EntityManagerFactory.class))),
+                RapportCCPService.class);
+    }
+
+    /**
+     * Enveloppe un service dans l'intercepteur transactionnel de la base.
+     *
+     * @param service Le service annoté {@code @Transactional}
+     * @param type    L'interface exposée par le proxy
+     * @return Le proxy transactionnel du service
+     */
+    <T> T transactionnel(T service, Class<T> type) {
+        TransactionInterceptor transactions = new TransactionInterceptor();
+        transactions.setTransactionManager(bean(PlatformTransactionManager.class));
+        transactions.setTransactionAttributeSource(new AnnotationTransactionAttributeSource());
+
+        ProxyFactory proxy = new ProxyFactory(service);
+        proxy.addInterface(type);
+        proxy.addAdvice(transactions);
+        return type.cast(proxy.getProxy());
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            context.close();
+        } finally {
+            postgres.close();
+        }
+    }
+}
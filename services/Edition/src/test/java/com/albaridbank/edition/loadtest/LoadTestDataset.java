@@ -0,0 +1,194 @@
+package com.albaridbank.edition.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Jeu de données synthétique du banc de charge : {@code bureaux} bureaux CCP et CEN,
+ * {@code comptes} comptes de chaque réseau et {@code mouvements} mouvements CCP et opérations
+ * CEN par jour sur les {@code jours} jours précédant la date du jour.
+ *
+ * <p>Tout est généré en SQL ({@code generate_series}) et les distributions sont déterministes :
+ * le compte {@code n} appartient au bureau {@code PREMIER_BUREAU + n % bureaux}, les états des
+ * comptes CCP suivent le cycle (N, N, N, N, C, B, O) et un compte CEN sur cinq est clôturé
+ * (code 4). Les tables du rapport sont vidées avant le chargement : ne jamais pointer le
+ * banc sur une base partagée.</p>
+ *
+ * @param bureaux    Le nombre de bureaux
+ * @param comptes    Le nombre de comptes CCP, et de comptes CEN
+ * @param mouvements Le nombre de mouvements CCP, et d'opérations CEN, par jour
+ * @param jours      Le nombre de jours de mouvements, jusqu'à la veille
+ */
+record LoadTestDataset(int bureaux, int comptes, int mouvements, int jours) {
+
+    static final long PREMIER_BUREAU = 10_001L;
+
+    static final long PREMIER_COMPTE_CCP = 1_000_000_000L;
+
+    /**
+     * Dimensions lues dans les propriétés système {@code loadtest.bureaux}, {@code loadtest.comptes},
+     * {@code loadtest.mouvements} et {@code loadtest.jours}.
+     *
+     * @return Le jeu de données demandé (20 bureaux, 100 000 comptes, 20 000 mouvements par jour
+     * sur 5 jours par défaut)
+     */
+    static LoadTestDataset depuisProprietes() {
+        return new LoadTestDataset(
+                Integer.getInteger("loadtest.bureaux", 20),
+                Integer.getInteger("loadtest.comptes", 100_000),
+                Integer.getInteger("loadtest.mouvements", 20_000),
+                Integer.getInteger("loadtest.jours", 5));
+    }
+
+    LoadTestDataset {
+        if (bureaux < 1 || bureaux > 89_999 || comptes < bureaux || comptes > 99_999_999
+                || mouvements < 1 || jours < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Jeu de données invalide: %d bureaux, %d comptes, %d mouvements, %d jours",
+                    bureaux, comptes, mouvements, jours));
+        }
+    }
+
+    /**
+     * Code du bureau de rang donné.
+     *
+     * @param rang Le rang du bureau (0 à {@code bureaux - 1})
+     * @return Le code du bureau
+     */
+    long codeBureau(int rang) {
+        return PREMIER_BUREAU + rang;
+    }
+
+    /**
+     * Code de région d'un bureau (12 régions).
+     *
+     * @param rang Le rang du bureau
+     * @return Le code de région
+     */
+    int codeRegion(int rang) {
+        return 1 + (int) (codeBureau(rang) % 12);
+    }
+
+    /**
+     * Numéros des premiers comptes d'un bureau (identiques en CCP, au préfixe près, et en CEN).
+     *
+     * @param rang   Le rang du bureau
+     * @param nombre Le nombre de comptes voulus
+     * @return Les numéros de compte (suffixe CEN)
+     */
+    List<Long> comptesBureau(int rang, int nombre) {
+        return LongStream.iterate(rang == 0 ? bureaux : rang, n -> n <= comptes, n -> n + bureaux)
+                .limit(nombre)
+                .boxed()
+                .toList();
+    }
+
+    /**
+     * Dernière journée de mouvements (la veille).
+     *
+     * @return La journée
+     */
+    LocalDate derniereJournee() {
+        return LocalDate.now().minusDays(1);
+    }
+
+    /**
+     * Vide les tables des rapports CCP et CEN puis charge le jeu de données et met à jour les
+     * statistiques du planificateur et la carte de visibilité (parcours d'index seuls).
+     *
+     * @param jdbc L'accès à la base
+     */
+    void charger(JdbcTemplate jdbc) {
+        long lignes = (long) mouvements * jours;
+
+        jdbc.execute("""
+                TRUNCATE mvtFinancierCCP, compteCCP, clientCCP, bureauPosteCCP, catSocioProfCCP, typeOperationCCP,
+                    operCompCEN, compteCEN, clientCEN, burePostCEN, catSociProfCEN, typeOperCEN CASCADE
+                """);
+
+        // CCP
+        jdbc.update("""
+                INSERT INTO typeOperationCCP (codtypop, libtypop)
+                SELECT g, 'OPERATION CCP ' || g FROM generate_series(1, 20) g
+                """);
+        jdbc.update("""
+                INSERT INTO catSocioProfCCP (codsocpr, libsocpr)
+                SELECT g, 'CATEGORIE ' || g FROM generate_series(1, 10) g
+                """);
+        jdbc.update("""
+                INSERT INTO bureauPosteCCP (codburpo, desburpo, coderegi)
+                SELECT ? + g, 'BUREAU ' || g, 1 + (? + g) % 12 FROM generate_series(0, ? - 1) g
+                """, PREMIER_BUREAU, PREMIER_BUREAU, bureaux);
+        jdbc.update("""
+                INSERT INTO clientCCP (idenclie, codsocpr, desiclie, numpieid, numetele, datenais)
+                SELECT g, 1 + g % 10, 'CLIENT ' || g, 'AB' || g, '06' || lpad(g::text, 8, '0'),
+                    DATE '1950-01-01' + g % 20000
+                FROM generate_series(1, ?) g
+                """, comptes);
+        jdbc.update("""
+                INSERT INTO compteCCP (idencomp, idenclie, inticomp, inticond, adrecomp, soldcour, soldoppo, soldtaxe,
+                    solddebo, solddeco, solopede, soldcert, codbpcpt, codetacp, codeprod, datesold)
+                SELECT ? + g, g, 'COMPTE ' || g, 'MANDATAIRE ' || g, 'RUE ' || g || ' RABAT',
+                    (g::bigint * 7919 % 10000000) / 100.0, g % 5, g % 3, g % 7, g % 11, g % 13, g % 17,
+                    ? + g % ?, (ARRAY['N', 'N', 'N', 'N', 'C', 'B', 'O'])[1 + g % 7], 1 + g % 4, CURRENT_DATE
+                FROM generate_series(1, ?) g
+                """, PREMIER_COMPTE_CCP, PREMIER_BUREAU, bureaux, comptes);
+        jdbc.queryForObject("SELECT creer_partitions_mvt_ccp(CAST(? AS DATE), CURRENT_DATE)", Integer.class,
+                derniereJournee().minusDays(jours));
+        jdbc.update("""
+                INSERT INTO mvtFinancierCCP (cptemouv, datemouv, numemouv, sensmouv, montmouv, datevale, solddepa,
+                    codburpo, numeordr, dateoper, codtypop, datcreatemvt)
+                SELECT ? + m.compte, m.jour, m.g, m.sens,
+                    CASE m.sens WHEN 'D' THEN -1 ELSE 1 END * (m.g * 31 % 1000000) / 100.0, m.jour, 0,
+                    ? + m.compte % ?, 1 + m.g % 999999, m.jour, 1 + m.g % 20,
+                    m.jour + make_interval(secs => m.g % 86400)
+                FROM (SELECT g, 1 + g * 7919 % ? AS compte, CURRENT_DATE - 1 - ((g - 1) / ?)::int AS jour,
+                          CASE WHEN g % 2 = 0 THEN 'D' ELSE 'C' END AS sens
+                      FROM generate_series(1::bigint, ?) g) m
+                """, PREMIER_COMPTE_CCP, PREMIER_BUREAU, bureaux, comptes, mouvements, lignes);
+
+        // CEN
+        jdbc.update("""
+                INSERT INTO typeOperCEN (codtypop, libtypop)
+                SELECT g, 'OPERATION CEN ' || g FROM generate_series(1, 10) g
+                """);
+        jdbc.update("""
+                INSERT INTO catSociProfCEN (cocasopr, licasopr)
+                SELECT g, 'CATEGORIE ' || g FROM generate_series(1, 10) g
+                """);
+        jdbc.update("""
+                INSERT INTO burePostCEN (codburpo, desburpo, coderegi)
+                SELECT ? + g, 'BUREAU ' || g, 1 + (? + g) % 12 FROM generate_series(0, ? - 1) g
+                """, PREMIER_BUREAU, PREMIER_BUREAU, bureaux);
+        jdbc.update("""
+                INSERT INTO clientCEN (idenclie, cocasopr, desiclie, numpieid, numetele, datenais)
+                SELECT g, 1 + g % 10, 'CLIENT ' || g, 'CD' || g, '07' || lpad(g::text, 8, '0'),
+                    DATE '1950-01-01' + g % 20000
+                FROM generate_series(1, ?) g
+                """, comptes);
+        jdbc.update("""
+                INSERT INTO compteCEN (codeprod, idencomp, idenclie, codburpo, codetaco, inticomp, adrecomp,
+                    soldcour, durecomp, dateouve)
+                SELECT 1, g, g, ? + g % ?, 1 + g % 5, 'COMPTE ' || g, 'RUE ' || g || ' FES',
+                    (g::bigint * 6007 % 10000000) / 100.0, 12 + g % 48, DATE '2000-01-01' + g % 9000
+                FROM generate_series(1, ?) g
+                """, PREMIER_BUREAU, bureaux, comptes);
+        jdbc.queryForObject("SELECT creer_partitions_oper_cen(CAST(? AS DATE), CURRENT_DATE)", Integer.class,
+                derniereJournee().minusDays(jours));
+        jdbc.update("""
+                INSERT INTO operCompCEN (dateoper, codburpo, numeordr, codprode, compdebi, codprocr, compcred,
+                    codtypop, datevale, montoper)
+                SELECT o.jour, ? + o.compte % ?, o.g,
+                    CASE WHEN o.g % 2 = 0 THEN 1 END, CASE WHEN o.g % 2 = 0 THEN o.compte END,
+                    CASE WHEN o.g % 2 = 1 THEN 1 END, CASE WHEN o.g % 2 = 1 THEN o.compte END,
+                    1 + o.g % 10, o.jour, (o.g * 37 % 1000000) / 100.0
+                FROM (SELECT g, 1 + g * 6007 % ? AS compte, CURRENT_DATE - 1 - ((g - 1) / ?)::int AS jour
+                      FROM generate_series(1::bigint, ?) g) o
+                """, PREMIER_BUREAU, bureaux, comptes, mouvements, lignes);
+
+        jdbc.execute("VACUUM ANALYZE");
+    }
+}
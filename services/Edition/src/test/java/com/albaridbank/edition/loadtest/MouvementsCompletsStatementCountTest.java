@@ -0,0 +1,96 @@
+package com.albaridbank.edition.loadtest;
+
+import com.albaridbank.edition.dto.base.MouvementFinancierDTO;
+import com.albaridbank.edition.repositorys.ccp.MvtFinancierCCPRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Nombre de requêtes du rapport complet des mouvements CCP, compté par les statistiques Hibernate
+ * sur une base PostgreSQL embarquée : les lignes sont construites par la requête, qui reste seule
+ * quel que soit le nombre de mouvements (pas de chargement différé du compte, du bureau ou du type
+ * d'opération par mouvement).
+ */
+class MouvementsCompletsStatementCountTest {
+
+    private static final LoadTestDataset DATASET = new LoadTestDataset(2, 2_000, 4_000, 1);
+
+    private static EmbeddedPostgres postgres;
+    private static ConfigurableApplicationContext context;
+
+    @BeforeAll
+    static void demarrer() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(LoadTestConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.config.import=",
+                        "--spring.cloud.config.enabled=false",
+                        "--spring.cloud.discovery.enabled=false",
+                        "--eureka.client.enabled=false",
+                        "--spring.flyway.baseline-on-migrate=true",
+                        "--spring.jpa.open-in-view=false",
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--logging.level.root=WARN");
+        DATASET.charger(new JdbcTemplate(context.getBean(DataSource.class)));
+    }
+
+    @AfterAll
+    static void arreter() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void rapportCompletEnUneRequeteQuelQueSoitLeNombreDeMouvements() {
+        MvtFinancierCCPRepository repository = context.getBean(MvtFinancierCCPRepository.class);
+        Statistics statistics = context.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        BigDecimal codeBureau = BigDecimal.valueOf(DATASET.codeBureau(0));
+
+        int lignesPrecedentes = -1;
+        for (BigDecimal montantMinimum : List.of(BigDecimal.valueOf(1_000), BigDecimal.valueOf(500), BigDecimal.ZERO)) {
+            statistics.clear();
+
+            List<MouvementFinancierDTO> lignes = repository.findAllByDateMouvementAndCodeBureauAndMontantMin(
+                    DATASET.derniereJournee(), codeBureau, montantMinimum);
+
+            assertTrue(lignes.size() > lignesPrecedentes,
+                    "Le jeu de données doit donner plus de mouvements à chaque seuil: " + lignes.size());
+            assertTrue(lignes.stream().allMatch(ligne -> ligne.getInticomp() != null && ligne.getDesburpo() != null
+                    && ligne.getLibtypop() != null), "Compte, bureau et type d'opération joints dans la requête");
+            assertEquals(1, statistics.getPrepareStatementCount(),
+                    "Requêtes pour " + lignes.size() + " mouvements");
+            assertEquals(0, statistics.getEntityLoadCount(),
+                    "Entités chargées pour " + lignes.size() + " mouvements");
+            lignesPrecedentes = lignes.size();
+        }
+        assertTrue(lignesPrecedentes >= 1_000, "Mouvements du bureau: " + lignesPrecedentes);
+    }
+}
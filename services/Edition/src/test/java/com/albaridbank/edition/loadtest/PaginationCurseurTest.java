@@ -0,0 +1,174 @@
+package com.albaridbank.edition.loadtest;
+
+import com.albaridbank.edition.config.ReportProperties;
+import com.albaridbank.edition.dto.rapport.CompteMouvementVeilleDTO;
+import com.albaridbank.edition.dto.rapport.PortefeuilleClientCCPRapportDTO;
+import com.albaridbank.edition.dto.base.PortefeuilleClientCCPDetailDTO;
+import com.albaridbank.edition.repositorys.ccp.ClotureMouvementsCCPRepository;
+import com.albaridbank.edition.service.impl.ClotureMouvementsServiceImpl;
+import com.albaridbank.edition.service.interfaces.RapportCCPService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pagination par curseur des rapports CCP sur une base PostgreSQL embarquée : le parcours des pages
+ * renvoie chaque mouvement une seule fois, y compris ceux sans date de création, et reprend sur la
+ * clôture de la journée avec un curseur émis en direct ; le portefeuille est parcouru dans le même
+ * ordre par numéro de page et par curseur, comptes sans solde, sans client ou sans catégorie compris ;
+ * un curseur présenté avec un autre bureau, un autre montant minimum ou d'autres filtres est refusé (400).
+ */
+class PaginationCurseurTest {
+
+    private static final LoadTestDataset DATASET = new LoadTestDataset(2, 400, 300, 1);
+
+    private static final int TAILLE = 7;
+
+    private static LoadTestDatabase base;
+    private static JdbcTemplate jdbc;
+    private static ClotureMouvementsServiceImpl clotures;
+    private static RapportCCPService service;
+
+    @BeforeAll
+    static void demarrer() throws IOException {
+        base = LoadTestDatabase.demarrer();
+        jdbc = base.jdbc();
+        DATASET.charger(jdbc);
+
+        // Mouvements sans date de création : triés au 1er janvier 1970, en direct comme dans la clôture
+        jdbc.update("UPDATE mvtFinancierCCP SET datcreatemvt = NULL WHERE codburpo = ? AND numemouv % 10 = 0",
+                DATASET.codeBureau(0));
+
+        clotures = new ClotureMouvementsServiceImpl(
+                base.bean(ClotureMouvementsCCPRepository.class), jdbc, new ReportProperties());
+        service = base.rapportCCPService(clotures);
+    }
+
+    @AfterAll
+    static void arreter() throws IOException {
+        if (base != null) {
+            base.close();
+        }
+    }
+
+    @Test
+    void mouvementsParcourusUneSeuleFoisPuisRepriseSurLaCloture() {
+        long bureau = DATASET.codeBureau(0);
+        jdbc.execute("TRUNCATE clotureMouvementsCCP");
+
+        List<String> direct = parcourirMouvements(bureau, null);
+        assertEquals(jdbc.queryForObject("SELECT COUNT(*) FROM mvtFinancierCCP WHERE codburpo = ? AND datemouv = ?",
+                Integer.class, bureau, DATASET.derniereJournee()), direct.size());
+        assertEquals(direct.size(), new HashSet<>(direct).size(), "Mouvement renvoyé deux fois");
+
+        // Première page en direct, pages suivantes sur la clôture de la journée
+        CompteMouvementVeilleDTO premiere = service.rapportMouvementVeilleCurseur(bureau, BigDecimal.ZERO, 1, TAILLE, null);
+        clotures.cloturerJournee(DATASET.derniereJournee());
+        List<String> repris = cles(premiere);
+        repris.addAll(parcourirMouvements(bureau, premiere.getCurseurSuivant()));
+        assertEquals(direct, repris);
+    }
+
+    @Test
+    void curseurRefuseAvecAutresParametres() {
+        long bureau = DATASET.codeBureau(0);
+        String curseur = service.rapportMouvementVeilleCurseur(bureau, BigDecimal.TEN, 1, TAILLE, null)
+                .getCurseurSuivant();
+        assertNotNull(curseur);
+
+        // Même montant minimum sous une autre écriture
+        service.rapportMouvementVeilleCurseur(bureau, new BigDecimal("10.00"), 1, TAILLE, curseur);
+
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class, () ->
+                service.rapportMouvementVeilleCurseur(DATASET.codeBureau(1), BigDecimal.TEN, 1, TAILLE, curseur))
+                .getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class, () ->
+                service.rapportMouvementVeilleCurseur(bureau, BigDecimal.ONE, 1, TAILLE, curseur))
+                .getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class, () ->
+                service.rapportMouvementVeilleCurseur(bureau, BigDecimal.TEN, 2, TAILLE, curseur))
+                .getStatusCode());
+
+        PortefeuilleClientCCPRapportDTO portefeuille = service.genererRapportPortefeuilleClientCurseur(
+                bureau, TAILLE, null, "NORMAL", null);
+        service.genererRapportPortefeuilleClientCurseur(bureau, TAILLE, null, "N", portefeuille.getCurseurSuivant());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class, () ->
+                service.genererRapportPortefeuilleClientCurseur(bureau, TAILLE, 1, "N", portefeuille.getCurseurSuivant()))
+                .getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class, () ->
+                service.rapportMouvementVeilleCurseur(bureau, BigDecimal.TEN, 1, TAILLE, portefeuille.getCurseurSuivant()))
+                .getStatusCode());
+    }
+
+    @Test
+    void portefeuilleParcouruDansLeMemeOrdreParPageEtParCurseur() {
+        long bureau = DATASET.codeBureau(1);
+        // Sans client, client sans catégorie, solde absent (classé comme 0) ou négatif
+        jdbc.update("INSERT INTO clientCCP (idenclie, desiclie) VALUES (99999999, 'CLIENT SANS CATEGORIE')");
+        jdbc.update("""
+                INSERT INTO compteCCP (idencomp, idenclie, inticomp, soldcour, codbpcpt, codetacp, codeprod)
+                VALUES (?, NULL, 'SANS CLIENT', NULL, ?, 'N', 1),
+                       (?, 99999999, 'SANS CATEGORIE', NULL, ?, 'N', 1),
+                       (?, NULL, 'SOLDE NEGATIF', -5, ?, 'N', 1)
+                """, LoadTestDataset.PREMIER_COMPTE_CCP + 90_000_001L, bureau,
+                LoadTestDataset.PREMIER_COMPTE_CCP + 90_000_002L, bureau,
+                LoadTestDataset.PREMIER_COMPTE_CCP + 90_000_003L, bureau);
+        List<Long> attendus = jdbc.queryForList("""
+                SELECT idencomp FROM compteCCP WHERE codbpcpt = ? AND codetacp = 'N'
+                ORDER BY COALESCE(soldcour, 0) DESC, idencomp DESC
+                """, Long.class, bureau);
+
+        List<Long> parCurseur = new ArrayList<>();
+        String curseur = null;
+        do {
+            PortefeuilleClientCCPRapportDTO page = service.genererRapportPortefeuilleClientCurseur(
+                    bureau, TAILLE, null, "N", curseur);
+            page.getComptes().forEach(compte -> parCurseur.add(compte.getIdencomp()));
+            curseur = page.getCurseurSuivant();
+        } while (curseur != null);
+
+        List<Long> parPage = new ArrayList<>();
+        for (int numero = 0; parPage.size() < attendus.size(); numero++) {
+            List<PortefeuilleClientCCPDetailDTO> comptes = service.genererRapportPortefeuilleClientFiltre(
+                    bureau, PageRequest.of(numero, TAILLE), null, "N").getComptes();
+            assertTrue(!comptes.isEmpty(), "Page vide avant le dernier compte");
+            comptes.forEach(compte -> parPage.add(compte.getIdencomp()));
+        }
+
+        assertTrue(attendus.contains(LoadTestDataset.PREMIER_COMPTE_CCP + 90_000_001L));
+        assertEquals(attendus, parCurseur);
+        assertEquals(attendus, parPage);
+    }
+
+    private List<String> parcourirMouvements(long bureau, String curseur) {
+        List<String> cles = new ArrayList<>();
+        do {
+            CompteMouvementVeilleDTO page = service.rapportMouvementVeilleCurseur(bureau, BigDecimal.ZERO, 1, TAILLE, curseur);
+            cles.addAll(cles(page));
+            curseur = page.getCurseurSuivant();
+        } while (curseur != null);
+        return cles;
+    }
+
+    private static List<String> cles(CompteMouvementVeilleDTO page) {
+        // Compte et montant identifient un mouvement du jeu de données (montants distincts sur une journée)
+        return page.getMouvements().getContent().stream()
+                .map(mouvement -> mouvement.getIdencomp() + ":" + mouvement.getMontmouv().toPlainString())
+                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    }
+}
@@ -0,0 +1,132 @@
+package com.albaridbank.edition.loadtest;
+
+import com.albaridbank.edition.dto.rapport.CompteCENMouvementVeilleDTO;
+import com.albaridbank.edition.dto.rapport.PortefeuilleCENDTO;
+import com.albaridbank.edition.mappers.cen.CompteCENMapper;
+import com.albaridbank.edition.mappers.cen.OperCompCENMapper;
+import com.albaridbank.edition.mappers.rapport.RapportCENMapper;
+import com.albaridbank.edition.repositorys.cen.BurePostCENRepository;
+import com.albaridbank.edition.repositorys.cen.CompteCENRepository;
+import com.albaridbank.edition.repositorys.cen.OperCompCENRepository;
+import com.albaridbank.edition.service.impl.RapportCENServiceImpl;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Totaux des rapports CEN paginés sur une base PostgreSQL embarquée : une page pleine et une page
+ * au-delà de la dernière ligne portent les mêmes totaux, égaux à ceux calculés directement en SQL,
+ * y compris pour une opération sans compte débité ni crédité.
+ */
+class RapportCENTotauxTest {
+
+    private static final LoadTestDataset DATASET = new LoadTestDataset(2, 400, 300, 1);
+
+    private static EmbeddedPostgres postgres;
+    private static ConfigurableApplicationContext context;
+    private static JdbcTemplate jdbc;
+    private static RapportCENServiceImpl service;
+
+    @BeforeAll
+    static void demarrer() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(LoadTestConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.config.import=",
+                        "--spring.cloud.config.enabled=false",
+                        "--spring.cloud.discovery.enabled=false",
+                        "--eureka.client.enabled=false",
+                        "--spring.flyway.baseline-on-migrate=true",
+                        "--spring.jpa.open-in-view=false",
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+                        "--logging.level.root=WARN");
+        jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        DATASET.charger(jdbc);
+
+        // Opération sans compte débité ni crédité : ne compte pas parmi les comptes distincts
+        jdbc.update("""
+                INSERT INTO operCompCEN (dateoper, codburpo, numeordr, codtypop, montoper)
+                VALUES (?, ?, 99999999, 1, 10.00)
+                """, DATASET.derniereJournee(), DATASET.codeBureau(0));
+
+        service = new RapportCENServiceImpl(
+                context.getBean(CompteCENRepository.class),
+                context.getBean(OperCompCENRepository.class),
+                context.getBean(BurePostCENRepository.class),
+                Mappers.getMapper(CompteCENMapper.class),
+                Mappers.getMapper(OperCompCENMapper.class),
+                Mappers.getMapper(RapportCENMapper.class));
+    }
+
+    @AfterAll
+    static void arreter() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void portefeuilleMemesTotauxSurToutesLesPages() {
+        long bureau = DATASET.codeBureau(0);
+        Map<String, Object> attendu = jdbc.queryForMap("""
+                SELECT COUNT(*) AS nombre, COALESCE(SUM(soldcour), 0) AS encours
+                FROM compteCEN WHERE codburpo = ? AND codetaco <> 4
+                """, bureau);
+
+        PortefeuilleCENDTO premiere = service.genererRapportPortefeuilleCEN(bureau, PageRequest.of(0, 50));
+        PortefeuilleCENDTO auDela = service.genererRapportPortefeuilleCEN(bureau, PageRequest.of(1_000, 50));
+
+        assertEquals(50, premiere.getComptes().size());
+        assertTrue(auDela.getComptes().isEmpty());
+        assertEquals(((Number) attendu.get("nombre")).longValue(), premiere.getNombreTotalComptes());
+        assertEquals(0, ((BigDecimal) attendu.get("encours")).compareTo(premiere.getEncoursTotal()));
+        assertEquals(premiere.getNombreTotalComptes(), auDela.getNombreTotalComptes());
+        assertEquals(0, premiere.getEncoursTotal().compareTo(auDela.getEncoursTotal()));
+    }
+
+    @Test
+    void mouvementsMemesTotauxSurToutesLesPages() {
+        long bureau = DATASET.codeBureau(0);
+        LocalDate journee = DATASET.derniereJournee();
+        Map<String, Object> attendu = jdbc.queryForMap("""
+                SELECT COUNT(*) AS operations, COUNT(DISTINCT COALESCE(compdebi, compcred)) AS comptes,
+                    COALESCE(SUM(montoper), 0) AS montant
+                FROM operCompCEN WHERE dateoper = ? AND codburpo = ?
+                """, journee, bureau);
+
+        CompteCENMouvementVeilleDTO premiere = service.genererRapportMouvementVeilleCEN(bureau, journee, PageRequest.of(0, 20));
+        CompteCENMouvementVeilleDTO auDela = service.genererRapportMouvementVeilleCEN(bureau, journee, PageRequest.of(1_000, 20));
+
+        assertEquals(20, premiere.getMouvements().size());
+        assertTrue(auDela.getMouvements().isEmpty());
+        assertEquals(((Number) attendu.get("operations")).longValue(), premiere.getNombreOperations());
+        assertEquals(((Number) attendu.get("comptes")).intValue(), premiere.getNombreTotalComptes());
+        assertEquals(0, ((BigDecimal) attendu.get("montant")).compareTo(premiere.getMontantTotal()));
+        assertEquals(premiere.getNombreOperations(), auDela.getNombreOperations());
+        assertEquals(premiere.getNombreTotalComptes(), auDela.getNombreTotalComptes());
+        assertEquals(0, premiere.getMontantTotal().compareTo(auDela.getMontantTotal()));
+    }
+}
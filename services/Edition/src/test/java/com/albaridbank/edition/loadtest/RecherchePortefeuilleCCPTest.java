@@ -0,0 +1,124 @@
+package com.albaridbank.edition.loadtest;
+
+import com.albaridbank.edition.config.ReportIndexCheck;
+import com.albaridbank.edition.config.ReportProperties;
+import com.albaridbank.edition.dto.base.PortefeuilleClientCCPDetailDTO;
+import com.albaridbank.edition.dto.rapport.PortefeuilleClientCCPRapportDTO;
+import com.albaridbank.edition.repositorys.ccp.ClotureMouvementsCCPRepository;
+import com.albaridbank.edition.service.impl.ClotureMouvementsServiceImpl;
+import com.albaridbank.edition.service.interfaces.RapportCCPService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Recherche dans le portefeuille CCP sur une base PostgreSQL embarquée : un identifiant est trouvé
+ * par le début du numéro de compte, de la CIN ou du téléphone, un terme de 1 ou 2 caractères est
+ * cherché dans les comptes du bureau, et les index de la recherche sont vérifiés au démarrage.
+ */
+class RecherchePortefeuilleCCPTest {
+
+    private static final LoadTestDataset DATASET = new LoadTestDataset(2, 400, 100, 1);
+
+    private static final long COMPTE_RECHERCHE = 1_234_567_890L;
+
+    private static LoadTestDatabase base;
+    private static JdbcTemplate jdbc;
+    private static RapportCCPService service;
+
+    @BeforeAll
+    static void demarrer() throws IOException {
+        base = LoadTestDatabase.demarrer();
+        jdbc = base.jdbc();
+        DATASET.charger(jdbc);
+
+        // Seul numéro commençant par 12 : les comptes du jeu de données commencent par 10, CIN et téléphones par AB et 06
+        jdbc.update("""
+                INSERT INTO compteCCP (idencomp, idenclie, inticomp, soldcour, codbpcpt, codetacp, codeprod)
+                VALUES (?, 1, 'COMPTE RECHERCHE', 1, ?, 'N', 1)
+                """, COMPTE_RECHERCHE, DATASET.codeBureau(0));
+
+        service = base.rapportCCPService(new ClotureMouvementsServiceImpl(
+                base.bean(ClotureMouvementsCCPRepository.class), jdbc, new ReportProperties()));
+    }
+
+    @AfterAll
+    static void arreter() throws IOException {
+        if (base != null) {
+            base.close();
+        }
+    }
+
+    @Test
+    void numeroDeCompteTrouveParSonDebut() {
+        long bureau = DATASET.codeBureau(0);
+
+        for (String terme : List.of("1234567", "12", " 1 ")) {
+            PortefeuilleClientCCPRapportDTO rapport = service.genererRapportPortefeuilleClientRechercheGlobale(
+                    bureau, null, null, terme);
+            List<Long> comptes = rapport.getComptes().stream().map(PortefeuilleClientCCPDetailDTO::getIdencomp).toList();
+
+            assertTrue(comptes.contains(COMPTE_RECHERCHE), "Terme '" + terme + "': " + comptes);
+            assertTrue(comptes.stream().allMatch(compte -> String.valueOf(compte).startsWith(terme.trim())),
+                    "Terme '" + terme + "' cherché en début de numéro");
+        }
+
+        // Les chiffres du milieu ne désignent pas le début d'un identifiant
+        assertTrue(service.genererRapportPortefeuilleClientRechercheGlobale(bureau, null, null, "45678")
+                .getComptes().isEmpty());
+    }
+
+    @Test
+    void termesCourtsCherchesDansLeBureau() {
+        long bureau = DATASET.codeBureau(0);
+        Set<Long> autreBureau = new HashSet<>(jdbc.queryForList(
+                "SELECT idencomp FROM compteCCP WHERE codbpcpt = ?", Long.class, DATASET.codeBureau(1)));
+
+        // Début de CIN (identifiant)
+        List<PortefeuilleClientCCPDetailDTO> cin = service.genererRapportPortefeuilleClientRecherche(
+                bureau, PageRequest.of(0, 20), null, null, "ab1").getComptes();
+        assertFalse(cin.isEmpty());
+        assertTrue(cin.stream().allMatch(compte -> compte.getNumpieid().toLowerCase().startsWith("ab1")));
+
+        // Deux lettres : cherchées n'importe où, dans les comptes du bureau seulement
+        List<PortefeuilleClientCCPDetailDTO> lettres = service.genererRapportPortefeuilleClientRecherche(
+                bureau, PageRequest.of(0, 20), null, null, "ab").getComptes();
+        assertFalse(lettres.isEmpty());
+        assertTrue(lettres.stream().noneMatch(compte -> autreBureau.contains(compte.getIdencomp())));
+
+        List<PortefeuilleClientCCPRapportDTO> entetes = new ArrayList<>();
+        List<PortefeuilleClientCCPDetailDTO> lignes = new ArrayList<>();
+        service.fluxRapportPortefeuilleClientGlobal(bureau, null, null, "a", entetes::add, lignes::add);
+        assertEquals(entetes.getFirst().getNombreTotalComptes(), lignes.size());
+        assertTrue(lignes.stream().noneMatch(compte -> autreBureau.contains(compte.getIdencomp())));
+    }
+
+    @Test
+    void indexDeLaRechercheVerifiesAuDemarrage() {
+        ReportProperties proprietes = new ReportProperties();
+        proprietes.getIndexCheck().setFailOnMissing(true);
+
+        assertDoesNotThrow(() -> new ReportIndexCheck(jdbc, proprietes).run(null));
+
+        jdbc.execute("DROP INDEX idx_compte_ccp_idencomp_prefixe");
+        try {
+            assertThrows(IllegalStateException.class, () -> new ReportIndexCheck(jdbc, proprietes).run(null));
+        } finally {
+            jdbc.execute("CREATE INDEX idx_compte_ccp_idencomp_prefixe ON compteCCP ((CAST(idencomp AS TEXT)) text_pattern_ops)");
+        }
+    }
+}
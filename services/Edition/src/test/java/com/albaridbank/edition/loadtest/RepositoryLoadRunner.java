@@ -0,0 +1,415 @@
+package com.albaridbank.edition.loadtest;
+
+import com.albaridbank.edition.loadtest.CapturingDataSource.RequeteCapturee;
+import com.albaridbank.edition.repositorys.ccp.CompteCCPRepository;
+import com.albaridbank.edition.repositorys.ccp.MvtFinancierCCPRepository;
+import com.albaridbank.edition.repositorys.ccp.StatBureauCCPRepository;
+import com.albaridbank.edition.repositorys.cen.CompteCENRepository;
+import com.albaridbank.edition.repositorys.cen.OperCompCENRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Banc de charge des requêtes de rapport d'Edition sur PostgreSQL.
+ *
+ * <p>Démarre un PostgreSQL embarqué (binaires zonky, même version majeure que la production),
+ * applique les migrations Flyway de l'application, charge un {@link LoadTestDataset jeu de données
+ * synthétique} puis exécute chaque requête de rapport des repositories CCP et CEN. Pour chaque
+ * scénario sont relevés les temps p50/p95/p99 (bureau tiré au hasard à chaque itération) et, pour
+ * chaque requête SQL émise, le plan {@code EXPLAIN (ANALYZE, BUFFERS)} avec les paramètres réels.</p>
+ *
+ * <p>La forme des plans (nœuds, tables et index, sans coûts ni valeurs) est écrite dans
+ * {@code plans.txt} : comparée au {@code plans.txt} d'une exécution de référence (mêmes dimensions
+ * de jeu de données), elle sert de garde-fou quand un index ou une requête change. Les plans sont ceux d'une exécution isolée (plan personnalisé) ; une
+ * requête préparée réutilisée par le pool peut basculer sur un plan générique.</p>
+ *
+ * <p>Programme autonome ({@code main}) : le suffixe {@code Runner} le tient à l'écart de Surefire et de
+ * {@code mvn test}. Lancement :</p>
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;classpath de test&gt; \
+ *     -Dloadtest.comptes=200000 -Dloadtest.baseline=reference/plans.txt \
+ *     com.albaridbank.edition.loadtest.RepositoryLoadRunner
+ * </pre>
+ *
+ * <p>Propriétés : dimensions du jeu de données (voir {@link LoadTestDataset#depuisProprietes()}),
+ * {@code loadtest.warmup} (5) et {@code loadtest.iterations} (30) par scénario,
+ * {@code loadtest.graine} (42), {@code loadtest.sortie} ({@code target/loadtest}),
+ * {@code loadtest.maxP95Ms} (seuil de p95, aucun par défaut), {@code loadtest.baseline} (plans de
+ * référence), et {@code loadtest.jdbcUrl}/{@code loadtest.user}/{@code loadtest.password} pour
+ * utiliser une base existante, jetable, à la place du PostgreSQL embarqué. Le code de sortie est
+ * 1 si un seuil est dépassé ou si un plan diffère de la référence.</p>
+ */
+public final class RepositoryLoadRunner {
+
+    private static final List<String> ETATS_COMPTES_EXCLUS = List.of("C", "B", "O");
+
+    private static final Integer CODE_ACTIVITE_CLOTURE = 4;
+
+    private static final BigDecimal MONTANT_MINIMUM = BigDecimal.valueOf(1_000);
+
+    /**
+     * Lignes de propriétés d'un plan ({@code Filter:}, {@code Index Cond:}, {@code Buffers:}...),
+     * qui portent les valeurs des paramètres et ne font pas partie de sa forme.
+     */
+    private static final Pattern PROPRIETE_PLAN = Pattern.compile("^\\s*(->\\s*)?[A-Z][A-Za-z ]*: .*");
+
+    /**
+     * Suffixe mois des partitions mensuelles (mvtfinancierccp_2025_03) : la forme d'un plan ne doit
+     * pas changer avec le mois de la journée interrogée.
+     */
+    private static final Pattern MOIS_PARTITION = Pattern.compile("_\\d{4}_\\d{2}(?=\\b|_)");
+
+    private final ConfigurableApplicationContext context;
+    private final LoadTestDataset dataset;
+    private final CapturingDataSource dataSource;
+    private final TransactionTemplate transaction;
+    private final Random random = new Random(Long.getLong("loadtest.graine", 42L));
+
+    /**
+     * Tirage des paramètres d'une exécution : un bureau et ses comptes.
+     */
+    private record Tirage(Long codeBureau, int codeRegion, LocalDate journee,
+                          List<Long> comptesCCP, List<Long> comptesCEN) {
+
+        BigDecimal codeBureauMouvement() {
+            return BigDecimal.valueOf(codeBureau);
+        }
+    }
+
+    private record Scenario(String nom, Consumer<Tirage> requete) {
+    }
+
+    private record Mesure(String nom, long[] durees, List<RequeteCapturee> requetes,
+                          Map<String, List<String>> plans, String forme) {
+
+        double percentile(double p) {
+            int rang = (int) Math.ceil(p * durees.length) - 1;
+            return durees[Math.max(rang, 0)] / 1_000_000.0;
+        }
+    }
+
+    private RepositoryLoadRunner(ConfigurableApplicationContext context, LoadTestDataset dataset) {
+        this.context = context;
+        this.dataset = dataset;
+        this.dataSource = context.getBean(CapturingDataSource.class);
+        this.transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        this.transaction.setReadOnly(true);
+    }
+
+    public static void main(String[] args) throws IOException, SQLException {
+        LoadTestDataset dataset = LoadTestDataset.depuisProprietes();
+        String jdbcUrl = System.getProperty("loadtest.jdbcUrl");
+
+        EmbeddedPostgres postgres = jdbcUrl == null ? EmbeddedPostgres.builder().start() : null;
+        int code;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LoadTestConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=" + (postgres != null ? postgres.getJdbcUrl("postgres", "postgres") : jdbcUrl),
+                        "--spring.datasource.username=" + System.getProperty("loadtest.user", "postgres"),
+                        "--spring.datasource.password=" + System.getProperty("loadtest.password", ""),
+                        "--spring.config.import=",
+                        "--spring.cloud.config.enabled=false",
+                        "--spring.cloud.discovery.enabled=false",
+                        "--eureka.client.enabled=false",
+                        "--spring.flyway.baseline-on-migrate=true",
+                        "--spring.jpa.open-in-view=false",
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+                        "--spring.jpa.properties.hibernate.query.in_clause_parameter_padding=true",
+                        "--logging.level.root=WARN")) {
+            code = new RepositoryLoadRunner(context, dataset).executer(
+                    Path.of(System.getProperty("loadtest.sortie", "target/loadtest")));
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+        System.exit(code);
+    }
+
+    private int executer(Path sortie) throws IOException, SQLException {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource.getTargetDataSource());
+        long debut = System.nanoTime();
+        dataset.charger(jdbc);
+        System.out.printf("Jeu de données chargé en %d s: %s%n",
+                (System.nanoTime() - debut) / 1_000_000_000L, dataset);
+
+        int warmup = Integer.getInteger("loadtest.warmup", 5);
+        int iterations = Integer.getInteger("loadtest.iterations", 30);
+        List<Mesure> mesures = new ArrayList<>();
+        for (Scenario scenario : scenarios()) {
+            mesures.add(mesurer(scenario, warmup, iterations));
+        }
+
+        Files.createDirectories(sortie);
+        String formes = formes(mesures);
+        Files.writeString(sortie.resolve("plans.txt"), formes);
+        Files.writeString(sortie.resolve("rapport.md"), rapport(mesures, jdbc));
+
+        int code = 0;
+        String seuil = System.getProperty("loadtest.maxP95Ms");
+        if (seuil != null) {
+            for (Mesure mesure : mesures) {
+                if (mesure.percentile(0.95) > Double.parseDouble(seuil)) {
+                    System.out.printf("ECHEC p95 %s: %.2f ms > %s ms%n", mesure.nom(), mesure.percentile(0.95), seuil);
+                    code = 1;
+                }
+            }
+        }
+        String baseline = System.getProperty("loadtest.baseline");
+        if (baseline != null) {
+            Map<String, String> reference = lireFormes(Files.readString(Path.of(baseline)));
+            for (Mesure mesure : mesures) {
+                String attendu = reference.get(mesure.nom());
+                if (attendu == null) {
+                    System.out.printf("Plan sans référence: %s%n", mesure.nom());
+                } else if (!attendu.strip().equals(mesure.forme().strip())) {
+                    System.out.printf("ECHEC plan %s: la forme diffère de %s%n", mesure.nom(), baseline);
+                    code = 1;
+                }
+            }
+        }
+        System.out.printf("Rapport: %s%n", sortie.resolve("rapport.md").toAbsolutePath());
+        return code;
+    }
+
+    private List<Scenario> scenarios() {
+        CompteCCPRepository compteCCP = context.getBean(CompteCCPRepository.class);
+        StatBureauCCPRepository statBureauCCP = context.getBean(StatBureauCCPRepository.class);
+        MvtFinancierCCPRepository mvtCCP = context.getBean(MvtFinancierCCPRepository.class);
+        CompteCENRepository compteCEN = context.getBean(CompteCENRepository.class);
+        OperCompCENRepository operCEN = context.getBean(OperCompCENRepository.class);
+
+        return List.of(
+                // CCP - encours et portefeuille
+                new Scenario("ccp.stat-bureau.statistiques-comptes", t ->
+                        statBureauCCP.calculerStatistiquesComptes(t.codeBureau(), ETATS_COMPTES_EXCLUS)),
+                new Scenario("ccp.stat-bureau.statistiques-portefeuille", t ->
+                        statBureauCCP.calculerStatistiquesPortefeuille(t.codeBureau(), ETATS_COMPTES_EXCLUS)),
+                new Scenario("ccp.stat-bureau.statistiques-portefeuille-detail", t ->
+                        statBureauCCP.calculerStatistiquesPortefeuilleDetail(t.codeBureau(), "N", null)),
+                new Scenario("ccp.compte.statistiques-portefeuille", t ->
+                        compteCCP.calculerStatistiquesPortefeuille(t.codeBureau(), ETATS_COMPTES_EXCLUS)),
+                new Scenario("ccp.compte.statistiques-comptes", t ->
+                        compteCCP.calculerStatistiquesComptes(t.codeBureau(), ETATS_COMPTES_EXCLUS)),
+                new Scenario("ccp.compte.statistiques-portefeuille-detail", t ->
+                        compteCCP.calculerStatistiquesPortefeuilleDetail(t.codeBureau(), "N", null)),
+                new Scenario("ccp.compte.page-portefeuille", t ->
+                        compteCCP.findPagePortefeuilleClients(t.codeBureau(), "N", null, PageRequest.of(5, 50))),
+                new Scenario("ccp.compte.premiers-portefeuille", t ->
+                        compteCCP.findPremiersPortefeuilleClientsByBureauWithFilters(t.codeBureau(), "N", null, Limit.of(50))),
+                new Scenario("ccp.compte.portefeuille-apres-curseur", t ->
+                        compteCCP.findPortefeuilleClientsByBureauWithFiltersApres(
+                                t.codeBureau(), "N", null, BigDecimal.valueOf(50_000), Long.MAX_VALUE, Limit.of(50))),
+                new Scenario("ccp.compte.flux-portefeuille", t -> {
+                    try (var comptes = compteCCP.streamPortefeuilleClientsByBureauWithFilters(t.codeBureau(), "N", null)) {
+                        comptes.count();
+                    }
+                }),
+                new Scenario("ccp.compte.recherche-libelle", t ->
+                        compteCCP.rechercherPortefeuilleClients(t.codeBureau(), null, null, "%client 12%", PageRequest.of(0, 50))),
+                new Scenario("ccp.compte.recherche-identifiant", t ->
+                        compteCCP.rechercherPortefeuilleClientsParIdentifiant(
+                                t.codeBureau(), null, null, (LoadTestDataset.PREMIER_COMPTE_CCP / 1000) + "%", PageRequest.of(0, 50))),
+                new Scenario("ccp.compte.recherche-cin-court", t ->
+                        compteCCP.rechercherPortefeuilleClientsParIdentifiant(t.codeBureau(), null, null, "ab1%", PageRequest.of(0, 50))),
+                new Scenario("ccp.compte.recherche-libelle-court", t ->
+                        compteCCP.rechercherPortefeuilleClients(t.codeBureau(), null, null, "%12%", PageRequest.of(0, 50))),
+                new Scenario("ccp.compte.comptes-avec-client-par-id", t ->
+                        compteCCP.findAllWithClientByIdCompteIn(t.comptesCCP())),
+                new Scenario("ccp.compte.top-soldes-bureau", t ->
+                        compteCCP.findTopSoldesByBureau(t.codeBureau(), ETATS_COMPTES_EXCLUS, Limit.of(100))),
+                new Scenario("ccp.compte.classements-soldes-region", t -> {
+                    try (var classements = compteCCP.streamClassementsSoldesParBureau(t.codeRegion(), ETATS_COMPTES_EXCLUS, 100)) {
+                        classements.count();
+                    }
+                }),
+                new Scenario("ccp.compte.top-soldes-par-id", t ->
+                        compteCCP.findTopSoldesByIdCompteIn(t.comptesCCP())),
+
+                // CCP - mouvements de la veille
+                new Scenario("ccp.mouvement.page-avec-statistiques", t ->
+                        mvtCCP.findPageAvecStatistiquesByDateMouvementAndCodeBureauAndMontantMin(
+                                t.journee(), t.codeBureauMouvement(), MONTANT_MINIMUM, PageRequest.of(0, 50))),
+                new Scenario("ccp.mouvement.premiers", t ->
+                        mvtCCP.findPremiersByDateMouvementAndCodeBureauAndMontantMin(
+                                t.journee(), t.codeBureauMouvement(), MONTANT_MINIMUM, Limit.of(50))),
+                new Scenario("ccp.mouvement.apres-curseur", t ->
+                        mvtCCP.findByDateMouvementAndCodeBureauAndMontantMinApres(
+                                t.journee(), t.codeBureauMouvement(), MONTANT_MINIMUM,
+                                t.journee().atTime(12, 0), BigDecimal.ZERO, Integer.MAX_VALUE, Limit.of(50))),
+                new Scenario("ccp.mouvement.statistiques", t ->
+                        mvtCCP.getStatistiques(t.journee(), t.codeBureauMouvement(), MONTANT_MINIMUM)),
+                new Scenario("ccp.mouvement.tous-montant-minimum", t ->
+                        mvtCCP.findAllByDateMouvementAndCodeBureauAndMontantMin(
+                                t.journee(), t.codeBureauMouvement(), BigDecimal.valueOf(9_000))),
+
+                // CEN
+                new Scenario("cen.compte.solde-bureau", t ->
+                        compteCEN.countAndSumSoldeByBureauPosteAndActiveAccounts(t.codeBureau(), CODE_ACTIVITE_CLOTURE)),
+                new Scenario("cen.compte.encours-bureau", t ->
+                        compteCEN.calculerEncoursBureau(t.codeBureau(), CODE_ACTIVITE_CLOTURE)),
+                new Scenario("cen.compte.page-portefeuille", t ->
+                        compteCEN.findPagePortefeuilleCEN(t.codeBureau(), CODE_ACTIVITE_CLOTURE, PageRequest.of(5, 50))),
+                new Scenario("cen.operation.page-mouvements", t ->
+                        operCEN.findPageMouvementsByDateOperationAndCodeBureau(t.journee(), t.codeBureau(), PageRequest.of(0, 50))),
+                new Scenario("cen.operation.statistiques-mouvements", t ->
+                        operCEN.calculerStatistiquesMouvements(t.journee(), t.codeBureau())),
+                new Scenario("cen.operation.journal-intitules", t ->
+                        operCEN.findWithIntitulesByDateOperationAndCodeBureau(t.journee(), t.codeBureau())),
+                new Scenario("cen.operation.flux-journal-intitules", t -> {
+                    try (var operations = operCEN.streamWithIntitulesByDateOperationAndCodeBureau(t.journee(), t.codeBureau())) {
+                        operations.count();
+                    }
+                }),
+                new Scenario("cen.operation.par-comptes", t ->
+                        operCEN.findByDateOperationAndCodeBureauAndCompteAny(
+                                t.journee(), t.codeBureau(), t.comptesCEN().toArray(Long[]::new)))
+        );
+    }
+
+    private Tirage tirage(int rang) {
+        return new Tirage(dataset.codeBureau(rang), dataset.codeRegion(rang), dataset.derniereJournee(),
+                dataset.comptesBureau(rang, 100).stream().map(n -> LoadTestDataset.PREMIER_COMPTE_CCP + n).toList(),
+                dataset.comptesBureau(rang, 1000));
+    }
+
+    private Mesure mesurer(Scenario scenario, int warmup, int iterations) throws SQLException {
+        for (int i = 0; i < warmup; i++) {
+            executer(scenario, tirage(random.nextInt(dataset.bureaux())));
+        }
+
+        // Les plans sont relevés sur le premier bureau : la forme ne dépend pas du tirage
+        List<RequeteCapturee> requetes = dataSource.capturer(() -> executer(scenario, tirage(0)));
+
+        long[] durees = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            Tirage tirage = tirage(random.nextInt(dataset.bureaux()));
+            long debut = System.nanoTime();
+            executer(scenario, tirage);
+            durees[i] = System.nanoTime() - debut;
+        }
+        Arrays.sort(durees);
+
+        Map<String, List<String>> plans = new LinkedHashMap<>();
+        StringBuilder forme = new StringBuilder();
+        Set<String> dejaVues = new LinkedHashSet<>();
+        for (RequeteCapturee requete : requetes) {
+            if (!dejaVues.add(requete.sql())) {
+                continue;
+            }
+            plans.put(requete.sql(), expliquer("EXPLAIN (ANALYZE, BUFFERS) ", requete));
+            for (String ligne : expliquer("EXPLAIN (COSTS OFF) ", requete)) {
+                if (!PROPRIETE_PLAN.matcher(ligne).matches()) {
+                    forme.append(MOIS_PARTITION.matcher(ligne.stripTrailing()).replaceAll("_AAAA_MM")).append('\n');
+                }
+            }
+        }
+
+        Mesure mesure = new Mesure(scenario.nom(), durees, requetes, plans, forme.toString());
+        System.out.printf("%-55s %3d requête(s)  p50 %8.2f ms  p95 %8.2f ms  p99 %8.2f ms%n", mesure.nom(),
+                requetes.size(), mesure.percentile(0.50), mesure.percentile(0.95), mesure.percentile(0.99));
+        return mesure;
+    }
+
+    private void executer(Scenario scenario, Tirage tirage) {
+        transaction.executeWithoutResult(status -> scenario.requete().accept(tirage));
+    }
+
+    private List<String> expliquer(String prefixe, RequeteCapturee requete) throws SQLException {
+        DataSource cible = dataSource.getTargetDataSource();
+        List<String> lignes = new ArrayList<>();
+        try (Connection connexion = cible.getConnection();
+             PreparedStatement statement = connexion.prepareStatement(prefixe + requete.sql())) {
+            requete.lier(statement);
+            try (ResultSet resultat = statement.executeQuery()) {
+                while (resultat.next()) {
+                    lignes.add(resultat.getString(1));
+                }
+            }
+        }
+        return lignes;
+    }
+
+    private static String formes(List<Mesure> mesures) {
+        StringBuilder texte = new StringBuilder();
+        for (Mesure mesure : mesures) {
+            texte.append("## ").append(mesure.nom()).append('\n').append(mesure.forme()).append('\n');
+        }
+        return texte.toString();
+    }
+
+    private static Map<String, String> lireFormes(String texte) {
+        Map<String, String> formes = new LinkedHashMap<>();
+        String nom = null;
+        StringBuilder forme = new StringBuilder();
+        for (String ligne : (texte + "\n## ").split("\n", -1)) {
+            if (ligne.startsWith("## ")) {
+                if (nom != null) {
+                    formes.put(nom, forme.toString());
+                }
+                nom = ligne.substring(3).strip();
+                forme.setLength(0);
+            } else {
+                forme.append(ligne).append('\n');
+            }
+        }
+        return formes;
+    }
+
+    private String rapport(List<Mesure> mesures, JdbcTemplate jdbc) {
+        StringBuilder texte = new StringBuilder("# Banc de charge des requêtes Edition\n\n");
+        texte.append("- Date : ").append(LocalDateTime.now()).append('\n');
+        texte.append("- Base : ").append(jdbc.queryForObject("SELECT version()", String.class)).append('\n');
+        texte.append(String.format("- Jeu de données : %d bureaux, %d comptes CCP et CEN, %d mouvements par jour sur %d jours%n",
+                dataset.bureaux(), dataset.comptes(), dataset.mouvements(), dataset.jours()));
+        texte.append(String.format("- Itérations mesurées par scénario : %d%n%n", mesures.getFirst().durees().length));
+
+        texte.append("| Scénario | Requêtes SQL | p50 (ms) | p95 (ms) | p99 (ms) |\n");
+        texte.append("|---|---:|---:|---:|---:|\n");
+        for (Mesure mesure : mesures) {
+            texte.append(String.format("| %s | %d | %.2f | %.2f | %.2f |%n", mesure.nom(), mesure.requetes().size(),
+                    mesure.percentile(0.50), mesure.percentile(0.95), mesure.percentile(0.99)));
+        }
+
+        for (Mesure mesure : mesures) {
+            texte.append("\n## ").append(mesure.nom()).append('\n');
+            mesure.plans().forEach((sql, plan) -> {
+                texte.append("\n```sql\n").append(sql.strip()).append("\n```\n\n```\n");
+                plan.forEach(ligne -> texte.append(ligne).append('\n'));
+                texte.append("```\n");
+            });
+        }
+        return texte.toString();
+    }
+}
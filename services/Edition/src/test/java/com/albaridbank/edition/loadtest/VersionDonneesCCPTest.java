@@ -0,0 +1,132 @@
+package com.albaridbank.edition.loadtest;
+
+import com.albaridbank.edition.config.ReportProperties;
+import com.albaridbank.edition.service.impl.PartitionMouvementsServiceImpl;
+import com.albaridbank.edition.service.impl.VersionDonneesServiceImpl;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Versions des données CCP (ETag) sur une base PostgreSQL embarquée : l'encours d'un bureau ne change
+ * de version que si ses agrégats ou sa désignation changent, y compris quand un groupe d'agrégat est
+ * vidé ; les libellés changent de version une fois par instruction qui en modifie au moins un ; les
+ * versions des journées hors conservation sont purgées avec l'archivage des partitions.
+ */
+class VersionDonneesCCPTest {
+
+    private static final LoadTestDataset DATASET = new LoadTestDataset(2, 200, 100, 1);
+
+    private static EmbeddedPostgres postgres;
+    private static ConfigurableApplicationContext context;
+
+    private JdbcTemplate jdbc;
+    private VersionDonneesServiceImpl versions;
+
+    @BeforeAll
+    static void demarrer() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(LoadTestConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.config.import=",
+                        "--spring.cloud.config.enabled=false",
+                        "--spring.cloud.discovery.enabled=false",
+                        "--eureka.client.enabled=false",
+                        "--spring.flyway.baseline-on-migrate=true",
+                        "--spring.jpa.open-in-view=false",
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+                        "--logging.level.root=WARN");
+    }
+
+    @AfterAll
+    static void arreter() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void charger() {
+        jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        DATASET.charger(jdbc);
+        versions = new VersionDonneesServiceImpl(jdbc);
+    }
+
+    @Test
+    void encoursChangeDeVersionAvecSesAgregatsSeulement() {
+        long bureau = DATASET.codeBureau(0);
+        long compte = LoadTestDataset.PREMIER_COMPTE_CCP + DATASET.comptesBureau(0, 1).getFirst();
+        String initiale = versions.versionComptes(bureau);
+        String autreBureau = versions.versionComptes(DATASET.codeBureau(1));
+
+        jdbc.update("UPDATE compteCCP SET adrecomp = 'NOUVELLE ADRESSE' WHERE idencomp = ?", compte);
+        assertEquals(initiale, versions.versionComptes(bureau), "Adresse sans effet sur l'encours");
+
+        jdbc.update("UPDATE compteCCP SET soldcour = soldcour + 1 WHERE idencomp = ?", compte);
+        String apresSolde = versions.versionComptes(bureau);
+        assertNotEquals(initiale, apresSolde);
+        assertEquals(autreBureau, versions.versionComptes(DATASET.codeBureau(1)), "Encours d'un autre bureau");
+
+        // Seul compte d'un nouveau groupe (produit 9), puis retiré : le groupe vidé est supprimé
+        jdbc.update("UPDATE compteCCP SET codeprod = 9 WHERE idencomp = ?", compte);
+        String avecGroupe = versions.versionComptes(bureau);
+        jdbc.update("UPDATE compteCCP SET codeprod = 1 WHERE idencomp = ?", compte);
+        assertNotEquals(avecGroupe, versions.versionComptes(bureau), "Groupe vidé sans changement de version");
+
+        String avantDesignation = versions.versionComptes(bureau);
+        jdbc.update("UPDATE bureauPosteCCP SET desburpo = 'BUREAU RENOMME' WHERE codburpo = ?", bureau);
+        assertNotEquals(avantDesignation, versions.versionComptes(bureau));
+    }
+
+    @Test
+    void libellesChangentDeVersionUneFoisParInstruction() {
+        long bureau = DATASET.codeBureau(0);
+        String lireVersion = "SELECT version FROM versionLibellesCCP";
+        long initiale = jdbc.queryForObject(lireVersion, Long.class);
+
+        jdbc.update("UPDATE compteCCP SET inticomp = inticomp, adrecomp = 'NOUVELLE ADRESSE' WHERE codbpcpt = ?", bureau);
+        assertEquals(initiale, jdbc.queryForObject(lireVersion, Long.class), "Intitulés inchangés");
+
+        // Tous les comptes du bureau renommés : un seul numéro tiré de la séquence
+        long suivante = jdbc.queryForObject("SELECT nextval('seq_version_donnees_ccp')", Long.class) + 1;
+        jdbc.update("UPDATE compteCCP SET inticomp = inticomp || ' BIS' WHERE codbpcpt = ?", bureau);
+        assertEquals(suivante, jdbc.queryForObject(lireVersion, Long.class));
+    }
+
+    @Test
+    void versionsHorsConservationPurgeesAvecLesPartitions() {
+        ReportProperties proprietes = new ReportProperties();
+        proprietes.getPartitions().setMoisConservation(24);
+        LocalDate ancienne = LocalDate.now().withDayOfMonth(1).minusMonths(25);
+        LocalDate veille = DATASET.derniereJournee();
+        jdbc.update("INSERT INTO versionMouvementsCCP (datemouv, codburpo, version) VALUES (?, ?, 1)",
+                ancienne, DATASET.codeBureau(0));
+
+        new PartitionMouvementsServiceImpl(jdbc, proprietes).archiverPartitionsAnciennes();
+
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM versionMouvementsCCP WHERE datemouv = ?",
+                Integer.class, ancienne));
+        assertEquals(DATASET.bureaux(), jdbc.queryForObject(
+                "SELECT COUNT(*) FROM versionMouvementsCCP WHERE datemouv = ?", Integer.class, veille));
+    }
+}
@@ -0,0 +1,100 @@
+package com.albaridbank.edition.service.excelCCP;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare le dimensionnement des colonnes par {@link ColumnWidthEstimator} à
+ * {@code SXSSFSheet.autoSizeColumn} sur une feuille de type "portefeuille client" (10 colonnes).
+ *
+ * <p>Lancement : exécuter {@link #main(String[])} depuis l'IDE, ou après {@code mvn test-compile} :
+ * {@code java -cp target/test-classes:target/classes:<classpath de test> org.openjdk.jmh.Main ColumnWidthBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ColumnWidthBenchmark {
+
+    private static final int COLUMN_COUNT = 10;
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    @Benchmark
+    public int autoSizeColumn() {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+        try {
+            SXSSFSheet sheet = workbook.createSheet("Benchmark");
+            sheet.trackAllColumnsForAutoSizing();
+            CellStyle dateStyle = createDateStyle(workbook);
+
+            for (int i = 0; i < rows; i++) {
+                fillRow(sheet.createRow(i), i, dateStyle);
+            }
+            for (int column = 0; column < COLUMN_COUNT; column++) {
+                sheet.autoSizeColumn(column);
+            }
+            return sheet.getColumnWidth(1);
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    @Benchmark
+    public int columnWidthEstimator() {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+        try {
+            SXSSFSheet sheet = workbook.createSheet("Benchmark");
+            CellStyle dateStyle = createDateStyle(workbook);
+            ColumnWidthEstimator columnWidths = new ColumnWidthEstimator(workbook, COLUMN_COUNT);
+
+            for (int i = 0; i < rows; i++) {
+                Row row = sheet.createRow(i);
+                fillRow(row, i, dateStyle);
+                columnWidths.track(row);
+            }
+            columnWidths.applyTo(sheet);
+            return sheet.getColumnWidth(1);
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    private static CellStyle createDateStyle(SXSSFWorkbook workbook) {
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd/mm/yyyy"));
+        return dateStyle;
+    }
+
+    private static void fillRow(Row row, int index, CellStyle dateStyle) {
+        row.createCell(0).setCellValue(1_000_000_000L + index);
+        row.createCell(1).setCellValue("CLIENT NUMERO " + index + " NOM PRENOM");
+        row.createCell(2).setCellValue("RUE " + (index % 500) + " QUARTIER ADMINISTRATIF");
+        row.createCell(3).setCellValue("FONCTIONNAIRE");
+        row.createCell(4).setCellValue("AB" + (100_000 + index % 900_000));
+        row.createCell(5).setCellValue("06" + (10_000_000 + index));
+        row.createCell(6).setCellValue("N");
+        row.createCell(7).setCellValue(LocalDate.of(1970, 1, 1).plusDays(index % 15_000));
+        row.getCell(7).setCellStyle(dateStyle);
+        row.createCell(8).setCellValue(index * 12.5);
+        row.createCell(9).setCellValue("Compte courant");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ColumnWidthBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
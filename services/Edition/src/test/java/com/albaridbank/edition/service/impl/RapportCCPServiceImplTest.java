@@ -0,0 +1,123 @@
+package com.albaridbank.edition.service.impl;
+
+import com.albaridbank.edition.config.CachingApiConfig;
+import com.albaridbank.edition.dto.rapport.CompteMouvementVeilleDTO;
+import com.albaridbank.edition.mappers.ccp.CompteCCPMapper;
+import com.albaridbank.edition.mappers.ccp.MvtFinancierCCPMapper;
+import com.albaridbank.edition.mappers.rapport.RapportCCPMapper;
+import com.albaridbank.edition.model.ccp.BureauPosteCCP;
+import com.albaridbank.edition.repositorys.ccp.BureauPosteCCPRepository;
+import com.albaridbank.edition.repositorys.ccp.CompteCCPRepository;
+import com.albaridbank.edition.repositorys.ccp.MvtFinancierCCPRepository;
+import com.albaridbank.edition.repositorys.ccp.StatBureauCCPRepository;
+import com.albaridbank.edition.service.interfaces.ClotureMouvementsService;
+import com.albaridbank.edition.service.interfaces.RapportCCPService;
+import com.albaridbank.edition.service.interfaces.VersionDonneesService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Versions (ETag) et cache des rapports CCP : la journée du rapport fait partie de la version, une version
+ * de données inchangée ne suffit pas à revalider un rapport de la veille après minuit ; les paramètres
+ * normalisés par le rapport complet le sont aussi dans sa clé de cache.
+ */
+class RapportCCPServiceImplTest {
+
+    private static final LocalDate JOUR = LocalDate.of(2026, 10, 18);
+
+    private final VersionDonneesService versionDonneesService = mock(VersionDonneesService.class);
+    private final RapportCCPMapper rapportCCPMapper = mock(RapportCCPMapper.class);
+    private final BureauPosteCCPRepository bureauPosteRepository = mock(BureauPosteCCPRepository.class);
+    private final MvtFinancierCCPRepository mvtFinancierRepository = mock(MvtFinancierCCPRepository.class);
+
+    private final RapportCCPServiceImpl service = new RapportCCPServiceImpl(
+            mock(MvtFinancierCCPMapper.class),
+            mock(CompteCCPRepository.class),
+            rapportCCPMapper,
+            mock(CompteCCPMapper.class),
+            bureauPosteRepository,
+            mvtFinancierRepository,
+            mock(StatBureauCCPRepository.class),
+            mock(ClotureMouvementsService.class),
+            versionDonneesService,
+            mock(EntityManager.class));
+
+    @Test
+    void encoursInchangeChangeDeVersionApresMinuit() {
+        when(versionDonneesService.versionComptes(1000L)).thenReturn("42.3");
+
+        RapportCCPService.VersionRapport avantMinuit = versionEncoursLe(JOUR);
+        RapportCCPService.VersionRapport memeJour = versionEncoursLe(JOUR);
+        RapportCCPService.VersionRapport apresMinuit = versionEncoursLe(JOUR.plusDays(1));
+
+        assertEquals("\"encours-2026-10-18-1000-42.3\"", avantMinuit.etag());
+        assertEquals(avantMinuit, memeJour);
+        assertNotEquals(avantMinuit.etag(), apresMinuit.etag(), "ETag de la veille revalidé après minuit");
+    }
+
+    @Test
+    void rapportCompletMisEnCacheSousSesParametresNormalises() {
+        BureauPosteCCP bureau = new BureauPosteCCP();
+        bureau.setDesignation("BUREAU");
+        when(bureauPosteRepository.findByCodeBureau(1000L)).thenReturn(Optional.of(bureau));
+        when(mvtFinancierRepository.getStatistiques(any(), any(), any()))
+                .thenReturn(mock(MvtFinancierCCPRepository.MouvementStats.class));
+        when(rapportCCPMapper.creerRapportMouvementVeille(eq(1000L), any(), any(), any(), any(), any(), anyInt(), any()))
+                .thenAnswer(appel -> CompteMouvementVeilleDTO.builder().journeeDu(appel.getArgument(2)).build());
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(CacheConfiguration.class);
+            context.registerBean(RapportCCPService.class, () -> service);
+            context.refresh();
+            RapportCCPService rapports = context.getBean(RapportCCPService.class);
+
+            // Jours avant absent, négatif ou au-delà de 2 : journée en cours ; montant absent : 0
+            rapports.rapportMouvementVeilleComplet(1000L, null, null);
+            rapports.rapportMouvementVeilleComplet(1000L, BigDecimal.ZERO, 0);
+            rapports.rapportMouvementVeilleComplet(1000L, new BigDecimal("0.00"), 5);
+            rapports.rapportMouvementVeilleComplet(1000L, new BigDecimal("-1"), -1);
+        }
+
+        verify(bureauPosteRepository, times(1)).findByCodeBureau(1000L);
+        assertEquals(RapportCCPServiceImpl.cleMouvementsComplets(1000L, new BigDecimal("10.00"), 3),
+                RapportCCPServiceImpl.cleMouvementsComplets(1000L, BigDecimal.TEN, 0));
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CacheConfiguration {
+
+        @Bean
+        ConcurrentMapCacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CachingApiConfig.MOUVEMENTS_COMPLETS);
+        }
+    }
+
+    private RapportCCPService.VersionRapport versionEncoursLe(LocalDate jour) {
+        try (MockedStatic<LocalDate> dates = Mockito.mockStatic(LocalDate.class, Mockito.CALLS_REAL_METHODS)) {
+            dates.when(LocalDate::now).thenReturn(jour);
+            return service.versionRapportEncoursGlobal(1000L);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.albaridbank.edition.service.impl;
+
+import com.albaridbank.edition.config.ReportProperties;
+import com.albaridbank.edition.dto.excelCCP.NbrTotalEncoursCCPExcelDTO;
+import com.albaridbank.edition.dto.job.ReportJobDTO;
+import com.albaridbank.edition.dto.job.ReportJobStatus;
+import com.albaridbank.edition.dto.job.ReportJobType;
+import com.albaridbank.edition.dto.request.ReportJobRequestDTO;
+import com.albaridbank.edition.mappers.rapport.RapportCCPMapper;
+import com.albaridbank.edition.service.excelCCP.ExcelExportService;
+import com.albaridbank.edition.service.interfaces.RapportCCPService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tâches de génération de rapports en arrière-plan sur un pool d'un seul thread : rattachement des
+ * demandes identiques, fin de tâche avec son fichier, refus quand la file est pleine.
+ * La génération est retenue par un verrou pour que les tâches restent actives pendant le test.
+ */
+class ReportJobServiceImplTest {
+
+    @TempDir
+    Path stockage;
+
+    private final RapportCCPService rapportCCPService = mock(RapportCCPService.class);
+    private final CountDownLatch generationLiberee = new CountDownLatch(1);
+
+    private ReportJobServiceImpl reportJobService;
+
+    @BeforeEach
+    void demarrer() throws IOException {
+        ReportProperties reportProperties = new ReportProperties();
+        reportProperties.getStorage().setLocation(stockage.toString());
+        reportProperties.getJobs().setCorePoolSize(1);
+        reportProperties.getJobs().setMaxPoolSize(1);
+        reportProperties.getJobs().setQueueCapacity(1);
+
+        when(rapportCCPService.genererRapportEncoursGlobalPourExcel(anyLong(), any())).thenAnswer(invocation -> {
+            assertTrue(generationLiberee.await(10, TimeUnit.SECONDS), "Génération retenue trop longtemps");
+            return NbrTotalEncoursCCPExcelDTO.builder()
+                    .titreRapport("ETAT NOMBRE TOTAL & ENCOURS GLOBAL CCP")
+                    .dateEdition(LocalDateTime.now())
+                    .journeeDu(LocalDate.now())
+                    .codeBureau(invocation.getArgument(0))
+                    .designationBureau("BUREAU")
+                    .nombreComptes(10L)
+                    .totalEncours(BigDecimal.TEN)
+                    .utilisateur(invocation.getArgument(1))
+                    .build();
+        });
+
+        reportJobService = new ReportJobServiceImpl(rapportCCPService, new ExcelExportService(),
+                mock(RapportCCPMapper.class), reportProperties);
+        reportJobService.init();
+    }
+
+    @AfterEach
+    void arreter() {
+        generationLiberee.countDown();
+        reportJobService.shutdown();
+    }
+
+    @Test
+    void demandesIdentiquesRattacheesALaMemeTache() throws Exception {
+        ReportJobDTO premier = reportJobService.soumettreJob(encours(100L), "alice");
+        ReportJobDTO identique = reportJobService.soumettreJob(encours(100L), "alice");
+        ReportJobDTO autreUtilisateur = reportJobService.soumettreJob(encours(100L), "bob");
+
+        assertEquals(premier.getJobId(), identique.getJobId());
+        assertNotEquals(premier.getJobId(), autreUtilisateur.getJobId(),
+                "Le fichier porte le nom de l'utilisateur : une tâche par utilisateur");
+
+        generationLiberee.countDown();
+        attendreFin(premier.getJobId());
+        attendreFin(autreUtilisateur.getJobId());
+        verify(rapportCCPService, times(2)).genererRapportEncoursGlobalPourExcel(anyLong(), any());
+
+        // Une fois la tâche terminée, la même demande crée une nouvelle tâche
+        ReportJobDTO nouvelle = reportJobService.soumettreJob(encours(100L), "alice");
+        assertNotEquals(premier.getJobId(), nouvelle.getJobId());
+        attendreFin(nouvelle.getJobId());
+    }
+
+    @Test
+    void tacheTermineeAvecSonFichier() throws Exception {
+        ReportJobDTO job = reportJobService.soumettreJob(encours(100L), "alice");
+        assertTrue(job.getStatut() == ReportJobStatus.EN_ATTENTE || job.getStatut() == ReportJobStatus.EN_COURS);
+
+        generationLiberee.countDown();
+        ReportJobDTO termine = attendreFin(job.getJobId());
+
+        assertEquals(ReportJobStatus.TERMINE, termine.getStatut());
+        assertNotNull(termine.getNomFichier());
+        Path fichier = reportJobService.getFichierRapport(job.getJobId());
+        assertEquals(termine.getNomFichier(), fichier.getFileName().toString());
+        try (InputStream entree = Files.newInputStream(fichier); ZipInputStream zip = new ZipInputStream(entree)) {
+            assertNotNull(zip.getNextEntry(), "Le fichier doit être un classeur xlsx (zip)");
+        }
+    }
+
+    @Test
+    void demandeRefuseeQuandLaFileEstPleine() throws Exception {
+        ReportJobDTO enCours = reportJobService.soumettreJob(encours(100L), "alice");
+        ReportJobDTO enAttente = reportJobService.soumettreJob(encours(200L), "alice");
+
+        ResponseStatusException refus = assertThrows(ResponseStatusException.class,
+                () -> reportJobService.soumettreJob(encours(300L), "alice"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, refus.getStatusCode());
+
+        // La demande refusée n'est pas restée active : elle est acceptée une fois la file libérée
+        generationLiberee.countDown();
+        attendreFin(enCours.getJobId());
+        attendreFin(enAttente.getJobId());
+        ReportJobDTO acceptee = reportJobService.soumettreJob(encours(300L), "alice");
+        assertEquals(ReportJobStatus.TERMINE, attendreFin(acceptee.getJobId()).getStatut());
+    }
+
+    private static ReportJobRequestDTO encours(Long codeBureau) {
+        return new ReportJobRequestDTO(ReportJobType.ENCOURS_GLOBAL_CCP, codeBureau, null, null, null);
+    }
+
+    private ReportJobDTO attendreFin(String jobId) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        ReportJobDTO job = reportJobService.getJob(jobId);
+        while (job.getStatut() != ReportJobStatus.TERMINE && job.getStatut() != ReportJobStatus.ECHEC) {
+            assertTrue(System.nanoTime() < limite, "Tâche " + jobId + " toujours " + job.getStatut());
+            Thread.sleep(20);
+            job = reportJobService.getJob(jobId);
+        }
+        return job;
+    }
+}
@@ -0,0 +1,61 @@
+package com.albaridbank.brancheservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration du cache des agences (Caffeine).
+ * Chaque cache est borné en taille et a sa propre durée de vie ; les statistiques
+ * (hits, miss, évictions) sont publiées par Micrometer sous {@code /actuator/metrics/cache.*}.
+ *
+ * @author Mohamed Amine Eddafir
+ */
+@Configuration
+@EnableCaching
+public class CachingApiConfig {
+
+    /** Pages de la liste simplifiée des agences, une entrée par pagination/tri demandé */
+    public static final String BRANCHES_SIMPLE = "branchesSimple";
+
+    /** Statistiques globales des agences (une seule entrée) */
+    public static final String AGENCE_STATS = "agenceStats";
+
+    /** Cache par défaut pour les noms de cache non déclarés ci-dessus */
+    private static final long DEFAULT_MAX_SIZE = 500;
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    /**
+     * Crée le gestionnaire de cache Caffeine avec les caches des agences.
+     *
+     * @return le gestionnaire de cache
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(DEFAULT_MAX_SIZE)
+                .expireAfterWrite(DEFAULT_TTL)
+                .recordStats());
+
+        // Le référentiel des agences évolue rarement
+        cacheManager.registerCustomCache(BRANCHES_SIMPLE, Caffeine.newBuilder()
+                .maximumSize(200)
+                .expireAfterWrite(Duration.ofHours(1))
+                .recordStats()
+                .build());
+
+        cacheManager.registerCustomCache(AGENCE_STATS, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofMinutes(15))
+                .recordStats()
+                .build());
+
+        return cacheManager;
+    }
+}
@@ -1,5 +1,6 @@
 package com.albaridbank.brancheservice.service.Impl;
 
+import com.albaridbank.brancheservice.config.CachingApiConfig;
 import com.albaridbank.brancheservice.dto.BranchDTO;
 import com.albaridbank.brancheservice.dto.BranchSimpleDTO;
 import com.albaridbank.brancheservice.mappers.SRagenceToBranchMapper;
@@ -210,7 +211,7 @@ public class AgenceServiceImpl implements AgenceService {
      * @throws RuntimeException si une erreur survient
      */
     @Override
-    @Cacheable("branchesSimple")
+    @Cacheable(CachingApiConfig.BRANCHES_SIMPLE)
     public Page<BranchSimpleDTO> getAllBranchesSimple(Pageable pageable) {
         log.info("Récupération de toutes les agences en format simplifié");
         Objects.requireNonNull(pageable, "Le paramètre Pageable ne peut pas être null");
@@ -256,7 +257,7 @@ public class AgenceServiceImpl implements AgenceService {
      * @throws RuntimeException si une erreur survient
      */
     @Override
-    @Cacheable("agenceStats")
+    @Cacheable(CachingApiConfig.AGENCE_STATS)
     public Map<String, Object> getAgenceStatistics() {
         log.info("Récupération des statistiques des agences");
         try {
@@ -1,6 +1,7 @@
 package com.albaridbank.BankinApp.controller;
 
 import com.albaridbank.BankinApp.dtos.ClientDTO;
+import com.albaridbank.BankinApp.dtos.ClientSummary;
 import com.albaridbank.BankinApp.service.interfaces.ClientService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -42,6 +43,25 @@ public class ClientController {
         return ResponseEntity.ok(clientService.getAllCli(pageable));
     }
 
+    /**
+     * GET /api/v1/client/summary : Récupère les clients avec pagination, en résumé (ID, nom, statut)
+     * pour les vues liste, sans comptes ni adresses
+     *
+     * @param page numéro de la page (commence à 0)
+     * @param size nombre d'éléments par page
+     * @param sort champ sur lequel effectuer le tri
+     * @return une page de résumés de clients
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<Page<ClientSummary>> getClientSummaries(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "idenclie") String sort) {
+        log.info("Getting client summaries with pagination: page={}, size={}, sort={}", page, size, sort);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sort));
+        return ResponseEntity.ok(clientService.getClientSummaries(pageable));
+    }
+
     /**
      * GET /api/v1/clients/{id} : Récupère un client par son ID
      *
@@ -2,19 +2,27 @@ package com.albaridbank.BankinApp.controller;
 
 import com.albaridbank.BankinApp.dtos.CompteDTO;
 import com.albaridbank.BankinApp.service.interfaces.CompteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * REST controller for managing accounts.
@@ -32,6 +40,9 @@ import java.util.List;
 @Slf4j
 public class CompteController {
     private final CompteService compteService;
+    private final ObjectMapper objectMapper;
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
     /**
      * Retrieves all accounts with pagination support.
@@ -65,6 +76,8 @@ public class CompteController {
 
     /**
      * Retrieves accounts by their category code.
+     * Bounded server-side: when more accounts match, the request is rejected (400) and the
+     * paged or streamed endpoint must be used.
      *
      * @param categoryCode the category code of the accounts to retrieve
      * @return a list of CompteDTO objects representing the accounts with the specified category code
@@ -75,8 +88,44 @@ public class CompteController {
         return compteService.getComptesByCategory(categoryCode);
     }
 
+    /**
+     * Retrieves one slice of accounts by their category code.
+     *
+     * @param categoryCode the category code of the accounts to retrieve
+     * @param page the page number to retrieve (default is 0)
+     * @param size the number of records per page (default is 100)
+     * @param sort the field to sort by (default is "idencomp")
+     * @return a ResponseEntity containing a slice of CompteDTO objects
+     */
+    @GetMapping("/category/{categoryCode}/paged")
+    public ResponseEntity<Slice<CompteDTO>> findCompteByCategoryCodePaged(
+            @PathVariable BigDecimal categoryCode,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = "idencomp") String sort) {
+        log.info("Getting compte by Category Code : {} with pagination: page={}, size={}, sort={}",
+                categoryCode, page, size, sort);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sort));
+        return ResponseEntity.ok(compteService.getComptesByCategory(categoryCode, pageable));
+    }
+
+    /**
+     * Streams all accounts with the given category code as NDJSON (one JSON account per line),
+     * written to the response as they are read from the database.
+     *
+     * @param categoryCode the category code of the accounts to retrieve
+     * @return a ResponseEntity streaming the accounts, ordered by ID
+     */
+    @GetMapping(value = "/category/{categoryCode}/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamCompteByCategoryCode(@PathVariable BigDecimal categoryCode) {
+        log.info("Streaming compte by Category Code : {} ", categoryCode);
+        return ndjson(consumer -> compteService.streamComptesByCategory(categoryCode, consumer));
+    }
+
     /**
      * Retrieves accounts by their opening date.
+     * Bounded server-side: when more accounts match, the request is rejected (400) and the
+     * paged or streamed endpoint must be used.
      *
      * @param openingDate the opening date of the accounts to retrieve
      * @return a list of CompteDTO objects representing the accounts with the specified opening date
@@ -88,4 +137,55 @@ public class CompteController {
         return compteService.getComptesByDateOuverture(openingDate);
     }
 
+    /**
+     * Retrieves one slice of accounts opened on or after the given date.
+     *
+     * @param openingDate the opening date of the accounts to retrieve
+     * @param page the page number to retrieve (default is 0)
+     * @param size the number of records per page (default is 100)
+     * @return a ResponseEntity containing a slice of CompteDTO objects, ordered by opening date then ID
+     */
+    @GetMapping("/by-date/paged")
+    public ResponseEntity<Slice<CompteDTO>> findCompteByDateOuverturePaged(
+            @RequestParam("opndate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate openingDate,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        log.info("Getting compte by Opening Date : {} with pagination: page={}, size={}", openingDate, page, size);
+        Pageable pageable = PageRequest.of(page, size, Sort.by("dateouve", "idencomp"));
+        return ResponseEntity.ok(compteService.getComptesByDateOuverture(openingDate, pageable));
+    }
+
+    /**
+     * Streams all accounts opened on or after the given date as NDJSON (one JSON account per line),
+     * written to the response as they are read from the database.
+     *
+     * @param openingDate the opening date of the accounts to retrieve
+     * @return a ResponseEntity streaming the accounts, ordered by opening date then ID
+     */
+    @GetMapping(value = "/by-date/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamCompteByDateOuverture(
+            @RequestParam("opndate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate openingDate) {
+        log.info("Streaming compte by Opening Date : {} ", openingDate);
+        return ndjson(consumer -> compteService.streamComptesByDateOuverture(openingDate, consumer));
+    }
+
+    /**
+     * Builds an NDJSON response: each account handed over by the source is written as one line.
+     * Lines are not flushed one by one; the servlet buffer sends them in chunks.
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<CompteDTO>> source) {
+        ObjectWriter writer = objectMapper.writerFor(CompteDTO.class);
+        StreamingResponseBody body = outputStream -> source.accept(compte -> {
+            try {
+                outputStream.write(writer.writeValueAsBytes(compte));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+
 }
@@ -0,0 +1,22 @@
+package com.albaridbank.BankinApp.dtos;
+
+import java.math.BigDecimal;
+
+/**
+ * Lightweight client view for list screens: ID, name and status only.
+ * Spring Data interface projection, filled from the columns of the "client" table
+ * without loading the entity nor its accounts, addresses and references.
+ * Property names match those of {@link ClientDTO}.
+ *
+ * @author Mohamed Amine Eddafir
+ */
+public interface ClientSummary {
+
+    BigDecimal getClientId();
+
+    String getLastName();
+
+    String getFirstName();
+
+    Integer getStatus();
+}
@@ -0,0 +1,18 @@
+package com.albaridbank.BankinApp.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a non-paged list query matches more rows than the server allows in a single response.
+ * Mapped to HTTP 400: the caller must narrow the criteria or use the paged or streamed endpoint.
+ *
+ * @author Mohamed Amine Eddafir
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class ResultSizeExceededException extends RuntimeException {
+
+    public ResultSizeExceededException(String message) {
+        super(message);
+    }
+}
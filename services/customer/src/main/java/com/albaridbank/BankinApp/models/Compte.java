@@ -21,7 +21,8 @@ import java.util.List;
 @Entity
 @Table(name = "compte", indexes = {
         @Index(name = "idx_compte_codcatcp", columnList = "codcatcp"),
-        @Index(name = "idx_compte_idenclie", columnList = "idenclie")
+        @Index(name = "idx_compte_idenclie", columnList = "idenclie"),
+        @Index(name = "idx_compte_dateouve", columnList = "dateouve")
 })
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,11 +1,18 @@
 package com.albaridbank.BankinApp.repositorys;
 
+import com.albaridbank.BankinApp.dtos.ClientSummary;
 import com.albaridbank.BankinApp.models.Client;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -31,6 +38,51 @@ public interface ClientRepository extends JpaRepository<Client, BigDecimal>, Jpa
      */
     List<Client> findByNomraisAndPrenclie(String nomrais, String prenclie);
 
+    /**
+     * Retrieves one page of client IDs, first step of the paged client listing.
+     * Paging and sorting apply to the client rows only, without joined collections.
+     *
+     * @param pageable the pagination and sorting information (client properties)
+     * @return a page of client IDs
+     */
+    @Query(value = "SELECT c.idenclie FROM Client c", countQuery = "SELECT COUNT(c) FROM Client c")
+    Page<BigDecimal> findPageIdenclie(Pageable pageable);
+
+    /**
+     * Retrieves clients by ID with their legal situation, socio-professional category and accounts
+     * in a single query.
+     *
+     * @param ids the IDs of the clients to retrieve
+     * @return the clients, in no particular order
+     */
+    @EntityGraph(attributePaths = {"situationJuridiqu", "cateSocioProf", "comptes"})
+    @Query("SELECT c FROM Client c WHERE c.idenclie IN :ids")
+    List<Client> findAllWithComptesByIdenclieIn(@Param("ids") Collection<BigDecimal> ids);
+
+    /**
+     * Retrieves clients by ID with their address links in a single query. Called after
+     * {@link #findAllWithComptesByIdenclieIn(Collection)} in the same transaction, it initializes the
+     * addresses of the clients already loaded: both collections are fetched without a cartesian product.
+     *
+     * @param ids the IDs of the clients to retrieve
+     * @return the clients, in no particular order
+     */
+    @EntityGraph(attributePaths = {"adresses"})
+    @Query("SELECT c FROM Client c WHERE c.idenclie IN :ids")
+    List<Client> findAllWithAdressesByIdenclieIn(@Param("ids") Collection<BigDecimal> ids);
+
+    /**
+     * Retrieves one page of client summaries (ID, name, status), read from the client table only:
+     * no entity is loaded and no association is joined.
+     *
+     * @param pageable the pagination and sorting information (client properties)
+     * @return a page of client summaries
+     */
+    @Query(value = "SELECT c.idenclie AS clientId, c.nomrais AS lastName, c.prenclie AS firstName, "
+            + "c.codetati AS status FROM Client c",
+            countQuery = "SELECT COUNT(c) FROM Client c")
+    Page<ClientSummary> findAllSummaries(Pageable pageable);
+
     /*
      * Searches for clients by a partial match on their last name or first name.
      *
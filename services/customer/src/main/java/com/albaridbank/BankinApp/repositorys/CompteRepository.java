@@ -1,13 +1,24 @@
 package com.albaridbank.BankinApp.repositorys;
 
 import com.albaridbank.BankinApp.models.Compte;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface CompteRepository extends JpaRepository<Compte, BigDecimal>, JpaSpecificationExecutor<Compte> {
@@ -20,4 +31,29 @@ public interface CompteRepository extends JpaRepository<Compte, BigDecimal>, Jpa
 
     // Find accounts by branch code
     List<Compte> findByCodebpcpt(BigDecimal codebpcpt);
+
+    // Find one slice of accounts by category, with their client (no count query)
+    @EntityGraph(attributePaths = "client")
+    Slice<Compte> findSliceByCodcatcp(BigDecimal codcatcp, Pageable pageable);
+
+    // Find one slice of accounts opened after a specific date, with their client (no count query)
+    @EntityGraph(attributePaths = "client")
+    Slice<Compte> findSliceByDateouveGreaterThanEqual(LocalDate dateouve, Pageable pageable);
+
+    // Stream accounts by category with their client, read through a JDBC cursor
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Compte c LEFT JOIN FETCH c.client WHERE c.codcatcp = :codcatcp ORDER BY c.idencomp")
+    Stream<Compte> streamByCodcatcp(@Param("codcatcp") BigDecimal codcatcp);
+
+    // Stream accounts opened after a specific date with their client, read through a JDBC cursor
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Compte c LEFT JOIN FETCH c.client WHERE c.dateouve >= :dateouve "
+            + "ORDER BY c.dateouve, c.idencomp")
+    Stream<Compte> streamByDateouveGreaterThanEqual(@Param("dateouve") LocalDate dateouve);
 }
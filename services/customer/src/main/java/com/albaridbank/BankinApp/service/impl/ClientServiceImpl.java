@@ -1,11 +1,14 @@
 package com.albaridbank.BankinApp.service.impl;
 
 import com.albaridbank.BankinApp.dtos.ClientDTO;
+import com.albaridbank.BankinApp.dtos.ClientSummary;
 import com.albaridbank.BankinApp.mappers.ClientMapper;
+import com.albaridbank.BankinApp.models.Client;
 import com.albaridbank.BankinApp.repositorys.ClientRepository;
 import com.albaridbank.BankinApp.service.interfaces.ClientService;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -14,7 +17,10 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of the ClientService interface.
@@ -39,6 +45,10 @@ public class ClientServiceImpl implements ClientService {
     /**
      * Retrieves all clients with pagination.
      *
+     * <p>The page is read in two steps: the page of client IDs, then the clients of the page with their
+     * associations in two bulk queries (references and accounts, then addresses). The number of queries
+     * does not depend on the page size, unlike mapping each client's lazy associations.</p>
+     *
      * @param pageable the pagination information
      * @return a page of ClientDTO objects
      * @throws IllegalArgumentException if pageable is null
@@ -50,13 +60,44 @@ public class ClientServiceImpl implements ClientService {
         Objects.requireNonNull(pageable, "Pageable cannot be null");
 
         try {
-            return clientRepository.findAll(pageable).map(clientMapper::toDto);
+            Page<BigDecimal> ids = clientRepository.findPageIdenclie(pageable);
+            if (ids.isEmpty()) {
+                return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+            }
+
+            Map<BigDecimal, Client> clients = clientRepository.findAllWithComptesByIdenclieIn(ids.getContent())
+                    .stream()
+                    .collect(Collectors.toMap(Client::getIdenclie, Function.identity()));
+            clientRepository.findAllWithAdressesByIdenclieIn(ids.getContent());
+
+            return ids.map(id -> clientMapper.toDto(clients.get(id)));
         } catch (Exception ex) {
             log.error("Error retrieving all clients: {}", ex.getMessage());
             throw new RuntimeException("Failed to retrieve clients", ex);
         }
     }
 
+    /**
+     * Retrieves all clients with pagination, as summaries read from the client columns only.
+     *
+     * @param pageable the pagination information
+     * @return a page of ClientSummary objects
+     * @throws IllegalArgumentException if pageable is null
+     */
+    @Override
+    public Page<ClientSummary> getClientSummaries(Pageable pageable) {
+        log.info("Getting client summaries with pagination: {}", pageable);
+
+        Objects.requireNonNull(pageable, "Pageable cannot be null");
+
+        try {
+            return clientRepository.findAllSummaries(pageable);
+        } catch (Exception ex) {
+            log.error("Error retrieving client summaries: {}", ex.getMessage());
+            throw new RuntimeException("Failed to retrieve client summaries", ex);
+        }
+    }
+
     /**
      * Retrieves a client by their ID.
      *
@@ -1,16 +1,23 @@
 package com.albaridbank.BankinApp.service.impl;
 
 import com.albaridbank.BankinApp.dtos.CompteDTO;
+import com.albaridbank.BankinApp.exceptions.ResultSizeExceededException;
 import com.albaridbank.BankinApp.mappers.CompteMapper;
 import com.albaridbank.BankinApp.models.Compte;
 import com.albaridbank.BankinApp.repositorys.CompteRepository;
 import com.albaridbank.BankinApp.service.interfaces.CompteService;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -18,7 +25,8 @@ import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional(readOnly = true)
@@ -28,6 +36,13 @@ public class CompteServiceImpl implements CompteService {
     private final CompteRepository compteRepository;
     private final CompteMapper compteMapper;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Maximum number of accounts returned by a non-paged list query (or by one page)
+    @Value("${customer.compte.max-results:5000}")
+    private int maxResults;
+
     /**
      * Retrieves all accounts with pagination
      *
@@ -77,10 +92,11 @@ public class CompteServiceImpl implements CompteService {
     }
 
     /**
-     * Retrieves accounts by category code
+     * Retrieves accounts by category code, bounded by the maximum result size
      *
      * @param categoryCode the category code
-     * @return a list of account DTOs
+     * @return a list of account DTOs, ordered by ID
+     * @throws ResultSizeExceededException if more than the maximum number of accounts match
      */
     @Override
     public List<CompteDTO> getComptesByCategory(BigDecimal categoryCode) {
@@ -89,14 +105,45 @@ public class CompteServiceImpl implements CompteService {
         Objects.requireNonNull(categoryCode, "Category code cannot be null");
 
         try {
-            List<Compte> comptes = compteRepository.findCompteByCodcatcp(categoryCode);
+            Slice<Compte> comptes = compteRepository.findSliceByCodcatcp(categoryCode,
+                    PageRequest.of(0, maxResults, Sort.by("idencomp")));
 
+            if (comptes.hasNext()) {
+                throw new ResultSizeExceededException("More than " + maxResults + " comptes for category code "
+                        + categoryCode + ": use the paged or streamed endpoint");
+            }
             if (comptes.isEmpty()) {
                 log.info("No comptes found for category code: {}", categoryCode);
                 return Collections.emptyList();
             }
 
-            return compteMapper.toDtoList(comptes);
+            return compteMapper.toDtoList(comptes.getContent());
+        } catch (ResultSizeExceededException ex) {
+            // Rethrow ResultSizeExceededException as is
+            throw ex;
+        } catch (Exception ex) {
+            log.error("Error retrieving comptes for category {}: {}", categoryCode, ex.getMessage());
+            throw new RuntimeException("Failed to retrieve comptes by category", ex);
+        }
+    }
+
+    /**
+     * Retrieves one slice of accounts by category code
+     *
+     * @param categoryCode the category code
+     * @param pageable     the pagination information
+     * @return a slice of account DTOs
+     */
+    @Override
+    public Slice<CompteDTO> getComptesByCategory(BigDecimal categoryCode, Pageable pageable) {
+        log.info("Getting compte by Category Code: {} with pagination: {}", categoryCode, pageable);
+
+        Objects.requireNonNull(categoryCode, "Category code cannot be null");
+        Objects.requireNonNull(pageable, "Pageable cannot be null");
+
+        try {
+            return compteRepository.findSliceByCodcatcp(categoryCode, capPageSize(pageable))
+                    .map(compteMapper::toDto);
         } catch (Exception ex) {
             log.error("Error retrieving comptes for category {}: {}", categoryCode, ex.getMessage());
             throw new RuntimeException("Failed to retrieve comptes by category", ex);
@@ -104,10 +151,32 @@ public class CompteServiceImpl implements CompteService {
     }
 
     /**
-     * Retrieves accounts opened after the specified date
+     * Streams accounts by category code through a JDBC cursor; each account is detached once
+     * handed to the consumer, so memory does not grow with the number of accounts
+     *
+     * @param categoryCode the category code
+     * @param consumer     receives each account DTO
+     */
+    @Override
+    public void streamComptesByCategory(BigDecimal categoryCode, Consumer<CompteDTO> consumer) {
+        log.info("Streaming comptes by Category Code: {}", categoryCode);
+
+        Objects.requireNonNull(categoryCode, "Category code cannot be null");
+
+        try (Stream<Compte> comptes = compteRepository.streamByCodcatcp(categoryCode)) {
+            comptes.forEach(compte -> {
+                consumer.accept(compteMapper.toDto(compte));
+                detach(compte);
+            });
+        }
+    }
+
+    /**
+     * Retrieves accounts opened after the specified date, bounded by the maximum result size
      *
      * @param openingDate the opening date
-     * @return a list of account DTOs
+     * @return a list of account DTOs, ordered by opening date then ID
+     * @throws ResultSizeExceededException if more than the maximum number of accounts match
      */
     @Override
     public List<CompteDTO> getComptesByDateOuverture(LocalDate openingDate) {
@@ -116,17 +185,84 @@ public class CompteServiceImpl implements CompteService {
         Objects.requireNonNull(openingDate, "Opening date cannot be null");
 
         try {
-            List<Compte> comptes = compteRepository.findByDateouveGreaterThanEqual(openingDate);
+            Slice<Compte> comptes = compteRepository.findSliceByDateouveGreaterThanEqual(openingDate,
+                    PageRequest.of(0, maxResults, Sort.by("dateouve", "idencomp")));
 
+            if (comptes.hasNext()) {
+                throw new ResultSizeExceededException("More than " + maxResults + " comptes opened after "
+                        + openingDate + ": use the paged or streamed endpoint");
+            }
             if (comptes.isEmpty()) {
                 log.info("No comptes found with opening date after: {}", openingDate);
                 return Collections.emptyList();
             }
 
-            return compteMapper.toDtoList(comptes);
+            return compteMapper.toDtoList(comptes.getContent());
+        } catch (ResultSizeExceededException ex) {
+            // Rethrow ResultSizeExceededException as is
+            throw ex;
         } catch (Exception ex) {
             log.error("Error retrieving comptes with opening date after {}: {}", openingDate, ex.getMessage());
             throw new RuntimeException("Failed to retrieve comptes by opening date", ex);
         }
     }
+
+    /**
+     * Retrieves one slice of accounts opened after the specified date
+     *
+     * @param openingDate the opening date
+     * @param pageable    the pagination information
+     * @return a slice of account DTOs
+     */
+    @Override
+    public Slice<CompteDTO> getComptesByDateOuverture(LocalDate openingDate, Pageable pageable) {
+        log.info("Getting compte by Date Ouverture: {} with pagination: {}", openingDate, pageable);
+
+        Objects.requireNonNull(openingDate, "Opening date cannot be null");
+        Objects.requireNonNull(pageable, "Pageable cannot be null");
+
+        try {
+            return compteRepository.findSliceByDateouveGreaterThanEqual(openingDate, capPageSize(pageable))
+                    .map(compteMapper::toDto);
+        } catch (Exception ex) {
+            log.error("Error retrieving comptes with opening date after {}: {}", openingDate, ex.getMessage());
+            throw new RuntimeException("Failed to retrieve comptes by opening date", ex);
+        }
+    }
+
+    /**
+     * Streams accounts opened after the specified date through a JDBC cursor; each account is
+     * detached once handed to the consumer, so memory does not grow with the number of accounts
+     *
+     * @param openingDate the opening date
+     * @param consumer    receives each account DTO
+     */
+    @Override
+    public void streamComptesByDateOuverture(LocalDate openingDate, Consumer<CompteDTO> consumer) {
+        log.info("Streaming comptes by Date Ouverture: {}", openingDate);
+
+        Objects.requireNonNull(openingDate, "Opening date cannot be null");
+
+        try (Stream<Compte> comptes = compteRepository.streamByDateouveGreaterThanEqual(openingDate)) {
+            comptes.forEach(compte -> {
+                consumer.accept(compteMapper.toDto(compte));
+                detach(compte);
+            });
+        }
+    }
+
+    // Caps the requested page size to the maximum result size
+    private Pageable capPageSize(Pageable pageable) {
+        return pageable.getPageSize() > maxResults
+                ? PageRequest.of(pageable.getPageNumber(), maxResults, pageable.getSort())
+                : pageable;
+    }
+
+    // Detaches a streamed account (and its client) from the persistence context
+    private void detach(Compte compte) {
+        if (compte.getClient() != null) {
+            entityManager.detach(compte.getClient());
+        }
+        entityManager.detach(compte);
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.albaridbank.BankinApp.service.interfaces;
 
 import com.albaridbank.BankinApp.dtos.ClientDTO;
+import com.albaridbank.BankinApp.dtos.ClientSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -22,6 +23,14 @@ public interface ClientService {
      */
     Page<ClientDTO> getAllCli(Pageable pageable);
 
+    /**
+     * Retrieves all clients with pagination, as summaries (ID, name, status) for list views.
+     *
+     * @param pageable the pagination information
+     * @return a page of ClientSummary objects
+     */
+    Page<ClientSummary> getClientSummaries(Pageable pageable);
+
     /**
      * Retrieves a client by their ID.
      *
@@ -3,10 +3,12 @@ package com.albaridbank.BankinApp.service.interfaces;
 import com.albaridbank.BankinApp.dtos.CompteDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service interface for managing account-related operations.
@@ -33,18 +35,54 @@ public interface CompteService {
     CompteDTO getComptesByIdenComp(BigDecimal compteId);
 
     /**
-     * Retrieves accounts by their category code.
+     * Retrieves accounts by their category code, up to the server-side maximum result size.
      *
      * @param categoryCode the category code of the accounts to retrieve
      * @return a list of CompteDTO objects representing the accounts with the specified category code
+     * @throws com.albaridbank.BankinApp.exceptions.ResultSizeExceededException if more accounts match
      */
     List<CompteDTO> getComptesByCategory(BigDecimal categoryCode);
 
     /**
-     * Retrieves accounts by their opening date.
+     * Retrieves one slice of accounts by their category code.
+     *
+     * @param categoryCode the category code of the accounts to retrieve
+     * @param pageable     the pagination information (page size capped to the maximum result size)
+     * @return a slice of CompteDTO objects
+     */
+    Slice<CompteDTO> getComptesByCategory(BigDecimal categoryCode, Pageable pageable);
+
+    /**
+     * Streams all accounts with the given category code, ordered by ID, one by one.
+     *
+     * @param categoryCode the category code of the accounts to retrieve
+     * @param consumer     receives each account
+     */
+    void streamComptesByCategory(BigDecimal categoryCode, Consumer<CompteDTO> consumer);
+
+    /**
+     * Retrieves accounts by their opening date, up to the server-side maximum result size.
      *
      * @param openingDate the opening date of the accounts to retrieve
      * @return a list of CompteDTO objects representing the accounts with the specified opening date
+     * @throws com.albaridbank.BankinApp.exceptions.ResultSizeExceededException if more accounts match
      */
     List<CompteDTO> getComptesByDateOuverture(LocalDate openingDate);
+
+    /**
+     * Retrieves one slice of accounts opened on or after the given date.
+     *
+     * @param openingDate the opening date of the accounts to retrieve
+     * @param pageable    the pagination information (page size capped to the maximum result size)
+     * @return a slice of CompteDTO objects
+     */
+    Slice<CompteDTO> getComptesByDateOuverture(LocalDate openingDate, Pageable pageable);
+
+    /**
+     * Streams all accounts opened on or after the given date, ordered by opening date then ID, one by one.
+     *
+     * @param openingDate the opening date of the accounts to retrieve
+     * @param consumer    receives each account
+     */
+    void streamComptesByDateOuverture(LocalDate openingDate, Consumer<CompteDTO> consumer);
 }
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.albaridbank.BankinApp.service;
+
+import com.albaridbank.BankinApp.dtos.ClientDTO;
+import com.albaridbank.BankinApp.dtos.ClientSummary;
+import com.albaridbank.BankinApp.service.interfaces.ClientService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Nombre de requêtes de la liste paginée des clients ({@link ClientService#getAllCli}), compté par
+ * les statistiques Hibernate sur une base PostgreSQL embarquée : les associations des clients de
+ * la page sont lues en bloc, le nombre de requêtes ne dépend pas de la taille de la page.
+ */
+@SpringBootTest(properties = {
+        "spring.config.import=",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "management.tracing.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ClientServiceStatementCountTest {
+
+    private static final int CLIENTS = 200;
+    private static final int COMPTES_PAR_CLIENT = 3;
+    private static final int ADRESSES_PAR_CLIENT = 2;
+
+    private static final EmbeddedPostgres POSTGRES = demarrerPostgres();
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static EmbeddedPostgres demarrerPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @BeforeAll
+    void charger() {
+        jdbcTemplate.update("""
+                INSERT INTO situation_juridiqu (codsitju, libesitu)
+                SELECT g, 'SITUATION ' || g FROM generate_series(1, 5) g
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO cate_socio_prof (codsocpr, libsocpr, cofacasp, datdebeff)
+                SELECT g, 'CATEGORIE ' || g, 1, DATE '2000-01-01' FROM generate_series(1, 10) g
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO client (idenclie, cateclie, nomrais, prenclie, situjuri, codsocpr, codetati,
+                    cliefiab, cliepros)
+                SELECT g, 1, 'CLIENT ' || lpad(g::text, 5, '0'), 'PRENOM ' || g, 1 + g % 5, 1 + g % 10, 1, 1, 0
+                FROM generate_series(1, ?) g
+                """, CLIENTS);
+        jdbcTemplate.update("""
+                INSERT INTO compte (idencomp, codcatcp, codscatcp, idenclie, inticomp, dateouve, codetacp,
+                    codebpcpt, usrgestcp)
+                SELECT c * 10 + n, 1, 1, c, 'COMPTE ' || c || '-' || n, DATE '2020-01-01', 'N', 10001, 'GEST'
+                FROM generate_series(1, ?) c, generate_series(1, ?) n
+                """, CLIENTS, COMPTES_PAR_CLIENT);
+        jdbcTemplate.update("""
+                INSERT INTO adresse_link (idenclie, codtypad, codcatad, intitule1)
+                SELECT c, 'DO', lpad(n::text, 2, '0'), 'RUE ' || c
+                FROM generate_series(1, ?) c, generate_series(1, ?) n
+                """, CLIENTS, ADRESSES_PAR_CLIENT);
+    }
+
+    @AfterAll
+    void arreter() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    void pageDeClientsEnNombreDeRequetesConstant() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        long requetesPage10 = requetesPage(statistics, 10);
+        long requetesPage50 = requetesPage(statistics, 50);
+
+        assertEquals(requetesPage10, requetesPage50, "Requêtes pour une page de 10 puis de 50 clients");
+        // Identifiants de la page, comptage, clients avec références et comptes, adresses
+        assertTrue(requetesPage50 <= 4, "Requêtes pour une page de 50 clients: " + requetesPage50);
+    }
+
+    @Test
+    void resumesDeClientsSansEntiteNiJointure() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<ClientSummary> page = clientService.getClientSummaries(PageRequest.of(1, 50, Sort.by("nomrais")));
+
+        // Page des résumés et comptage, sans chargement d'entité
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(CLIENTS, page.getTotalElements());
+        assertEquals(jdbcTemplate.queryForList(
+                "SELECT nomrais FROM client ORDER BY nomrais OFFSET 50 LIMIT 50", String.class),
+                page.getContent().stream().map(ClientSummary::getLastName).toList());
+        assertEquals(Set.of("clientId", "lastName", "firstName", "status"),
+                objectMapper.valueToTree(page.getContent().get(0)).properties().stream()
+                        .map(Map.Entry::getKey).collect(Collectors.toSet()),
+                "Propriétés JSON d'un résumé de client");
+    }
+
+    private long requetesPage(Statistics statistics, int taille) {
+        statistics.clear();
+        Page<ClientDTO> page = clientService.getAllCli(PageRequest.of(1, taille, Sort.by("nomrais")));
+        long requetes = statistics.getPrepareStatementCount();
+
+        assertEquals(CLIENTS, page.getTotalElements());
+        List<String> noms = page.getContent().stream().map(ClientDTO::getLastName).toList();
+        assertEquals(jdbcTemplate.queryForList(
+                "SELECT nomrais FROM client ORDER BY nomrais OFFSET ? LIMIT ?", String.class, taille, taille), noms,
+                "Clients de la page, dans l'ordre du tri");
+        assertTrue(page.getContent().stream().allMatch(client ->
+                        client.getAccounts().size() == COMPTES_PAR_CLIENT
+                                && client.getAddresses().size() == ADRESSES_PAR_CLIENT
+                                && client.getLegalSituationName() != null
+                                && client.getSocioProfessionalName() != null),
+                "Comptes, adresses et références de chaque client");
+        return requetes;
+    }
+}
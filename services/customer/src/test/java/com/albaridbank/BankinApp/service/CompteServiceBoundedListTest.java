@@ -0,0 +1,163 @@
+package com.albaridbank.BankinApp.service;
+
+import com.albaridbank.BankinApp.dtos.CompteDTO;
+import com.albaridbank.BankinApp.exceptions.ResultSizeExceededException;
+import com.albaridbank.BankinApp.service.interfaces.CompteService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Listes de comptes par catégorie et par date d'ouverture sur une base PostgreSQL embarquée :
+ * les anciens endpoints sont bornés côté serveur, les variantes paginées plafonnent la taille de page
+ * et les variantes NDJSON renvoient tous les comptes, ligne par ligne.
+ */
+@SpringBootTest(properties = {
+        "spring.config.import=",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "management.tracing.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "customer.compte.max-results=" + CompteServiceBoundedListTest.MAX_RESULTS
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CompteServiceBoundedListTest {
+
+    static final int MAX_RESULTS = 100;
+
+    private static final BigDecimal GRANDE_CATEGORIE = BigDecimal.ONE;
+    private static final BigDecimal PETITE_CATEGORIE = BigDecimal.valueOf(2);
+    private static final int COMPTES_GRANDE_CATEGORIE = 300;
+    private static final int COMPTES_PETITE_CATEGORIE = 40;
+
+    private static final EmbeddedPostgres POSTGRES = demarrerPostgres();
+
+    @Autowired
+    private CompteService compteService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static EmbeddedPostgres demarrerPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @BeforeAll
+    void charger() {
+        jdbcTemplate.update("""
+                INSERT INTO client (idenclie, cateclie, nomrais, prenclie, cliefiab, cliepros)
+                SELECT g, 1, 'CLIENT ' || g, 'PRENOM ' || g, 1, 0 FROM generate_series(1, 20) g
+                """);
+        // Comptes de la grande catégorie ouverts en 2020, ceux de la petite en 2024
+        jdbcTemplate.update("""
+                INSERT INTO compte (idencomp, codcatcp, codscatcp, idenclie, inticomp, dateouve, codetacp,
+                    codebpcpt, usrgestcp)
+                SELECT g, CASE WHEN g <= ? THEN 1 ELSE 2 END, 1, 1 + g % 20, 'COMPTE ' || g,
+                    CASE WHEN g <= ? THEN DATE '2020-01-01' + g ELSE DATE '2024-01-01' + g END, 'N', 10001, 'GEST'
+                FROM generate_series(1, ?) g
+                """, COMPTES_GRANDE_CATEGORIE, COMPTES_GRANDE_CATEGORIE,
+                COMPTES_GRANDE_CATEGORIE + COMPTES_PETITE_CATEGORIE);
+    }
+
+    @AfterAll
+    void arreter() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    void listesNonPagineesBornees() {
+        List<CompteDTO> petiteCategorie = compteService.getComptesByCategory(PETITE_CATEGORIE);
+        assertEquals(COMPTES_PETITE_CATEGORIE, petiteCategorie.size());
+        assertTrue(petiteCategorie.stream().allMatch(compte -> compte.getClientLastName() != null));
+        assertEquals(COMPTES_PETITE_CATEGORIE,
+                compteService.getComptesByDateOuverture(LocalDate.of(2024, 1, 1)).size());
+
+        assertThrows(ResultSizeExceededException.class, () -> compteService.getComptesByCategory(GRANDE_CATEGORIE));
+        assertThrows(ResultSizeExceededException.class,
+                () -> compteService.getComptesByDateOuverture(LocalDate.of(2000, 1, 1)));
+    }
+
+    @Test
+    void pagesPlafonnees() {
+        Slice<CompteDTO> page = compteService.getComptesByCategory(GRANDE_CATEGORIE,
+                PageRequest.of(0, 1_000, Sort.by("idencomp")));
+        assertEquals(MAX_RESULTS, page.getNumberOfElements());
+        assertTrue(page.hasNext());
+
+        List<CompteDTO> comptes = new ArrayList<>();
+        Slice<CompteDTO> tranche = compteService.getComptesByDateOuverture(LocalDate.of(2000, 1, 1),
+                PageRequest.of(0, MAX_RESULTS, Sort.by("dateouve", "idencomp")));
+        comptes.addAll(tranche.getContent());
+        while (tranche.hasNext()) {
+            tranche = compteService.getComptesByDateOuverture(LocalDate.of(2000, 1, 1), tranche.nextPageable());
+            comptes.addAll(tranche.getContent());
+        }
+        assertEquals(COMPTES_GRANDE_CATEGORIE + COMPTES_PETITE_CATEGORIE, comptes.size());
+    }
+
+    @Test
+    void fluxNdjsonComplet() throws Exception {
+        MvcResult demarre = mockMvc.perform(get("/api/v1/compte/category/{categoryCode}/stream", GRANDE_CATEGORIE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String corps = mockMvc.perform(asyncDispatch(demarre))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lignes = corps.split("\n");
+        assertEquals(COMPTES_GRANDE_CATEGORIE, lignes.length);
+        assertTrue(lignes[0].startsWith("{\"compteId\":\"1\""), lignes[0]);
+        assertTrue(lignes[lignes.length - 1].startsWith("{\"compteId\":\"" + COMPTES_GRANDE_CATEGORIE + "\""),
+                lignes[lignes.length - 1]);
+
+        mockMvc.perform(get("/api/v1/compte/category/{categoryCode}", GRANDE_CATEGORIE))
+                .andExpect(status().isBadRequest());
+    }
+}